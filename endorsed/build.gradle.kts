@@ -211,6 +211,7 @@ tasks.test {
         setExceptionFormat("FULL")
     }
     systemProperty("java.awt.headless", "true")
+    systemProperty("org.apache.sis.referencing.areaOfInterestResolution", "1")
     systemProperty("junit.jupiter.execution.parallel.enabled", "true")
     systemProperty("junit.jupiter.execution.parallel.mode.default", "concurrent")
     systemProperty("junit.jupiter.execution.parallel.mode.classes.default", "concurrent")
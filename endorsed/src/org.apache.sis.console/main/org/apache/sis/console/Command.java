@@ -48,6 +48,7 @@ import org.apache.sis.system.Environment;
  * <tr><td>{@code info}       </td><td>Show resource-specific information (e.g., grid geometry).</td></tr>
  * <tr><td>{@code transform}  </td><td>Convert or transform coordinates from given source CRS to target CRS.</td></tr>
  * <tr><td>{@code translate}  </td><td>Rewrite a data file in another format.</td></tr>
+ * <tr><td>{@code snapshot}   </td><td>Write a snapshot of the geodetic objects of an authority (EPSG by default).</td></tr>
  * </table></blockquote>
  *
  * Each command can accepts some of the following options:
@@ -78,7 +79,7 @@ import org.apache.sis.system.Environment;
  * at the Java Virtual Machine startup time. See {@linkplain org.apache.sis.console package javadoc} for more information.
  *
  * @author  Martin Desruisseaux (Geomatys)
- * @version 1.5
+ * @version 1.7
  * @since   0.3
  */
 public final class Command {
@@ -173,6 +174,7 @@ public final class Command {
                 case "identifier": command = new IdentifierCommand(commandIndex, args); break;
                 case "transform":  command = new TransformCommand (commandIndex, args); break;
                 case "translate":  command = new TranslateCommand (commandIndex, args); break;
+                case "snapshot":   command = new SnapshotCommand  (commandIndex, args); break;
                 default: throw new InvalidCommandException(Errors.format(
                             Errors.Keys.UnknownCommand_1, commandName), commandName);
             }
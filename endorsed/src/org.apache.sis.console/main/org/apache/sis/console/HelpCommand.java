@@ -41,7 +41,8 @@ final class HelpCommand extends CommandRunner {
         "crs",
         "identifier",
         "transform",
-        "translate"
+        "translate",
+        "snapshot"
     };
 
     /**
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.console;
+
+import java.util.Set;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import org.opengis.referencing.crs.CRSAuthorityFactory;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.CoordinateOperation;
+import org.apache.sis.referencing.CRS;
+import org.apache.sis.referencing.factory.GeodeticAuthorityFactory;
+import org.apache.sis.referencing.factory.SnapshotAuthorityFactory;
+import org.apache.sis.util.resources.Errors;
+import org.apache.sis.util.internal.shared.Constants;
+
+
+/**
+ * The "snapshot" sub-command.
+ * This sub-command writes all <abbr>CRS</abbr> and coordinate operations of an authority
+ * (<abbr>EPSG</abbr> by default) in a file which can be read by {@link SnapshotAuthorityFactory}.
+ * The output is determined only by the authority dataset and the Apache SIS version,
+ * so the same snapshot can be recreated on any machine. Example:
+ *
+ * {@snippet lang="shell" :
+ *   sis snapshot --output EPSG.snapshot EPSG
+ *   }
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+final class SnapshotCommand extends CommandRunner {
+    /**
+     * Creates the {@code "snapshot"} sub-command.
+     *
+     * @param  commandIndex  index of the {@code arguments} element containing the {@code "snapshot"} command name, or -1 if none.
+     * @param  arguments     the command-line arguments provided by the user.
+     * @throws InvalidOptionException if an illegal option has been provided, or the option has an illegal value.
+     */
+    SnapshotCommand(final int commandIndex, final Object[] arguments) throws InvalidOptionException {
+        super(commandIndex, arguments, EnumSet.of(Option.OUTPUT, Option.HELP, Option.DEBUG));
+    }
+
+    /**
+     * Writes the snapshot.
+     *
+     * @return 0 on success, or an exit code if the command failed for a reason other than an uncaught Java exception.
+     * @throws Exception if an error occurred while executing the sub-command.
+     */
+    @Override
+    public int run() throws Exception {
+        if (hasUnexpectedFileCount(0, 1)) {
+            return Command.INVALID_ARGUMENT_EXIT_CODE;
+        }
+        getMandatoryOption(Option.OUTPUT);
+        final String authority = files.isEmpty() ? Constants.EPSG : files.get(0).toString();
+        final CRSAuthorityFactory factory = CRS.getAuthorityFactory(authority);
+        if (!(factory instanceof GeodeticAuthorityFactory)) {
+            err.println(Errors.format(Errors.Keys.IllegalArgumentClass_2, authority, factory.getClass()));
+            return Command.INVALID_ARGUMENT_EXIT_CODE;
+        }
+        final var source = (GeodeticAuthorityFactory) factory;
+        final var codes = new LinkedHashSet<String>(source.getAuthorityCodes(CoordinateReferenceSystem.class));
+        codes.addAll(source.getAuthorityCodes(CoordinateOperation.class));
+        final Set<String> omitted = SnapshotAuthorityFactory.write(source, codes, getOptionAsPath(Option.OUTPUT));
+        for (final String code : omitted) {
+            err.println(Errors.format(Errors.Keys.CanNotCopy_1, code));
+        }
+        return 0;
+    }
+}
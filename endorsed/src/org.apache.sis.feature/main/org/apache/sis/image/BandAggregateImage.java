@@ -29,6 +29,7 @@ import java.awt.image.WritableRaster;
 import java.awt.image.WritableRenderedImage;
 import org.apache.sis.util.ArraysExt;
 import org.apache.sis.math.Statistics;
+import org.apache.sis.math.Histogram;
 import org.apache.sis.coverage.SampleDimension;
 import org.apache.sis.image.internal.shared.ImageUtilities;
 import org.apache.sis.coverage.internal.shared.BandAggregateArgument;
@@ -281,6 +282,10 @@ class BandAggregateImage extends MultiSourceImage {
                 result = new Statistics[numBands];
                 break;
             }
+            case HISTOGRAMS_KEY: {
+                result = new Histogram[numBands];
+                break;
+            }
             case SAMPLE_RESOLUTIONS_KEY: {
                 var r = new double[numBands];
                 Arrays.fill(r, Double.NaN);
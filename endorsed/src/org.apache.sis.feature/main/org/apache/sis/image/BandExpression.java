@@ -0,0 +1,663 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.image;
+
+import java.util.Map;
+import java.util.Arrays;
+import java.util.Locale;
+import java.awt.image.Raster;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.DoubleBinaryOperator;
+import org.apache.sis.util.CharSequences;
+import org.apache.sis.util.resources.Errors;
+
+
+/**
+ * A pixel-wise arithmetic expression over the bands of an image, parsed from a small language.
+ * The language supports the following elements:
+ *
+ * <ul>
+ *   <li>Band references as {@code b} followed by a zero-based band index, for example {@code b3}.</li>
+ *   <li>Numbers such as {@code 2}, {@code 0.5} or {@code 1E-3}, and the {@code NaN} and {@code PI} constants.</li>
+ *   <li>The {@code +}, {@code -}, {@code *}, {@code /} and {@code ^} (power) operators, with usual precedence.</li>
+ *   <li>Parenthesis and functions of one or two arguments such as {@code abs(x)}, {@code sqrt(x)} or {@code min(x,y)}.</li>
+ * </ul>
+ *
+ * For example the Normalized Difference Vegetation Index (NDVI) can be written {@code (b4 - b3) / (b4 + b3)}.
+ * Identifiers are case-insensitive. Sub-expressions using only constants are evaluated at parsing time.
+ *
+ * <h2>Evaluation strategy</h2>
+ * The expression is compiled in a tree of nodes where each node computes a whole strip of values at once.
+ * Consequently, the cost of traversing the tree is paid once per strip instead of once per pixel,
+ * and each node executes a simple loop over primitive arrays that the JIT compiler can optimize.
+ * The arithmetic operators have one loop per operation in order to avoid a dispatch on each value.
+ *
+ * <p>Instances of this class are immutable and thread-safe.
+ * The mutable state used during evaluation is stored in {@link Evaluator} instances.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ *
+ * @see ImageProcessor#calculate(java.awt.image.RenderedImage, String, DataType, Number...)
+ */
+final class BandExpression {
+    /**
+     * Functions of one argument, identified by their name in lower cases.
+     */
+    private static final Map<String, DoubleUnaryOperator> UNARY_FUNCTIONS = Map.ofEntries(
+            Map.entry("abs",   Math::abs),
+            Map.entry("sign",  Math::signum),
+            Map.entry("sqrt",  Math::sqrt),
+            Map.entry("cbrt",  Math::cbrt),
+            Map.entry("exp",   Math::exp),
+            Map.entry("log",   Math::log),
+            Map.entry("log10", Math::log10),
+            Map.entry("floor", Math::floor),
+            Map.entry("ceil",  Math::ceil),
+            Map.entry("round", Math::rint),
+            Map.entry("sin",   Math::sin),
+            Map.entry("cos",   Math::cos),
+            Map.entry("tan",   Math::tan),
+            Map.entry("asin",  Math::asin),
+            Map.entry("acos",  Math::acos),
+            Map.entry("atan",  Math::atan));
+
+    /**
+     * Functions of two arguments, identified by their name in lower cases.
+     */
+    private static final Map<String, DoubleBinaryOperator> BINARY_FUNCTIONS = Map.of(
+            "min",   Math::min,
+            "max",   Math::max,
+            "pow",   Math::pow,
+            "atan2", Math::atan2,
+            "hypot", Math::hypot);
+
+    /**
+     * The expression as given by the user. Used for formatting and for comparisons.
+     */
+    private final String text;
+
+    /**
+     * The root of the tree of nodes to evaluate.
+     */
+    private final Node root;
+
+    /**
+     * Number of temporary arrays needed for evaluating the {@linkplain #root} node.
+     * This is the number of nodes other than band references.
+     */
+    private final int numBuffers;
+
+    /**
+     * Indices of all bands used by the expression, in increasing order and without duplicated values.
+     */
+    private final int[] bands;
+
+    /**
+     * Source values to replace by {@link Double#NaN} before evaluation, or an empty array if none.
+     */
+    private final double[] nodataValues;
+
+    /**
+     * Parses the given expression.
+     *
+     * @param  text          the expression to parse.
+     * @param  numBands      number of bands in the source image, for verifying band indices.
+     * @param  nodataValues  source values to replace by {@link Double#NaN}, or {@code null} if none.
+     * @throws IllegalArgumentException if the expression cannot be parsed.
+     */
+    BandExpression(final String text, final int numBands, final Number[] nodataValues) {
+        this.text = text;
+        final var parser = new Parser(text, numBands);
+        root = parser.parse();
+        numBuffers = parser.numBuffers;
+        bands = parser.bands();
+        double[] values = new double[0];
+        if (nodataValues != null) {
+            values = new double[nodataValues.length];
+            int n = 0;
+            for (final Number value : nodataValues) {
+                if (value != null) {
+                    final double v = value.doubleValue();
+                    if (!Double.isNaN(v)) values[n++] = v;      // NaN values are already missing values.
+                }
+            }
+            values = Arrays.copyOf(values, n);
+            Arrays.sort(values);
+        }
+        this.nodataValues = values;
+    }
+
+    /**
+     * Creates a new object holding the mutable state needed for evaluating the expression.
+     * Each evaluator shall be used by only one thread at a time.
+     *
+     * @param  capacity  maximal number of values to compute in a single call to {@code evaluate(…)}.
+     * @return a new evaluator.
+     */
+    final Evaluator evaluator(final int capacity) {
+        return new Evaluator(capacity);
+    }
+
+    /**
+     * Holds the temporary arrays used for evaluating an expression on a strip of pixels.
+     */
+    final class Evaluator {
+        /**
+         * Sample values of each band used by the expression. Unused bands are {@code null}.
+         */
+        private final double[][] samples;
+
+        /**
+         * Temporary arrays for the results of each node, indexed by {@link Node#slot}.
+         */
+        private final double[][] buffers;
+
+        /**
+         * Creates a new evaluator for strips of the given number of values.
+         */
+        private Evaluator(final int capacity) {
+            samples = new double[bands[bands.length - 1] + 1][];
+            for (final int band : bands) {
+                samples[band] = new double[capacity];
+            }
+            buffers = new double[numBuffers][capacity];
+        }
+
+        /**
+         * Evaluates the expression on the given region of the given raster.
+         * The returned array is valid only until the next call to this method.
+         *
+         * @param  source  the raster from which to read sample values.
+         * @param  x       column of the upper-left pixel of the region to evaluate.
+         * @param  y       row of the upper-left pixel of the region to evaluate.
+         * @param  width   width of the region to evaluate.
+         * @param  height  height of the region to evaluate.
+         * @return evaluation results in row-major order. Length may be greater than the number of pixels.
+         */
+        final double[] evaluate(final Raster source, final int x, final int y, final int width, final int height) {
+            final int length = Math.multiplyExact(width, height);
+            for (final int band : bands) {
+                final double[] values = source.getSamples(x, y, width, height, band, samples[band]);
+                if (nodataValues.length != 0) {
+                    for (int i=0; i<length; i++) {
+                        if (Arrays.binarySearch(nodataValues, values[i]) >= 0) {
+                            values[i] = Double.NaN;
+                        }
+                    }
+                }
+            }
+            return root.evaluate(samples, buffers, length);
+        }
+    }
+
+    /**
+     * Base class of all nodes in the tree of operations.
+     */
+    private abstract static class Node {
+        /**
+         * Index of the array where this node stores its results, or -1 if none.
+         */
+        final int slot;
+
+        /**
+         * Creates a node which will store its results in the given slot.
+         */
+        Node(final int slot) {
+            this.slot = slot;
+        }
+
+        /**
+         * Computes the values of this node.
+         *
+         * @param  samples  sample values of each band, or {@code null} for unused bands.
+         * @param  buffers  temporary arrays where each node can store its results.
+         * @param  length   number of values to compute.
+         * @return the array where results have been stored.
+         */
+        abstract double[] evaluate(double[][] samples, double[][] buffers, int length);
+    }
+
+    /**
+     * A reference to the sample values of a band.
+     */
+    private static final class Band extends Node {
+        /** Index of the band. */
+        final int band;
+
+        /** Creates a reference to the given band. */
+        Band(final int band) {
+            super(-1);
+            this.band = band;
+        }
+
+        /** Returns the sample values of the band. */
+        @Override double[] evaluate(double[][] samples, double[][] buffers, int length) {
+            return samples[band];
+        }
+    }
+
+    /**
+     * A constant value.
+     */
+    private static final class Constant extends Node {
+        /** The constant value. */
+        final double value;
+
+        /** Creates a constant which will be stored in the given slot. */
+        Constant(final int slot, final double value) {
+            super(slot);
+            this.value = value;
+        }
+
+        /** Fills the buffer with the constant value. */
+        @Override double[] evaluate(double[][] samples, double[][] buffers, int length) {
+            final double[] result = buffers[slot];
+            Arrays.fill(result, 0, length, value);
+            return result;
+        }
+    }
+
+    /**
+     * The arithmetic operators, with one loop specialized for each operation.
+     */
+    private enum Operator {
+        ADD, SUBTRACT, MULTIPLY, DIVIDE, POWER;
+
+        /** Applies this operation on a single pair of values. Used for constant folding. */
+        final double apply(final double a, final double b) {
+            switch (this) {
+                case ADD:      return a + b;
+                case SUBTRACT: return a - b;
+                case MULTIPLY: return a * b;
+                case DIVIDE:   return a / b;
+                case POWER:    return Math.pow(a, b);
+                default: throw new AssertionError(this);
+            }
+        }
+    }
+
+    /**
+     * An arithmetic operation between two nodes.
+     */
+    private static final class Arithmetic extends Node {
+        /** The operation to apply. */
+        private final Operator operator;
+
+        /** The operands. */
+        private final Node left, right;
+
+        /** Creates a new operation which will store its result in the given slot. */
+        Arithmetic(final int slot, final Operator operator, final Node left, final Node right) {
+            super(slot);
+            this.operator = operator;
+            this.left     = left;
+            this.right    = right;
+        }
+
+        /** Applies the operation on all values, with the switch outside the loops. */
+        @Override double[] evaluate(double[][] samples, double[][] buffers, int length) {
+            final double[] a = left .evaluate(samples, buffers, length);
+            final double[] b = right.evaluate(samples, buffers, length);
+            final double[] r = buffers[slot];
+            switch (operator) {
+                case ADD:      for (int i=0; i<length; i++) r[i] = a[i] + b[i]; break;
+                case SUBTRACT: for (int i=0; i<length; i++) r[i] = a[i] - b[i]; break;
+                case MULTIPLY: for (int i=0; i<length; i++) r[i] = a[i] * b[i]; break;
+                case DIVIDE:   for (int i=0; i<length; i++) r[i] = a[i] / b[i]; break;
+                case POWER:    for (int i=0; i<length; i++) r[i] = Math.pow(a[i], b[i]); break;
+                default: throw new AssertionError(operator);
+            }
+            return r;
+        }
+    }
+
+    /**
+     * The negation of a node.
+     */
+    private static final class Negate extends Node {
+        /** The value to negate. */
+        private final Node operand;
+
+        /** Creates a new negation which will store its result in the given slot. */
+        Negate(final int slot, final Node operand) {
+            super(slot);
+            this.operand = operand;
+        }
+
+        /** Negates all values. */
+        @Override double[] evaluate(double[][] samples, double[][] buffers, int length) {
+            final double[] a = operand.evaluate(samples, buffers, length);
+            final double[] r = buffers[slot];
+            for (int i=0; i<length; i++) r[i] = -a[i];
+            return r;
+        }
+    }
+
+    /**
+     * A function of one argument.
+     */
+    private static final class UnaryFunction extends Node {
+        /** The function to apply. */
+        private final DoubleUnaryOperator function;
+
+        /** The function argument. */
+        private final Node operand;
+
+        /** Creates a new function call which will store its result in the given slot. */
+        UnaryFunction(final int slot, final DoubleUnaryOperator function, final Node operand) {
+            super(slot);
+            this.function = function;
+            this.operand  = operand;
+        }
+
+        /** Applies the function on all values. */
+        @Override double[] evaluate(double[][] samples, double[][] buffers, int length) {
+            final double[] a = operand.evaluate(samples, buffers, length);
+            final double[] r = buffers[slot];
+            for (int i=0; i<length; i++) r[i] = function.applyAsDouble(a[i]);
+            return r;
+        }
+    }
+
+    /**
+     * A function of two arguments.
+     */
+    private static final class BinaryFunction extends Node {
+        /** The function to apply. */
+        private final DoubleBinaryOperator function;
+
+        /** The function arguments. */
+        private final Node left, right;
+
+        /** Creates a new function call which will store its result in the given slot. */
+        BinaryFunction(final int slot, final DoubleBinaryOperator function, final Node left, final Node right) {
+            super(slot);
+            this.function = function;
+            this.left     = left;
+            this.right    = right;
+        }
+
+        /** Applies the function on all pairs of values. */
+        @Override double[] evaluate(double[][] samples, double[][] buffers, int length) {
+            final double[] a = left .evaluate(samples, buffers, length);
+            final double[] b = right.evaluate(samples, buffers, length);
+            final double[] r = buffers[slot];
+            for (int i=0; i<length; i++) r[i] = function.applyAsDouble(a[i], b[i]);
+            return r;
+        }
+    }
+
+    /**
+     * A recursive descent parser for the expression language. The grammar is:
+     *
+     * <pre class="text">
+     *   expression := term (('+' | '-') term)*
+     *   term       := factor (('*' | '/') factor)*
+     *   factor     := ('+' | '-') factor | power
+     *   power      := primary ('^' factor)?
+     *   primary    := number | identifier | identifier '(' expression (',' expression)* ')' | '(' expression ')'</pre>
+     */
+    private static final class Parser {
+        /** The expression to parse. */
+        private final String text;
+
+        /** Number of bands in the source image. */
+        private final int numBands;
+
+        /** Index of the next character to parse. */
+        private int position;
+
+        /** Number of slots allocated for temporary arrays. */
+        int numBuffers;
+
+        /** Whether each band is used by the expression. */
+        private final boolean[] usedBands;
+
+        /** Creates a new parser for the given text. */
+        Parser(final String text, final int numBands) {
+            this.text      = text;
+            this.numBands  = numBands;
+            this.usedBands = new boolean[numBands];
+        }
+
+        /** Returns the indices of all bands used by the expression. */
+        int[] bands() {
+            int n = 0;
+            final int[] bands = new int[numBands];
+            for (int i=0; i<numBands; i++) {
+                if (usedBands[i]) bands[n++] = i;
+            }
+            if (n == 0) {
+                bands[n++] = 0;         // Needed for making `evaluate(…)` work when the expression is a constant.
+            }
+            return Arrays.copyOf(bands, n);
+        }
+
+        /** Parses the whole text and ensures that there are no remaining characters. */
+        Node parse() {
+            final Node node = expression();
+            if (skipSpaces() < text.length()) {
+                throw unexpectedCharacters();
+            }
+            return node;
+        }
+
+        /** Skips white spaces and returns the position of the next character. */
+        private int skipSpaces() {
+            position = CharSequences.skipLeadingWhitespaces(text, position, text.length());
+            return position;
+        }
+
+        /** Returns the next non-space character without consuming it, or 0 if none. */
+        private char peek() {
+            return (skipSpaces() < text.length()) ? text.charAt(position) : 0;
+        }
+
+        /** Consumes the next character if it is the given one. */
+        private boolean accept(final char c) {
+            if (peek() == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        /** Parses {@code term (('+' | '-') term)*}. */
+        private Node expression() {
+            Node node = term();
+            while (true) {
+                if      (accept('+')) node = arithmetic(Operator.ADD,      node, term());
+                else if (accept('-')) node = arithmetic(Operator.SUBTRACT, node, term());
+                else return node;
+            }
+        }
+
+        /** Parses {@code factor (('*' | '/') factor)*}. */
+        private Node term() {
+            Node node = factor();
+            while (true) {
+                if      (accept('*')) node = arithmetic(Operator.MULTIPLY, node, factor());
+                else if (accept('/')) node = arithmetic(Operator.DIVIDE,   node, factor());
+                else return node;
+            }
+        }
+
+        /** Parses {@code ('+' | '-') factor | power}. */
+        private Node factor() {
+            if (accept('+')) {
+                return factor();
+            }
+            if (accept('-')) {
+                final Node operand = factor();
+                if (operand instanceof Constant) {
+                    return new Constant(operand.slot, -((Constant) operand).value);
+                }
+                return new Negate(numBuffers++, operand);
+            }
+            final Node node = primary();
+            if (accept('^')) {
+                return arithmetic(Operator.POWER, node, factor());
+            }
+            return node;
+        }
+
+        /** Parses a number, a band, a constant, a function call or an expression between parenthesis. */
+        private Node primary() {
+            final int start = skipSpaces();
+            if (start >= text.length()) {
+                throw new IllegalArgumentException(Errors.format(Errors.Keys.UnexpectedEndOfString_1, text));
+            }
+            char c = text.charAt(start);
+            if (c == '(') {
+                position++;
+                final Node node = expression();
+                expect(')');
+                return node;
+            }
+            if ((c >= '0' && c <= '9') || c == '.') {
+                return number();
+            }
+            if (!Character.isLetter(c)) {
+                throw unexpectedCharacters();
+            }
+            while (++position < text.length() && Character.isLetterOrDigit(c = text.charAt(position))) {}
+            final String name = text.substring(start, position).toLowerCase(Locale.US);
+            if (accept('(')) {
+                return function(name);
+            }
+            switch (name) {
+                case "nan": return new Constant(numBuffers++, Double.NaN);
+                case "pi":  return new Constant(numBuffers++, Math.PI);
+            }
+            if (name.length() >= 2 && name.charAt(0) == 'b') {
+                final int band;
+                try {
+                    band = Integer.parseInt(name.substring(1));
+                } catch (NumberFormatException e) {
+                    throw unknownKeyword(name, e);
+                }
+                if (band < 0 || band >= numBands) {
+                    throw new IllegalArgumentException(Errors.format(Errors.Keys.IndexOutOfBounds_1, band));
+                }
+                usedBands[band] = true;
+                return new Band(band);
+            }
+            throw unknownKeyword(name, null);
+        }
+
+        /** Parses a number. The first character is known to be a digit or a decimal separator. */
+        private Node number() {
+            final int start = position;
+            final int length = text.length();
+            char c;
+            while (++position < length && (((c = text.charAt(position)) >= '0' && c <= '9') || c == '.')) {}
+            if (position < length && ((c = text.charAt(position)) == 'e' || c == 'E')) {
+                if (++position < length && ((c = text.charAt(position)) == '+' || c == '-')) position++;
+                while (position < length && (c = text.charAt(position)) >= '0' && c <= '9') position++;
+            }
+            final String number = text.substring(start, position);
+            try {
+                return new Constant(numBuffers++, Double.parseDouble(number));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(Errors.format(Errors.Keys.UnparsableStringForClass_2, Double.class, number), e);
+            }
+        }
+
+        /** Parses the arguments of a function call. The opening parenthesis has been consumed. */
+        private Node function(final String name) {
+            final Node first = expression();
+            if (accept(',')) {
+                final Node second = expression();
+                expect(')');
+                final DoubleBinaryOperator function = BINARY_FUNCTIONS.get(name);
+                if (function == null) {
+                    throw unknownKeyword(name, null);
+                }
+                if (first instanceof Constant && second instanceof Constant) {
+                    return new Constant(first.slot, function.applyAsDouble(((Constant) first).value, ((Constant) second).value));
+                }
+                return new BinaryFunction(numBuffers++, function, first, second);
+            }
+            expect(')');
+            final DoubleUnaryOperator function = UNARY_FUNCTIONS.get(name);
+            if (function == null) {
+                throw unknownKeyword(name, null);
+            }
+            if (first instanceof Constant) {
+                return new Constant(first.slot, function.applyAsDouble(((Constant) first).value));
+            }
+            return new UnaryFunction(numBuffers++, function, first);
+        }
+
+        /** Creates an arithmetic node, or a constant if the two operands are constants. */
+        private Node arithmetic(final Operator operator, final Node left, final Node right) {
+            if (left instanceof Constant && right instanceof Constant) {
+                return new Constant(left.slot, operator.apply(((Constant) left).value, ((Constant) right).value));
+            }
+            return new Arithmetic(numBuffers++, operator, left, right);
+        }
+
+        /** Consumes the given character, or throws an exception if the next character is something else. */
+        private void expect(final char c) {
+            if (!accept(c)) {
+                if (position >= text.length()) {
+                    throw new IllegalArgumentException(Errors.format(Errors.Keys.MissingCharacterInElement_2, text, c));
+                }
+                throw unexpectedCharacters();
+            }
+        }
+
+        /** Returns the exception to throw for unexpected characters at current position. */
+        private IllegalArgumentException unexpectedCharacters() {
+            return new IllegalArgumentException(Errors.format(Errors.Keys.UnexpectedCharactersAfter_2,
+                    text.substring(0, position), text.substring(position)));
+        }
+
+        /** Returns the exception to throw for an unknown function or identifier. */
+        private IllegalArgumentException unknownKeyword(final String name, final Exception cause) {
+            return new IllegalArgumentException(Errors.format(Errors.Keys.UnknownKeyword_1, name), cause);
+        }
+    }
+
+    /**
+     * Returns the expression as given by the user.
+     */
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    /**
+     * Returns a hash code value for this expression.
+     */
+    @Override
+    public int hashCode() {
+        return text.hashCode() + 31 * Arrays.hashCode(nodataValues);
+    }
+
+    /**
+     * Compares this expression with the given object for equality.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof BandExpression) {
+            final var other = (BandExpression) object;
+            return text.equals(other.text) && Arrays.equals(nodataValues, other.nodataValues);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.image;
+
+import java.util.Objects;
+import java.awt.Rectangle;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.awt.image.RenderedImage;
+import java.awt.image.BandedSampleModel;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import org.apache.sis.image.internal.shared.ImageUtilities;
+import org.apache.sis.image.internal.shared.ColorScaleBuilder;
+import org.apache.sis.util.Disposable;
+import org.apache.sis.util.resources.Errors;
+
+
+/**
+ * An image where each sample value is computed by an arithmetic expression applied on the bands of the source.
+ * All the operations of the expression are computed in a single pass over each tile, without intermediate images.
+ * Current implementation makes the following simplifications:
+ *
+ * <ul>
+ *   <li>The image has exactly one source and exactly one band.</li>
+ *   <li>Image layout (minimum coordinates, image size, tile grid) is the same as source image layout,
+ *     unless the source has too large tiles in which case {@link ImageLayout} automatically subdivides
+ *     the tile grid in smaller tiles.</li>
+ *   <li>Calculation is performed on {@code double} numbers and stored as {@code float} or {@code double}.</li>
+ * </ul>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ *
+ * @see ImageProcessor#calculate(RenderedImage, String, DataType, Number...)
+ */
+final class BandMathImage extends ComputedImage {
+    /**
+     * The expression to evaluate on each pixel.
+     */
+    private final BandExpression expression;
+
+    /**
+     * The color model for the expected range of values. May be {@code null}.
+     */
+    private final ColorModel colorModel;
+
+    /**
+     * Creates a new image which will compute values using the given expression.
+     *
+     * @param  source       the image providing the sample values used by the expression.
+     * @param  sampleModel  the sample model shared by all tiles in this image.
+     * @param  colorModel   the color model, or {@code null} if none.
+     * @param  expression   the expression to evaluate on each pixel.
+     */
+    private BandMathImage(final RenderedImage source, final BandedSampleModel sampleModel,
+                          final ColorModel colorModel, final BandExpression expression)
+    {
+        super(sampleModel, source);
+        this.colorModel = colorModel;
+        this.expression = expression;
+        ensureCompatible(sampleModel, colorModel);
+    }
+
+    /**
+     * Creates a new image computing the given expression on each pixel of the given source.
+     *
+     * @param  source        the image providing the sample values used by the expression.
+     * @param  layout        object to use for computing tile size.
+     * @param  expression    the expression to evaluate on each pixel.
+     * @param  nodataValues  source values to replace by {@link Double#NaN} before evaluation, or {@code null}.
+     * @param  targetType    the type of sample values in the image to create. Shall be float or double.
+     * @param  colorizer     provider of color model for the expected range of values, or {@code null}.
+     * @return the image which computes the expression on the given source.
+     * @throws IllegalArgumentException if the expression cannot be parsed or the target type is not supported.
+     */
+    static BandMathImage create(RenderedImage          source,
+                                final ImageLayout      layout,
+                                final String           expression,
+                                final Number[]         nodataValues,
+                                final DataType         targetType,
+                                final Colorizer        colorizer)
+    {
+        if (source instanceof RecoloredImage) {
+            source = ((RecoloredImage) source).source;
+        }
+        switch (targetType.toDataBufferType()) {
+            case DataBuffer.TYPE_FLOAT:
+            case DataBuffer.TYPE_DOUBLE: break;
+            default: throw new IllegalArgumentException(Errors.format(
+                            Errors.Keys.IllegalArgumentValue_2, "targetType", targetType));
+        }
+        final var parsed = new BandExpression(expression, ImageUtilities.getNumBands(source), nodataValues);
+        final BandedSampleModel sampleModel = layout.createBandedSampleModel(source, null, targetType, 1, 0);
+        ColorModel colorModel = ColorScaleBuilder.NULL_COLOR_MODEL;
+        if (colorizer != null) {
+            var target = new Colorizer.Target(sampleModel, null, 0);
+            colorModel = colorizer.apply(target).orElse(null);
+        }
+        return new BandMathImage(source, sampleModel, colorModel, parsed);
+    }
+
+    /**
+     * Gets a property from this image. Current implementation forwards the positional properties
+     * to the source image. Other properties are not inherited because the band semantic changed.
+     */
+    @Override
+    public Object getProperty(final String key) {
+        if (SourceAlignedImage.POSITIONAL_PROPERTIES.contains(key)) {
+            return getSource().getProperty(key);
+        }
+        return super.getProperty(key);
+    }
+
+    /**
+     * Returns the names of all recognized properties, or {@code null} if this image has no properties.
+     */
+    @Override
+    public String[] getPropertyNames() {
+        return SourceAlignedImage.filterPropertyNames(
+                getSource().getPropertyNames(),
+                SourceAlignedImage.POSITIONAL_PROPERTIES, null);
+    }
+
+    /**
+     * Returns the color model associated with all rasters of this image.
+     *
+     * @return the color model of this image, or {@code null} if none.
+     */
+    @Override
+    public ColorModel getColorModel() {
+        return colorModel;
+    }
+
+    /** Image bounds and tile indices are the same as the source image. */
+    @Override public int getWidth()    {return getSource().getWidth();}
+    @Override public int getHeight()   {return getSource().getHeight();}
+    @Override public int getMinX()     {return getSource().getMinX();}
+    @Override public int getMinY()     {return getSource().getMinY();}
+    @Override public int getMinTileX() {return getSource().getMinTileX();}
+    @Override public int getMinTileY() {return getSource().getMinTileY();}
+
+    /**
+     * Returns {@code true} since the expression is evaluated on each pixel independently of its neighbors.
+     */
+    @Override
+    boolean isFusable() {
+        return true;
+    }
+
+    /**
+     * Computes the tile at specified indices. The expression is evaluated on strips of a few rows,
+     * with all operations of the expression applied on a strip before to move to the next strip.
+     *
+     * @param  tileX   the column index of the tile to compute.
+     * @param  tileY   the row index of the tile to compute.
+     * @param  target  if the tile already exists but needs to be updated, the tile to update. Otherwise {@code null}.
+     * @return computed tile for the given indices (cannot be null).
+     */
+    @Override
+    protected Raster computeTile(final int tileX, final int tileY, WritableRaster target) {
+        if (target == null) {
+            target = createTile(tileX, tileY);
+        }
+        final RenderedImage source = getSource();
+        final Rectangle region = target.getBounds();
+        ImageUtilities.clipBounds(source, region);
+        final int sx = ImageUtilities.pixelToTileX(source, region.x);
+        final int sy = ImageUtilities.pixelToTileY(source, region.y);
+        final Raster data;
+        if (source.getTileWidth() == target.getWidth() && source.getTileHeight() == target.getHeight()) {
+            data = getSourceTile(source, sx, sy);
+        } else {
+            data = source.getTile(sx, sy);
+        }
+        final int afterLastRow = Transferer.prepareTransferRegion(region, DataBuffer.TYPE_DOUBLE);
+        final int maxHeight = region.height;
+        final BandExpression.Evaluator evaluator = expression.evaluator(region.width * maxHeight);
+        do {
+            region.height = Math.min(maxHeight, afterLastRow - region.y);
+            final double[] values = evaluator.evaluate(data, region.x, region.y, region.width, region.height);
+            target.setSamples(region.x, region.y, region.width, region.height, 0, values);
+        } while ((region.y += region.height) < afterLastRow);
+        return target;
+    }
+
+    /**
+     * Notifies the source image that tiles will be computed soon in the given region.
+     * If the source image is an instance of {@link PlanarImage}, then this method
+     * forwards the notification to it. Otherwise default implementation does nothing.
+     */
+    @Override
+    protected Disposable prefetch(Rectangle tiles) {
+        final RenderedImage source = getSource();
+        if (source instanceof PlanarImage) {
+            tiles = ImageUtilities.convertTileIndices(this, source, tiles);
+            return ((PlanarImage) source).prefetch(tiles);
+        } else {
+            return super.prefetch(tiles);
+        }
+    }
+
+    /**
+     * Returns a hash code value for this image.
+     */
+    @Override
+    public int hashCode() {
+        return hashCodeBase() + 37 * expression.hashCode() + Objects.hashCode(colorModel);
+    }
+
+    /**
+     * Compares the given object with this image for equality.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (equalsBase(object)) {
+            final var other = (BandMathImage) object;
+            return expression.equals(other.expression) && Objects.equals(colorModel, other.colorModel);
+        }
+        return false;
+    }
+}
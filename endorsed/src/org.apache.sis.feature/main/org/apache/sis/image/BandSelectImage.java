@@ -54,7 +54,8 @@ class BandSelectImage extends SourceAlignedImage {
     static final Set<String> REDUCED_PROPERTIES = Set.of(
             SAMPLE_DIMENSIONS_KEY,
             SAMPLE_RESOLUTIONS_KEY,
-            STATISTICS_KEY);
+            STATISTICS_KEY,
+            HISTOGRAMS_KEY);
 
     /**
      * Properties to inherit from the source images, after bands reduction if applicable.
@@ -212,6 +213,15 @@ class BandSelectImage extends SourceAlignedImage {
         return value;
     }
 
+    /**
+     * Returns {@code true} since tiles are views over the source tiles at the same indices.
+     * Computing them on the fly is cheap because no sample value is copied.
+     */
+    @Override
+    final boolean isFusable() {
+        return true;
+    }
+
     /**
      * Creates a raster sharing the same data buffer as the source image but showing only a subset of the bands.
      *
@@ -221,7 +231,7 @@ class BandSelectImage extends SourceAlignedImage {
      */
     @Override
     protected Raster computeTile(final int tileX, final int tileY, final WritableRaster previous) {
-        final Raster parent = getSource().getTile(tileX, tileY);
+        final Raster parent = getSourceTile(getSource(), tileX, tileY);
         final int x = parent.getMinX();
         final int y = parent.getMinY();
         /*
@@ -195,6 +195,57 @@ final class BandedIterator extends WritablePixelIterator {
     @Override public void   setSample(int band, float  value)  {destBuffer.setElemFloat (band, x + xToBuffer, value);}
     @Override public void   setSample(int band, double value)  {destBuffer.setElemDouble(band, x + xToBuffer, value);}
 
+    /**
+     * Reads the sample values of the specified band from the current pixel up to the end of the row segment
+     * in current tile. If the iterator is not in a valid position, then this method behavior is undetermined.
+     */
+    @Override
+    public int readRow(final int band, final int[] dest) {
+        final int length = rowLength(dest.length);
+        final int index = x + xToBuffer;
+        for (int i=0; i<length; i++) {
+            dest[i] = buffer.getElem(band, index + i);
+        }
+        if (length != 0) {
+            x += length - 1;
+        }
+        return length;
+    }
+
+    /**
+     * Reads the sample values of the specified band from the current pixel up to the end of the row segment
+     * in current tile. If the iterator is not in a valid position, then this method behavior is undetermined.
+     */
+    @Override
+    public int readRow(final int band, final float[] dest) {
+        final int length = rowLength(dest.length);
+        final int index = x + xToBuffer;
+        for (int i=0; i<length; i++) {
+            dest[i] = buffer.getElemFloat(band, index + i);
+        }
+        if (length != 0) {
+            x += length - 1;
+        }
+        return length;
+    }
+
+    /**
+     * Reads the sample values of the specified band from the current pixel up to the end of the row segment
+     * in current tile. If the iterator is not in a valid position, then this method behavior is undetermined.
+     */
+    @Override
+    public int readRow(final int band, final double[] dest) {
+        final int length = rowLength(dest.length);
+        final int index = x + xToBuffer;
+        for (int i=0; i<length; i++) {
+            dest[i] = buffer.getElemDouble(band, index + i);
+        }
+        if (length != 0) {
+            x += length - 1;
+        }
+        return length;
+    }
+
     /**
      * Returns the sample values of current pixel for all bands. If the iterator is not in a valid position
      * as documented in parent class, then this method behavior is undetermined: It may either throw an
@@ -385,6 +385,15 @@ class BandedSampleConverter extends WritableComputedImage {
         return getSource().getMinTileY();
     }
 
+    /**
+     * Returns {@code true} since each sample value is converted independently of neighbor pixels.
+     * Note that the writable variant of this image is never fused, because its tiles are shared.
+     */
+    @Override
+    final boolean isFusable() {
+        return true;
+    }
+
     /**
      * Computes the tile at specified indices.
      *
@@ -146,7 +146,7 @@ public abstract class ComputedImage extends PlanarImage implements Disposable {
 
     /**
      * Weak reference to this image, also used as a cleaner when the image is garbage-collected.
-     * This reference is retained in {@link TileCache#GLOBAL}. Note that if that cache does not
+     * This reference is retained in the {@link TileCache}. Note that if that cache does not
      * cache any tile for this image, then that {@link ComputedTiles} may be garbage-collected
      * at the same time as this image and its {@link ComputedTiles#dispose()} method may never
      * be invoked.
@@ -306,6 +306,26 @@ public abstract class ComputedImage extends PlanarImage implements Disposable {
         }
     }
 
+    /**
+     * Sets the storage of the tiles computed by this image. By default, tiles are stored in a cache shared by
+     * all images, which keeps oldest tiles by soft references when a memory limit is reached. Specifying a
+     * storage allows to use a cache dedicated to the images using the same storage, with a secondary storage
+     * (for example outside the Java heap) for the tiles exceeding the heap memory limit.
+     *
+     * <p>This method can be invoked only before the computation of the first tile.
+     * If at least one tile has already been computed, this method does nothing and returns {@code false}.</p>
+     *
+     * @param  storage  the storage of tiles, or {@code null} for the default cache shared by all images.
+     * @return whether the storage has been set.
+     *
+     * @see ImageProcessor#setTileStorage(TileStorage)
+     *
+     * @since 1.7
+     */
+    protected final boolean setTileStorage(final TileStorage storage) {
+        return reference.setCache(storage != null ? storage.cache : TileCache.GLOBAL);
+    }
+
     /**
      * Returns the destination, or {@code null} if none.
      */
@@ -471,7 +491,7 @@ public abstract class ComputedImage extends PlanarImage implements Disposable {
     @Override
     public final Raster getTile(final int tileX, final int tileY) {
         final var key = new TileCache.Key(reference, tileX, tileY);
-        final Cache<TileCache.Key, Raster> cache = TileCache.GLOBAL;
+        final TileCache cache = reference.cache;
         Raster tile = cache.peek(key);
         if (tile == null || reference.isTileDirty(key)) {
             /*
@@ -487,6 +507,13 @@ public abstract class ComputedImage extends PlanarImage implements Disposable {
             try {
                 tile = handler.peek();
                 final boolean marked = reference.trySetComputing(key);              // May throw ImagingOpException.
+                if (!marked && tile == null) {
+                    /*
+                     * The tile is valid but is no longer on the heap. If a copy has been saved
+                     * in a tile storage, restore that copy instead of recomputing the tile.
+                     */
+                    tile = cache.restore(key);
+                }
                 if (marked || tile == null) {
                     /*
                      * The requested tile needs to be computed. If a destination image has been specified
@@ -522,6 +549,9 @@ public abstract class ComputedImage extends PlanarImage implements Disposable {
                             destination.releaseWritableTile(tileX, tileY);
                         }
                     }
+                    if (error == null) {
+                        cache.store(key, tile);
+                    }
                     if (marked) {
                         reference.endWrite(key, error == null);
                     }
@@ -539,6 +569,98 @@ public abstract class ComputedImage extends PlanarImage implements Disposable {
         return tile;
     }
 
+    /**
+     * Whether the tiles of this image can be computed on the fly, without caching, when they are requested
+     * by another image computing a tile of the same size at the same location. This is {@code true} for
+     * pixel-wise operations where each tile depends only on the source tile at the same indices.
+     * The default implementation returns {@code false}.
+     *
+     * @return whether the tiles of this image can be computed by {@link #getSourceTile(RenderedImage, int, int)}
+     *         without being cached.
+     *
+     * @see #getSourceTile(RenderedImage, int, int)
+     */
+    boolean isFusable() {
+        return false;
+    }
+
+    /**
+     * Returns a tile of the given source for computing the tile at the same indices in a pixel-wise operation.
+     * The caller shall ensure that the tile to compute has the same size and location as the source tile.
+     * If the source is {@linkplain #isFusable() fusable} and the requested tile is not already in the cache,
+     * then the source tile is computed for the caller only and is not cached. This is equivalent to fusing
+     * a chain of pixel-wise operations in a single tile computation: only the last image of the chain
+     * stores its tiles in the {@link TileCache}, while the results are the same as {@code getTile(…)}.
+     *
+     * <p>A consequence of this policy is that the tiles of an intermediate image may be computed twice
+     * if they are also requested directly by the user. This is considered acceptable for pixel-wise
+     * operations, which are usually cheaper than the memory consumed by unused intermediate tiles.</p>
+     *
+     * @param  source  the source image from which to get a tile.
+     * @param  tileX   the column index of the tile to get.
+     * @param  tileY   the row index of the tile to get.
+     * @return the tile at the given index (never null).
+     * @throws ImagingOpException if an error occurred while computing the tile.
+     */
+    static Raster getSourceTile(RenderedImage source, final int tileX, final int tileY) {
+        while (source instanceof ImageAdapter) {
+            source = ((ImageAdapter) source).source;        // Adapters forward `getTile(…)` to their source.
+        }
+        if (source instanceof ComputedImage && !(source instanceof WritableRenderedImage)) {
+            final var image = (ComputedImage) source;
+            if (image.destination == null && image.isFusable()) {
+                return image.computeTransientTile(tileX, tileY);
+            }
+        }
+        return source.getTile(tileX, tileY);
+    }
+
+    /**
+     * Returns the tile at the given indices from the cache if present, or computes it without caching otherwise.
+     * This method does not set the flags used by {@link #getTile(int, int)} for tracking computations in progress
+     * or errors, since the computed tile is not shared.
+     *
+     * @param  tileX  the column index of the tile to get.
+     * @param  tileY  the row index of the tile to get.
+     * @return the tile at the given index (never null).
+     * @throws ImagingOpException if an error occurred while computing the tile.
+     */
+    private Raster computeTransientTile(final int tileX, final int tileY) {
+        final var key = new TileCache.Key(reference, tileX, tileY);
+        Raster tile = reference.cache.peek(key);
+        if (tile != null && !reference.isTileDirty(key)) {
+            return tile;
+        }
+        checkTileIndex("tileX", getMinTileX(), getNumXTiles(), tileX);
+        checkTileIndex("tileY", getMinTileY(), getNumYTiles(), tileY);
+        Throwable error = null;
+        tile = null;                        // Discard the dirty tile, if any.
+        try {
+            tile = computeTile(tileX, tileY, null);
+        } catch (Exception e) {
+            error = Exceptions.unwrap(e);
+        }
+        if (tile == null) {                 // Null in case of exception or if `computeTile(…)` returned null.
+            if (!(error instanceof ImagingOpException)) {
+                error = new ImagingOpException(key.error(Resources.Keys.CanNotComputeTile_2)).initCause(error);
+            }
+            throw (ImagingOpException) error;
+        }
+        return tile;
+    }
+
+    /**
+     * Returns whether the tile at the given indices is currently in the cache.
+     * This is used for verifying that the tiles of fused images are not retained.
+     *
+     * @param  tileX  the column index of the tile.
+     * @param  tileY  the row index of the tile.
+     * @return whether the tile is in the cache.
+     */
+    final boolean isTileCached(final int tileX, final int tileY) {
+        return reference.cache.peek(new TileCache.Key(reference, tileX, tileY)) != null;
+    }
+
     /**
      * Invoked when a tile needs to be computed or updated. This method is invoked by {@link #getTile(int, int)}
      * when the requested tile is not in the cache, or when a writable source notified us that its data changed.
@@ -712,7 +834,12 @@ public abstract class ComputedImage extends PlanarImage implements Disposable {
         if (writing) {
             return reference.startWrite(key);
         } else {
-            return reference.endWrite(key, true);
+            final boolean released = reference.endWrite(key, true);
+            if (released) {
+                final TileCache cache = reference.cache;
+                cache.store(key, cache.peek(key));      // Copy in the storage may be obsolete.
+            }
+            return released;
         }
     }
 
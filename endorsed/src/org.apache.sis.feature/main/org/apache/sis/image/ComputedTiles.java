@@ -36,7 +36,7 @@ import org.apache.sis.util.Disposable;
  * This class shall not contain any strong reference to the {@link ComputedImage}.
  *
  * <p>Despite the {@code ComputedTiles} class name, this class does not contain any reference
- * to the tiles. Instead, it contains keys for getting the tiles from {@link TileCache#GLOBAL}.
+ * to the tiles. Instead, it contains keys for getting the tiles from {@link #cache}.
  * Consequently, this class "contains" the tiles only indirectly.</p>
  *
  * @author  Martin Desruisseaux (Geomatys)
@@ -69,6 +69,14 @@ final class ComputedTiles extends WeakReference<ComputedImage> implements Dispos
      */
     private final Map<TileCache.Key, Integer> cachedTiles;
 
+    /**
+     * The cache where the tiles are stored. This is {@link TileCache#GLOBAL} unless a
+     * {@link TileStorage} has been specified before the computation of the first tile.
+     *
+     * @see #setCache(TileCache)
+     */
+    volatile TileCache cache;
+
     /**
      * All {@link ComputedImage#sources} that are writable, or {@code null} if none.
      * This is used for removing tile observers when the {@link ComputedImage} is garbage-collected.
@@ -87,6 +95,7 @@ final class ComputedTiles extends WeakReference<ComputedImage> implements Dispos
     ComputedTiles(final ComputedImage image, final WritableRenderedImage[] ws) {
         super(image, ReferenceQueueConsumer.QUEUE);
         cachedTiles = new HashMap<>();
+        cache   = TileCache.GLOBAL;
         sources = ws;
         if (ws != null) {
             int i = 0;
@@ -101,6 +110,24 @@ final class ComputedTiles extends WeakReference<ComputedImage> implements Dispos
         }
     }
 
+    /**
+     * Sets the cache where to store the tiles. This method can be invoked only if no tile has been
+     * computed yet, because the tiles already in the previous cache would not be found anymore.
+     *
+     * @param  target  the new cache.
+     * @return whether the cache has been set.
+     */
+    final boolean setCache(final TileCache target) {
+        synchronized (cachedTiles) {
+            if (cache == target) return true;
+            if (cachedTiles.isEmpty()) {
+                cache = target;
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns {@code true} if the given value is {@link #COMPUTING} or a greater unsigned value.
      * Returns {@code false} if the value is null, {@link #VALID}, {@link #DIRTY} or {@link #ERROR}.
@@ -340,7 +367,7 @@ final class ComputedTiles extends WeakReference<ComputedImage> implements Dispos
      * <p>This method should not perform other cleaning work because it is not guaranteed to be invoked.
      * In some case, there is nothing preventing this weak reference to be garbage collected before this
      * {@code dispose()} method is invoked. The case is: if {@code ComputedTiles} is not registered as a
-     * {@link TileObserver} and if {@link TileCache#GLOBAL} does not contain any tile associated to this
+     * {@link TileObserver} and if {@link #cache} does not contain any tile associated to this
      * {@link ComputedImage} in its key.</p>
      *
      * @see ComputedImage#dispose()
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.image;
+
+import java.awt.Shape;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.Collector;
+import org.apache.sis.math.Histogram;
+import org.apache.sis.image.internal.shared.ImageUtilities;
+
+
+/**
+ * Computes histograms of all pixel values of an image in a single pass. The results are stored in an array
+ * of {@link Histogram} objects (one per band) in a property named {@value #HISTOGRAMS_KEY}.
+ * The range of values does not need to be known in advance, so there is no need to compute
+ * {@linkplain StatisticsCalculator statistics} before the histograms.
+ * The histograms can be computed in parallel or sequentially for non thread-safe images.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+final class HistogramCalculator extends AnnotatedImage {
+    /**
+     * Default number of bins in the histograms.
+     */
+    static final int DEFAULT_NUM_BINS = 1024;
+
+    /**
+     * An optional function for converting values before to add them to histograms.
+     * The main purpose is to exclude "no data" values by replacing them by NaN.
+     * If non-null, the length of this array must be equal to the number of bands.
+     * Array may contain null elements if no filter should be applied for a band.
+     */
+    private final DoubleUnaryOperator[] sampleFilters;
+
+    /**
+     * The number of bins in each histogram.
+     */
+    private final int numBins;
+
+    /**
+     * The sample filters followed by the number of bins.
+     * This is used for caching and for {@link #equals(Object)} and {@link #hashCode()} implementations.
+     */
+    private final Object[] parameters;
+
+    /**
+     * Creates a new calculator.
+     *
+     * @param  image            the image for which to compute histograms.
+     * @param  areaOfInterest   pixel coordinates of AOI, or {@code null} for the whole image.
+     * @param  numBins          number of bins in each histogram.
+     * @param  sampleFilters    converters to apply on sample values before to add them to histograms, or {@code null}.
+     * @param  parallel         whether parallel execution is authorized.
+     * @param  failOnException  whether errors occurring during computation should be propagated.
+     */
+    HistogramCalculator(final RenderedImage image, final Shape areaOfInterest, final int numBins,
+                        final DoubleUnaryOperator[] sampleFilters, final boolean parallel, final boolean failOnException)
+    {
+        super(image, areaOfInterest, parallel, failOnException);
+        this.numBins       = numBins;
+        this.sampleFilters = StatisticsCalculator.validate(image, sampleFilters);
+        if (this.sampleFilters != null) {
+            parameters = Arrays.copyOf(this.sampleFilters, this.sampleFilters.length + 1, Object[].class);
+        } else {
+            parameters = new Object[1];
+        }
+        parameters[parameters.length - 1] = numBins;
+    }
+
+    /**
+     * Returns the filters and number of bins parameters. This is used by parent class for caching
+     * and for {@link #equals(Object)} and {@link #hashCode()} implementations.
+     */
+    @Override
+    @SuppressWarnings("ReturnOfCollectionOrArrayField")     // Caller will not modify.
+    final Object[] getExtraParameter() {
+        return parameters;
+    }
+
+    /**
+     * Returns the name of the property which is computed by this image.
+     */
+    @Override
+    protected String getComputedPropertyName() {
+        return HISTOGRAMS_KEY;
+    }
+
+    /**
+     * Creates the objects where to add sample values for computing histograms.
+     * We will have one accumulator for each band in the source image.
+     * This is used for both sequential and parallel executions.
+     */
+    private Histogram[] createAccumulator() {
+        final var histograms = new Histogram[ImageUtilities.getNumBands(source)];
+        for (int i=0; i<histograms.length; i++) {
+            histograms[i] = new Histogram(numBins);
+        }
+        return histograms;
+    }
+
+    /**
+     * Computes the histograms on the image using a single thread. This is used for testing purposes, or when
+     * the image has only one tile, or when the implementation of {@link RenderedImage#getTile(int, int)} may
+     * be non thread-safe.
+     */
+    @Override
+    protected Object computeSequentially() {
+        final PixelIterator it = new PixelIterator.Builder().setRegionOfInterest(boundsOfInterest).create(source);
+        final Histogram[] accumulator = createAccumulator();
+        StatisticsCalculator.compute(StatisticsCalculator.filtered(accumulator, sampleFilters), it, areaOfInterest);
+        return accumulator;
+    }
+
+    /**
+     * Invoked when a property of the given name has been requested and that property is cached.
+     * The property should be cloned before to be returned to the user in order to protect this image state.
+     */
+    @Override
+    protected Object cloneProperty(final String name, final Object value) {
+        return clone(((Histogram[]) value));
+    }
+
+    /**
+     * Clones the given array and all values in the array.
+     */
+    static Histogram[] clone(Histogram[] result) {
+        if (result != null) {
+            result = result.clone();
+            for (int i=0; i<result.length; i++) {
+                if (result[i] != null) {
+                    result[i] = result[i].clone();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the function to execute for parallel computation of histograms,
+     * together with other required functions (supplier of accumulator, combiner, finisher).
+     * Each tile is accumulated in the histograms of the worker thread, and the histograms
+     * of all threads are combined at the end.
+     */
+    @Override
+    protected Collector<Raster, Histogram[], Histogram[]> collector() {
+        return Collector.of(this::createAccumulator, this::compute, HistogramCalculator::combine);
+    }
+
+    /**
+     * Invoked after a thread finished to process all its tiles and wants to combine its result with the
+     * result of another thread. This method does not need to be thread-safe; synchronizations will be done
+     * by the caller.
+     *
+     * @param  previous  the result of another thread (never {@code null}).
+     * @param  computed  the result computed by current thread (never {@code null}).
+     * @return combination of the two results. May be one of the {@code previous} or {@code computed} instances.
+     */
+    private static Histogram[] combine(final Histogram[] previous, final Histogram[] computed) {
+        for (int i=0; i<computed.length; i++) {
+            previous[i].combine(computed[i]);
+        }
+        return previous;
+    }
+
+    /**
+     * Executes this operation on the given tile. This method may be invoked from any thread.
+     * If an exception occurs during computation, that exception will be logged or wrapped in
+     * an {@link java.awt.image.ImagingOpException} by the caller.
+     *
+     * @param  accumulator  the thread-local variable created by {@link #createAccumulator()}.
+     * @param  tile         the tile on which to perform a computation.
+     * @throws RuntimeException if the calculation failed.
+     */
+    private void compute(final Histogram[] accumulator, final Raster tile) {
+        StatisticsCalculator.compute(StatisticsCalculator.filtered(accumulator, sampleFilters),
+                new PixelIterator.Builder().setRegionOfInterest(boundsOfInterest).create(tile), areaOfInterest);
+    }
+}
@@ -49,6 +49,7 @@ import org.apache.sis.coverage.grid.GridCoverageProcessor;
 import org.apache.sis.image.internal.shared.ImageUtilities;
 import org.apache.sis.image.internal.shared.TiledImage;
 import org.apache.sis.math.Statistics;
+import org.apache.sis.math.Histogram;
 import org.apache.sis.util.ArraysExt;
 import org.apache.sis.util.ArgumentChecks;
 import org.apache.sis.util.resources.Errors;
@@ -89,6 +90,8 @@ import org.apache.sis.measure.Units;
  *     By default errors during calculation are propagated as an {@link ImagingOpException},
  *     in which case no result is available. But errors can also be notified as a {@link LogRecord} instead,
  *     in which case partial results may be available.
+ *   </li><li>
+ *     {@linkplain #setTileStorage(TileStorage) Storage of computed tiles}, for example outside the Java heap.
  *   </li>
  * </ul>
  *
@@ -109,6 +112,12 @@ import org.apache.sis.measure.Units;
  * the result immediately on method call. Consequently, unless otherwise specified, {@link RenderedImage} arguments
  * should be <em>stable</em>, i.e. pixel values should not be modified after method return.
  *
+ * <p>When the result of a pixel-wise operation such as {@link #convert convert(…)}, {@link #mask mask(…)},
+ * {@link #selectBands selectBands(…)} or {@link #calculate calculate(…)} is given as the source of another
+ * operation using the same tile grid, the tiles of the intermediate image are computed on the fly when needed
+ * by the final image and are not retained in the tile cache. Only tiles of the last image of such chain are cached,
+ * unless the intermediate images are also used directly.</p>
+ *
  * <h2>Area of interest</h2>
  * Some operations accept an optional <var>area of interest</var> argument specified as a {@link Shape} instance in
  * pixel coordinates. If a shape is given, it should not be modified after {@code ImageProcessor} method call because
@@ -255,6 +264,15 @@ public class ImageProcessor implements Cloneable {
      */
     private ErrorHandler errorHandler;
 
+    /**
+     * Where to store the tiles computed by the images created by this processor,
+     * or {@code null} for the cache shared by all images.
+     *
+     * @see #getTileStorage()
+     * @see #setTileStorage(TileStorage)
+     */
+    private TileStorage tileStorage;
+
     /**
      * Creates a new processor with default configuration.
      * The execution mode is initialized to {@link Mode#DEFAULT}
@@ -493,6 +511,63 @@ public class ImageProcessor implements Cloneable {
         errorHandler = Objects.requireNonNull(handler);
     }
 
+    /**
+     * Returns the storage of tiles computed by images created by this processor.
+     * A {@code null} value means that tiles are stored in the cache shared by all images.
+     *
+     * @return the storage of computed tiles, or {@code null} for the default cache.
+     *
+     * @since 1.7
+     */
+    public synchronized TileStorage getTileStorage() {
+        return tileStorage;
+    }
+
+    /**
+     * Sets the storage of tiles computed by images created by this processor.
+     * By default, tiles are stored in a cache shared by all images, which may use up to 25% of the maximal heap size.
+     * Specifying a storage allows to use a cache dedicated to the images created by this processor, with a secondary
+     * storage (for example outside the Java heap) for the tiles exceeding the heap memory limit.
+     *
+     * <h4>Limitations</h4>
+     * Images created by {@code ImageProcessor} may be shared with other processors having an equivalent configuration
+     * except for the tile storage. In such case, the storage used is the one of the processor which created the image.
+     * Furthermore, the storage applies only to operations computing new tiles, such as {@link #resample resample(…)},
+     * {@link #convert convert(…)}, {@link #mask mask(…)}, {@link #overlay overlay(…)}, {@link #reformat reformat(…)}
+     * and {@link #visualize(RenderedImage) visualize(…)}. Operations creating views over the source tiles,
+     * such as {@link #selectBands selectBands(…)}, are not impacted.
+     *
+     * @param  storage  the storage of computed tiles, or {@code null} for the default cache.
+     *
+     * @see TileStorage#offHeap(long, long)
+     *
+     * @since 1.7
+     */
+    public synchronized void setTileStorage(final TileStorage storage) {
+        tileStorage = storage;
+    }
+
+    /**
+     * Assigns the tile storage to the given image if it is an image computed by this processor.
+     * If the image already computed some tiles (for example because it was shared with another
+     * processor), then the storage is left unchanged.
+     *
+     * @param  image  the image created by an operation of this processor.
+     * @return the given image.
+     */
+    private RenderedImage configure(final RenderedImage image) {
+        if (image instanceof ComputedImage) {
+            final TileStorage storage;
+            synchronized (this) {
+                storage = tileStorage;
+            }
+            if (storage != null) {
+                ((ComputedImage) image).setTileStorage(storage);
+            }
+        }
+        return image;
+    }
+
     /**
      * Whether errors occurring during computation should be propagated instead of wrapped in a {@link LogRecord}.
      * This method shall be invoked in a method synchronized on {@code this}.
@@ -628,6 +703,88 @@ public class ImageProcessor implements Cloneable {
         return statistics;
     }
 
+    /**
+     * Returns histograms of sample values in each band of the given image.
+     * The histograms are computed in a single pass over the pixel values, without prior knowledge
+     * of the range of values. In parallel execution mode, the histograms of different tiles are
+     * computed concurrently and combined when all tiles have been processed.
+     * Histograms can be used for estimating {@linkplain Histogram#quantile(double) quantiles},
+     * for example the 2% and 98% percentiles.
+     *
+     * <p>If {@code areaOfInterest} is null and {@code sampleFilters} is {@code null} or empty,
+     * and if the {@value PlanarImage#HISTOGRAMS_KEY} property value exists in the given image
+     * without null element and with at least {@code numBins} bins in each histogram, then that value is returned.
+     * Otherwise histograms are computed for the whole image or for the area of interest.</p>
+     *
+     * <h4>Sample converters</h4>
+     * An arbitrary {@link DoubleUnaryOperator} can be applied on sample values before to add them to histograms.
+     * The main purpose is to replace "no-data values" by {@link Double#NaN} values, which are ignored by
+     * {@link Histogram#accept(double)}. The {@link #filterNodataValues(Number...)} convenience method
+     * can be used for building an operator filtering "no data" sample values.
+     *
+     * <h4>Properties used</h4>
+     * This operation uses the following properties in addition to method parameters:
+     * <ul>
+     *   <li>{@linkplain #getExecutionMode() Execution mode} (parallel or sequential).</li>
+     *   <li>{@linkplain #getErrorHandler() Error handler} (custom action executed if an exception is thrown).</li>
+     * </ul>
+     *
+     * <h4>Result relationship with source</h4>
+     * This method fetches (from property values) or computes histograms immediately.
+     * Changes in the {@code source} image after this method call do not change the results.
+     *
+     * @param  source          the image for which to compute histograms.
+     * @param  areaOfInterest  pixel coordinates of the area of interest, or {@code null} for the whole image.
+     * @param  numBins         number of bins in each histogram. Typical values are 256 or 1024.
+     * @param  sampleFilters   converters to apply on sample values before to add them to histograms, or
+     *         {@code null} or an empty array if none. The array may have any length and may contain null elements.
+     *         For all {@code i < numBands}, non-null {@code sampleFilters[i]} are applied to band <var>i</var>.
+     * @return the histograms of sample values in each band. Guaranteed non-null and without null element.
+     * @throws ImagingOpException if an error occurred during calculation
+     *         and the error handler is {@link ErrorHandler#THROW}.
+     *
+     * @see #valueOfStatistics(RenderedImage, Shape, DoubleUnaryOperator...)
+     * @see #filterNodataValues(Number...)
+     * @see PlanarImage#HISTOGRAMS_KEY
+     *
+     * @since 1.7
+     */
+    public Histogram[] valueOfHistograms(final RenderedImage source, final Shape areaOfInterest, final int numBins,
+                                         final DoubleUnaryOperator... sampleFilters)
+    {
+        ArgumentChecks.ensureNonNull("source", source);
+        ArgumentChecks.ensureStrictlyPositive("numBins", numBins);
+        if (areaOfInterest == null && (sampleFilters == null || ArraysExt.allEquals(sampleFilters, null))) {
+            final Object property = source.getProperty(PlanarImage.HISTOGRAMS_KEY);
+            if (property instanceof Histogram[]) {
+                final var histograms = (Histogram[]) property;
+                if (histograms.length == ImageUtilities.getNumBands(source)) {
+                    boolean valid = true;
+                    for (final Histogram histogram : histograms) {
+                        if (histogram == null || histogram.numBins() < numBins) {
+                            valid = false;
+                            break;
+                        }
+                    }
+                    if (valid) {
+                        return HistogramCalculator.clone(histograms);
+                    }
+                }
+            }
+        }
+        final boolean parallel, failOnException;
+        final ErrorHandler errorListener;
+        synchronized (this) {
+            parallel        = parallel(source);
+            failOnException = failOnException();
+            errorListener   = errorHandler;
+        }
+        final var calculator = new HistogramCalculator(source, areaOfInterest, numBins, sampleFilters, parallel, failOnException);
+        final Object property = calculator.getProperty(PlanarImage.HISTOGRAMS_KEY);
+        calculator.logAndClearError(ImageProcessor.class, "valueOfHistograms", errorListener);
+        return (Histogram[]) property;
+    }
+
     /**
      * Returns an image with statistics (minimum, maximum, mean, standard deviation) on each bands.
      * The property value will be computed when first requested (it is not computed immediately by this method).
@@ -714,6 +871,14 @@ public class ImageProcessor implements Cloneable {
      * values for the color ramp because a single value very far from other values is sufficient for making the colors
      * difficult to distinguish for 99.9% of the data.</p>
      *
+     * <p>Alternatively, the range of values can be determined from percentiles estimated from
+     * {@link #valueOfHistograms histograms} computed in a single pass over the pixel values.
+     * For example, the 2% and 98% percentiles exclude the 2% lowest and 2% highest values.
+     * This approach does not assume a Gaussian distribution. If percentiles are specified,
+     * they have precedence over the {@code "multStdDev"} modifier and over {@link Statistics}
+     * given with the {@code "statistics"} key. An image given with that key is still used as
+     * the source of the histograms.</p>
+     *
      * <p>The range of values for the color ramp can be narrowed with following modifiers
      * (a {@link Map} is used for allowing addition of more modifiers in future Apache SIS versions).
      * All unrecognized modifiers are silently ignored. If no modifier is specified, then the color ramp
@@ -738,6 +903,10 @@ public class ImageProcessor implements Cloneable {
      *     <td>Multiple of the standard deviation.</td>
      *     <td>{@link Number} (typical values: 1.5, 2 or 3)</td>
      *   </tr><tr>
+     *     <td>{@code "percentiles"}</td>
+     *     <td>Lower and upper percentiles of the values to use as minimum and maximum.</td>
+     *     <td>{@code Number[]} (typical values: {2, 98})</td>
+     *   </tr><tr>
      *     <td>{@code "statistics"}</td>
      *     <td>Statistics or image from which to get statistics.</td>
      *     <td>{@link Statistics} or {@link RenderedImage}</td>
@@ -982,8 +1151,8 @@ public class ImageProcessor implements Cloneable {
             colorizer = this.colorizer;
             parallel = executionMode != Mode.SEQUENTIAL;
         }
-        return ImageOverlay.create(sources, bounds, layout.sampleModel, colorizer,
-                layout.isTileSizeAdjustmentAllowed | (bounds != null), parallel);
+        return configure(ImageOverlay.create(sources, bounds, layout.sampleModel, colorizer,
+                layout.isTileSizeAdjustmentAllowed | (bounds != null), parallel));
     }
 
     /**
@@ -1025,7 +1194,8 @@ public class ImageProcessor implements Cloneable {
             sampleModel = layout.sampleModel;
             ArgumentChecks.ensureNonNull("sampleModel", sampleModel);
         }
-        return ImageOverlay.create(new RenderedImage[] {source}, null, sampleModel, null, layout.isTileSizeAdjustmentAllowed, parallel);
+        return configure(ImageOverlay.create(new RenderedImage[] {source}, null, sampleModel, null,
+                                             layout.isTileSizeAdjustmentAllowed, parallel));
     }
 
     /**
@@ -1057,7 +1227,7 @@ public class ImageProcessor implements Cloneable {
         synchronized (this) {
             fillValues = this.fillValues;
         }
-        return unique(new MaskedImage(source, mask, maskInside, fillValues));
+        return configure(unique(new MaskedImage(source, mask, maskInside, fillValues)));
     }
 
     /**
@@ -1121,7 +1291,68 @@ public class ImageProcessor implements Cloneable {
             colorizer = this.colorizer;
         }
         // No need to clone `sourceRanges` because it is not stored by `BandedSampleConverter`.
-        return unique(BandedSampleConverter.create(source, layout, sourceRanges, converters, targetType, colorizer));
+        return configure(unique(BandedSampleConverter.create(source, layout, sourceRanges, converters, targetType, colorizer)));
+    }
+
+    /**
+     * Returns an image with sample values computed by an arithmetic expression applied on each pixel.
+     * The expression can reference the bands of the source image as {@code b} followed by a zero-based
+     * band index, use the {@code +}, {@code -}, {@code *}, {@code /} and {@code ^} (power) operators,
+     * parenthesis, numbers, the {@code NaN} and {@code PI} constants, and the following functions:
+     * {@code abs}, {@code sign}, {@code sqrt}, {@code cbrt}, {@code exp}, {@code log}, {@code log10},
+     * {@code floor}, {@code ceil}, {@code round}, {@code sin}, {@code cos}, {@code tan}, {@code asin},
+     * {@code acos}, {@code atan} (one argument) and {@code min}, {@code max}, {@code pow}, {@code atan2},
+     * {@code hypot} (two arguments). Identifiers are case-insensitive.
+     *
+     * <h4>Example</h4>
+     * The Normalized Difference Vegetation Index (NDVI) of an image where the red and near-infrared
+     * reflectances are in bands 2 and 3 respectively, with 0 as the "no data" value, can be computed by:
+     *
+     * {@snippet lang="java" :
+     *     RenderedImage ndvi = processor.calculate(image, "(b3 - b2) / (b3 + b2)", DataType.FLOAT, 0);
+     *     }
+     *
+     * The whole expression is evaluated in a single pass over each tile of the source image.
+     * Consequently, this method is more efficient than chaining many operations, which would
+     * create intermediate tiles. Sample values equal to one of the given {@code nodataValues}
+     * are replaced by {@link Double#NaN} before evaluation, in any band.
+     * Since arithmetic operations propagate NaN values, the result is NaN for all pixels
+     * where at least one of the bands used by the expression has a missing value.
+     *
+     * <h4>Properties used</h4>
+     * This operation uses the following properties in addition to method parameters:
+     * <ul>
+     *   <li>{@linkplain #getColorizer() Colorizer} for customizing the rendered image color model.</li>
+     * </ul>
+     *
+     * <h4>Result relationship with source</h4>
+     * Changes in the source image are reflected in the returned image
+     * if the source image notifies {@linkplain java.awt.image.TileObserver tile observers}.
+     *
+     * @param  source        the image providing the sample values used by the expression.
+     * @param  expression    the arithmetic expression to evaluate on each pixel.
+     * @param  targetType    the type of data in the resulting image. Shall be {@link DataType#FLOAT} or {@link DataType#DOUBLE}.
+     * @param  nodataValues  source values to handle as missing values, or an empty array if none.
+     * @return a single-banded image with the values computed by the given expression.
+     * @throws IllegalArgumentException if the expression cannot be parsed, references a non-existent band,
+     *         or if the target type is not a floating point type.
+     *
+     * @since 1.7
+     */
+    @SuppressWarnings("LocalVariableHidesMemberVariable")
+    public RenderedImage calculate(final RenderedImage source, final String expression,
+                                   final DataType targetType, final Number... nodataValues)
+    {
+        ArgumentChecks.ensureNonNull("source", source);
+        ArgumentChecks.ensureNonEmpty("expression", expression);
+        ArgumentChecks.ensureNonNull("targetType", targetType);
+        final ImageLayout layout;
+        final Colorizer   colorizer;
+        synchronized (this) {
+            layout    = this.layout;
+            colorizer = this.colorizer;
+        }
+        return configure(unique(BandMathImage.create(source, layout, expression, nodataValues, targetType, colorizer)));
     }
 
     /**
@@ -1220,7 +1451,7 @@ public class ImageProcessor implements Cloneable {
             final var image = new ResampledImage(source, rsm, layout.getPreferredMinTile(), bounds, toSource,
                                                  interpolation, fillValues, positionalAccuracyHints);
             image.setDestination(destination);
-            resampled = unique(image);
+            resampled = configure(unique(image));
             if (destination != null) {
                 return resampled;           // Preserve the color model of the destination.
             }
@@ -1452,7 +1683,7 @@ public class ImageProcessor implements Cloneable {
             builder.positionalAccuracyHints = positionalAccuracyHints;
         }
         try {
-            return builder.create(this);
+            return configure(builder.create(this));
         } catch (IllegalStateException | NoninvertibleTransformException e) {
             throw new IllegalArgumentException(Resources.format(Resources.Keys.UnconvertibleSampleValues), e);
         }
@@ -1518,6 +1749,7 @@ public class ImageProcessor implements Cloneable {
             final ImageLayout   layout;
             final Colorizer     colorizer;
             final Quantity<?>[] positionalAccuracyHints;
+            final TileStorage   tileStorage;
             synchronized (this) {
                 executionMode           = this.executionMode;
                 errorHandler            = this.errorHandler;
@@ -1526,6 +1758,7 @@ public class ImageProcessor implements Cloneable {
                 layout                  = this.layout;
                 colorizer               = this.colorizer;
                 positionalAccuracyHints = this.positionalAccuracyHints;
+                tileStorage             = this.tileStorage;
             }
             synchronized (other) {
                 return layout.equals(other.layout)                &&
@@ -1533,6 +1766,7 @@ public class ImageProcessor implements Cloneable {
                       executionMode.equals(other.executionMode)   &&
                       interpolation.equals(other.interpolation)   &&
                       Objects.equals(colorizer, other.colorizer)  &&
+                      Objects.equals(tileStorage, other.tileStorage) &&
                       Arrays.equals(fillValues, other.fillValues) &&
                       Arrays.equals(positionalAccuracyHints, other.positionalAccuracyHints);
             }
@@ -1547,7 +1781,7 @@ public class ImageProcessor implements Cloneable {
      */
     @Override
     public synchronized int hashCode() {
-        return Objects.hash(getClass(), errorHandler, executionMode, colorizer, interpolation, layout)
+        return Objects.hash(getClass(), errorHandler, executionMode, colorizer, interpolation, layout, tileStorage)
                 + 37 * Arrays.hashCode(fillValues)
                 + 39 * Arrays.hashCode(positionalAccuracyHints);
     }
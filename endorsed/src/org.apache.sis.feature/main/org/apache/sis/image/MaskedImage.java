@@ -222,6 +222,16 @@ final class MaskedImage extends SourceAlignedImage {
         return mask;
     }
 
+    /**
+     * Returns {@code true} since {@linkplain #computeTile computing a tile} requires only the source tile
+     * at the same indices. This allows chains of pixel-wise operations to be computed without caching
+     * the intermediate tiles.
+     */
+    @Override
+    final boolean isFusable() {
+        return true;
+    }
+
     /**
      * Invoked when a tile need to be computed or updated.
      * May be invoked concurrently in different threads.
@@ -242,7 +252,7 @@ final class MaskedImage extends SourceAlignedImage {
         final int ymin = ImageUtilities.tileToPixelY(source, tileY);
         if (!getMaskTiles().contains(tileX, tileY)) {
             if (maskInside) {
-                return source.getTile(tileX, tileY);
+                return getSourceTile(source, tileX, tileY);
             } else {
                 return createEmptyTile(xmin, ymin);
             }
@@ -324,7 +334,7 @@ final class MaskedImage extends SourceAlignedImage {
                              * First time that we copy pixels. Get the rasters only at this point.
                              * This delay allows to avoid computing the source tile when fully masked.
                              */
-                            data = source.getTile(tileX, tileY);
+                            data = getSourceTile(source, tileX, tileY);
                             assert data.getMinX() == xmin && data.getMinY() == ymin;
                             boolean clean = needCreate(tile, data);
                             if (clean) {
@@ -374,7 +384,7 @@ final class MaskedImage extends SourceAlignedImage {
             if (isFullTile) {
                 return createEmptyTile(xmin, ymin);
             }
-            data = source.getTile(tileX, tileY);
+            data = getSourceTile(source, tileX, tileY);
             boolean clean = needCreate(tile, data);
             if (clean) {
                 tile = createTile(tileX, tileY);
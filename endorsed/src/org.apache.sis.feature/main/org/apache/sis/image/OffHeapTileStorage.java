@@ -0,0 +1,370 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.image;
+
+import java.util.Map;
+import java.util.List;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.nio.Buffer;
+import java.nio.ByteOrder;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.IntBuffer;
+import java.nio.FloatBuffer;
+import java.nio.DoubleBuffer;
+import java.awt.Point;
+import java.awt.image.Raster;
+import java.awt.image.DataBuffer;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.awt.image.RasterFormatException;
+import org.apache.sis.image.internal.shared.RasterFactory;
+
+
+/**
+ * A storage of tile data in direct byte buffers, outside the Java heap.
+ * Only the sample values are stored outside the heap. The sample model and the tile location
+ * are kept on the heap, but those objects are small and the sample model is often shared by
+ * all tiles of the same image.
+ *
+ * <h2>Memory management</h2>
+ * The memory usage is the sum of the capacities of all direct buffers allocated by this storage,
+ * including the buffers of evicted tiles that are kept for recycling. When a new tile needs to be
+ * stored and the capacity would be exceeded, the least recently used tiles are evicted. Buffers of
+ * evicted tiles are recycled for tiles of the same size (this is the common case, because all tiles
+ * of an image usually have the same size), otherwise they are released to the garbage collector.
+ * Recycling avoids the cost of allocating and zeroing new direct buffers, and avoids relying on the
+ * garbage collector for releasing the native memory.
+ *
+ * <h2>Thread-safety</h2>
+ * All accesses to the internal maps are synchronized on {@code this}.
+ * Copies of sample values from or to the direct buffers are done outside the synchronized blocks.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+final class OffHeapTileStorage extends TileStorage {
+    /**
+     * Maximal amount of bytes that this storage can allocate.
+     */
+    private final long capacity;
+
+    /**
+     * Sum of the capacities of all direct buffers allocated by this storage,
+     * including the ones in {@link #recycled}.
+     */
+    private long memoryUsage;
+
+    /**
+     * The stored tiles, ordered from least-recently accessed to most-recently accessed.
+     */
+    private final LinkedHashMap<Object, Entry> entries;
+
+    /**
+     * Buffers of evicted tiles which are available for reuse, indexed by their capacity.
+     */
+    private final Map<Integer, List<ByteBuffer>> recycled;
+
+    /**
+     * Creates a new storage with the given capacity.
+     *
+     * @param  heapLimit  maximal amount of bytes of tiles to keep by strong references on the heap.
+     * @param  capacity   maximal amount of bytes of sample values to store outside the heap.
+     */
+    OffHeapTileStorage(final long heapLimit, final long capacity) {
+        super(heapLimit);
+        this.capacity = capacity;
+        entries  = new LinkedHashMap<>(16, 0.75f, true);
+        recycled = new HashMap<>();
+    }
+
+    /**
+     * Information about a tile stored outside the heap.
+     * Instances of this class are immutable.
+     */
+    private static final class Entry {
+        /** The sample model of the stored tile. */
+        final SampleModel model;
+
+        /** Type of the data buffer. */
+        final DataType dataType;
+
+        /** Number of banks and number of valid elements in each bank. */
+        final int numBanks, size;
+
+        /** Translation from sample model coordinates to raster coordinates. */
+        final int translateX, translateY;
+
+        /** Bounds of the tile in pixel coordinates. */
+        final int minX, minY, width, height;
+
+        /** The sample values of all banks, in native byte order. */
+        final ByteBuffer data;
+
+        /** Stores information about the given tile. Sample values are not copied by this constructor. */
+        Entry(final Raster tile, final DataBuffer buffer, final DataType dataType, final ByteBuffer data) {
+            this.model      = tile.getSampleModel();
+            this.dataType   = dataType;
+            this.numBanks   = buffer.getNumBanks();
+            this.size       = buffer.getSize();
+            this.translateX = tile.getSampleModelTranslateX();
+            this.translateY = tile.getSampleModelTranslateY();
+            this.minX       = tile.getMinX();
+            this.minY       = tile.getMinY();
+            this.width      = tile.getWidth();
+            this.height     = tile.getHeight();
+            this.data       = data;
+        }
+
+        /**
+         * Returns a view of the given bank as a buffer of the data type.
+         * The returned buffer has its own position and limit.
+         */
+        final Buffer bank(final int i) {
+            final ByteBuffer b = data.duplicate().order(ByteOrder.nativeOrder());
+            final int length = size * dataType.bytes();
+            b.position(i * length).limit((i+1) * length);
+            final ByteBuffer slice = b.slice().order(ByteOrder.nativeOrder());
+            switch (dataType.toPrimitive()) {
+                case BYTE:   return slice;
+                case SHORT:  return slice.asShortBuffer();
+                case INT:    return slice.asIntBuffer();
+                case FLOAT:  return slice.asFloatBuffer();
+                case DOUBLE: return slice.asDoubleBuffer();
+                default: throw new AssertionError(dataType);
+            }
+        }
+    }
+
+    /**
+     * Copies the values of the given source buffer into the given target buffer.
+     * The two buffers shall be of the same type.
+     */
+    private static void copy(final Buffer source, final Buffer target) {
+        if (target instanceof ByteBuffer) {
+            ((ByteBuffer) target).put((ByteBuffer) source);
+        } else if (target instanceof ShortBuffer) {
+            ((ShortBuffer) target).put((ShortBuffer) source);
+        } else if (target instanceof IntBuffer) {
+            ((IntBuffer) target).put((IntBuffer) source);
+        } else if (target instanceof FloatBuffer) {
+            ((FloatBuffer) target).put((FloatBuffer) source);
+        } else {
+            ((DoubleBuffer) target).put((DoubleBuffer) source);
+        }
+    }
+
+    /**
+     * Stores a copy of the sample values of the given tile outside the heap.
+     * This method does nothing if the tile uses a non-standard data buffer
+     * or is larger than the capacity of this storage.
+     */
+    @Override
+    protected boolean store(final Object key, final Raster tile) {
+        final DataBuffer buffer = tile.getDataBuffer();
+        final DataType dataType;
+        try {
+            dataType = DataType.forDataBufferType(buffer.getDataType());
+        } catch (RasterFormatException e) {
+            return false;                               // Non-standard data type.
+        }
+        final long length = Math.multiplyFull(buffer.getSize(), dataType.bytes()) * buffer.getNumBanks();
+        if (length > Math.min(capacity, Integer.MAX_VALUE)) {
+            remove(key);                                // Discard the previous copy, which is now obsolete.
+            return false;
+        }
+        final ByteBuffer data = allocate(key, (int) length);
+        final Entry entry;
+        try {
+            entry = new Entry(tile, buffer, dataType, data);
+            for (int i=0; i < entry.numBanks; i++) {
+                copy(RasterFactory.wrapAsBuffer(buffer, i), entry.bank(i));
+            }
+        } catch (RuntimeException e) {
+            // May be a ClassCastException if the data buffer is not one of the standard subclasses.
+            release(data);
+            return false;
+        }
+        final Entry old;
+        synchronized (this) {
+            old = entries.put(key, entry);
+            if (old != null) recycle(old.data);
+        }
+        return true;
+    }
+
+    /**
+     * Reserves a buffer of the given capacity, evicting the least recently used tiles if needed.
+     * The entry for the given key, if any, is removed from this storage because it will be replaced.
+     *
+     * @param  key     key of the tile for which to allocate a buffer.
+     * @param  length  number of bytes to allocate.
+     * @return a direct buffer of the given capacity.
+     */
+    private ByteBuffer allocate(final Object key, final int length) {
+        synchronized (this) {
+            final Entry old = entries.remove(key);
+            if (old != null) {
+                recycle(old.data);
+            }
+            ByteBuffer data = reuse(length);
+            if (data != null) {
+                return data;
+            }
+            /*
+             * No recycled buffer of the requested size. Release the recycled buffers of other sizes
+             * first (they are not in use), then evict the least recently used tiles. If an evicted
+             * tile has a buffer of the requested size, we can reuse that buffer immediately.
+             */
+            if (memoryUsage + length > capacity) {
+                for (final List<ByteBuffer> list : recycled.values()) {
+                    for (final ByteBuffer b : list) {
+                        memoryUsage -= b.capacity();
+                    }
+                }
+                recycled.clear();
+                final Iterator<Entry> it = entries.values().iterator();
+                while (memoryUsage + length > capacity && it.hasNext()) {
+                    final ByteBuffer b = it.next().data;
+                    it.remove();
+                    if (b.capacity() == length) {
+                        return b.clear();
+                    }
+                    memoryUsage -= b.capacity();
+                }
+            }
+            memoryUsage += length;
+        }
+        /*
+         * Allocation outside the synchronized block because it may be slow
+         * (the memory is initialized to zero). The memory has already been reserved.
+         */
+        try {
+            return ByteBuffer.allocateDirect(length).order(ByteOrder.nativeOrder());
+        } catch (OutOfMemoryError e) {
+            synchronized (this) {
+                memoryUsage -= length;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a recycled buffer of the given capacity, or {@code null} if none.
+     * Caller must hold the lock on {@code this}.
+     */
+    private ByteBuffer reuse(final int length) {
+        final List<ByteBuffer> list = recycled.get(length);
+        if (list != null) {
+            final ByteBuffer data = list.remove(list.size() - 1);
+            if (list.isEmpty()) {
+                recycled.remove(length);
+            }
+            return data.clear();
+        }
+        return null;
+    }
+
+    /**
+     * Makes the given buffer available for reuse by another tile of the same size.
+     * Caller must hold the lock on {@code this}.
+     */
+    private void recycle(final ByteBuffer data) {
+        recycled.computeIfAbsent(data.capacity(), (k) -> new ArrayList<>()).add(data);
+    }
+
+    /**
+     * Makes the given buffer available for reuse after a failure to store a tile.
+     */
+    private synchronized void release(final ByteBuffer data) {
+        recycle(data);
+    }
+
+    /**
+     * Returns a new raster with a copy of the sample values stored for the given key.
+     */
+    @Override
+    protected Raster restore(final Object key) {
+        final Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            return null;
+        }
+        /*
+         * The copy is done outside the synchronized block. It is okay if the entry is evicted by another
+         * thread in the meantime, because the buffer of an evicted entry is only recycled. A concurrent
+         * write in that recycled buffer is possible but unlikely; we verify after the copy that the entry
+         * is still valid for making sure that we did not read corrupted data.
+         */
+        final var banks = new Buffer[entry.numBanks];
+        for (int i=0; i<banks.length; i++) {
+            final Buffer target = RasterFactory.createBuffer(entry.dataType, entry.size);
+            copy(entry.bank(i), target);
+            banks[i] = target.flip();
+        }
+        synchronized (this) {
+            if (entries.get(key) != entry) {
+                return null;
+            }
+        }
+        final DataBuffer buffer = RasterFactory.wrap(entry.dataType, banks);
+        WritableRaster tile = Raster.createWritableRaster(entry.model, buffer, new Point(entry.translateX, entry.translateY));
+        if (tile.getMinX() != entry.minX || tile.getMinY() != entry.minY ||
+            tile.getWidth() != entry.width || tile.getHeight() != entry.height)
+        {
+            tile = tile.createWritableChild(entry.minX, entry.minY, entry.width, entry.height, entry.minX, entry.minY, null);
+        }
+        return tile;
+    }
+
+    /**
+     * Removes the tile stored for the given key. The buffer is kept for recycling.
+     */
+    @Override
+    protected synchronized void remove(final Object key) {
+        final Entry old = entries.remove(key);
+        if (old != null) {
+            recycle(old.data);
+        }
+    }
+
+    /**
+     * Removes all tiles, including the tiles kept on the heap.
+     * All direct buffers are released to the garbage collector.
+     */
+    @Override
+    public void clear() {
+        synchronized (this) {
+            entries.clear();
+            recycled.clear();
+            memoryUsage = 0;
+        }
+        super.clear();
+    }
+
+    /**
+     * Returns the amount of bytes allocated outside the heap by this storage.
+     */
+    @Override
+    public synchronized long getMemoryUsage() {
+        return memoryUsage;
+    }
+}
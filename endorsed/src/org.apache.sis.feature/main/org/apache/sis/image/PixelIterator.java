@@ -19,7 +19,9 @@ package org.apache.sis.image;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Spliterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 import java.nio.Buffer;
 import java.nio.IntBuffer;
 import java.nio.FloatBuffer;
@@ -82,7 +84,7 @@ import static org.apache.sis.pending.jdk.JDK18.ceilDiv;
  * @author  Rémi Maréchal (Geomatys)
  * @author  Martin Desruisseaux (Geomatys)
  * @author  Johann Sorel (Geomatys)
- * @version 1.2
+ * @version 1.7
  * @since   1.0
  */
 public class PixelIterator {
@@ -683,6 +685,146 @@ public class PixelIterator {
         return new Rectangle(lowerX, lowerY, upperX - lowerX, upperY - lowerY);
     }
 
+    /**
+     * Returns a spliterator over the tiles traversed by this iterator. Each element is a new pixel iterator
+     * restricted to the intersection of one tile with the {@linkplain #getDomain() domain} of this iterator.
+     * Those iterators use the same {@linkplain #getIterationOrder() iteration order} and the same window size
+     * as this iterator, and are {@linkplain #isWritable() writable} if this iterator is writable.
+     * They are independent of each other and can be used in different threads.
+     * This allows parallel computation with streams as below:
+     *
+     * {@snippet lang="java" :
+     *     PixelIterator it = PixelIterator.create(image);
+     *     StreamSupport.stream(it.spliterator(), true).forEach((tile) -> {
+     *         double[] samples = null;
+     *         while (tile.next()) {
+     *             samples = tile.getPixel(samples);
+     *             // Perform computation here...
+     *         }
+     *     });
+     *     }
+     *
+     * Writable iterators provided by the spliterator need to be closed after usage
+     * in the same way as other {@link WritablePixelIterator} instances.
+     * The state of this iterator is not modified by this method or by the returned spliterator.
+     *
+     * @return a spliterator over iterators for each tile intersecting the domain of this iterator.
+     *
+     * @since 1.7
+     */
+    public Spliterator<PixelIterator> spliterator() {
+        int count = 0;
+        if (upperX > lowerX && upperY > lowerY) {
+            count = Math.multiplyExact(tileUpperX - tileLowerX, tileUpperY - tileLowerY);
+        }
+        return new TileSplitter(0, count);
+    }
+
+    /**
+     * A spliterator over the tiles of the enclosing iterator. Tiles are identified by an index
+     * in a flat sequence where the tile column index varies fastest.
+     */
+    private final class TileSplitter implements Spliterator<PixelIterator> {
+        /**
+         * Index of the next tile to return (inclusive) and index of the last tile (exclusive).
+         */
+        private int index, limit;
+
+        /**
+         * Creates a new spliterator for the given range of tile indices.
+         */
+        TileSplitter(final int index, final int limit) {
+            this.index = index;
+            this.limit = limit;
+        }
+
+        /**
+         * Creates the iterator for the next tile and gives it to the given action.
+         */
+        @Override
+        public boolean tryAdvance(final Consumer<? super PixelIterator> action) {
+            if (index < limit) {
+                action.accept(createTileIterator(index++));
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Creates the iterators for all remaining tiles and gives them to the given action.
+         */
+        @Override
+        public void forEachRemaining(final Consumer<? super PixelIterator> action) {
+            while (index < limit) {
+                action.accept(createTileIterator(index++));
+            }
+        }
+
+        /**
+         * Gives the first half of remaining tiles to a new spliterator.
+         */
+        @Override
+        public Spliterator<PixelIterator> trySplit() {
+            final int half = (limit - index) >>> 1;
+            if (half == 0) {
+                return null;
+            }
+            final int start = index;
+            index += half;
+            return new TileSplitter(start, index);
+        }
+
+        /**
+         * Returns the exact number of remaining tiles.
+         */
+        @Override
+        public long estimateSize() {
+            return limit - index;
+        }
+
+        /**
+         * Returns the characteristics of this spliterator.
+         */
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * Creates an iterator over the intersection of the specified tile with the domain of this iterator.
+     * This method uses only final fields and is safe for concurrent invocations.
+     *
+     * @param  index  tile index in a flat sequence where the tile column index varies fastest.
+     * @return iterator over the specified tile.
+     */
+    private PixelIterator createTileIterator(final int index) {
+        final int numTilesX = tileUpperX - tileLowerX;
+        final int tx = tileLowerX + index % numTilesX;
+        final int ty = tileLowerY + index / numTilesX;
+        final var area = new Rectangle(
+                Math.addExact(tileGridXOffset, Math.multiplyExact(tx, tileWidth)),
+                Math.addExact(tileGridYOffset, Math.multiplyExact(ty, tileHeight)),
+                tileWidth, tileHeight).intersection(getDomain());
+        return createSubIterator(new Builder()
+                .setRegionOfInterest(area)
+                .setWindowSize(windowWidth != 0 ? new Dimension(windowWidth, windowHeight) : null)
+                .setIteratorOrder(isDefaultOrder ? null : SequenceType.LINEAR),
+                (image != null) ? null : currentRaster);
+    }
+
+    /**
+     * Creates a new iterator over the same image or raster as this iterator, using the given builder.
+     * Subclasses shall override if they need to create writable iterators.
+     *
+     * @param  builder  the builder configured with the region of interest, window size and iteration order.
+     * @param  raster   the raster on which this iterator operates, or {@code null} if it operates on an image.
+     * @return the new iterator.
+     */
+    PixelIterator createSubIterator(final Builder builder, final Raster raster) {
+        return (raster != null) ? builder.create(raster) : builder.create(image);
+    }
+
     /**
      * Returns the column (x) and row (y) indices of the current pixel.
      * The {@link #next()} or {@link #moveTo(int,int)} method must have been invoked before this method.
@@ -1082,6 +1224,100 @@ public class PixelIterator {
         return currentRaster.getDataElements(x, y, dest);
     }
 
+    /**
+     * Reads the sample values of the specified band from the current pixel up to the end of the row segment
+     * in current tile. The segment starts at the {@linkplain #getPosition() current position} and ends either
+     * at the last pixel of the row which is in the current tile and in the iteration domain, or when the given
+     * array is full, whichever comes first. After this method call, the iterator is positioned on the last pixel
+     * that has been read, so that a call to {@link #next()} moves to the pixel after the segment.
+     *
+     * <p>This method is more efficient than invoking {@link #getSample(int)} in a loop. Typical usage:</p>
+     *
+     * {@snippet lang="java" :
+     *     int[] samples = new int[iterator.getDomain().width];
+     *     while (iterator.next()) {
+     *         int n = iterator.readRow(band, samples);
+     *         for (int i=0; i<n; i++) {
+     *             // Use samples[i] here...
+     *         }
+     *     }
+     *     }
+     *
+     * The {@link #next()} method must have returned {@code true}, or the {@link #moveTo(int,int)} method must have
+     * been invoked successfully, before this {@code readRow(…)} method is invoked. If above condition is not met,
+     * then this method behavior is undefined.
+     *
+     * @param  band  the band for which to get the sample values.
+     * @param  dest  the array where to store the sample values, starting at index 0.
+     * @return number of sample values stored in the given array.
+     *
+     * @see Raster#getSamples(int, int, int, int, int, int[])
+     *
+     * @since 1.7
+     */
+    public int readRow(final int band, final int[] dest) {
+        final int length = rowLength(dest.length);
+        if (length != 0) {
+            currentRaster.getSamples(x, y, length, 1, band, dest);
+            x += length - 1;
+        }
+        return length;
+    }
+
+    /**
+     * Reads the sample values of the specified band from the current pixel up to the end of the row segment
+     * in current tile. See {@link #readRow(int, int[])} for a description of the segment.
+     *
+     * @param  band  the band for which to get the sample values.
+     * @param  dest  the array where to store the sample values, starting at index 0.
+     * @return number of sample values stored in the given array.
+     *
+     * @see Raster#getSamples(int, int, int, int, int, float[])
+     *
+     * @since 1.7
+     */
+    public int readRow(final int band, final float[] dest) {
+        final int length = rowLength(dest.length);
+        if (length != 0) {
+            currentRaster.getSamples(x, y, length, 1, band, dest);
+            x += length - 1;
+        }
+        return length;
+    }
+
+    /**
+     * Reads the sample values of the specified band from the current pixel up to the end of the row segment
+     * in current tile. See {@link #readRow(int, int[])} for a description of the segment.
+     *
+     * @param  band  the band for which to get the sample values.
+     * @param  dest  the array where to store the sample values, starting at index 0.
+     * @return number of sample values stored in the given array.
+     *
+     * @see Raster#getSamples(int, int, int, int, int, double[])
+     *
+     * @since 1.7
+     */
+    public int readRow(final int band, final double[] dest) {
+        final int length = rowLength(dest.length);
+        if (length != 0) {
+            currentRaster.getSamples(x, y, length, 1, band, dest);
+            x += length - 1;
+        }
+        return length;
+    }
+
+    /**
+     * Returns the number of pixels that {@code readRow(…)} can read from the current position,
+     * which is the number of remaining pixels on the current row of current tile, but not more
+     * than the given array capacity.
+     *
+     * @param  capacity  length of the destination array.
+     * @return number of pixels to read, or 0 if none.
+     */
+    final int rowLength(final int capacity) {
+        return Math.max(0, Math.min(currentUpperX - x, capacity));
+    }
+
     /**
      * Returns a moving window over the sample values in a rectangular region starting at iterator position.
      * The <var>window size</var> must have been specified at {@code PixelIterator} construction time.
@@ -231,6 +231,22 @@ public abstract class PlanarImage implements RenderedImage {
      */
     public static final String STATISTICS_KEY = "org.apache.sis.Statistics";
 
+    /**
+     * Key of property providing histograms of sample values in each band.
+     * Histograms are useful for stretching a color palette between percentiles
+     * of the values actually used in an image, which is more robust than the
+     * minimum and maximum values in presence of a few outliers.
+     *
+     * <p>Values should be instances of <code>{@linkplain org.apache.sis.math.Histogram}[]</code>.
+     * The array length should be the number of bands. Some array elements may be {@code null}
+     * if the histograms are not available for all bands.</p>
+     *
+     * @see ImageProcessor#valueOfHistograms(RenderedImage, Shape, int, DoubleUnaryOperator...)
+     *
+     * @since 1.7
+     */
+    public static final String HISTOGRAMS_KEY = "org.apache.sis.Histograms";
+
     /**
      * Key of property providing a mask for missing values. Values should be instances of {@link RenderedImage}
      * with a single band, binary sample values and a color model of {@link java.awt.Transparency#BITMASK} type.
@@ -300,6 +316,9 @@ public abstract class PlanarImage implements RenderedImage {
      *     <td>{@value #STATISTICS_KEY}</td>
      *     <td>Minimum, maximum and mean values for each band.</td>
      *   </tr><tr>
+     *     <td>{@value #HISTOGRAMS_KEY}</td>
+     *     <td>Frequencies of sample values for each band.</td>
+     *   </tr><tr>
      *     <td>{@value #MASK_KEY}</td>
      *     <td>Image with transparent pixels at locations of valid values and opaque pixels elsewhere.</td>
      *   </tr><tr>
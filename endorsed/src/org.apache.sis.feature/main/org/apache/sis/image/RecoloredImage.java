@@ -34,6 +34,7 @@ import org.apache.sis.util.internal.shared.Numerics;
 import org.apache.sis.util.collection.Containers;
 import org.apache.sis.util.resources.Errors;
 import org.apache.sis.math.Statistics;
+import org.apache.sis.math.Histogram;
 import org.apache.sis.measure.NumberRange;
 
 
@@ -216,6 +217,7 @@ final class RecoloredImage extends ImageAdapter {
         double          minimum        = Double.NaN;
         double          maximum        = Double.NaN;
         double          deviations     = Double.POSITIVE_INFINITY;
+        double[]        percentiles    = null;
         /*
          * Extract and validate parameter values.
          * No calculation started at this stage.
@@ -236,7 +238,20 @@ final class RecoloredImage extends ImageAdapter {
                 }
             }
             areaOfInterest = Containers.property(modifiers, "areaOfInterest", Shape.class);
-            Object value = modifiers.get("nodataValues");
+            Object value = modifiers.get("percentiles");
+            if (value != null) {
+                if (!(value instanceof Number[]) || ((Number[]) value).length != 2) {
+                    throw illegalPropertyType(modifiers, "percentiles", value);
+                }
+                final Number[] bounds = (Number[]) value;
+                percentiles = new double[] {bounds[0].doubleValue(), bounds[1].doubleValue()};
+                ArgumentChecks.ensureBetween("percentiles", 0.0, 100.0, percentiles[0]);
+                ArgumentChecks.ensureBetween("percentiles", 0.0, 100.0, percentiles[1]);
+                if (!(percentiles[0] < percentiles[1])) {
+                    throw new IllegalArgumentException(Errors.format(Errors.Keys.IllegalRange_2, bounds[0], bounds[1]));
+                }
+            }
+            value = modifiers.get("nodataValues");
             if (value != null) {
                 if (value instanceof Number) {
                     nodataValues = new Number[] {(Number) value};
@@ -271,7 +286,21 @@ final class RecoloredImage extends ImageAdapter {
          * If minimum and maximum values were not explicitly specified, compute them from statistics.
          * If the range is not valid, then the image will be silently returned as-is.
          */
-        if (Double.isNaN(minimum) || Double.isNaN(maximum)) {
+        if ((Double.isNaN(minimum) || Double.isNaN(maximum)) && percentiles != null) {
+            /*
+             * Percentiles are computed from histograms, which are computed in a single pass
+             * without the need to compute the minimum and maximum values first.
+             */
+            final var sampleFilters = new DoubleUnaryOperator[visibleBand + 1];
+            sampleFilters[visibleBand] = ImageProcessor.filterNodataValues(nodataValues);
+            final Histogram[] histograms = processor.valueOfHistograms(statsSource, areaOfInterest,
+                                                    HistogramCalculator.DEFAULT_NUM_BINS, sampleFilters);
+            if (visibleBand < histograms.length) {
+                final Histogram histogram = histograms[visibleBand];
+                if (Double.isNaN(minimum)) minimum = histogram.quantile(percentiles[0] / 100);
+                if (Double.isNaN(maximum)) maximum = histogram.quantile(percentiles[1] / 100);
+            }
+        } else if (Double.isNaN(minimum) || Double.isNaN(maximum)) {
             if (statistics == null) {
                 if (statsAllBands == null) {
                     final var sampleFilters = new DoubleUnaryOperator[visibleBand + 1];
@@ -779,6 +779,7 @@ public class ResampledImage extends ComputedImage {
         int sx = Integer.MAX_VALUE;
         int sy = Integer.MAX_VALUE;
         final PixelIterator.Window<DoubleBuffer> buffer = it.createWindow(TransferType.DOUBLE);
+        final SampleInterpolator direct = shortcut ? null : SampleInterpolator.create(getSource(), interpolation, numBands);
         for (int ty = tileMinY; ty < tileMaxY; ty++) {
             /*
              * Transform a block of coordinates in one `transform(…)` method call.
@@ -857,19 +858,23 @@ public class ResampledImage extends ComputedImage {
                                      * were close to an image border. If the MathTransform produced 3 or more coordinates,
                                      * current implementation does not yet use those coordinates. But if we want to use
                                      * them in a future version (e.g. for interpolation in 3D cube), it would be there.
-                                     */
-                                    if (sx != (sx = (int) x)  |     // Really |, not ||.
-                                        sy != (sy = (int) y))
-                                    {
-                                        it.moveTo(sx, sy);
-                                        buffer.update();
-                                    }
-                                    /*
+                                     *
                                      * Interpolate the values at current position. We don't do any special processing
                                      * for NaN values because we want to keep them if output type is floating point,
                                      * and NaN values should not occur if data type (input and output) is integer.
+                                     * The `direct` interpolator reads the tile data buffer without copying the window,
+                                     * but is not available for all cases. If not, use the generic path.
                                      */
-                                    interpolation.interpolate(buffer.values, numBands, xf, yf, values, isInteger ? 0 : vi);
+                                    final int offset = isInteger ? 0 : vi;
+                                    if (direct == null || !direct.interpolate((int) x, (int) y, xf, yf, values, offset)) {
+                                        if (sx != (sx = (int) x)  |     // Really |, not ||.
+                                            sy != (sy = (int) y))
+                                        {
+                                            it.moveTo(sx, sy);
+                                            buffer.update();
+                                        }
+                                        interpolation.interpolate(buffer.values, numBands, xf, yf, values, offset);
+                                    }
                                     if (isInteger) {
                                         for (int b=0; b<numBands; b++) {
                                             intValues[vi+b] = (int) Math.max(minValues[b],
@@ -0,0 +1,506 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.image;
+
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.DataBufferShort;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferFloat;
+import java.awt.image.DataBufferDouble;
+import org.apache.sis.image.internal.shared.ImageUtilities;
+
+
+/**
+ * Nearest-neighbor or bilinear interpolation reading sample values directly in the data buffers of source tiles.
+ * This is an optimization used by {@link ResampledImage} for the most common interpolations. It avoids the copy
+ * of sample values in the {@link java.nio.DoubleBuffer} of a {@link PixelIterator} window for each pixel,
+ * and the conversions of all sample values to the {@code double} type before the interpolation.
+ * There is one subclass for each data type, each subclass having its own inner loops.
+ *
+ * <p>This class can be used only if the source tiles use a {@link ComponentSampleModel}
+ * (which includes pixel-interleaved and banded sample models) and if the interpolation
+ * is {@link Interpolation#NEAREST} or {@link Interpolation#BILINEAR}. Other interpolations
+ * and other sample models use the generic path of {@link ResampledImage}.
+ * Pixels where the interpolation window overlaps two tiles also use the generic path.</p>
+ *
+ * <p>This class is not thread-safe. A new instance should be created for each tile to compute.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+abstract class SampleInterpolator {
+    /**
+     * The image from which to read sample values.
+     */
+    private final RenderedImage source;
+
+    /**
+     * The data type of all tiles of the source image, as a {@link DataBuffer} constant.
+     */
+    private final int dataType;
+
+    /**
+     * Whether to apply bilinear interpolation instead of nearest-neighbor.
+     */
+    private final boolean bilinear;
+
+    /**
+     * Number of pixels that the interpolation window needs after the current pixel: 1 for bilinear, 0 otherwise.
+     */
+    private final int margin;
+
+    /**
+     * Range of pixel coordinates (inclusive) of the upper-left corner of interpolation windows
+     * that are fully contained in the current tile. This is initially an empty range.
+     */
+    private int xmin, ymin, xmax, ymax;
+
+    /**
+     * Pixel coordinates of the first sample in the current tile data buffer.
+     * This is the translation from the raster coordinates to the sample model coordinates.
+     */
+    private int originX, originY;
+
+    /**
+     * Number of array elements between two pixels or two rows in the current tile.
+     */
+    protected int pixelStride, scanlineStride;
+
+    /**
+     * Index of the first sample value of each band in the banks of the current tile.
+     */
+    protected final int[] offsets;
+
+    /**
+     * Creates a new interpolator for the given source image.
+     *
+     * @param  source    the image from which to read sample values.
+     * @param  numBands  number of bands in the source image.
+     * @param  bilinear  whether to apply bilinear interpolation instead of nearest-neighbor.
+     */
+    SampleInterpolator(final RenderedImage source, final int numBands, final boolean bilinear) {
+        this.source   = source;
+        this.bilinear = bilinear;
+        this.dataType = source.getSampleModel().getDataType();
+        margin  = bilinear ? 1 : 0;
+        offsets = new int[numBands];
+        xmin = ymin = Integer.MAX_VALUE;
+        xmax = ymax = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Returns an interpolator for the given source image,
+     * or {@code null} if the image or the interpolation is not supported by this class.
+     *
+     * @param  source         the image from which to read sample values.
+     * @param  interpolation  the interpolation to apply.
+     * @param  numBands       number of bands in the target image.
+     * @return the interpolator, or {@code null} if the caller should use the generic path.
+     */
+    static SampleInterpolator create(final RenderedImage source, final Interpolation interpolation, final int numBands) {
+        final boolean bilinear;
+        if (interpolation == Interpolation.BILINEAR) {
+            bilinear = true;
+        } else if (interpolation == Interpolation.NEAREST) {
+            bilinear = false;
+        } else {
+            return null;
+        }
+        final SampleModel sm = source.getSampleModel();
+        if (!(sm instanceof ComponentSampleModel) || sm.getNumBands() != numBands) {
+            return null;
+        }
+        switch (sm.getDataType()) {
+            case DataBuffer.TYPE_BYTE:   return new Bytes   (source, numBands, bilinear);
+            case DataBuffer.TYPE_USHORT: return new UShorts (source, numBands, bilinear);
+            case DataBuffer.TYPE_SHORT:  return new Shorts  (source, numBands, bilinear);
+            case DataBuffer.TYPE_INT:    return new Integers(source, numBands, bilinear);
+            case DataBuffer.TYPE_FLOAT:  return new Floats  (source, numBands, bilinear);
+            case DataBuffer.TYPE_DOUBLE: return new Doubles (source, numBands, bilinear);
+            default: return null;
+        }
+    }
+
+    /**
+     * Interpolates the sample values of all bands in the window having the given pixel in its upper-left corner.
+     * The arguments have the same meaning as in {@link Interpolation#interpolate Interpolation.interpolate(…)}.
+     * If this method returns {@code false}, then nothing has been written and the caller should use the generic
+     * path instead. This happen when the interpolation window overlaps two tiles.
+     *
+     * @param  x              column index of the upper-left pixel of the interpolation window.
+     * @param  y              row index of the upper-left pixel of the interpolation window.
+     * @param  xfrac          the X subsample position, usually (but not always) in the range [0 … 1).
+     * @param  yfrac          the Y subsample position, usually (but not always) in the range [0 … 1).
+     * @param  writeTo        the array where this method shall write interpolated values.
+     * @param  writeToOffset  index of the first value to put in the {@code writeTo} array.
+     * @return whether the values have been written.
+     */
+    final boolean interpolate(final int x, final int y, final double xfrac, final double yfrac,
+                              final double[] writeTo, final int writeToOffset)
+    {
+        if (x < xmin || x > xmax || y < ymin || y > ymax) {
+            if (!setTile(x, y)) {
+                return false;
+            }
+        }
+        final int index = (y - originY) * scanlineStride + (x - originX) * pixelStride;
+        if (bilinear) {
+            bilinear(index, xfrac, yfrac, writeTo, writeToOffset);
+        } else {
+            nearest(index, writeTo, writeToOffset);
+        }
+        return true;
+    }
+
+    /**
+     * Sets the current tile to the tile containing the given pixel.
+     *
+     * @param  x  column index of the upper-left pixel of the interpolation window.
+     * @param  y  row index of the upper-left pixel of the interpolation window.
+     * @return whether the interpolation window is fully contained in a tile of a supported type.
+     */
+    private boolean setTile(final int x, final int y) {
+        final Raster tile = source.getTile(ImageUtilities.pixelToTileX(source, x),
+                                           ImageUtilities.pixelToTileY(source, y));
+        final int tileMaxX = tile.getMinX() + tile.getWidth()  - 1 - margin;
+        final int tileMaxY = tile.getMinY() + tile.getHeight() - 1 - margin;
+        if (x > tileMaxX || y > tileMaxY) {
+            return false;
+        }
+        final SampleModel sm = tile.getSampleModel();
+        if (!(sm instanceof ComponentSampleModel) || sm.getDataType() != dataType) {
+            return false;
+        }
+        final var   csm         = (ComponentSampleModel) sm;
+        final DataBuffer buffer = tile.getDataBuffer();
+        final int[] bankIndices = csm.getBankIndices();
+        final int[] bandOffsets = csm.getBandOffsets();
+        for (int b=0; b<offsets.length; b++) {
+            offsets[b] = buffer.getOffsets()[bankIndices[b]] + bandOffsets[b];
+        }
+        setBanks(buffer, bankIndices);
+        pixelStride    = csm.getPixelStride();
+        scanlineStride = csm.getScanlineStride();
+        originX = tile.getSampleModelTranslateX();
+        originY = tile.getSampleModelTranslateY();
+        xmin    = tile.getMinX();
+        ymin    = tile.getMinY();
+        xmax    = tileMaxX;
+        ymax    = tileMaxY;
+        return true;
+    }
+
+    /**
+     * Fetches the arrays of sample values in the data buffer of the current tile.
+     *
+     * @param  buffer       the data buffer of the current tile.
+     * @param  bankIndices  the bank index of each band.
+     */
+    abstract void setBanks(DataBuffer buffer, int[] bankIndices);
+
+    /**
+     * Copies the sample values of all bands at the given index.
+     *
+     * @param  index          index of the pixel relative to the {@linkplain #offsets} of each band.
+     * @param  writeTo        the array where this method shall write sample values.
+     * @param  writeToOffset  index of the first value to put in the {@code writeTo} array.
+     */
+    abstract void nearest(int index, double[] writeTo, int writeToOffset);
+
+    /**
+     * Interpolates the sample values of all bands in the 2×2 window starting at the given index.
+     * The formula is the same as {@link Interpolation#BILINEAR}.
+     *
+     * @param  index          index of the upper-left pixel relative to the {@linkplain #offsets} of each band.
+     * @param  xfrac          the X subsample position, usually (but not always) in the range [0 … 1).
+     * @param  yfrac          the Y subsample position, usually (but not always) in the range [0 … 1).
+     * @param  writeTo        the array where this method shall write interpolated values.
+     * @param  writeToOffset  index of the first value to put in the {@code writeTo} array.
+     */
+    abstract void bilinear(int index, double xfrac, double yfrac, double[] writeTo, int writeToOffset);
+
+    /**
+     * Interpolator for sample values stored in {@code byte} arrays interpreted as unsigned integers.
+     */
+    private static final class Bytes extends SampleInterpolator {
+        /** The arrays of sample values for each band. */
+        private final byte[][] banks;
+
+        /** Creates a new interpolator for the given number of bands. */
+        Bytes(final RenderedImage source, final int numBands, final boolean bilinear) {
+            super(source, numBands, bilinear);
+            banks = new byte[numBands][];
+        }
+
+        /** Fetches the arrays of sample values in the data buffer of the current tile. */
+        @Override void setBanks(final DataBuffer buffer, final int[] bankIndices) {
+            final var db = (DataBufferByte) buffer;
+            for (int b=0; b<banks.length; b++) {
+                banks[b] = db.getData(bankIndices[b]);
+            }
+        }
+
+        /** Copies the sample values at the given index. */
+        @Override void nearest(final int index, final double[] writeTo, int writeToOffset) {
+            for (int b=0; b<banks.length; b++) {
+                writeTo[writeToOffset++] = banks[b][offsets[b] + index] & 0xFF;
+            }
+        }
+
+        /** Interpolates the sample values in the 2×2 window starting at the given index. */
+        @Override void bilinear(final int index, final double xfrac, final double yfrac, final double[] writeTo, int writeToOffset) {
+            final double mx = (1 - xfrac);
+            final double my = (1 - yfrac);
+            for (int b=0; b<banks.length; b++) {
+                final byte[] data = banks[b];
+                int p = offsets[b] + index;
+                final double v = ((data[p] & 0xFF)*mx + (data[p + pixelStride] & 0xFF)*xfrac) * my
+                               + ((data[p += scanlineStride] & 0xFF)*mx + (data[p + pixelStride] & 0xFF)*xfrac) * yfrac;
+                writeTo[writeToOffset++] = v;
+            }
+        }
+    }
+
+    /**
+     * Interpolator for sample values stored in {@code short} arrays interpreted as unsigned integers.
+     */
+    private static final class UShorts extends SampleInterpolator {
+        /** The arrays of sample values for each band. */
+        private final short[][] banks;
+
+        /** Creates a new interpolator for the given number of bands. */
+        UShorts(final RenderedImage source, final int numBands, final boolean bilinear) {
+            super(source, numBands, bilinear);
+            banks = new short[numBands][];
+        }
+
+        /** Fetches the arrays of sample values in the data buffer of the current tile. */
+        @Override void setBanks(final DataBuffer buffer, final int[] bankIndices) {
+            final var db = (DataBufferUShort) buffer;
+            for (int b=0; b<banks.length; b++) {
+                banks[b] = db.getData(bankIndices[b]);
+            }
+        }
+
+        /** Copies the sample values at the given index. */
+        @Override void nearest(final int index, final double[] writeTo, int writeToOffset) {
+            for (int b=0; b<banks.length; b++) {
+                writeTo[writeToOffset++] = banks[b][offsets[b] + index] & 0xFFFF;
+            }
+        }
+
+        /** Interpolates the sample values in the 2×2 window starting at the given index. */
+        @Override void bilinear(final int index, final double xfrac, final double yfrac, final double[] writeTo, int writeToOffset) {
+            final double mx = (1 - xfrac);
+            final double my = (1 - yfrac);
+            for (int b=0; b<banks.length; b++) {
+                final short[] data = banks[b];
+                int p = offsets[b] + index;
+                final double v = ((data[p] & 0xFFFF)*mx + (data[p + pixelStride] & 0xFFFF)*xfrac) * my
+                               + ((data[p += scanlineStride] & 0xFFFF)*mx + (data[p + pixelStride] & 0xFFFF)*xfrac) * yfrac;
+                writeTo[writeToOffset++] = v;
+            }
+        }
+    }
+
+    /**
+     * Interpolator for sample values stored in {@code short} arrays.
+     */
+    private static final class Shorts extends SampleInterpolator {
+        /** The arrays of sample values for each band. */
+        private final short[][] banks;
+
+        /** Creates a new interpolator for the given number of bands. */
+        Shorts(final RenderedImage source, final int numBands, final boolean bilinear) {
+            super(source, numBands, bilinear);
+            banks = new short[numBands][];
+        }
+
+        /** Fetches the arrays of sample values in the data buffer of the current tile. */
+        @Override void setBanks(final DataBuffer buffer, final int[] bankIndices) {
+            final var db = (DataBufferShort) buffer;
+            for (int b=0; b<banks.length; b++) {
+                banks[b] = db.getData(bankIndices[b]);
+            }
+        }
+
+        /** Copies the sample values at the given index. */
+        @Override void nearest(final int index, final double[] writeTo, int writeToOffset) {
+            for (int b=0; b<banks.length; b++) {
+                writeTo[writeToOffset++] = banks[b][offsets[b] + index];
+            }
+        }
+
+        /** Interpolates the sample values in the 2×2 window starting at the given index. */
+        @Override void bilinear(final int index, final double xfrac, final double yfrac, final double[] writeTo, int writeToOffset) {
+            final double mx = (1 - xfrac);
+            final double my = (1 - yfrac);
+            for (int b=0; b<banks.length; b++) {
+                final short[] data = banks[b];
+                int p = offsets[b] + index;
+                final double v = (data[p]*mx + data[p + pixelStride]*xfrac) * my
+                               + (data[p += scanlineStride]*mx + data[p + pixelStride]*xfrac) * yfrac;
+                writeTo[writeToOffset++] = v;
+            }
+        }
+    }
+
+    /**
+     * Interpolator for sample values stored in {@code int} arrays.
+     */
+    private static final class Integers extends SampleInterpolator {
+        /** The arrays of sample values for each band. */
+        private final int[][] banks;
+
+        /** Creates a new interpolator for the given number of bands. */
+        Integers(final RenderedImage source, final int numBands, final boolean bilinear) {
+            super(source, numBands, bilinear);
+            banks = new int[numBands][];
+        }
+
+        /** Fetches the arrays of sample values in the data buffer of the current tile. */
+        @Override void setBanks(final DataBuffer buffer, final int[] bankIndices) {
+            final var db = (DataBufferInt) buffer;
+            for (int b=0; b<banks.length; b++) {
+                banks[b] = db.getData(bankIndices[b]);
+            }
+        }
+
+        /** Copies the sample values at the given index. */
+        @Override void nearest(final int index, final double[] writeTo, int writeToOffset) {
+            for (int b=0; b<banks.length; b++) {
+                writeTo[writeToOffset++] = banks[b][offsets[b] + index];
+            }
+        }
+
+        /** Interpolates the sample values in the 2×2 window starting at the given index. */
+        @Override void bilinear(final int index, final double xfrac, final double yfrac, final double[] writeTo, int writeToOffset) {
+            final double mx = (1 - xfrac);
+            final double my = (1 - yfrac);
+            for (int b=0; b<banks.length; b++) {
+                final int[] data = banks[b];
+                int p = offsets[b] + index;
+                final double v = (data[p]*mx + data[p + pixelStride]*xfrac) * my
+                               + (data[p += scanlineStride]*mx + data[p + pixelStride]*xfrac) * yfrac;
+                writeTo[writeToOffset++] = v;
+            }
+        }
+    }
+
+    /**
+     * Interpolator for sample values stored in {@code float} arrays.
+     */
+    private static final class Floats extends SampleInterpolator {
+        /** The arrays of sample values for each band. */
+        private final float[][] banks;
+
+        /** Creates a new interpolator for the given number of bands. */
+        Floats(final RenderedImage source, final int numBands, final boolean bilinear) {
+            super(source, numBands, bilinear);
+            banks = new float[numBands][];
+        }
+
+        /** Fetches the arrays of sample values in the data buffer of the current tile. */
+        @Override void setBanks(final DataBuffer buffer, final int[] bankIndices) {
+            final var db = (DataBufferFloat) buffer;
+            for (int b=0; b<banks.length; b++) {
+                banks[b] = db.getData(bankIndices[b]);
+            }
+        }
+
+        /** Copies the sample values at the given index. */
+        @Override void nearest(final int index, final double[] writeTo, int writeToOffset) {
+            for (int b=0; b<banks.length; b++) {
+                writeTo[writeToOffset++] = banks[b][offsets[b] + index];
+            }
+        }
+
+        /** Interpolates the sample values in the 2×2 window starting at the given index. */
+        @Override void bilinear(final int index, final double xfrac, final double yfrac, final double[] writeTo, int writeToOffset) {
+            final double mx = (1 - xfrac);
+            final double my = (1 - yfrac);
+            for (int b=0; b<banks.length; b++) {
+                final float[] data = banks[b];
+                int p = offsets[b] + index;
+                double v = (data[p]*mx + data[p + pixelStride]*xfrac) * my
+                         + (data[p += scanlineStride]*mx + data[p + pixelStride]*xfrac) * yfrac;
+                if (Double.isNaN(v)) {
+                    // Fallback on nearest-neighbor, as done by `Interpolation.BILINEAR`.
+                    p = offsets[b] + index;
+                    if (xfrac >= 0.5) p += pixelStride;
+                    if (yfrac >= 0.5) p += scanlineStride;
+                    v = data[p];
+                }
+                writeTo[writeToOffset++] = v;
+            }
+        }
+    }
+
+    /**
+     * Interpolator for sample values stored in {@code double} arrays.
+     */
+    private static final class Doubles extends SampleInterpolator {
+        /** The arrays of sample values for each band. */
+        private final double[][] banks;
+
+        /** Creates a new interpolator for the given number of bands. */
+        Doubles(final RenderedImage source, final int numBands, final boolean bilinear) {
+            super(source, numBands, bilinear);
+            banks = new double[numBands][];
+        }
+
+        /** Fetches the arrays of sample values in the data buffer of the current tile. */
+        @Override void setBanks(final DataBuffer buffer, final int[] bankIndices) {
+            final var db = (DataBufferDouble) buffer;
+            for (int b=0; b<banks.length; b++) {
+                banks[b] = db.getData(bankIndices[b]);
+            }
+        }
+
+        /** Copies the sample values at the given index. */
+        @Override void nearest(final int index, final double[] writeTo, int writeToOffset) {
+            for (int b=0; b<banks.length; b++) {
+                writeTo[writeToOffset++] = banks[b][offsets[b] + index];
+            }
+        }
+
+        /** Interpolates the sample values in the 2×2 window starting at the given index. */
+        @Override void bilinear(final int index, final double xfrac, final double yfrac, final double[] writeTo, int writeToOffset) {
+            final double mx = (1 - xfrac);
+            final double my = (1 - yfrac);
+            for (int b=0; b<banks.length; b++) {
+                final double[] data = banks[b];
+                int p = offsets[b] + index;
+                double v = (data[p]*mx + data[p + pixelStride]*xfrac) * my
+                         + (data[p += scanlineStride]*mx + data[p + pixelStride]*xfrac) * yfrac;
+                if (Double.isNaN(v)) {
+                    // Fallback on nearest-neighbor, as done by `Interpolation.BILINEAR`.
+                    p = offsets[b] + index;
+                    if (xfrac >= 0.5) p += pixelStride;
+                    if (yfrac >= 0.5) p += scanlineStride;
+                    v = data[p];
+                }
+                writeTo[writeToOffset++] = v;
+            }
+        }
+    }
+}
@@ -59,13 +59,25 @@ final class StatisticsCalculator extends AnnotatedImage {
                          final boolean parallel, final boolean failOnException)
     {
         super(image, areaOfInterest, parallel, failOnException);
+        this.sampleFilters = validate(image, sampleFilters);
+    }
+
+    /**
+     * Returns a copy of the given filters with one element per band,
+     * or {@code null} if there is no filter to apply.
+     *
+     * @param  image          the image for which to compute statistics.
+     * @param  sampleFilters  converters to apply on sample values, or {@code null}.
+     * @return the filters to apply on each band, or {@code null} if none.
+     */
+    static DoubleUnaryOperator[] validate(final RenderedImage image, DoubleUnaryOperator[] sampleFilters) {
         if (sampleFilters != null) {
             sampleFilters = Arrays.copyOf(sampleFilters, ImageUtilities.getNumBands(image));
             if (ArraysExt.allEquals(sampleFilters, null)) {
                 sampleFilters = null;
             }
         }
-        this.sampleFilters = sampleFilters;
+        return sampleFilters;
     }
 
     /**
@@ -100,13 +112,14 @@ final class StatisticsCalculator extends AnnotatedImage {
     }
 
     /**
-     * Returns accumulators which will apply the {@link #filter} before to add values to statistics.
+     * Returns accumulators which will apply the {@link #sampleFilters} before to add values to statistics.
      * If there is no filter to apply, then this method returns the {@code accumulator} array directly.
      *
-     * @param  accumulator  where to accumulate the statistics results.
+     * @param  accumulator    where to accumulate the statistics results.
+     * @param  sampleFilters  the filters to apply on each band, or {@code null} if none.
      * @return the accumulator optionally filtered.
      */
-    private DoubleConsumer[] filtered(final Statistics[] accumulator) {
+    static DoubleConsumer[] filtered(final DoubleConsumer[] accumulator, final DoubleUnaryOperator[] sampleFilters) {
         if (sampleFilters == null) {
             return accumulator;
         }
@@ -127,10 +140,11 @@ final class StatisticsCalculator extends AnnotatedImage {
      * <p>This method may be invoked concurrently by many threads.
      * Fields used by this method shall be thread-safe when not modified.</p>
      *
-     * @param accumulator  where to accumulate the statistics results.
-     * @param it           the iterator on a raster or on the whole image.
+     * @param accumulator     where to accumulate the statistics results.
+     * @param it              the iterator on a raster or on the whole image.
+     * @param areaOfInterest  pixel coordinates of AOI, or {@code null} for the whole image.
      */
-    private void compute(final DoubleConsumer[] accumulator, final PixelIterator it) {
+    static void compute(final DoubleConsumer[] accumulator, final PixelIterator it, final Shape areaOfInterest) {
         double[] samples = null;
         while (it.next()) {
             if (areaOfInterest == null || areaOfInterest.contains(it.x, it.y)) {
@@ -151,7 +165,7 @@ final class StatisticsCalculator extends AnnotatedImage {
     protected Object computeSequentially() {
         final PixelIterator it = new PixelIterator.Builder().setRegionOfInterest(boundsOfInterest).create(source);
         final Statistics[] accumulator = createAccumulator(it.getNumBands());
-        compute(filtered(accumulator), it);
+        compute(filtered(accumulator, sampleFilters), it, areaOfInterest);
         return accumulator;
     }
 
@@ -223,7 +237,8 @@ final class StatisticsCalculator extends AnnotatedImage {
      * @throws RuntimeException if the calculation failed.
      */
     private void compute(final Statistics[] accumulator, final Raster tile) {
-        compute(filtered(accumulator), new PixelIterator.Builder().setRegionOfInterest(boundsOfInterest).create(tile));
+        compute(filtered(accumulator, sampleFilters),
+                new PixelIterator.Builder().setRegionOfInterest(boundsOfInterest).create(tile), areaOfInterest);
     }
 
     /**
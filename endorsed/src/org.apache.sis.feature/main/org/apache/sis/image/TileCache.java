@@ -27,9 +27,12 @@ import org.apache.sis.pending.jdk.JDK16;
 
 
 /**
- * A cache of tiles computed by {@link ComputedImage}. A common cache is shared by all images.
+ * A cache of tiles computed by {@link ComputedImage}. A common cache is shared by all images,
+ * unless a {@link TileStorage} has been specified for an image, in which case the images using
+ * that storage share a cache dedicated to that storage.
  * Tiles are kept by strong references until a memory usage limit is reached, in which case
- * the references of oldest tiles become soft references.
+ * the references of oldest tiles become soft references (or weak references if a storage
+ * keeps a copy of the tiles).
  *
  * <p>The same {@link Raster} may be shared by many images. Removing the tiles of an image
  * does not impact other images even if they share the same rasters.</p>
@@ -45,20 +48,32 @@ import org.apache.sis.pending.jdk.JDK16;
  */
 final class TileCache extends Cache<TileCache.Key, Raster> {
     /**
-     * The instance shared by all image operations. Current version does not allow to specify
-     * a custom cache for some images, but a future version may allow that.
+     * The instance shared by all image operations, unless a {@link TileStorage} has been specified.
      */
-    static final TileCache GLOBAL = new TileCache();
+    static final TileCache GLOBAL = new TileCache(Runtime.getRuntime().maxMemory() / 4, null);
 
     /**
-     * Creates a new tile cache. We put an arbitrary limit of 25% of available memory.
-     * If more tiles are created, some strong references will become soft references.
-     * Because strong references may be kept by the JVM, the amount of memory actually
+     * The storage where to copy the computed tiles, or {@code null} if none.
+     * The tiles in this storage can be restored when they are no longer on the heap.
+     */
+    final TileStorage storage;
+
+    /**
+     * Creates a new tile cache. For the {@linkplain #GLOBAL global} cache, we put an arbitrary limit
+     * of 25% of available memory. If more tiles are created, some strong references will become soft
+     * references. Because strong references may be kept by the JVM, the amount of memory actually
      * used may be greater than this limit. However, those references are cleaned when the
      * image owning those tiles is {@linkplain ComputedTiles#dispose() garbage collected}.
+     *
+     * <p>If a storage is specified, weak references are used instead of soft references
+     * because the tiles can be restored from the storage instead of being recomputed.</p>
+     *
+     * @param  costLimit  maximal amount of bytes of tiles to keep by strong references.
+     * @param  storage    where to copy the computed tiles, or {@code null} if none.
      */
-    private TileCache() {
-        super(100, Runtime.getRuntime().maxMemory() / 4, true);
+    TileCache(final long costLimit, final TileStorage storage) {
+        super(100, costLimit, storage == null);
+        this.storage = storage;
     }
 
     /**
@@ -93,6 +108,44 @@ final class TileCache extends Cache<TileCache.Key, Raster> {
         return changed;
     }
 
+    /**
+     * Removes the raster associated to the given key, together with its copy in the storage if any.
+     *
+     * @param  key  the key of the tile to remove.
+     * @return the tile previously associated to the given key, or {@code null} if none.
+     */
+    @Override
+    public Raster remove(final Object key) {
+        if (storage != null) {
+            storage.remove(key);
+        }
+        return super.remove(key);
+    }
+
+    /**
+     * Stores a copy of the given tile in the storage, if any.
+     * This method should be invoked after the tile has been computed or modified.
+     *
+     * @param  key   the key of the tile to store.
+     * @param  tile  the tile to store, or {@code null} if none.
+     */
+    final void store(final Key key, final Raster tile) {
+        if (storage != null && tile != null) {
+            storage.store(key, tile);
+        }
+    }
+
+    /**
+     * Returns the tile restored from the storage, or {@code null} if none.
+     * This method should be invoked when the tile is no longer on the heap.
+     *
+     * @param  key  the key of the tile to restore.
+     * @return the restored tile, or {@code null} if none.
+     */
+    final Raster restore(final Key key) {
+        return (storage != null) ? storage.restore(key) : null;
+    }
+
     /**
      * A compound key identifying a tile of a {@link ComputedImage}.
      */
@@ -144,7 +197,7 @@ final class TileCache extends Cache<TileCache.Key, Raster> {
          * has been {@linkplain ComputedTiles#dispose() garbage collected}.
          */
         final void dispose() {
-            GLOBAL.remove(this);
+            image.cache.remove(this);
         }
 
         /**
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.image;
+
+import java.awt.image.Raster;
+import org.apache.sis.util.ArgumentChecks;
+
+
+/**
+ * A storage of tiles computed by {@link ComputedImage}, used as an alternative to the application-wide cache.
+ * By default, all computed images share a cache which keeps tiles by strong references until a memory limit
+ * is reached (25% of the maximal heap size), in which case the oldest tiles are kept by soft references.
+ * A {@code TileStorage} replaces that default by a cache dedicated to the images using this storage,
+ * with a configurable limit on the heap memory, and with a second level of storage for the tiles
+ * that exceed that limit. The second level may be for example outside the Java heap.
+ *
+ * <p>Tiles are copied in the secondary storage after they have been computed.
+ * When a tile is no longer on the heap, the copy is used for restoring the tile
+ * instead of recomputing it. Consequently, the tiles kept on the heap can be retained by
+ * {@linkplain java.lang.ref.WeakReference weak references} instead of soft references,
+ * which reduces the pressure on the garbage collector.</p>
+ *
+ * <p>The storage can be specified for all images created by an {@link ImageProcessor}
+ * with {@link ImageProcessor#setTileStorage(TileStorage)}.</p>
+ *
+ * <h2>Thread-safety</h2>
+ * Implementations shall be safe for concurrent use in multi-threading environment.
+ * All {@code TileStorage} methods may be invoked from any thread.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.7
+ *
+ * @see ImageProcessor#setTileStorage(TileStorage)
+ * @see ComputedImage#setTileStorage(TileStorage)
+ *
+ * @since 1.7
+ */
+public abstract class TileStorage {
+    /**
+     * The cache of tiles kept on the heap for all images using this storage.
+     */
+    final TileCache cache;
+
+    /**
+     * Creates a new storage with the given limit on the amount of tiles retained on the heap.
+     * If the memory consumed by tiles on the heap exceeds that limit, the strong references
+     * to the oldest tiles will become weak references.
+     *
+     * @param  heapLimit  maximal amount of bytes of tiles to keep by strong references on the heap.
+     */
+    @SuppressWarnings("this-escape")        // `this` is stored in a package-private object.
+    protected TileStorage(final long heapLimit) {
+        ArgumentChecks.ensurePositive("heapLimit", heapLimit);
+        cache = new TileCache(heapLimit, this);
+    }
+
+    /**
+     * Returns a storage which copies the tiles outside the Java heap.
+     * The sample values are stored in direct {@link java.nio.ByteBuffer}s, together with the minimal amount
+     * of information needed for rebuilding the {@link Raster}s. When the amount of bytes stored outside the
+     * heap exceeds the given capacity, the least recently used tiles are discarded.
+     *
+     * @param  heapLimit  maximal amount of bytes of tiles to keep by strong references on the heap.
+     * @param  capacity   maximal amount of bytes of sample values to store outside the heap.
+     * @return a storage of tile data outside the Java heap.
+     */
+    public static TileStorage offHeap(final long heapLimit, final long capacity) {
+        ArgumentChecks.ensurePositive("capacity", capacity);
+        return new OffHeapTileStorage(heapLimit, capacity);
+    }
+
+    /**
+     * Stores a copy of the given tile. The key is an opaque object with {@code equals(Object)} and
+     * {@code hashCode()} methods implemented for identifying a tile of a specific image. If a copy
+     * was already stored for the given key, it shall be replaced. The tile shall not be modified
+     * by this method, and changes to the tile after this method call shall not be reflected in the
+     * stored copy.
+     *
+     * @param  key   identifier of the tile to store.
+     * @param  tile  the tile to store.
+     * @return whether the tile has been stored. May be {@code false} if the tile is too large
+     *         or if the tile uses a data buffer which is not supported by this storage.
+     */
+    protected abstract boolean store(Object key, Raster tile);
+
+    /**
+     * Returns a new raster with the content of the tile stored for the given key.
+     * The returned raster shall have the same bounds, sample model and sample values
+     * than the raster given to {@link #store(Object, Raster)}.
+     *
+     * @param  key  identifier of the tile to restore.
+     * @return the restored tile, or {@code null} if none.
+     */
+    protected abstract Raster restore(Object key);
+
+    /**
+     * Removes the tile stored for the given key. If no tile is stored for that key, then this method does nothing.
+     *
+     * @param  key  identifier of the tile to remove.
+     */
+    protected abstract void remove(Object key);
+
+    /**
+     * Removes all tiles from this storage, including the tiles kept on the heap.
+     * Images using this storage will need to recompute their tiles.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Returns the amount of bytes currently used by this storage.
+     * This amount does not include the tiles retained on the heap.
+     *
+     * @return amount of bytes currently used by this storage.
+     */
+    public abstract long getMemoryUsage();
+}
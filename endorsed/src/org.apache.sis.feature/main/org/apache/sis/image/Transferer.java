@@ -555,7 +555,13 @@ abstract class Transferer {
         ImageUtilities.clipBounds(source, aoi);
         int tileX = ImageUtilities.pixelToTileX(source, target.getMinX());
         int tileY = ImageUtilities.pixelToTileY(source, target.getMinY());
-        return create(source.getTile(tileX, tileY), target, aoi);
+        final Raster tile;
+        if (source.getTileWidth() == target.getWidth() && source.getTileHeight() == target.getHeight()) {
+            tile = ComputedImage.getSourceTile(source, tileX, tileY);     // Same tile matrix: fuse pixel-wise operations.
+        } else {
+            tile = source.getTile(tileX, tileY);
+        }
+        return create(tile, target, aoi);
     }
 
     /**
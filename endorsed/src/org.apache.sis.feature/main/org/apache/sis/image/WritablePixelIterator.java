@@ -344,6 +344,26 @@ public class WritablePixelIterator extends PixelIterator implements Closeable {
         destRaster.setDataElements(x, y, values);
     }
 
+    /**
+     * Creates a new iterator over the same images or rasters as this iterator, using the given builder.
+     * The new iterator is writable if this iterator is writable.
+     *
+     * @param  builder  the builder configured with the region of interest, window size and iteration order.
+     * @param  raster   the raster on which this iterator operates, or {@code null} if it operates on an image.
+     * @return the new iterator.
+     */
+    @Override
+    final PixelIterator createSubIterator(final Builder builder, final Raster raster) {
+        if (raster != null) {
+            if (destRaster != null) {
+                return builder.createWritable(raster, destRaster);
+            }
+        } else if (destination != null) {
+            return builder.createWritable(image, destination);
+        }
+        return super.createSubIterator(builder, raster);
+    }
+
     /**
      * The current raster destination raster, or {@code null} if none.
      */
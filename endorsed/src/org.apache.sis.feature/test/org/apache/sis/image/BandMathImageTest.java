@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.image;
+
+import java.awt.image.Raster;
+import java.awt.image.DataBuffer;
+import java.awt.image.RenderedImage;
+
+// Test dependencies
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests {@link BandMathImage} and {@link BandExpression}.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+@SuppressWarnings("exports")
+public final class BandMathImageTest extends ImageTestCase {
+    /**
+     * Size of tiles in this test. The width should be different than the height
+     * for increasing the chances to detect errors in index calculations.
+     */
+    private static final int TILE_WIDTH = 4, TILE_HEIGHT = 3;
+
+    /**
+     * The source image, with two bands.
+     */
+    private final TiledImageMock source;
+
+    /**
+     * Creates a new test case.
+     */
+    public BandMathImageTest() {
+        source = new TiledImageMock(DataBuffer.TYPE_USHORT, 2, -3, 2, TILE_WIDTH * 3, TILE_HEIGHT * 2,
+                                    TILE_WIDTH, TILE_HEIGHT, 1, 2, false);
+        source.validate();
+        source.initializeAllTiles();
+    }
+
+    /**
+     * Computes the band-math image for the given expression.
+     */
+    private void calculate(final String expression, final Number... nodataValues) {
+        image = BandMathImage.create(source, ImageLayout.DEFAULT, expression, nodataValues, DataType.DOUBLE, null);
+        assertEquals(1, image.getSampleModel().getNumBands());
+        assertEquals(source.getMinX(),   image.getMinX());
+        assertEquals(source.getMinY(),   image.getMinY());
+        assertEquals(source.getWidth(),  image.getWidth());
+        assertEquals(source.getHeight(), image.getHeight());
+    }
+
+    /**
+     * Tests a Normalized Difference Vegetation Index (NDVI) computation.
+     */
+    @Test
+    public void testNDVI() {
+        calculate("(b1 - b0) / (B1 + b0)");
+        final Raster expected = source.getData();
+        final Raster actual   = image .getData();
+        for (int y = source.getMinY(); y < source.getMinY() + source.getHeight(); y++) {
+            for (int x = source.getMinX(); x < source.getMinX() + source.getWidth(); x++) {
+                final double b0 = expected.getSampleDouble(x, y, 0);
+                final double b1 = expected.getSampleDouble(x, y, 1);
+                assertEquals((b1 - b0) / (b1 + b0), actual.getSampleDouble(x, y, 0));
+            }
+        }
+    }
+
+    /**
+     * Tests operator precedence, functions and constant folding.
+     */
+    @Test
+    public void testOperators() {
+        calculate("-b0 + 2 * 3^2 - max(b0, b1) / sqrt(4)");
+        final Raster expected = source.getData();
+        final Raster actual   = image .getData();
+        final int x = source.getMinX() + 5;
+        final int y = source.getMinY() + 4;
+        final double b0 = expected.getSampleDouble(x, y, 0);
+        final double b1 = expected.getSampleDouble(x, y, 1);
+        assertEquals(-b0 + 18 - Math.max(b0, b1) / 2, actual.getSampleDouble(x, y, 0));
+    }
+
+    /**
+     * Tests the replacement of "no data" values by NaN.
+     */
+    @Test
+    public void testNodata() {
+        final int x = source.getMinX() + 2;
+        final int y = source.getMinY() + 1;
+        source.setSample(x, y, 1, 7);
+        calculate("b0 + b1", 7);
+        final Raster actual = image.getData();
+        assertTrue  (Double.isNaN(actual.getSampleDouble(x,   y, 0)));
+        assertFalse (Double.isNaN(actual.getSampleDouble(x+1, y, 0)));
+    }
+
+    /**
+     * Tests a chain of two band-math operations. Because both images have the same tile grid,
+     * the tiles of the first image are computed without caching when requested by the second image.
+     * The result shall be the same as if the intermediate image was computed independently.
+     */
+    @Test
+    public void testFusion() {
+        calculate("b1 - b0");
+        final RenderedImage intermediate = image;
+        image = BandMathImage.create(intermediate, ImageLayout.DEFAULT, "b0 * 2", null, DataType.FLOAT, null);
+        assertEquals(intermediate.getTileWidth(),  image.getTileWidth());
+        assertEquals(intermediate.getTileHeight(), image.getTileHeight());
+        final Raster actual = image.getData();
+        assertNoCachedTile(intermediate);
+        assertTrue(((ComputedImage) image).isTileCached(image.getMinTileX(), image.getMinTileY()));
+        final Raster expected = intermediate.getData();      // Computes and caches the intermediate tiles.
+        for (int y = source.getMinY(); y < source.getMinY() + source.getHeight(); y++) {
+            for (int x = source.getMinX(); x < source.getMinX() + source.getWidth(); x++) {
+                assertEquals((float) (expected.getSampleDouble(x, y, 0) * 2), actual.getSampleFloat(x, y, 0));
+            }
+        }
+    }
+
+    /**
+     * Tests the errors reported for invalid expressions.
+     */
+    @Test
+    public void testInvalidExpressions() {
+        assertThrows(IllegalArgumentException.class, () -> calculate("b0 +"));
+        assertThrows(IllegalArgumentException.class, () -> calculate("(b0 + b1"));
+        assertThrows(IllegalArgumentException.class, () -> calculate("b2"));
+        assertThrows(IllegalArgumentException.class, () -> calculate("foo(b0)"));
+        assertThrows(IllegalArgumentException.class, () -> calculate("b0 b1"));
+    }
+}
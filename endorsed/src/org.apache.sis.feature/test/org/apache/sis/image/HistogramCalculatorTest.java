@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.image;
+
+import java.util.Map;
+import java.util.Random;
+import java.awt.image.DataBuffer;
+import java.awt.image.RenderedImage;
+import java.util.function.DoubleUnaryOperator;
+import org.apache.sis.system.Modules;
+import org.apache.sis.math.Histogram;
+import org.apache.sis.math.Statistics;
+
+// Test dependencies
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.apache.sis.test.TestCaseWithLogs;
+
+
+/**
+ * Tests {@link HistogramCalculator} and the use of histograms by
+ * {@link ImageProcessor#stretchColorRamp(RenderedImage, Map)}.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+@SuppressWarnings("exports")
+public final class HistogramCalculatorTest extends TestCaseWithLogs.Isolated {
+    /**
+     * Size of the artificial tiles. Should be small enough so we can have many of them.
+     * Width and height should be different in order to increase the chance to see bugs
+     * if some code confuse them.
+     */
+    private static final int TILE_WIDTH = 5, TILE_HEIGHT = 3;
+
+    /**
+     * Number of bins in the histograms to test.
+     */
+    private static final int NUM_BINS = 256;
+
+    /**
+     * Creates a new test case.
+     */
+    public HistogramCalculatorTest() {
+        super(Modules.RASTER);
+    }
+
+    /**
+     * Creates a dummy image for testing purpose. This image will contain many small tiles
+     * of two bands. The first band has deterministic values and the second band contains
+     * random values.
+     */
+    private static TiledImageMock createImage() {
+        final var image = new TiledImageMock(
+                DataBuffer.TYPE_USHORT, 2,
+                +51,                            // minX
+                -72,                            // minY
+                TILE_WIDTH  * 27,               // width
+                TILE_HEIGHT * 19,               // height
+                TILE_WIDTH,
+                TILE_HEIGHT,
+                -3,                             // minTileX
+                +2,                             // minTileY
+                false);
+        image.initializeAllTiles(0);
+        image.setRandomValues(1, new Random(), 1000);
+        image.validate();
+        return image;
+    }
+
+    /**
+     * Tests with parallel execution. The result of sequential execution is used as a reference.
+     * Because the bin width depends only on the range of values, the results shall be identical.
+     */
+    @Test
+    public void testParallelExecution() {
+        final TiledImageMock image = createImage();
+        final var expected = (Histogram[]) new HistogramCalculator(image, null, NUM_BINS, null, false, true).computeSequentially();
+        final var operations = new ImageProcessor();
+        operations.setExecutionMode(ImageProcessor.Mode.PARALLEL);
+        final Histogram[] actual = operations.valueOfHistograms(image, null, NUM_BINS);
+        assertEquals(expected.length, actual.length);
+        for (int i=0; i<expected.length; i++) {
+            assertArrayEquals(expected[i].frequencies(), actual[i].frequencies());
+            assertEquals(expected[i], actual[i]);
+        }
+        final Statistics[] stats = operations.valueOfStatistics(image, null);
+        for (int i=0; i<stats.length; i++) {
+            assertEquals(stats[i].count(),   actual[i].count());
+            assertEquals(stats[i].minimum(), actual[i].minimum());
+            assertEquals(stats[i].maximum(), actual[i].maximum());
+            assertEquals(stats[i].minimum(), actual[i].quantile(0));
+            assertEquals(stats[i].maximum(), actual[i].quantile(1));
+        }
+        loggings.assertNoUnexpectedLog();
+    }
+
+    /**
+     * Tests with sample filters. The filter excludes the first and the last pixels in the image
+     * created by {@link #createImage()}, which produces a visible effect on minimum and maximum values.
+     */
+    @Test
+    public void testWithSampleFilters() {
+        final var operations = new ImageProcessor();
+        final Histogram[] actual = operations.valueOfHistograms(createImage(), null, NUM_BINS,
+                new DoubleUnaryOperator[] {ImageProcessor.filterNodataValues(100, 51324)});
+        assertEquals(101,   actual[0].minimum());
+        assertEquals(51323, actual[0].maximum());
+        loggings.assertNoUnexpectedLog();
+    }
+
+    /**
+     * Tests {@link ImageProcessor#stretchColorRamp(RenderedImage, Map)} with percentiles.
+     * The range of the color ramp shall be narrower than the range of values.
+     */
+    @Test
+    public void testStretchWithPercentiles() {
+        final var image = new TiledImageMock(DataBuffer.TYPE_USHORT, 1, 0, 0,
+                TILE_WIDTH * 4, TILE_HEIGHT * 4, TILE_WIDTH, TILE_HEIGHT, 0, 0, false);
+        image.initializeAllTiles(0);
+        image.validate();
+        final var operations = new ImageProcessor();
+        final Histogram histogram = operations.valueOfHistograms(image, null, HistogramCalculator.DEFAULT_NUM_BINS)[0];
+        final double lower = histogram.quantile(0.1);
+        final double upper = histogram.quantile(0.9);
+        assertTrue(lower > histogram.minimum());
+        assertTrue(upper < histogram.maximum());
+        final RenderedImage stretched = operations.stretchColorRamp(image,
+                Map.of("percentiles", new Number[] {10, 90}));
+        assertInstanceOf(RecoloredImage.class, stretched);
+        assertEquals(lower, ((RecoloredImage) stretched).minimum);
+        assertEquals(upper, ((RecoloredImage) stretched).maximum);
+        assertThrows(IllegalArgumentException.class,
+                () -> operations.stretchColorRamp(image, Map.of("percentiles", new Number[] {90, 10})));
+        loggings.assertNoUnexpectedLog();
+    }
+
+    /**
+     * Tests {@link ImageProcessor#stretchColorRamp(RenderedImage, Map)} with the 2% and 98% percentiles
+     * on an image containing outliers. The image contains 1000 pixels: 10 pixels with value 0, 10 pixels
+     * with value 4000 and 980 pixels with values from 1000 to 1979 inclusive. The 2% percentile is the
+     * 20th value, which is 1010 when ignoring the interpolation. The 98% percentile is the 980th value,
+     * which is 1970. The range of values is 4000, so the bin width with the default number of bins is 4.
+     */
+    @Test
+    public void testStretchWithOutliers() {
+        final var image = new TiledImageMock(DataBuffer.TYPE_USHORT, 1, 0, 0, 50, 20, 10, 5, 0, 0, false);
+        int value = 1000;
+        for (int i=0; i<1000; i++) {
+            final double sample;
+            switch (i % 100) {
+                case 0:  sample = 0;       break;       // Low outliers.
+                case 50: sample = 4000;    break;       // High outliers.
+                default: sample = value++; break;
+            }
+            image.setSample(i % 50, i / 50, 0, sample);
+        }
+        image.validate();
+        final var operations = new ImageProcessor();
+        final var stretched = (RecoloredImage) operations.stretchColorRamp(image, Map.of("percentiles", new Number[] {2, 98}));
+        assertEquals(1010, stretched.minimum, 4);
+        assertEquals(1970, stretched.maximum, 4);
+        /*
+         * Without percentiles, the range is determined by the outliers.
+         */
+        final var full = (RecoloredImage) operations.stretchColorRamp(image, null);
+        assertEquals(   0, full.minimum);
+        assertEquals(4000, full.maximum);
+        loggings.assertNoUnexpectedLog();
+    }
+
+    /**
+     * Tests that the {@value PlanarImage#HISTOGRAMS_KEY} property is used only if its histograms
+     * have at least the requested number of bins. The property value is computed with a filter,
+     * which allows to distinguish the cached histograms from the histograms computed from the image.
+     */
+    @Test
+    public void testCachedProperty() {
+        final TiledImageMock image = createImage();
+        final var operations = new ImageProcessor();
+        final Histogram[] coarse = operations.valueOfHistograms(image, null, 16,
+                new DoubleUnaryOperator[] {ImageProcessor.filterNodataValues(100)});
+        assertEquals(101, coarse[0].minimum());
+        final RenderedImage withProperty = operations.addUserProperties(image, Map.of(PlanarImage.HISTOGRAMS_KEY, coarse));
+        /*
+         * The property has enough bins: it shall be reused.
+         */
+        assertArrayEquals(coarse, operations.valueOfHistograms(withProperty, null, 16));
+        assertArrayEquals(coarse, operations.valueOfHistograms(withProperty, null, 8));
+        /*
+         * The property does not have enough bins: histograms shall be recomputed.
+         */
+        final Histogram[] actual = operations.valueOfHistograms(withProperty, null, NUM_BINS);
+        assertEquals(NUM_BINS, actual[0].numBins());
+        assertEquals(NUM_BINS, actual[1].numBins());
+        assertEquals(100, actual[0].minimum());
+        assertArrayEquals(operations.valueOfHistograms(image, null, NUM_BINS), actual);
+        loggings.assertNoUnexpectedLog();
+    }
+}
@@ -18,13 +18,18 @@ package org.apache.sis.image;
 
 import java.util.Map;
 import java.util.stream.IntStream;
+import java.awt.Color;
 import java.awt.Shape;
 import java.awt.Rectangle;
 import java.awt.image.Raster;
+import java.awt.image.DataBuffer;
 import java.awt.image.SampleModel;
 import java.awt.image.BufferedImage;
 import java.awt.image.RenderedImage;
 import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.MathTransform1D;
+import org.apache.sis.referencing.operation.transform.MathTransforms;
+import org.apache.sis.measure.NumberRange;
 
 // Test dependencies
 import org.junit.jupiter.api.Test;
@@ -98,6 +103,43 @@ public final class ImageProcessorTest extends TestCase {
         assertArrayEquals(new String[] {key}, image.getPropertyNames());
     }
 
+    /**
+     * Tests a chain of pixel-wise operations: band math, sample conversion, mask and visualization.
+     * Because all images have the same tile grid, the tiles of intermediate images shall be computed
+     * on-the-fly when requested by the final image, without being cached.
+     */
+    @Test
+    public void testFusedChain() {
+        final var source = new TiledImageMock(DataBuffer.TYPE_USHORT, 1, 0, 0, 12, 6, 4, 3, 0, 0, true);
+        source.validate();
+        source.initializeAllTiles();
+        /*
+         * Start from a band math operation because `convert(…)` would return a writable image
+         * (which is never fused) if the source was the writable `TiledImageMock`.
+         */
+        final RenderedImage values    = processor.calculate(source, "b0 * 2", DataType.FLOAT);
+        final RenderedImage converted = processor.convert(values, null,
+                new MathTransform1D[] {(MathTransform1D) MathTransforms.linear(0.5, 10)}, DataType.FLOAT);
+        final RenderedImage masked    = processor.mask(converted, new Rectangle(2, 1, 5, 3), true);
+        assertInstanceOf(BandedSampleConverter.class, converted);
+        assertInstanceOf(MaskedImage.class, masked);
+        /*
+         * Provide the color ramp explicitly, otherwise the visualization would compute
+         * statistics on the source image, which would cache the tiles of `masked`.
+         */
+        processor.setColorizer(Colorizer.forRanges(Map.of(
+                NumberRange.create(0, true, 10000, true), new Color[] {Color.BLACK, Color.WHITE})));
+        final RenderedImage image = processor.visualize(masked);
+        assertInstanceOf(Visualization.class, image);
+        assertEquals(source.getTileWidth(),  image.getTileWidth());
+        assertEquals(source.getTileHeight(), image.getTileHeight());
+        assertEquals(new Rectangle(0, 0, 12, 6), image.getData().getBounds());
+        ImageTestCase.assertNoCachedTile(values);
+        ImageTestCase.assertNoCachedTile(converted);
+        ImageTestCase.assertNoCachedTile(masked);
+        assertTrue(((ComputedImage) image).isTileCached(0, 0));
+    }
+
     /**
      * Tests {@link ImageProcessor#isolines(RenderedImage, double[][], MathTransform)}.
      */
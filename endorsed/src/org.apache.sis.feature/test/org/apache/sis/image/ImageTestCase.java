@@ -92,6 +92,24 @@ public abstract class ImageTestCase extends TestCase {
         }
     }
 
+    /**
+     * Verifies that none of the tiles of the given image is in the cache.
+     * This is used for verifying that intermediate images of a chain of pixel-wise operations
+     * have been fused with the final image instead of being computed and cached independently.
+     *
+     * @param  image  the intermediate image to verify.
+     */
+    static void assertNoCachedTile(final RenderedImage image) {
+        final var computed = assertInstanceOf(ComputedImage.class, image);
+        for (int ty = 0; ty < computed.getNumYTiles(); ty++) {
+            for (int tx = 0; tx < computed.getNumXTiles(); tx++) {
+                final int tileX = computed.getMinTileX() + tx;
+                final int tileY = computed.getMinTileY() + ty;
+                assertFalse(computed.isTileCached(tileX, tileY), () -> "Unexpected cached tile (" + tileX + ", " + tileY + ").");
+            }
+        }
+    }
+
     /**
      * Saves the current image as a PNG image in the given file. This is sometimes useful for visual
      * check purpose, and is used only as a helper tools for tuning the test suites. Floating-point
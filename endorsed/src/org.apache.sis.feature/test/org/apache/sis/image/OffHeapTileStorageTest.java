@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.image;
+
+import java.awt.Point;
+import java.awt.image.Raster;
+import java.awt.image.DataBuffer;
+import java.awt.image.WritableRaster;
+import java.awt.image.BandedSampleModel;
+
+// Test dependencies
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.apache.sis.test.TestCase;
+
+
+/**
+ * Tests {@link OffHeapTileStorage}.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+@SuppressWarnings("exports")
+public final class OffHeapTileStorageTest extends TestCase {
+    /**
+     * Size of tiles in this test.
+     */
+    private static final int TILE_WIDTH = 4, TILE_HEIGHT = 3;
+
+    /**
+     * Creates a new test case.
+     */
+    public OffHeapTileStorageTest() {
+    }
+
+    /**
+     * Creates a tile of the given type with sample values computed from pixel coordinates and the given seed.
+     */
+    private static WritableRaster createTile(final int dataType, final int numBands, final int x, final int y, final int seed) {
+        final var model = new BandedSampleModel(dataType, TILE_WIDTH, TILE_HEIGHT, numBands);
+        final WritableRaster tile = Raster.createWritableRaster(model, new Point(x, y));
+        for (int b=0; b<numBands; b++) {
+            for (int j=0; j<TILE_HEIGHT; j++) {
+                for (int i=0; i<TILE_WIDTH; i++) {
+                    tile.setSample(x+i, y+j, b, (seed + 10*j + i + 50*b) % 100);
+                }
+            }
+        }
+        return tile;
+    }
+
+    /**
+     * Asserts that the given rasters have the same bounds and the same sample values.
+     */
+    private static void assertRasterEquals(final Raster expected, final Raster actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getBounds(), actual.getBounds());
+        assertEquals(expected.getSampleModel(), actual.getSampleModel());
+        final int numBands = expected.getNumBands();
+        for (int y = expected.getMinY(); y < expected.getMinY() + expected.getHeight(); y++) {
+            for (int x = expected.getMinX(); x < expected.getMinX() + expected.getWidth(); x++) {
+                for (int b=0; b<numBands; b++) {
+                    assertEquals(expected.getSampleDouble(x, y, b), actual.getSampleDouble(x, y, b));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests storing and restoring tiles of various data types.
+     */
+    @Test
+    public void testStoreAndRestore() {
+        final TileStorage storage = TileStorage.offHeap(0, 10000);
+        final int[] types = {
+            DataBuffer.TYPE_BYTE, DataBuffer.TYPE_USHORT, DataBuffer.TYPE_SHORT,
+            DataBuffer.TYPE_INT,  DataBuffer.TYPE_FLOAT,  DataBuffer.TYPE_DOUBLE
+        };
+        final Raster[] tiles = new Raster[types.length];
+        long expectedUsage = 0;
+        for (int i=0; i<types.length; i++) {
+            tiles[i] = createTile(types[i], 2, 10*i, 20, i);
+            assertTrue(storage.store(i, tiles[i]));
+            expectedUsage += TILE_WIDTH * TILE_HEIGHT * 2 * (DataBuffer.getDataTypeSize(types[i]) / Byte.SIZE);
+        }
+        assertEquals(expectedUsage, storage.getMemoryUsage());
+        for (int i=0; i<types.length; i++) {
+            final Raster restored = storage.restore(i);
+            assertNotSame(tiles[i], restored);
+            assertRasterEquals(tiles[i], restored);
+        }
+        assertNull(storage.restore(types.length));
+        storage.remove(0);
+        assertNull(storage.restore(0));
+        assertEquals(expectedUsage, storage.getMemoryUsage(), "Removed buffers should be kept for recycling.");
+        storage.clear();
+        assertEquals(0, storage.getMemoryUsage());
+    }
+
+    /**
+     * Tests the eviction of least recently used tiles when the capacity is reached.
+     */
+    @Test
+    public void testEviction() {
+        final int tileSize = TILE_WIDTH * TILE_HEIGHT * Integer.BYTES;
+        final TileStorage storage = TileStorage.offHeap(0, 3 * tileSize);
+        final Raster[] tiles = new Raster[4];
+        for (int i=0; i<tiles.length; i++) {
+            tiles[i] = createTile(DataBuffer.TYPE_INT, 1, TILE_WIDTH * i, 0, i);
+        }
+        assertTrue(storage.store(0, tiles[0]));
+        assertTrue(storage.store(1, tiles[1]));
+        assertTrue(storage.store(2, tiles[2]));
+        assertRasterEquals(tiles[0], storage.restore(0));       // Make tile 0 the most recently used.
+        assertTrue(storage.store(3, tiles[3]));                 // Shall evict tile 1.
+        assertEquals(3 * tileSize, storage.getMemoryUsage());
+        assertNull(storage.restore(1));
+        assertRasterEquals(tiles[0], storage.restore(0));
+        assertRasterEquals(tiles[2], storage.restore(2));
+        assertRasterEquals(tiles[3], storage.restore(3));
+        /*
+         * A tile larger than the capacity cannot be stored.
+         */
+        final Raster large = Raster.createBandedRaster(DataBuffer.TYPE_INT, 100, 100, 1, null);
+        assertFalse(storage.store(4, large));
+        assertNull(storage.restore(4));
+    }
+
+    /**
+     * Tests a child raster, which has a sample model translation different than its location.
+     */
+    @Test
+    public void testChildRaster() {
+        final WritableRaster parent = createTile(DataBuffer.TYPE_BYTE, 3, 100, 200, 7);
+        final Raster child = parent.createChild(101, 201, 2, 2, 101, 201, null);
+        final TileStorage storage = TileStorage.offHeap(0, 1000);
+        assertTrue(storage.store("child", child));
+        assertRasterEquals(child, storage.restore("child"));
+    }
+}
@@ -18,6 +18,7 @@ package org.apache.sis.image;
 
 import java.util.Random;
 import java.util.Optional;
+import java.util.stream.StreamSupport;
 import java.nio.IntBuffer;
 import java.nio.FloatBuffer;
 import java.nio.DoubleBuffer;
@@ -1318,6 +1319,60 @@ public class PixelIteratorTest extends TestCase {
         testOnImageSubArea();
     }
 
+    /**
+     * Tests {@link PixelIterator#readRow(int, float[])} on a tiled image.
+     */
+    @Test
+    public void testReadRow() {
+        xmin       =   1;
+        ymin       =  -4;
+        width      =  24;
+        height     =  15;
+        tileWidth  =   8;
+        tileHeight =   5;
+        numBands   =   2;
+        createPixelIterator(createImage(null), null);
+        final float[] row = new float[tileWidth];
+        int n = 0;
+        while (iterator.next()) {
+            final int length = iterator.readRow(1, row);
+            assertTrue(length > 0 && length <= tileWidth);
+            for (int i=0; i<length; i++) {
+                assertEquals(expected[(n++) * numBands + 1], row[i]);
+            }
+        }
+        assertEquals(expected.length, n * numBands);
+    }
+
+    /**
+     * Tests {@link PixelIterator#spliterator()} with a parallel stream on a tiled image.
+     */
+    @Test
+    public void testSpliterator() {
+        xmin       =   1;
+        ymin       =  -4;
+        width      =  24;
+        height     =  15;
+        tileWidth  =   8;
+        tileHeight =   5;
+        numBands   =   2;
+        createPixelIterator(createImage(null), null);
+        assertEquals(9, iterator.spliterator().estimateSize());
+        final float[] actual = new float[expected.length];
+        StreamSupport.stream(iterator.spliterator(), true).forEach((tile) -> {
+            final Rectangle domain = tile.getDomain();
+            assertEquals(tileWidth  * tileHeight, domain.width * domain.height);
+            while (tile.next()) {
+                final Point p = tile.getPosition();
+                final int index = getIndexOf(p.x, p.y) * numBands;
+                for (int b=0; b<numBands; b++) {
+                    actual[index + b] = tile.getSampleFloat(b);
+                }
+            }
+        });
+        assertArrayEquals(expected, actual);
+    }
+
     /**
      * Tests iterator on an area.
      */
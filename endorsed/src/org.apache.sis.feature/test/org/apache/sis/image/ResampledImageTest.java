@@ -19,6 +19,7 @@ package org.apache.sis.image;
 import java.util.Arrays;
 import java.util.Random;
 import java.nio.FloatBuffer;
+import java.nio.DoubleBuffer;
 import java.awt.Color;
 import java.awt.Point;
 import java.awt.Dimension;
@@ -262,6 +263,47 @@ public final class ResampledImageTest extends TestCase {
         verifyRectangularResult();
     }
 
+    /**
+     * Verifies that the interpolations reading directly the tile data buffers give the same results
+     * as the generic path for all data types. The generic path is forced by wrapping the interpolation
+     * in an anonymous class, which is not recognized by {@link SampleInterpolator}.
+     */
+    @Test
+    public void testDirectInterpolation() {
+        for (final Interpolation method : new Interpolation[] {Interpolation.NEAREST, Interpolation.BILINEAR}) {
+            final var generic = new Interpolation() {
+                @Override public Dimension getSupportSize() {
+                    return method.getSupportSize();
+                }
+
+                @Override public void interpolate(final DoubleBuffer source, final int numBands,
+                        final double xfrac, final double yfrac, final double[] writeTo, final int writeToOffset)
+                {
+                    method.interpolate(source, numBands, xfrac, yfrac, writeTo, writeToOffset);
+                }
+            };
+            for (final int dataType : new int[] {
+                    DataBuffer.TYPE_BYTE,  DataBuffer.TYPE_USHORT, DataBuffer.TYPE_SHORT,
+                    DataBuffer.TYPE_INT,   DataBuffer.TYPE_FLOAT,  DataBuffer.TYPE_DOUBLE})
+            {
+                source = createRandomImage(dataType);
+                final var bounds = new Rectangle(-5, 3, source.getWidth() * 2, source.getHeight() * 2);
+                final var tr = AffineTransform.getTranslateInstance(source.getMinX() + source.getWidth()  / 2.0,
+                                                                    source.getMinY() + source.getHeight() / 2.0);
+                tr.rotate(0.3);
+                tr.scale(0.7, 0.6);
+                tr.translate(-bounds.getCenterX(), -bounds.getCenterY());
+                interpolation = generic;
+                resample(bounds, new AffineTransform(tr));
+                final double[] expected = target.getData().getPixels(bounds.x, bounds.y, bounds.width, bounds.height, (double[]) null);
+                interpolation = method;
+                resample(bounds, new AffineTransform(tr));
+                final double[] actual = target.getData().getPixels(bounds.x, bounds.y, bounds.width, bounds.height, (double[]) null);
+                assertArrayEquals(expected, actual);
+            }
+        }
+    }
+
     /**
      * Resamples a single-tiled and single-banded image with values 1 everywhere except in center.
      * The {@linkplain #source} is a 3×3 or 4×4 image with the following values:
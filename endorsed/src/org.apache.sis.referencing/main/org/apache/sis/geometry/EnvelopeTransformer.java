@@ -0,0 +1,546 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.geometry;
+
+import java.util.Map;
+import java.util.LinkedHashMap;
+import org.opengis.geometry.Envelope;
+import org.opengis.geometry.MismatchedDimensionException;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.apache.sis.parameter.Parameters;
+import org.apache.sis.referencing.operation.matrix.Matrices;
+import org.apache.sis.referencing.operation.transform.MathTransforms;
+import org.apache.sis.referencing.operation.transform.WraparoundTransform;
+import org.apache.sis.referencing.internal.shared.DirectPositionView;
+import org.apache.sis.util.ArgumentChecks;
+import org.apache.sis.util.resources.Errors;
+import org.apache.sis.math.MathFunctions;
+
+
+/**
+ * Transforms many envelopes with the same math transform.
+ * This class performs the same work as {@link Envelopes#transform(MathTransform, Envelope)},
+ * but the sampling plan, the arrays of transformed points and the handling of wraparound steps
+ * are prepared once at construction time and reused for all envelopes.
+ * This is more efficient when a large number of envelopes need to be transformed,
+ * for example the envelopes of all tiles of an image or the bounding boxes of features.
+ *
+ * <p>The transformation is only approximated: the returned envelope may be bigger than necessary,
+ * or smaller than required if the bounding box contains a pole.
+ * The approximation is the same as the one documented in {@link Envelopes},
+ * with the following differences:</p>
+ *
+ * <ul>
+ *   <li>If the transform is affine, then the envelope is computed directly from the matrix coefficients
+ *       without transforming the 3<sup><var>n</var></sup> sample points.</li>
+ *   <li>The {@link #transform(Envelope, GeneralEnvelope)} method can write the result in an existing envelope.
+ *       The only objects that may still be created are the derivative matrices, if the transform is not affine.</li>
+ * </ul>
+ *
+ * <h2>Limitations</h2>
+ * This class cannot handle the case where the envelope contains the North or South pole.
+ * Furthermore, envelopes crossing the ±180° longitude are handled only if the given transform
+ * contains {@link WraparoundTransform} steps, as this class does not add such steps itself.
+ * For a more robust envelope transformation, use {@link Envelopes#transform(org.opengis.referencing.operation.CoordinateOperation,
+ * Envelope)} instead.
+ *
+ * <h2>Thread-safety</h2>
+ * This class is <strong>not</strong> thread-safe. Each thread should use its own instance.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.7
+ *
+ * @see Envelopes#transform(MathTransform, Envelope)
+ *
+ * @since 1.7
+ */
+public class EnvelopeTransformer {
+    /**
+     * The transform specified at construction time.
+     */
+    private final MathTransform transform;
+
+    /**
+     * Number of source and target dimensions of the transform.
+     */
+    private final int sourceDim, targetDim;
+
+    /**
+     * Whether the transform is the identity transform.
+     */
+    private final boolean isIdentity;
+
+    /**
+     * Coefficients of the matrix if the transform is affine, or {@code null} otherwise.
+     * Coefficients are stored in row-major order, without the last row.
+     */
+    private final double[] affine;
+
+    /**
+     * The controller of wraparound steps, or {@code null} if the transform is identity or affine.
+     * The {@linkplain WraparoundInEnvelope.Controller#transform transform} of this controller
+     * is the transform to use for transforming sample points.
+     */
+    private final WraparoundInEnvelope.Controller wc;
+
+    /**
+     * The derivatives at each sample point, or {@code null} if the transform is identity or affine.
+     * Elements are reset to null after each envelope transformation.
+     */
+    private final Matrix[] derivatives;
+
+    /**
+     * The coordinates of all transformed sample points. The length of this array
+     * is the number of sample points (3<sup><var>n</var></sup>) multiplied by the
+     * number of target dimensions.
+     */
+    private final double[] coordinates;
+
+    /**
+     * Minimum, maximum and median coordinate values of the envelope to transform, in that order for each dimension.
+     * This is the cached values of the {@code getMinimum(i)}, {@code getMaximum(i)} and {@code getMedian(i)} methods,
+     * where each value is at index 3·<var>i</var> + <var>digit</var> and <var>digit</var> is a base 3 digit of the
+     * sample point index.
+     */
+    private final double[] sampled;
+
+    /**
+     * The source coordinates of the point to transform.
+     */
+    private final double[] sourcePt;
+
+    /**
+     * The target coordinates of the point computed from the curve extremum.
+     */
+    private final double[] extremumPt;
+
+    /**
+     * Windows over the {@link #coordinates} and {@link #extremumPt} arrays.
+     */
+    private final DirectPositionView.Double coordinatesView, extremumView;
+
+    /**
+     * Temporary object for computing the extremum of a cubic curve between two sample points.
+     */
+    private final CurveExtremum extremum;
+
+    /**
+     * Creates a new envelope transformer for the given math transform.
+     *
+     * @param  transform  the transform to use for transforming envelopes.
+     * @throws ArithmeticException if the transform is not affine and has too many source dimensions.
+     */
+    public EnvelopeTransformer(final MathTransform transform) {
+        ArgumentChecks.ensureNonNull("transform", transform);
+        this.transform = transform;
+        sourceDim  = transform.getSourceDimensions();
+        targetDim  = transform.getTargetDimensions();
+        isIdentity = transform.isIdentity();
+        if (!isIdentity) {
+            final Matrix m = MathTransforms.getMatrix(transform);
+            if (m != null && Matrices.isAffine(m)) {
+                final int numCol = sourceDim + 1;
+                affine = new double[targetDim * numCol];
+                for (int j=0; j<targetDim; j++) {
+                    for (int i=0; i<numCol; i++) {
+                        affine[j*numCol + i] = m.getElement(j, i);
+                    }
+                }
+                wc              = null;
+                derivatives     = null;
+                coordinates     = null;
+                sampled         = null;
+                sourcePt        = null;
+                extremumPt      = null;
+                coordinatesView = null;
+                extremumView    = null;
+                extremum        = null;
+                return;
+            }
+            /*
+             * The power of 3 below is because the `transform(…)` method uses a `pointIndex`
+             * to be interpreted as a number in base 3 (see the comment inside the loop).
+             */
+            if (sourceDim >= 20) {          // Maximal value supported by Formulas.pow3(int) is 19.
+                throw new ArithmeticException(Errors.format(Errors.Keys.ExcessiveNumberOfDimensions_1, sourceDim));
+            }
+            affine          = null;
+            wc              = new WraparoundInEnvelope.Controller(transform);
+            derivatives     = new Matrix[Math.toIntExact(MathFunctions.pow(3, sourceDim))];
+            coordinates     = new double[Math.multiplyExact(derivatives.length, targetDim)];
+            sampled         = new double[sourceDim * 3];
+            sourcePt        = new double[sourceDim];
+            extremumPt      = new double[targetDim];
+            coordinatesView = new DirectPositionView.Double(coordinates, 0, targetDim);
+            extremumView    = new DirectPositionView.Double(extremumPt,  0, targetDim);
+            extremum        = new CurveExtremum();
+        } else {
+            wc              = null;
+            affine          = null;
+            derivatives     = null;
+            coordinates     = null;
+            sampled         = null;
+            sourcePt        = null;
+            extremumPt      = null;
+            coordinatesView = null;
+            extremumView    = null;
+            extremum        = null;
+        }
+    }
+
+    /**
+     * Returns the transform used by this envelope transformer.
+     *
+     * @return the transform specified at construction time.
+     */
+    public MathTransform getTransform() {
+        return transform;
+    }
+
+    /**
+     * Transforms the given envelope and returns the result in a new envelope.
+     * The coordinate reference system of the returned envelope will be null.
+     *
+     * @param  envelope  envelope to transform. This envelope will not be modified.
+     * @return the transformed envelope.
+     * @throws MismatchedDimensionException if the envelope does not have the expected number of dimensions.
+     * @throws TransformException if a transform failed.
+     *
+     * @see Envelopes#transform(MathTransform, Envelope)
+     */
+    public GeneralEnvelope transform(final Envelope envelope) throws TransformException {
+        return transform(envelope, null);
+    }
+
+    /**
+     * Transforms the given envelope and stores the result in the given target.
+     * If the {@code target} argument is {@code null}, then a new envelope is created.
+     * Otherwise, the target envelope is overwritten and its coordinate reference system,
+     * if any, is left unchanged. It is caller's responsibility to ensure that this CRS
+     * is the target CRS of the transform.
+     *
+     * @param  envelope  envelope to transform. This envelope will not be modified, unless it is also {@code target}.
+     * @param  target    where to store the transformed envelope, or {@code null} for creating a new envelope.
+     *                   May be the same instance as {@code envelope}.
+     * @return the transformed envelope, which is {@code target} if that argument was non-null.
+     * @throws MismatchedDimensionException if an envelope does not have the expected number of dimensions.
+     * @throws TransformException if a transform failed.
+     */
+    public GeneralEnvelope transform(final Envelope envelope, final GeneralEnvelope target) throws TransformException {
+        ArgumentChecks.ensureNonNull("envelope", envelope);
+        return transform(envelope, target, null, null);
+    }
+
+    /**
+     * Transforms potentially many times the given envelope.
+     * This method performs the same work as {@link Envelopes#transformWithWraparound(MathTransform, Envelope)}
+     * but using the sampling plan prepared by this envelope transformer.
+     *
+     * @param  envelope  envelope to transform. This envelope will not be modified.
+     * @return the transformed envelopes.
+     * @throws MismatchedDimensionException if the envelope does not have the expected number of dimensions.
+     * @throws TransformException if a transform failed.
+     *
+     * @see Envelopes#transformWithWraparound(MathTransform, Envelope)
+     */
+    public Map<Parameters, GeneralEnvelope> transformWithWraparound(final Envelope envelope) throws TransformException {
+        ArgumentChecks.ensureNonNull("envelope", envelope);
+        final var results = new LinkedHashMap<Parameters, GeneralEnvelope>(4);
+        final GeneralEnvelope transformed = transform(envelope, null, null, results);
+        if (results.isEmpty() && transformed != null) {
+            results.put(null, transformed);
+        }
+        return results;
+    }
+
+    /**
+     * Shared implementation of public {@code transform(…)} methods.
+     * Offers also the opportunity to save the transformed center coordinates.
+     *
+     * @param  envelope  envelope to transform. This envelope will not be modified.
+     * @param  target    where to store the transformed envelope, or {@code null} for creating a new envelope.
+     *                   Ignored if {@code results} is non-null.
+     * @param  targetPt  after this method call, the center of the source envelope transformed to the target CRS.
+     *                   The length of this array must be the number of target dimensions.
+     *                   May be {@code null} if this information is not needed.
+     * @param  results   where to store the individual results when the transform contains wraparound steps,
+     *                   or {@code null} for computing the union of all results instead.
+     * @return the transformed envelope. May be {@code null} if {@code results} was non-null.
+     */
+    final GeneralEnvelope transform(final Envelope envelope, GeneralEnvelope target,
+            double[] targetPt, final Map<Parameters, GeneralEnvelope> results) throws TransformException
+    {
+        if (isIdentity) {
+            /*
+             * Slight optimization: Just copy the envelope. Note that we need to set the CRS
+             * to null because we don't know what the target CRS was supposed to be. Even if
+             * an identity transform often implies that the target CRS is the same one as the
+             * source CRS, it is not always the case. The metadata may be differents, or the
+             * transform may be a datum shift without Bursa-Wolf parameters, etc.
+             */
+            if (target == null || results != null) {
+                target = new GeneralEnvelope(envelope);
+                target.setCoordinateReferenceSystem(null);
+            } else {
+                ensureDimensionMatches(target, targetDim);
+                for (int i=targetDim; --i >= 0;) {
+                    target.setRange(i, envelope.getMinimum(i), envelope.getMaximum(i));
+                }
+            }
+            if (targetPt != null) {
+                for (int i=envelope.getDimension(); --i>=0;) {
+                    targetPt[i] = target.getMedian(i);
+                }
+            }
+            return target;
+        }
+        /*
+         * Checks argument validity: envelope and math transform dimensions must be consistent.
+         */
+        ensureDimensionMatches(envelope, sourceDim);
+        if (target == null || results != null) {
+            target = new GeneralEnvelope(targetDim);
+        } else {
+            ensureDimensionMatches(target, targetDim);
+        }
+        if (affine != null) {
+            transformAffine(envelope, target, targetPt);
+            return target;
+        }
+        for (int i=0; i<sourceDim; i++) {
+            final int k = i * 3;
+            sampled[k  ] = envelope.getMinimum(i);
+            sampled[k+1] = envelope.getMaximum(i);
+            sampled[k+2] = envelope.getMedian (i);
+        }
+        boolean isDerivativeSupported = true;
+        GeneralEnvelope transformed   = target;
+        boolean isEmpty = true;
+        wc.reset();
+        do {
+            for (int i=sourceDim; --i>=0;) {
+                sourcePt[i] = sampled[i * 3];
+            }
+            /*
+             * Iterates over every minimal, maximal and median coordinate values (3 points) along each dimension.
+             * The total number of iterations is 3 ^ (number of source dimensions).
+             */
+nextPoint:  for (int pointIndex = 0;;) {                // Break condition at the end of this block.
+                /*
+                 * Compute the derivative (optional operation). If this operation fails, we will
+                 * set a flag to `false` so we don't try again for all remaining points. We try
+                 * to compute the derivative and the transformed point in a single operation if
+                 * we can. If we cannot, we will compute those two information separately.
+                 *
+                 * Note that the very last point to be projected must be the envelope center.
+                 * There is usually no need to calculate the derivative for that last point,
+                 * but we let it does anyway for safety.
+                 */
+                final int offset = pointIndex * targetDim;
+                try {
+                    derivatives[pointIndex] = Envelopes.derivativeAndTransform(wc.transform,
+                            sourcePt, coordinates, offset, isDerivativeSupported);
+                } catch (TransformException e) {
+                    if (!isDerivativeSupported) {
+                        throw e;                    // Derivative were already disabled, so something went wrong.
+                    }
+                    isDerivativeSupported = false;
+                    derivatives[pointIndex] = null;
+                    wc.transform.transform(sourcePt, 0, coordinates, offset, 1);
+                    Envelopes.recoverableException(Envelopes.class, e);     // Log only if the above call was successful.
+                }
+                /*
+                 * The transformed point has been saved for future reuse after the enclosing
+                 * `for(;;)` loop. Now add the transformed point to the destination envelope.
+                 */
+                if (isEmpty) {
+                    isEmpty = false;
+                    if (transformed == null) {
+                        transformed = new GeneralEnvelope(targetDim);
+                    }
+                    for (int i=0; i<targetDim; i++) {
+                        final double value = coordinates[offset + i];
+                        transformed.setRange(i, value, value);
+                    }
+                } else {
+                    coordinatesView.offset = offset;
+                    transformed.add(coordinatesView);
+                }
+                /*
+                 * Get the next point coordinate. The `coordinateIndex` variable is an index in base 3
+                 * having a number of digits equals to the number of source dimensions.  For example, a
+                 * 4-D space have indexes ranging from "0000" to "2222" (numbers in base 3). The digits
+                 * are then mapped to minimal (0), maximal (1) or central (2) coordinates. The outer loop
+                 * stops when the counter roll back to "0000". Note that `targetPt` will be set to value
+                 * of the last projected point, which must be the envelope center identified by "2222"
+                 * in the 4-D case.
+                 */
+                int indexBase3 = ++pointIndex;
+                for (int dim = sourceDim; --dim >= 0; indexBase3 /= 3) {
+                    final int digitBase3 = indexBase3 % 3;
+                    sourcePt[dim] = sampled[dim * 3 + digitBase3];
+                    if (digitBase3 != 0) {
+                        continue nextPoint;
+                    }
+                }
+                assert pointIndex == derivatives.length : pointIndex;
+                break;
+            }
+            /*
+             * At this point we finished to build an envelope from all sampled positions. Now iterate
+             * over all points. For each point, iterate over all line segments from that point to a
+             * neighbor median point.  Use the derivate information for approximating the transform
+             * behavior in that area by a cubic curve. We can then find analytically the curve extremum.
+             */
+            for (int pointIndex=0; pointIndex < derivatives.length; pointIndex++) {
+                final Matrix D1 = derivatives[pointIndex];
+                if (D1 != null) {
+                    int indexBase3 = pointIndex, power3 = 1;
+                    for (int i = sourceDim; --i >= 0; indexBase3 /= 3, power3 *= 3) {
+                        final int digitBase3 = indexBase3 % 3;
+                        // Process only if we are not already located on the median along the dimension i.
+                        if (digitBase3 != 2) {
+                            final int medianIndex = pointIndex + power3 * (2 - digitBase3);
+                            final Matrix D2 = derivatives[medianIndex];
+                            if (D2 != null) {
+                                final double xmin = sampled[i*3    ];
+                                final double xmax = sampled[i*3 + 1];
+                                final double x2   = sampled[i*3 + 2];
+                                final double x1   = (digitBase3 == 0) ? xmin : xmax;
+                                final int offset1 = targetDim * pointIndex;
+                                final int offset2 = targetDim * medianIndex;
+                                for (int j=0; j<targetDim; j++) {
+                                    extremum.resolve(x1, coordinates[offset1 + j], D1.getElement(j,i),
+                                                     x2, coordinates[offset2 + j], D2.getElement(j,i));
+                                    boolean isP2 = false;
+                                    do {
+                                        // Executed exactly twice, one for each extremum point.
+                                        final double x = isP2 ? extremum.ex2 : extremum.ex1;
+                                        if (x > xmin && x < xmax) {
+                                            final double y = isP2 ? extremum.ey2 : extremum.ey1;
+                                            if (y < transformed.getMinimum(j) ||
+                                                y > transformed.getMaximum(j))
+                                            {
+                                                /*
+                                                 * At this point, we have determined that adding the extremum point
+                                                 * would expand the envelope. However, we will not add that point
+                                                 * directly because its position may not be quite right (since we
+                                                 * used a cubic curve approximation). Instead, we project the point
+                                                 * on the envelope border which is located vis-à-vis the extremum.
+                                                 */
+                                                for (int ib3 = pointIndex, dim = sourceDim; --dim >= 0; ib3 /= 3) {
+                                                    sourcePt[dim] = (dim == i) ? x : sampled[dim * 3 + ib3 % 3];
+                                                }
+                                                wc.transform.transform(sourcePt, 0, extremumPt, 0, 1);
+                                                transformed.add(extremumView);
+                                            }
+                                        }
+                                    } while ((isP2 = !isP2) == true);
+                                }
+                            }
+                        }
+                    }
+                    derivatives[pointIndex] = null;                 // Let GC do its job earlier.
+                }
+            }
+            /*
+             * Copy the coordinate of the center point. We take the point of the
+             * first iteration because it is the one before translation is applied.
+             */
+            if (targetPt != null) {
+                System.arraycopy(coordinates, coordinates.length - targetDim, targetPt, 0, targetDim);
+                targetPt = null;
+            }
+            /*
+             * If the caller wants individual results, store them in the list.
+             * Do not filter empty envelopes, because some callers such as
+             * `GridExtent` have algorithms for completing empty envelopes.
+             */
+            if (results != null) {
+                final GeneralEnvelope e = results.putIfAbsent(wc.state(), transformed);
+                if (e != null) e.add(transformed);    // Should never happen, but let be safe.
+                transformed = null;
+                target  = null;
+                isEmpty = true;
+            }
+        } while (wc.translate());
+        return target;
+    }
+
+    /**
+     * Transforms the given envelope using the coefficients of the affine transform.
+     * For each target dimension, the minimum and maximum values are the sums of the
+     * minimum or maximum values of the products of matrix coefficients by the source
+     * envelope bounds. This is equivalent to transforming all envelope corners.
+     * All bounds are computed before {@code target} is modified, so the two envelopes may be the same instance.
+     *
+     * @param  envelope  envelope to transform. This envelope will not be modified unless it is {@code target}.
+     * @param  target    where to store the transformed envelope.
+     * @param  targetPt  where to store the transformed envelope center, or {@code null} if not needed.
+     */
+    private void transformAffine(final Envelope envelope, final GeneralEnvelope target, final double[] targetPt) {
+        final int numCol = sourceDim + 1;
+        final double[] bounds = new double[targetDim * 2];
+        for (int j=0; j<targetDim; j++) {
+            final int row = j * numCol;
+            double lower  = affine[row + sourceDim];
+            double upper  = lower;
+            double center = lower;
+            for (int i=0; i<sourceDim; i++) {
+                final double e = affine[row + i];
+                if (e != 0) {
+                    final double a = e * envelope.getMinimum(i);
+                    final double b = e * envelope.getMaximum(i);
+                    if (a <= b) {
+                        lower += a;
+                        upper += b;
+                    } else {
+                        lower += b;
+                        upper += a;
+                    }
+                    if (targetPt != null) {
+                        center += e * envelope.getMedian(i);
+                    }
+                }
+            }
+            bounds[j*2  ] = lower;
+            bounds[j*2+1] = upper;
+            if (targetPt != null) {
+                targetPt[j] = center;
+            }
+        }
+        for (int j=0; j<targetDim; j++) {
+            target.setRange(j, bounds[j*2], bounds[j*2+1]);
+        }
+    }
+
+    /**
+     * Ensures that the given envelope has the expected number of dimensions.
+     *
+     * @param  envelope  the envelope to verify.
+     * @param  expected  the expected number of dimensions.
+     * @throws MismatchedDimensionException if the envelope does not have the expected number of dimensions.
+     */
+    private static void ensureDimensionMatches(final Envelope envelope, final int expected) {
+        final int dimension = envelope.getDimension();
+        if (dimension != expected) {
+            throw new MismatchedDimensionException(Errors.format(Errors.Keys.MismatchedDimension_2, expected, dimension));
+        }
+    }
+}
@@ -25,13 +25,11 @@ package org.apache.sis.geometry;
 import java.util.Map;
 import java.util.Set;
 import java.util.Optional;
-import java.util.LinkedHashMap;
 import java.util.ConcurrentModificationException;
 import java.util.logging.Logger;
 import java.time.Instant;
 import org.opengis.geometry.Envelope;
 import org.opengis.geometry.DirectPosition;
-import org.opengis.geometry.MismatchedDimensionException;
 import org.opengis.referencing.cs.CoordinateSystem;
 import org.opengis.referencing.cs.CoordinateSystemAxis;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
@@ -61,7 +59,6 @@ import org.apache.sis.util.ArgumentChecks;
 import org.apache.sis.util.ComparisonMode;
 import org.apache.sis.util.Utilities;
 import org.apache.sis.measure.Range;
-import org.apache.sis.math.MathFunctions;
 
 import static org.apache.sis.util.StringBuilders.trimFractionalPart;
 
@@ -102,7 +99,7 @@ import static org.apache.sis.util.StringBuilders.trimFractionalPart;
  *
  * @author  Martin Desruisseaux (IRD, Geomatys)
  * @author  Johann Sorel (Geomatys)
- * @version 1.6
+ * @version 1.7
  *
  * @see org.apache.sis.metadata.iso.extent.Extents
  * @see CRS
@@ -347,227 +344,6 @@ public final class Envelopes {
         return envelope;
     }
 
-    /**
-     * Shared implementation of {@link #transform(MathTransform, Envelope)} and
-     * {@link #transformWithWraparound(MathTransform, Envelope)} public methods.
-     * Offers also the opportunity to save the transformed center coordinates.
-     *
-     * @param  transform  the transform to use.
-     * @param  envelope   envelope to transform. This envelope will not be modified.
-     * @param  targetPt   after this method call, the center of the source envelope transformed to the target CRS.
-     *                    The length of this array must be the number of target dimensions.
-     *                    May be {@code null} if this information is not needed.
-     * @param  results    where to store the individual results when the transform contains wraparound steps,
-     *                    or {@code null} for computing the union of all results instead.
-     * @return the transformed envelope. May be {@code null} if {@code results} was non-null.
-     */
-    private static GeneralEnvelope transform(final MathTransform transform, final Envelope envelope,
-            double[] targetPt, final Map<Parameters, GeneralEnvelope> results) throws TransformException
-    {
-        if (transform.isIdentity()) {
-            /*
-             * Slight optimization: Just copy the envelope. Note that we need to set the CRS
-             * to null because we don't know what the target CRS was supposed to be. Even if
-             * an identity transform often implies that the target CRS is the same one as the
-             * source CRS, it is not always the case. The metadata may be differents, or the
-             * transform may be a datum shift without Bursa-Wolf parameters, etc.
-             */
-            final var transformed = new GeneralEnvelope(envelope);
-            transformed.setCoordinateReferenceSystem(null);
-            if (targetPt != null) {
-                for (int i=envelope.getDimension(); --i>=0;) {
-                    targetPt[i] = transformed.getMedian(i);
-                }
-            }
-            return transformed;
-        }
-        /*
-         * Checks argument validity: envelope and math transform dimensions must be consistent.
-         */
-        final int sourceDim = transform.getSourceDimensions();
-        final int targetDim = transform.getTargetDimensions();
-        if (envelope.getDimension() != sourceDim) {
-            throw new MismatchedDimensionException(Errors.format(Errors.Keys.MismatchedDimension_2,
-                      sourceDim, envelope.getDimension()));
-        }
-        /*
-         * Allocates all needed objects. The power of 3 below is because the following `while` loop
-         * uses a `pointIndex` to be interpreted as a number in base 3 (see the comment inside the loop).
-         * The coordinate tuple to transform must be initialized to the minimal coordinate values.
-         * This coordinate will be updated in the `switch` statement inside the `while` loop.
-         */
-        if (sourceDim >= 20) {          // Maximal value supported by Formulas.pow3(int) is 19.
-            throw new ArithmeticException(Errors.format(Errors.Keys.ExcessiveNumberOfDimensions_1, sourceDim));
-        }
-        boolean isDerivativeSupported = true;
-        DirectPosition  temporary     = null;
-        GeneralEnvelope transformed   = null;
-        final Matrix[]  derivatives   = new Matrix[Math.toIntExact(MathFunctions.pow(3, sourceDim))];
-        final double[]  coordinates   = new double[Math.multiplyExact(derivatives.length, targetDim)];
-        final double[]  sourcePt      = new double[sourceDim];
-        // A window over a single coordinate in the `coordinates` array.
-        final var ordinatesView = new DirectPositionView.Double(coordinates, 0, targetDim);
-        final var wc = new WraparoundInEnvelope.Controller(transform);
-        do {
-            for (int i=sourceDim; --i>=0;) {
-                sourcePt[i] = envelope.getMinimum(i);
-            }
-            /*
-             * Iterates over every minimal, maximal and median coordinate values (3 points) along each dimension.
-             * The total number of iterations is 3 ^ (number of source dimensions).
-             */
-nextPoint:  for (int pointIndex = 0;;) {                // Break condition at the end of this block.
-                /*
-                 * Compute the derivative (optional operation). If this operation fails, we will
-                 * set a flag to `false` so we don't try again for all remaining points. We try
-                 * to compute the derivative and the transformed point in a single operation if
-                 * we can. If we cannot, we will compute those two information separately.
-                 *
-                 * Note that the very last point to be projected must be the envelope center.
-                 * There is usually no need to calculate the derivative for that last point,
-                 * but we let it does anyway for safety.
-                 */
-                final int offset = pointIndex * targetDim;
-                try {
-                    derivatives[pointIndex] = derivativeAndTransform(wc.transform,
-                            sourcePt, coordinates, offset, isDerivativeSupported);
-                } catch (TransformException e) {
-                    if (!isDerivativeSupported) {
-                        throw e;                    // Derivative were already disabled, so something went wrong.
-                    }
-                    isDerivativeSupported = false;
-                    wc.transform.transform(sourcePt, 0, coordinates, offset, 1);
-                    recoverableException(Envelopes.class, e);       // Log only if the above call was successful.
-                }
-                /*
-                 * The transformed point has been saved for future reuse after the enclosing
-                 * `for(;;)` loop. Now add the transformed point to the destination envelope.
-                 */
-                if (transformed == null) {
-                    transformed = new GeneralEnvelope(targetDim);
-                    for (int i=0; i<targetDim; i++) {
-                        final double value = coordinates[offset + i];
-                        transformed.setRange(i, value, value);
-                    }
-                } else {
-                    ordinatesView.offset = offset;
-                    transformed.add(ordinatesView);
-                }
-                /*
-                 * Get the next point coordinate. The `coordinateIndex` variable is an index in base 3
-                 * having a number of digits equals to the number of source dimensions.  For example, a
-                 * 4-D space have indexes ranging from "0000" to "2222" (numbers in base 3). The digits
-                 * are then mapped to minimal (0), maximal (1) or central (2) coordinates. The outer loop
-                 * stops when the counter roll back to "0000". Note that `targetPt` will be set to value
-                 * of the last projected point, which must be the envelope center identified by "2222"
-                 * in the 4-D case.
-                 */
-                int indexBase3 = ++pointIndex;
-                for (int dim = sourceDim; --dim >= 0; indexBase3 /= 3) {
-                    switch (indexBase3 % 3) {
-                        case 0:  sourcePt[dim] = envelope.getMinimum(dim); continue;            // Continue the loop.
-                        case 1:  sourcePt[dim] = envelope.getMaximum(dim); continue nextPoint;
-                        case 2:  sourcePt[dim] = envelope.getMedian (dim); continue nextPoint;
-                        default: throw new AssertionError(indexBase3);                          // Should never happen
-                    }
-                }
-                assert pointIndex == derivatives.length : pointIndex;
-                break;
-            }
-            /*
-             * At this point we finished to build an envelope from all sampled positions. Now iterate
-             * over all points. For each point, iterate over all line segments from that point to a
-             * neighbor median point.  Use the derivate information for approximating the transform
-             * behavior in that area by a cubic curve. We can then find analytically the curve extremum.
-             *
-             * The same technic is applied in transform(MathTransform, Rectangle2D), except that in
-             * the Rectangle2D case the calculation was bundled right inside the main loop in order
-             * to avoid the need for storage.
-             */
-            final var sourceView = new DirectPositionView.Double(sourcePt, 0, sourceDim);
-            final var extremum = new CurveExtremum();
-            for (int pointIndex=0; pointIndex < derivatives.length; pointIndex++) {
-                final Matrix D1 = derivatives[pointIndex];
-                if (D1 != null) {
-                    int indexBase3 = pointIndex, power3 = 1;
-                    for (int i = sourceDim; --i >= 0; indexBase3 /= 3, power3 *= 3) {
-                        final int digitBase3 = indexBase3 % 3;
-                        // Process only if we are not already located on the median along the dimension i.
-                        if (digitBase3 != 2) {
-                            final int medianIndex = pointIndex + power3 * (2 - digitBase3);
-                            final Matrix D2 = derivatives[medianIndex];
-                            if (D2 != null) {
-                                final double xmin = envelope.getMinimum(i);
-                                final double xmax = envelope.getMaximum(i);
-                                final double x2   = envelope.getMedian (i);
-                                final double x1   = (digitBase3 == 0) ? xmin : xmax;
-                                final int offset1 = targetDim * pointIndex;
-                                final int offset2 = targetDim * medianIndex;
-                                for (int j=0; j<targetDim; j++) {
-                                    extremum.resolve(x1, coordinates[offset1 + j], D1.getElement(j,i),
-                                                     x2, coordinates[offset2 + j], D2.getElement(j,i));
-                                    boolean isP2 = false;
-                                    do {
-                                        // Executed exactly twice, one for each extremum point.
-                                        final double x = isP2 ? extremum.ex2 : extremum.ex1;
-                                        if (x > xmin && x < xmax) {
-                                            final double y = isP2 ? extremum.ey2 : extremum.ey1;
-                                            if (y < transformed.getMinimum(j) ||
-                                                y > transformed.getMaximum(j))
-                                            {
-                                                /*
-                                                 * At this point, we have determined that adding the extremum point
-                                                 * would expand the envelope. However, we will not add that point
-                                                 * directly because its position may not be quite right (since we
-                                                 * used a cubic curve approximation). Instead, we project the point
-                                                 * on the envelope border which is located vis-à-vis the extremum.
-                                                 */
-                                                for (int ib3 = pointIndex, dim = sourceDim; --dim >= 0; ib3 /= 3) {
-                                                    final double coordinate;
-                                                    if (dim == i) {
-                                                        coordinate = x;                       // Position of the extremum.
-                                                    } else switch (ib3 % 3) {
-                                                        case 0:  coordinate = envelope.getMinimum(dim); break;
-                                                        case 1:  coordinate = envelope.getMaximum(dim); break;
-                                                        case 2:  coordinate = envelope.getMedian (dim); break;
-                                                        default: throw new AssertionError(ib3);     // Should never happen.
-                                                    }
-                                                    sourcePt[dim] = coordinate;
-                                                }
-                                                temporary = wc.transform.transform(sourceView, temporary);
-                                                transformed.add(temporary);
-                                            }
-                                        }
-                                    } while ((isP2 = !isP2) == true);
-                                }
-                            }
-                        }
-                    }
-                    derivatives[pointIndex] = null;                 // Let GC do its job earlier.
-                }
-            }
-            /*
-             * Copy the coordinate of the center point. We take the point of the
-             * first iteration because it is the one before translation is applied.
-             */
-            if (targetPt != null) {
-                System.arraycopy(coordinates, coordinates.length - targetDim, targetPt, 0, targetDim);
-                targetPt = null;
-            }
-            /*
-             * If the caller wants individual results, store them in the list.
-             * Do not filter empty envelopes, because some callers such as
-             * `GridExtent` have algorithms for completing empty envelopes.
-             */
-            if (results != null) {
-                final GeneralEnvelope e = results.putIfAbsent(wc.state(), transformed);
-                if (e != null) e.add(transformed);    // Should never happen, but let be safe.
-                transformed = null;
-            }
-        } while (wc.translate());
-        return transformed;
-    }
-
     /**
      * Transforms an envelope using the given coordinate operation.
      * The transformation is only approximated: the returned envelope may be bigger than the
@@ -626,7 +402,7 @@ nextPoint:  for (int pointIndex = 0;;) {                // Break condition at th
         }
         final MathTransform mt = operation.getMathTransform();
         final double[] centerPt = new double[mt.getTargetDimensions()];
-        final GeneralEnvelope transformed = transform(mt, envelope, centerPt, null);
+        final GeneralEnvelope transformed = new EnvelopeTransformer(mt).transform(envelope, null, centerPt, null);
         /*
          * If the source envelope crosses the expected range of valid coordinates, also projects
          * the range bounds as a safety. Example: if the source envelope goes from 150 to 200°E,
@@ -939,12 +715,17 @@ poles:  for (int i=0; i<dimension; i++) {
      * contains {@link WraparoundTransform} steps, as this method does not add such steps itself.
      * For a more robust envelope transformation, use {@link #transform(CoordinateOperation, Envelope)} instead.
      *
+     * <h4>Performance tip</h4>
+     * If there is many envelopes to transform with the same transform,
+     * then {@link EnvelopeTransformer} is more efficient.
+     *
      * @param  transform  the transform to use.
      * @param  envelope   envelope to transform, or {@code null}. This envelope will not be modified.
      * @return the transformed envelope, or {@code null} if {@code envelope} was null.
      * @throws TransformException if a transform failed.
      *
      * @see #transform(CoordinateOperation, Envelope)
+     * @see EnvelopeTransformer
      *
      * @since 0.5
      */
@@ -952,7 +733,7 @@ poles:  for (int i=0; i<dimension; i++) {
             throws TransformException
     {
         ArgumentChecks.ensureNonNull("transform", transform);
-        return (envelope != null) ? transform(transform, envelope, null, null) : null;
+        return (envelope != null) ? new EnvelopeTransformer(transform).transform(envelope) : null;
     }
 
     /**
@@ -1009,12 +790,7 @@ poles:  for (int i=0; i<dimension; i++) {
         if (envelope == null) {
             return Map.of();
         }
-        final var results = new LinkedHashMap<Parameters, GeneralEnvelope>(4);
-        final GeneralEnvelope transformed = transform(transform, envelope, null, results);
-        if (results.isEmpty() && transformed != null) {
-            results.put(null, transformed);
-        }
-        return results;
+        return new EnvelopeTransformer(transform).transformWithWraparound(envelope);
     }
 
     /**
@@ -173,6 +173,15 @@ final class WraparoundInEnvelope extends WraparoundTransform {
         return false;
     }
 
+    /**
+     * Restores this transform to the state it had at construction time.
+     * This is used when the same transform is reused for many envelopes.
+     */
+    private void reset() {
+        minCycles = maxCycles = limit = Math.rint(sourceMedian / period);
+        minChanged = maxChanged = false;
+    }
+
     /**
      * Helper class for transforming an envelope with special checks for wraparounds.
      * This class provides a translatable {@linkplain #transform} for enabling wraparounds that could not be applied
@@ -243,6 +252,18 @@ final class WraparoundInEnvelope extends WraparoundTransform {
             return modified;
         }
 
+        /**
+         * Restores the {@linkplain #transform} to the state it had at construction time.
+         * This method should be invoked before to transform a new envelope with the same controller.
+         */
+        final void reset() {
+            if (wraparounds != null) {
+                for (final WraparoundInEnvelope tr : wraparounds) {
+                    tr.reset();
+                }
+            }
+        }
+
         /**
          * Returns a snapshot of the state of the wraparound transform.
          * This state can change when {@link #translate()} is invoked.
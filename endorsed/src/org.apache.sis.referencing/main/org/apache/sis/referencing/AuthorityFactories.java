@@ -24,6 +24,7 @@ import java.util.logging.Level;
 import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 import java.sql.SQLTransientException;
+import java.nio.file.Path;
 import org.opengis.util.FactoryException;
 import org.opengis.referencing.AuthorityFactory;
 import org.opengis.referencing.IdentifiedObject;
@@ -32,18 +33,22 @@ import org.opengis.referencing.crs.CRSAuthorityFactory;
 import org.opengis.referencing.datum.DatumAuthorityFactory;
 import org.opengis.referencing.operation.CoordinateOperationAuthorityFactory;
 import org.apache.sis.referencing.internal.EPSGFactoryProxy;
+import org.apache.sis.referencing.internal.Resources;
 import org.apache.sis.referencing.internal.shared.LazySet;
 import org.apache.sis.referencing.internal.shared.FilteredIterator;
 import org.apache.sis.system.Reflect;
 import org.apache.sis.system.Loggers;
 import org.apache.sis.system.Modules;
 import org.apache.sis.system.Configuration;
+import org.apache.sis.system.DataDirectory;
 import org.apache.sis.system.SystemListener;
 import org.apache.sis.referencing.factory.MultiAuthoritiesFactory;
 import org.apache.sis.referencing.factory.GeodeticAuthorityFactory;
 import org.apache.sis.referencing.factory.IdentifiedObjectFinder;
+import org.apache.sis.referencing.factory.SnapshotAuthorityFactory;
 import org.apache.sis.referencing.factory.UnavailableFactoryException;
 import org.apache.sis.referencing.factory.sql.EPSGFactory;
+import org.apache.sis.util.internal.shared.Constants;
 import org.apache.sis.util.logging.Logging;
 
 
@@ -67,6 +72,17 @@ final class AuthorityFactories<T extends AuthorityFactory> extends LazySet<T> {
      */
     private static GeodeticAuthorityFactory EPSG;
 
+    /**
+     * Name of the system property specifying the file containing a snapshot of the EPSG dataset.
+     * If this property is set, the snapshot is used instead of the EPSG database.
+     * Relative paths are resolved against the {@code SIS_DATA/Databases} directory.
+     * This replacement is never done implicitly, because the snapshot uses Java deserialization.
+     *
+     * @see SnapshotAuthorityFactory
+     */
+    @Configuration
+    static final String EPSG_SNAPSHOT_PROPERTY = "org.apache.sis.epsg.snapshot";
+
     /**
      * The unique system-wide authority factory instance that contains all factories found on the module path,
      * plus the EPSG factory. The {@link EPSGFactoryProxy} must be excluded from this list, since the EPSG
@@ -161,7 +177,10 @@ final class AuthorityFactories<T extends AuthorityFactory> extends LazySet<T> {
 
     /**
      * Returns the factory connected to the <abbr>EPSG</abbr> geodetic dataset if possible, or the fallback otherwise.
-     * If an <abbr>EPSG</abbr> data source has been found, then this method returns an instance of {@link EPSGFactory}.
+     * If a snapshot of the <abbr>EPSG</abbr> dataset has been specified by the {@value #EPSG_SNAPSHOT_PROPERTY} system
+     * property, then this method returns an instance of {@link SnapshotAuthorityFactory} reading that file without any
+     * database connection, except for the objects which are not in the snapshot.
+     * Otherwise, if an <abbr>EPSG</abbr> data source has been found, then this method returns an instance of {@link EPSGFactory}.
      * But unless {@code test} is {@code true}, there is no guarantee that attempts to use that factory will succeed.
      * For example, maybe the {@code EPSG} schema does not exist and no installation scripts are available on the module-path.
      * Callers should be prepared to either receive an {@link EPSGFactoryFallback} directly if the EPSG data source does not exist,
@@ -169,6 +188,22 @@ final class AuthorityFactories<T extends AuthorityFactory> extends LazySet<T> {
      */
     static synchronized GeodeticAuthorityFactory getEPSG(final boolean test) {
         if (EPSG == null) try {
+            final Path snapshot = snapshotOfEPSG();
+            if (snapshot != null) try {
+                GeodeticAuthorityFactory fallback;
+                try {
+                    fallback = new EPSGFactory(null);
+                } catch (FactoryException e) {
+                    fallback = EPSGFactoryFallback.INSTANCE;     // No database, use only the snapshot and public sources.
+                }
+                EPSG = new SnapshotAuthorityFactory(snapshot, fallback);
+                final var record = Resources.forLocale(null).createLogRecord(Level.INFO,
+                        Resources.Keys.UsingSnapshotOfAuthority_2, Constants.EPSG, snapshot);
+                Logging.completeAndLog(LOGGER, CRS.class, "getAuthorityFactory", record);
+                return EPSG;
+            } catch (FactoryException e) {
+                log(e, true);
+            }
             EPSG = new EPSGFactory(null);
             if (test) {
                 EPSG.createPrimeMeridian(StandardDefinitions.GREENWICH);
@@ -180,6 +215,25 @@ final class AuthorityFactories<T extends AuthorityFactory> extends LazySet<T> {
         return EPSG;
     }
 
+    /**
+     * Returns the path to the snapshot of the <abbr>EPSG</abbr> dataset, or {@code null} if none.
+     * The snapshot is used only if explicitly requested by the {@value #EPSG_SNAPSHOT_PROPERTY} property.
+     */
+    private static Path snapshotOfEPSG() {
+        final String property = System.getProperty(EPSG_SNAPSHOT_PROPERTY);
+        if (property == null || property.isBlank()) {
+            return null;
+        }
+        Path file = Path.of(property);
+        if (!file.isAbsolute()) {
+            final Path directory = DataDirectory.DATABASES.getDirectory();
+            if (directory != null) {
+                file = directory.resolve(file);
+            }
+        }
+        return file;
+    }
+
     /**
      * Returns the fallback to use if the authority factory is not available. Unless the problem may be temporary,
      * this method replaces the {@link EPSGFactory} instance by {@link EPSGFactoryFallback} in order to prevent
@@ -20,6 +20,7 @@ import java.awt.Shape;
 import java.awt.geom.Path2D;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.stream.IntStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.text.NumberFormat;
@@ -124,7 +125,7 @@ import static org.apache.sis.referencing.operation.provider.ModifiedAzimuthalEqu
  * then a distinct instance of {@code GeodeticCalculator} needs to be created for each thread.
  *
  * @author  Martin Desruisseaux (Geomatys)
- * @version 1.1
+ * @version 1.7
  * @since   1.0
  */
 public class GeodeticCalculator {
@@ -640,6 +641,145 @@ public class GeodeticCalculator {
         return ellipsoid.getAxisUnit();
     }
 
+    /**
+     * Computes the geodesic distances and azimuths between many pairs of points.
+     * Points are given as (<var>latitude</var>, <var>longitude</var>) tuples in degrees,
+     * in the same convention as {@link #setStartGeographicPoint(double, double)}.
+     * The number of pairs is {@code endPoints.length / 2}. The start points array can either
+     * contain one point per pair, or contain a single point used as the start of all pairs.
+     * The latter case is convenient for computing a row of a distance matrix.
+     *
+     * <p>This method avoids the creation of {@link DirectPosition} objects and the overhead of
+     * calling the setter and getter methods for each pair. The computed values are stored in
+     * the given arrays at the index of the pair. Any output array can be {@code null} if the
+     * corresponding values are not needed. If the geodesic cannot be computed for a pair,
+     * for example because a coordinate is not finite, then the outputs for that pair are NaN.</p>
+     *
+     * <p>The start point, end point and all other properties of this calculator are unspecified
+     * after this method call. They should be set again before to use this calculator for other purposes.</p>
+     *
+     * @param  startPoints       (φ,λ) coordinates of start points, either for all pairs or as a single point.
+     * @param  endPoints         (φ,λ) coordinates of end points.
+     * @param  distances         where to store the geodesic distances in {@linkplain #getDistanceUnit() distance unit}, or {@code null}.
+     * @param  startingAzimuths  where to store the starting azimuths in degrees, or {@code null}.
+     * @param  endingAzimuths    where to store the ending azimuths in degrees, or {@code null}.
+     * @throws IllegalArgumentException if an array does not have the expected length.
+     *
+     * @see #getGeodesicDistance()
+     * @see #getStartingAzimuth()
+     * @see #getEndingAzimuth()
+     *
+     * @since 1.7
+     */
+    public void computeGeodesics(final double[] startPoints, final double[] endPoints,
+            final double[] distances, final double[] startingAzimuths, final double[] endingAzimuths)
+    {
+        final int numPairs = checkGeodesicArrays(startPoints, endPoints, distances, startingAzimuths, endingAzimuths);
+        computeGeodesics(startPoints, endPoints, distances, startingAzimuths, endingAzimuths, 0, numPairs);
+    }
+
+    /**
+     * Computes the geodesic distances and azimuths between many pairs of points using many threads.
+     * This method has the same contract as {@link #computeGeodesics(double[], double[], double[], double[], double[])},
+     * but the pairs are split in chunks computed in parallel, each chunk with its own calculator
+     * for the same Coordinate Reference System as this calculator. This calculator is not modified.
+     * This method is worth for large number of pairs only; for small inputs, the computation is
+     * done in the current thread.
+     *
+     * @param  startPoints       (φ,λ) coordinates of start points, either for all pairs or as a single point.
+     * @param  endPoints         (φ,λ) coordinates of end points.
+     * @param  distances         where to store the geodesic distances in {@linkplain #getDistanceUnit() distance unit}, or {@code null}.
+     * @param  startingAzimuths  where to store the starting azimuths in degrees, or {@code null}.
+     * @param  endingAzimuths    where to store the ending azimuths in degrees, or {@code null}.
+     * @throws IllegalArgumentException if an array does not have the expected length.
+     *
+     * @since 1.7
+     */
+    public void computeGeodesicsInParallel(final double[] startPoints, final double[] endPoints,
+            final double[] distances, final double[] startingAzimuths, final double[] endingAzimuths)
+    {
+        final int numPairs = checkGeodesicArrays(startPoints, endPoints, distances, startingAzimuths, endingAzimuths);
+        final int numChunks = (numPairs + (GEODESICS_CHUNK_SIZE - 1)) / GEODESICS_CHUNK_SIZE;
+        if (numChunks <= 1) {
+            create(getPositionCRS()).computeGeodesics(startPoints, endPoints,
+                    distances, startingAzimuths, endingAzimuths, 0, numPairs);
+            return;
+        }
+        final CoordinateReferenceSystem crs = getPositionCRS();
+        IntStream.range(0, numChunks).parallel().forEach((chunk) -> {
+            final int lower = chunk * GEODESICS_CHUNK_SIZE;
+            create(crs).computeGeodesics(startPoints, endPoints, distances, startingAzimuths, endingAzimuths,
+                                         lower, Math.min(lower + GEODESICS_CHUNK_SIZE, numPairs));
+        });
+    }
+
+    /**
+     * Number of pairs of points computed by each task of {@link #computeGeodesicsInParallel computeGeodesicsInParallel(…)}.
+     * The cost of creating a calculator for each chunk should be negligible compared to the computation of that number of
+     * geodesics.
+     */
+    private static final int GEODESICS_CHUNK_SIZE = 4096;
+
+    /**
+     * Verifies the lengths of the arrays given to {@code computeGeodesics(…)} methods.
+     *
+     * @return number of pairs of points.
+     * @throws IllegalArgumentException if an array does not have the expected length.
+     */
+    private static int checkGeodesicArrays(final double[] startPoints, final double[] endPoints,
+            final double[] distances, final double[] startingAzimuths, final double[] endingAzimuths)
+    {
+        ArgumentChecks.ensureNonNull("startPoints", startPoints);
+        ArgumentChecks.ensureNonNull("endPoints",   endPoints);
+        ArgumentChecks.ensureMultiple("endPoints", 2, endPoints.length);
+        final int numPairs = endPoints.length / 2;
+        if (startPoints.length != 2 && startPoints.length != endPoints.length) {
+            throw new IllegalArgumentException(Errors.format(Errors.Keys.UnexpectedArrayLength_2, endPoints.length, startPoints.length));
+        }
+        for (final double[] results : new double[][] {distances, startingAzimuths, endingAzimuths}) {
+            if (results != null && results.length < numPairs) {
+                throw new IllegalArgumentException(Errors.format(Errors.Keys.UnexpectedArrayLength_2, numPairs, results.length));
+            }
+        }
+        return numPairs;
+    }
+
+    /**
+     * Implementation of {@code computeGeodesics(…)} methods for the given range of pairs.
+     * Arguments are assumed already validated.
+     *
+     * @param  lower  index of the first pair to compute, inclusive.
+     * @param  upper  index of the last pair to compute, exclusive.
+     */
+    private void computeGeodesics(final double[] startPoints, final double[] endPoints,
+            final double[] distances, final double[] startingAzimuths, final double[] endingAzimuths,
+            final int lower, final int upper)
+    {
+        final boolean singleStart = (startPoints.length == 2);
+        for (int i=lower; i<upper; i++) {
+            final int s = singleStart ? 0 : 2*i;
+            final int e = 2*i;
+            double distance = Double.NaN, α1 = Double.NaN, α2 = Double.NaN;
+            if (Double.isFinite(startPoints[s]) && Double.isFinite(startPoints[s+1]) &&
+                Double.isFinite(  endPoints[e]) && Double.isFinite(  endPoints[e+1]))
+            {
+                setStartGeographicPoint(startPoints[s], startPoints[s+1]);
+                setEndGeographicPoint  (  endPoints[e],   endPoints[e+1]);
+                try {
+                    computeDistance();
+                    distance = geodesicDistance;
+                    α1 = toDegrees(atan2(msinα1, mcosα1));
+                    α2 = toDegrees(atan2(msinα2, mcosα2));
+                } catch (GeodeticException ex) {
+                    // No convergence. Leave the values to NaN.
+                }
+            }
+            if (distances        != null) distances       [i] = distance;
+            if (startingAzimuths != null) startingAzimuths[i] = α1;
+            if (endingAzimuths   != null) endingAzimuths  [i] = α2;
+        }
+    }
+
     /**
      * Computes (∂y/∂φ)⁻¹ where (∂y/∂φ) is the partial derivative of Northing values in a Mercator projection
      * at the given latitude on an ellipsoid with semi-major axis length of 1. There is no method for partial
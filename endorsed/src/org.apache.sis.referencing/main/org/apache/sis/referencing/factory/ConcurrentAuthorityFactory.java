@@ -26,9 +26,15 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.WeakHashMap;
 import java.util.IdentityHashMap;
+import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.LogRecord;
 import java.util.logging.Level;
 import java.lang.ref.WeakReference;
@@ -59,6 +65,7 @@ import org.apache.sis.util.collection.Cache;
 import org.apache.sis.util.collection.Containers;
 import org.apache.sis.util.internal.shared.Constants;
 import org.apache.sis.system.Cleaners;
+import org.apache.sis.system.CommonExecutor;
 import org.apache.sis.system.DelayedExecutor;
 import org.apache.sis.system.DelayedRunnable;
 import org.apache.sis.system.Configuration;
@@ -102,7 +109,7 @@ import org.apache.sis.referencing.datum.DefaultDatumEnsemble;
  * Subclasses should select the interfaces that they choose to implement.
  *
  * @author  Martin Desruisseaux (IRD, Geomatys)
- * @version 1.5
+ * @version 1.7
  *
  * @param <DAO>  the type of factory used as Data Access Object (DAO).
  *
@@ -146,6 +153,22 @@ public abstract class ConcurrentAuthorityFactory<DAO extends GeodeticAuthorityFa
      */
     private final Cache<Key,Object> cache;
 
+    /**
+     * Objects created by {@link #prefetch(Class, Collection)}, retained by strong references
+     * regardless the {@code maxStrongReferences} limit of the {@linkplain #cache}.
+     * Keys are the same (type, code) tuples as the cache keys.
+     *
+     * @see #prefetch(Class, Collection)
+     * @see #releasePrefetched()
+     */
+    private final Map<Key,Object> prefetched = new ConcurrentHashMap<>();
+
+    /**
+     * The maximal number of Data Access Objects to use concurrently.
+     * This is the maximal number of threads used by {@link #prefetch(Class, Collection)}.
+     */
+    private final int maxConcurrentQueries;
+
     /**
      * The pool of objects identified by {@link Finder#find(IdentifiedObject)}.
      * Values may be an empty set if an object has been searched but has not been found.
@@ -338,6 +361,7 @@ public abstract class ConcurrentAuthorityFactory<DAO extends GeodeticAuthorityFa
          * for avoiding that problem, because search operations occur often.
          */
         remainingDAOs = maxConcurrentQueries;
+        this.maxConcurrentQueries = maxConcurrentQueries;
         cache = new Cache<>(20, maxStrongReferences, true);
         cache.setKeyCollisionAllowed(true);
         /*
@@ -1793,6 +1817,144 @@ public abstract class ConcurrentAuthorityFactory<DAO extends GeodeticAuthorityFa
         return (Set<CoordinateOperation>) value;
     }
 
+    /**
+     * Creates in advance the objects of the given type for all the given codes, and keeps them in memory.
+     * This method can be invoked at application startup for avoiding the latency of database queries when
+     * the objects are requested for the first time. The objects are created in parallel by up to
+     * {@code maxConcurrentQueries} threads (the value given at construction time), each thread using
+     * its own Data Access Object. The objects are stored in the cache and retained by strong references
+     * until {@link #releasePrefetched()} is invoked, regardless the {@code maxStrongReferences} limit.
+     *
+     * <p>This method does not stop at the first failure. Instead, the codes of the objects that could
+     * not be created are returned, for example for removing them from a list of frequently used codes.
+     * This method returns only after all objects have been created or have failed.</p>
+     *
+     * <p>Each object is cached under the given type and also under its most specific type.
+     * For example, a geographic <abbr>CRS</abbr> prefetched as a {@code CoordinateReferenceSystem}
+     * is also found in the cache by {@link #createGeographicCRS(String)}.</p>
+     *
+     * <h4>Persistence across restarts</h4>
+     * The {@link #getCachedCodes(Class)} method can be used for saving the codes of the objects
+     * in use before an application shutdown, and for prefetching them at the next startup:
+     *
+     * {@snippet lang="java" :
+     *     Path hotCodes = ...;
+     *     // At shutdown:
+     *     Files.write(hotCodes, factory.getCachedCodes(CoordinateReferenceSystem.class));
+     *     // At startup:
+     *     Set<String> failures = factory.prefetch(CoordinateReferenceSystem.class, Files.readAllLines(hotCodes));
+     *     }
+     *
+     * @param  type   the type of objects to create (for example {@code CoordinateReferenceSystem.class}).
+     * @param  codes  authority codes of the objects to create.
+     * @return codes of the objects that could not be created, or an empty set if none.
+     * @throws FactoryException if the prefetching has been interrupted.
+     *
+     * @see #getCachedCodes(Class)
+     * @see #releasePrefetched()
+     *
+     * @since 1.7
+     */
+    public Set<String> prefetch(final Class<? extends IdentifiedObject> type, final Collection<String> codes)
+            throws FactoryException
+    {
+        ArgumentChecks.ensureNonNull("type",  type);
+        ArgumentChecks.ensureNonNull("codes", codes);
+        final AuthorityFactoryProxy<?> proxy = AuthorityFactoryProxy.getInstance(type);
+        final var remaining = new ConcurrentLinkedQueue<String>(codes);
+        final Set<String> failures = ConcurrentHashMap.newKeySet();
+        final Runnable worker = () -> {
+            String code;
+            while ((code = remaining.poll()) != null) {
+                try {
+                    final Object value = create(proxy, code);
+                    final String key = normalizeCode(code);
+                    prefetched.put(new Key(proxy.type, key), value);
+                    /*
+                     * The object has been cached under the type requested by the caller, which is often generic
+                     * (e.g. `CoordinateReferenceSystem`). Cache it also under its most specific type in order to
+                     * avoid a cache miss in calls to more specific methods such as `createGeographicCRS(String)`.
+                     */
+                    final Class<?> specific = AuthorityFactoryProxy.getInstance(value.getClass()).type;
+                    if (specific != proxy.type && isCacheable(code, value)) {
+                        final var specificKey = new Key(specific, key);
+                        cache.putIfAbsent(specificKey, value);
+                        prefetched.put(specificKey, value);
+                    }
+                } catch (FactoryException | RuntimeException e) {
+                    failures.add(code);
+                }
+            }
+        };
+        /*
+         * The current thread is one of the workers. Consequently, all codes are processed even if no thread
+         * of the executor is available. In such case, the tasks that did not start are cancelled when the
+         * current thread has finished. This avoids dead-lock if this method is invoked in an executor thread.
+         * A task is considered started when it has set its flag to `true`. The tasks that started are waited
+         * for, so that all objects are created and `failures` is complete when this method returns.
+         */
+        final var tasks   = new Future<?>[Math.max(Math.min(maxConcurrentQueries, remaining.size()) - 1, 0)];
+        final var started = new AtomicBoolean[tasks.length];
+        for (int i=0; i<tasks.length; i++) {
+            final var flag = started[i] = new AtomicBoolean();
+            tasks[i] = CommonExecutor.instance().submit(() -> {
+                if (flag.compareAndSet(false, true)) {
+                    worker.run();
+                }
+            });
+        }
+        worker.run();
+        for (int i=0; i<tasks.length; i++) {
+            if (started[i].compareAndSet(false, true)) {
+                tasks[i].cancel(false);         // Task not yet started. It will do nothing if executed anyway.
+            } else try {
+                tasks[i].get();
+            } catch (InterruptedException e) {
+                throw new FactoryException(e.getLocalizedMessage(), e);
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof Error) throw (Error) cause;
+                throw new FactoryException(cause);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Releases the strong references to the objects created by {@link #prefetch(Class, Collection)}.
+     * The objects stay in the cache, but may be garbage collected if they are not used.
+     *
+     * @since 1.7
+     */
+    public void releasePrefetched() {
+        prefetched.clear();
+    }
+
+    /**
+     * Returns the codes of all objects of the given type which are currently in the cache.
+     * The returned set contains the codes of objects that have been requested recently,
+     * including the objects created by {@link #prefetch(Class, Collection)}.
+     * This set can be saved before application shutdown for prefetching the same objects at next startup.
+     *
+     * @param  type  the type of objects for which to get the codes (for example {@code CoordinateReferenceSystem.class}).
+     * @return codes of the cached objects of the given type. This is a snapshot of the cache at invocation time.
+     *
+     * @see #prefetch(Class, Collection)
+     *
+     * @since 1.7
+     */
+    public Set<String> getCachedCodes(final Class<? extends IdentifiedObject> type) {
+        ArgumentChecks.ensureNonNull("type", type);
+        final var codes = new LinkedHashSet<String>();
+        for (final Map.Entry<Key,Object> entry : cache.entrySet()) {
+            final Key key = entry.getKey();
+            if (key.type instanceof Class<?> && type.isInstance(entry.getValue())) {
+                codes.add(key.code);
+            }
+        }
+        return codes;
+    }
+
     /**
      * Returns a finder which can be used for looking up unidentified objects.
      * The default implementation delegates lookup to the underlying Data Access Object and caches the result.
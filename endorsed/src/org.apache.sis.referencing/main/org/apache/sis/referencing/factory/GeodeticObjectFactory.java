@@ -56,7 +56,7 @@ import org.apache.sis.system.Loggers;
 import org.apache.sis.system.Semaphores;
 import org.apache.sis.util.ArgumentChecks;
 import org.apache.sis.util.Exceptions;
-import org.apache.sis.util.collection.WeakHashSet;
+import org.apache.sis.util.collection.ConcurrentWeakHashSet;
 import org.apache.sis.util.iso.AbstractFactory;
 import org.apache.sis.util.resources.Messages;
 import org.apache.sis.util.resources.Errors;
@@ -214,7 +214,7 @@ public class GeodeticObjectFactory extends AbstractFactory implements CRSFactory
      * Weak references to existing objects (CRS, CS, Datum, Ellipsoid or PrimeMeridian).
      * This set is used in order to return a pre-existing object instead of creating a new one.
      */
-    private final WeakHashSet<AbstractIdentifiedObject> pool;
+    private final ConcurrentWeakHashSet<AbstractIdentifiedObject> pool;
 
     /**
      * The <i>Well Known Text</i> parser for {@code CoordinateReferenceSystem} instances.
@@ -261,7 +261,7 @@ public class GeodeticObjectFactory extends AbstractFactory implements CRSFactory
      */
     public GeodeticObjectFactory(final Map<String,?> properties) {
         defaultProperties = (properties != null) ? Map.copyOf(properties) : Map.of();
-        pool = new WeakHashSet<>(AbstractIdentifiedObject.class);
+        pool = new ConcurrentWeakHashSet<>(AbstractIdentifiedObject.class);
         parser = new AtomicReference<>();
     }
 
@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.factory;
+
+import java.util.Set;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.opengis.util.FactoryException;
+import org.opengis.metadata.citation.Citation;
+import org.opengis.referencing.IdentifiedObject;
+import org.opengis.referencing.crs.CRSAuthorityFactory;
+import org.opengis.referencing.cs.CSAuthorityFactory;
+import org.opengis.referencing.datum.DatumAuthorityFactory;
+import org.opengis.referencing.operation.CoordinateOperationAuthorityFactory;
+import org.apache.sis.metadata.iso.citation.Citations;
+import org.apache.sis.referencing.internal.Resources;
+import org.apache.sis.util.Version;
+import org.apache.sis.util.resources.Errors;
+
+
+/**
+ * A factory of geodetic objects read from a binary snapshot of another authority factory.
+ * The snapshot is a file created in advance, for example at build time, by invoking
+ * {@link #write(GeodeticAuthorityFactory, Iterable, Path)} with a factory backed by the
+ * <abbr>EPSG</abbr> database. At run time, this factory maps the file in memory and
+ * creates objects without any database connection or <abbr>SQL</abbr> query.
+ * This is useful for applications that need short start-up times.
+ * A snapshot of the <abbr>EPSG</abbr> dataset is used by {@link org.apache.sis.referencing.CRS#forCode(String)}
+ * only if explicitly requested by the {@code org.apache.sis.epsg.snapshot} system property,
+ * which specifies the path to the snapshot file. That file can be created with the {@code snapshot} command
+ * of the Apache SIS command-line tool, which writes all <abbr>CRS</abbr> and coordinate operations of an authority.
+ *
+ * <p>The snapshot contains an index sorted by codes and an index sorted by names,
+ * so that objects can be found by a binary search. Each object is stored in the Java
+ * serialization format, independently of other objects. Consequently, objects shared
+ * by many <abbr>CRS</abbr> (for example the datum) are duplicated in the snapshot,
+ * and objects created from different codes do not share their components.
+ * Coordinate operations are indexed by the codes of their source and target <abbr>CRS</abbr>,
+ * in the order of preference given by the factory used for creating the snapshot.</p>
+ *
+ * <h2>Limitations</h2>
+ * This factory contains only the objects for the codes given at snapshot creation time.
+ * If a fallback factory is specified at construction time, the objects that are missing
+ * or that cannot be deserialized are created by the fallback. However, the codes listed by
+ * {@link #getAuthorityCodes(Class)} are only the codes stored in the snapshot.
+ * A snapshot can be read only by the Apache SIS version which created it.
+ * Searches of objects by their properties with {@link IdentifiedObjectFinder} compare the
+ * given object with all objects in the snapshot, which may be slow. Since the snapshot
+ * uses Java deserialization, the file shall come from a trusted source. As a safety,
+ * only the classes of geodetic objects, units of measurement, metadata and Java value
+ * types and collections are accepted during deserialization.
+ *
+ * <h2>Thread safety</h2>
+ * This class is thread-safe. The snapshot file shall not be modified while this factory is in use.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.7
+ * @since   1.7
+ */
+public class SnapshotAuthorityFactory extends ConcurrentAuthorityFactory<SnapshotDataAccess>
+        implements CRSAuthorityFactory, CSAuthorityFactory, DatumAuthorityFactory, CoordinateOperationAuthorityFactory
+{
+    /**
+     * The classes that are allowed to be deserialized from a snapshot. This is an allow-list of the Apache SIS
+     * and GeoAPI packages for geodetic objects and their metadata, units of measurement, and the Java packages
+     * of value types and collections. All other classes, including arrays of them, are rejected.
+     */
+    private static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(String.join(";",
+            "org.apache.sis.referencing.**",
+            "org.apache.sis.parameter.**",
+            "org.apache.sis.metadata.**",
+            "org.apache.sis.measure.**",
+            "org.apache.sis.geometry.**",
+            "org.apache.sis.math.**",
+            "org.apache.sis.temporal.*",
+            "org.apache.sis.converter.*",
+            "org.apache.sis.util.**",
+            "org.apache.sis.xml.**",
+            "org.apache.sis.pending.geoapi.**",
+            "org.opengis.**",
+            "javax.measure.**",
+            "java.lang.*",
+            "java.util.*",
+            "java.time.*",
+            "java.math.*",
+            "java.net.URI",
+            "!*"));
+
+    /**
+     * The content of the snapshot file. This buffer shall not be modified, and
+     * its position shall not be changed. Users should work on duplicated buffers.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The namespace of the codes, as a singleton.
+     *
+     * @see #getCodeSpaces()
+     */
+    private final Set<String> codespaces;
+
+    /**
+     * The organization responsible for the definition of the objects.
+     */
+    final Citation authority;
+
+    /**
+     * The factory to use for the objects that are missing in the snapshot
+     * or that cannot be deserialized, or {@code null} if none.
+     */
+    final GeodeticAuthorityFactory fallback;
+
+    /**
+     * Types of objects, as GeoAPI interfaces when possible.
+     */
+    final Class<?>[] types;
+
+    /**
+     * Number of objects and number of coordinate operations indexed by pairs of <abbr>CRS</abbr>.
+     */
+    final int entryCount, pairCount;
+
+    /**
+     * Positions in the buffer of the entries sorted by code, of the entry indices sorted by name,
+     * of the coordinate operations sorted by pairs of <abbr>CRS</abbr> codes, of the string pool
+     * and of the serialized objects.
+     */
+    final int entries, names, pairs, strings, data;
+
+    /**
+     * Creates a factory reading the given snapshot file.
+     *
+     * @param  file  the snapshot file created by {@link #write(GeodeticAuthorityFactory, Iterable, Path) write(…)}.
+     * @throws FactoryException if the file cannot be read or is not a snapshot.
+     */
+    public SnapshotAuthorityFactory(final Path file) throws FactoryException {
+        this(file, null);
+    }
+
+    /**
+     * Creates a factory reading the given snapshot file, with a fallback for the objects not in the snapshot.
+     * The fallback is used when a code is not found in the snapshot, or when the object cannot be deserialized.
+     * The fallback is typically the factory which has been used for creating the snapshot.
+     *
+     * @param  file      the snapshot file created by {@link #write(GeodeticAuthorityFactory, Iterable, Path) write(…)}.
+     * @param  fallback  the factory to use for the objects that are not in the snapshot, or {@code null} if none.
+     * @throws FactoryException if the file cannot be read, is not a snapshot or has been created by another SIS version.
+     */
+    public SnapshotAuthorityFactory(final Path file, final GeodeticAuthorityFactory fallback) throws FactoryException {
+        super(SnapshotDataAccess.class);
+        this.fallback = fallback;
+        final ByteBuffer b;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            b = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (b.getInt() != SnapshotWriter.MAGIC) {
+                throw new FactoryDataException(Errors.format(Errors.Keys.UnexpectedFileFormat_2, "SIS snapshot", file));
+            }
+            final int format = b.getInt();
+            if (format != SnapshotWriter.VERSION) {
+                throw new FactoryDataException(Errors.format(Errors.Keys.UnsupportedFormatVersion_2, "SIS snapshot", format));
+            }
+            final String version = readString(b);
+            if (!version.equals(Version.SIS.toString())) {
+                throw new FactoryDataException(Resources.format(Resources.Keys.SnapshotFromOtherVersion_3, file, version, Version.SIS));
+            }
+            final String codespace = readString(b);
+            final var citation = new byte[b.getInt()];
+            b.get(citation);
+            final var typeNames = new String[b.getInt()];
+            for (int i=0; i<typeNames.length; i++) {
+                typeNames[i] = readString(b);
+            }
+            entryCount = b.getInt();
+            pairCount  = b.getInt();
+            final int poolSize = b.getInt();
+            entries = b.position();
+            names   = entries + entryCount * SnapshotWriter.ENTRY_SIZE;
+            pairs   = names   + entryCount * Integer.BYTES;
+            strings = pairs   + pairCount  * SnapshotWriter.PAIR_SIZE;
+            data    = strings + poolSize;
+            codespaces = Set.of(codespace);
+            authority  = (citation.length != 0) ? (Citation) deserialize(citation) : Citations.fromName(codespace);
+            types = new Class<?>[typeNames.length];
+            for (int i=0; i<types.length; i++) try {
+                types[i] = Class.forName(typeNames[i], false, SnapshotAuthorityFactory.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                types[i] = IdentifiedObject.class;      // Object will be found only if all types are requested.
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new UnavailableFactoryException(Errors.format(Errors.Keys.CanNotOpen_1, file), e);
+        }
+        buffer = b.asReadOnlyBuffer();
+    }
+
+    /**
+     * Reads a string at the current position of the given buffer.
+     * Strings are encoded as an unsigned short for the number of bytes, followed by the UTF-8 bytes.
+     */
+    static String readString(final ByteBuffer b) {
+        final var bytes = new byte[Short.toUnsignedInt(b.getShort())];
+        b.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Deserializes an object from the given bytes.
+     * Only the classes accepted by {@link #FILTER} can be deserialized.
+     *
+     * @throws java.io.InvalidClassException if the bytes contain a class which is not allowed.
+     */
+    static Object deserialize(final byte[] bytes) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            in.setObjectInputFilter(FILTER);
+            return in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Returns a view of the snapshot content with an independent position.
+     */
+    final ByteBuffer buffer() {
+        return buffer.duplicate();
+    }
+
+    /**
+     * Returns the namespace of the codes in this snapshot, for example {@code "EPSG"}.
+     *
+     * @return the namespace of the codes in a singleton set.
+     */
+    @Override
+    public Set<String> getCodeSpaces() {
+        return codespaces;
+    }
+
+    /**
+     * Creates the object which will read geodetic objects from the snapshot.
+     * Data access objects are lightweight: they share the memory-mapped file.
+     *
+     * @return a new object reading geodetic objects from the snapshot.
+     */
+    @Override
+    protected SnapshotDataAccess newDataAccess() {
+        return new SnapshotDataAccess(this);
+    }
+
+    /**
+     * Writes a snapshot of the objects identified by the given codes.
+     * Each code is given to {@link GeodeticAuthorityFactory#createObject(String)}, and the result is written
+     * in the given file. Objects that cannot be created or serialized are omitted from the snapshot, and their
+     * codes are returned. The <abbr>CRS</abbr>, datum, coordinate systems and coordinate operations should be
+     * written together, so that coordinate operations can be indexed by the codes of their source and target
+     * <abbr>CRS</abbr>.
+     *
+     * <h4>Example</h4>
+     * The following code creates a snapshot of all <abbr>CRS</abbr> and coordinate operations
+     * of the <abbr>EPSG</abbr> database:
+     *
+     * {@snippet lang="java" :
+     *     var epsg  = (GeodeticAuthorityFactory) CRS.getAuthorityFactory("EPSG");
+     *     var codes = new LinkedHashSet<>(epsg.getAuthorityCodes(CoordinateReferenceSystem.class));
+     *     codes.addAll(epsg.getAuthorityCodes(CoordinateOperation.class));
+     *     SnapshotAuthorityFactory.write(epsg, codes, Path.of("EPSG.snapshot"));
+     *     }
+     *
+     * @param  source  the factory to use for creating the objects to write.
+     * @param  codes   codes of the objects to write in the snapshot.
+     * @param  target  the file to create or overwrite.
+     * @return codes of the objects that cannot be created or serialized.
+     * @throws FactoryException if an error occurred while fetching information from the source factory.
+     * @throws IOException if an error occurred while writing the file.
+     */
+    public static Set<String> write(final GeodeticAuthorityFactory source, final Iterable<String> codes, final Path target)
+            throws FactoryException, IOException
+    {
+        return SnapshotWriter.write(source, codes, target);
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.factory;
+
+import java.util.Set;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.opengis.util.FactoryException;
+import org.opengis.util.InternationalString;
+import org.opengis.metadata.citation.Citation;
+import org.opengis.referencing.IdentifiedObject;
+import org.opengis.referencing.NoSuchAuthorityCodeException;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.cs.CoordinateSystem;
+import org.opengis.referencing.datum.Datum;
+import org.opengis.referencing.operation.CoordinateOperation;
+import org.apache.sis.referencing.internal.Resources;
+import org.apache.sis.util.SimpleInternationalString;
+import org.apache.sis.util.logging.Logging;
+
+
+/**
+ * Reads geodetic objects from a snapshot mapped in memory.
+ * Each instance is used by only one thread at a time, as managed by {@link ConcurrentAuthorityFactory}.
+ * The file format is documented in {@link SnapshotWriter}.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+final class SnapshotDataAccess extends GeodeticAuthorityFactory {
+    /**
+     * The factory which created this data access object.
+     */
+    private final SnapshotAuthorityFactory owner;
+
+    /**
+     * The content of the snapshot file. The position of this buffer can be modified.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates a new data access object for the given snapshot.
+     */
+    SnapshotDataAccess(final SnapshotAuthorityFactory owner) {
+        this.owner  = owner;
+        this.buffer = owner.buffer();
+    }
+
+    /**
+     * Returns the organization responsible for the definition of the objects.
+     */
+    @Override
+    public Citation getAuthority() {
+        return owner.authority;
+    }
+
+    /**
+     * Returns the namespace of the codes, for example {@code "EPSG"}.
+     */
+    @Override
+    public Set<String> getCodeSpaces() {
+        return owner.getCodeSpaces();
+    }
+
+    /**
+     * Normalizes the given name for comparison purposes.
+     * Only letters and digits are kept, in lower cases.
+     *
+     * @param  name  the name to normalize.
+     * @return the normalized name.
+     */
+    static String normalize(final String name) {
+        final var buffer = new StringBuilder(name.length());
+        name.codePoints().filter(Character::isLetterOrDigit).forEach(buffer::appendCodePoint);
+        return buffer.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns a rank for objects of the given type having the same name.
+     * <abbr>CRS</abbr> have precedence over other objects. For example, the
+     * {@code "WGS 84"} name is used by both a <abbr>CRS</abbr> and an ellipsoid.
+     *
+     * @param  type  type of the object.
+     * @return rank of the object, with lowest values first.
+     */
+    static int rank(final Class<?> type) {
+        if (CoordinateReferenceSystem.class.isAssignableFrom(type)) return 0;
+        if (CoordinateOperation      .class.isAssignableFrom(type)) return 1;
+        if (Datum                    .class.isAssignableFrom(type)) return 2;
+        if (CoordinateSystem         .class.isAssignableFrom(type)) return 3;
+        return 4;
+    }
+
+    /**
+     * Returns the string at the given position in the string pool.
+     */
+    private String string(final int position) {
+        return SnapshotAuthorityFactory.readString(buffer.position(owner.strings + position));
+    }
+
+    /**
+     * Returns the position in the buffer of the entry at the given index.
+     */
+    private int entry(final int index) {
+        return owner.entries + index * SnapshotWriter.ENTRY_SIZE;
+    }
+
+    /**
+     * Returns the code of the entry at the given index.
+     */
+    private String code(final int index) {
+        return string(buffer.getInt(entry(index)));
+    }
+
+    /**
+     * Returns the name of the entry at the given index.
+     */
+    private String name(final int index) {
+        return string(buffer.getInt(entry(index) + Integer.BYTES));
+    }
+
+    /**
+     * Returns the type of the entry at the given index.
+     */
+    private Class<?> type(final int index) {
+        return owner.types[buffer.getInt(entry(index) + 2*Integer.BYTES)];
+    }
+
+    /**
+     * Returns the index of the entry for the given code, or -1 if none.
+     */
+    private int indexOfCode(final String code) {
+        int low  = 0;
+        int high = owner.entryCount - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int c = code(mid).compareTo(code);
+            if (c < 0) low = mid + 1;
+            else if (c > 0) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the entry for the given name, or -1 if none.
+     * If many objects have the same name, the one having the lowest {@linkplain #rank(Class) rank} is returned.
+     */
+    private int indexOfName(String name) {
+        name = normalize(name);
+        int low  = 0;
+        int high = owner.entryCount;
+        while (low < high) {                // Search the first entry having a name equal or greater.
+            final int mid = (low + high) >>> 1;
+            if (normalize(name(buffer.getInt(owner.names + mid * Integer.BYTES))).compareTo(name) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low < owner.entryCount) {
+            final int index = buffer.getInt(owner.names + low * Integer.BYTES);
+            if (normalize(name(index)).equals(name)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Deserializes the object of the entry at the given index.
+     */
+    private IdentifiedObject read(final int index, final String code) throws FactoryException {
+        final int position = entry(index);
+        final var bytes = new byte[buffer.getInt(position + 3*Integer.BYTES)];
+        buffer.position(Math.toIntExact(owner.data + buffer.getLong(position + 4*Integer.BYTES))).get(bytes);
+        try {
+            return (IdentifiedObject) SnapshotAuthorityFactory.deserialize(bytes);
+        } catch (IOException | ClassCastException e) {
+            throw new FactoryDataException(Resources.format(Resources.Keys.CanNotInstantiateGeodeticObject_1, code), e);
+        }
+    }
+
+    /**
+     * Returns the exception to throw for an unknown code.
+     */
+    private NoSuchAuthorityCodeException noSuchCode(final Class<?> type, final String code) {
+        final String codespace = owner.getCodeSpaces().iterator().next();
+        return new NoSuchAuthorityCodeException(Resources.format(Resources.Keys.NoSuchAuthorityCode_3,
+                codespace, type, code), codespace, code);
+    }
+
+    /**
+     * Logs the error of an object that cannot be deserialized and for which the fallback will be used.
+     */
+    private static void logFallback(final String method, final FactoryException e) {
+        Logging.recoverableException(LOGGER, SnapshotAuthorityFactory.class, method, e);
+    }
+
+    /**
+     * Returns the object for the given code or name.
+     * If the object is not in the snapshot or cannot be deserialized, then the fallback is used if any.
+     *
+     * @param  code  code or name of the object to create.
+     * @return the object for the given code or name.
+     * @throws NoSuchAuthorityCodeException if there is no object for the given code or name.
+     * @throws FactoryException if the object cannot be deserialized.
+     */
+    @Override
+    public IdentifiedObject createObject(final String code) throws FactoryException {
+        int index = indexOfCode(code);
+        if (index < 0) {
+            index = indexOfName(code);
+        }
+        if (index >= 0) {
+            try {
+                return read(index, code);
+            } catch (FactoryDataException e) {
+                if (owner.fallback == null) throw e;
+                logFallback("createObject", e);
+            }
+        } else if (owner.fallback == null) {
+            throw noSuchCode(IdentifiedObject.class, code);
+        }
+        return owner.fallback.createObject(code);
+    }
+
+    /**
+     * Returns the codes of all objects of the given type, in code order.
+     *
+     * @param  type  the type of objects for which to get the codes.
+     * @return codes of objects of the given type.
+     */
+    @Override
+    public Set<String> getAuthorityCodes(final Class<? extends IdentifiedObject> type) {
+        final var codes = new LinkedHashSet<String>();
+        for (int i=0; i<owner.entryCount; i++) {
+            if (type.isAssignableFrom(type(i))) {
+                codes.add(code(i));
+            }
+        }
+        return Collections.unmodifiableSet(codes);
+    }
+
+    /**
+     * Returns the name of the object for the given code, without deserializing the object.
+     * If the code is not in the snapshot, then the fallback is used if any.
+     *
+     * @param  type  the type of object for which to get a description.
+     * @param  code  code of the object.
+     * @return name of the object.
+     * @throws NoSuchAuthorityCodeException if there is no object of the given type for the given code.
+     * @throws FactoryException if the fallback failed to get the description.
+     */
+    @Override
+    public Optional<InternationalString> getDescriptionText(final Class<? extends IdentifiedObject> type, final String code)
+            throws FactoryException
+    {
+        final int index = indexOfCode(code);
+        if (index < 0 || !type.isAssignableFrom(type(index))) {
+            if (owner.fallback != null) {
+                return owner.fallback.getDescriptionText(type, code);
+            }
+            throw noSuchCode(type, code);
+        }
+        return Optional.of(new SimpleInternationalString(name(index)));
+    }
+
+    /**
+     * Returns the coordinate operations between the given pair of <abbr>CRS</abbr>,
+     * in the order of preference given by the factory used for creating the snapshot.
+     * If the snapshot contains no operation for the given pair or if an operation cannot
+     * be deserialized, then the fallback is used if any.
+     *
+     * @param  sourceCRS  code of the source <abbr>CRS</abbr>.
+     * @param  targetCRS  code of the target <abbr>CRS</abbr>.
+     * @return the coordinate operations, or an empty set if none.
+     * @throws FactoryException if an operation cannot be deserialized.
+     */
+    @Override
+    public Set<CoordinateOperation> createFromCoordinateReferenceSystemCodes(final String sourceCRS, final String targetCRS)
+            throws FactoryException
+    {
+        int low  = 0;
+        int high = owner.pairCount;
+        while (low < high) {                // Search the first pair equal or greater.
+            final int mid = (low + high) >>> 1;
+            if (comparePair(mid, sourceCRS, targetCRS) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        final var operations = new LinkedHashSet<CoordinateOperation>();
+        try {
+            while (low < owner.pairCount && comparePair(low, sourceCRS, targetCRS) == 0) {
+                final int index = buffer.getInt(owner.pairs + low * SnapshotWriter.PAIR_SIZE + 2*Integer.BYTES);
+                final IdentifiedObject op = read(index, sourceCRS + " ⟶ " + targetCRS);
+                if (op instanceof CoordinateOperation) {
+                    operations.add((CoordinateOperation) op);
+                }
+                low++;
+            }
+        } catch (FactoryDataException e) {
+            if (owner.fallback == null) throw e;
+            logFallback("createFromCoordinateReferenceSystemCodes", e);
+            operations.clear();
+        }
+        if (operations.isEmpty() && owner.fallback != null) {
+            return owner.fallback.createFromCoordinateReferenceSystemCodes(sourceCRS, targetCRS);
+        }
+        return Collections.unmodifiableSet(operations);
+    }
+
+    /**
+     * Compares the pair at the given index with the given codes.
+     */
+    private int comparePair(final int index, final String sourceCRS, final String targetCRS) {
+        final int position = owner.pairs + index * SnapshotWriter.PAIR_SIZE;
+        int c = string(buffer.getInt(position)).compareTo(sourceCRS);
+        if (c == 0) {
+            c = string(buffer.getInt(position + Integer.BYTES)).compareTo(targetCRS);
+        }
+        return c;
+    }
+}
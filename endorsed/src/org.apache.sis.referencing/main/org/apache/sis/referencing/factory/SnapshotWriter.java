@@ -0,0 +1,371 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.factory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.List;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Comparator;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.OutputStream;
+import java.io.DataOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import org.opengis.util.FactoryException;
+import org.opengis.metadata.Identifier;
+import org.opengis.metadata.citation.Citation;
+import org.opengis.referencing.IdentifiedObject;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.CoordinateOperation;
+import org.apache.sis.metadata.iso.citation.Citations;
+import org.apache.sis.util.Classes;
+import org.apache.sis.util.Version;
+
+// Specific to the main and geoapi-3.1 branches:
+import org.opengis.referencing.ReferenceIdentifier;
+
+
+/**
+ * Writes a snapshot of the objects created by an authority factory.
+ * The file is read by {@link SnapshotAuthorityFactory} and {@link SnapshotDataAccess}.
+ * All numbers are in big-endian byte order. The file contains the following sections:
+ *
+ * <ol>
+ *   <li>A header with the {@link #MAGIC} number, the {@link #VERSION}, the Apache SIS version
+ *       which created the snapshot, the namespace, the serialized authority, the types of objects,
+ *       the number of objects, the number of pairs of <abbr>CRS</abbr> and the size of the string pool.</li>
+ *   <li>The objects sorted by code, as records of {@link #ENTRY_SIZE} bytes.</li>
+ *   <li>The indices of objects sorted by normalized names.</li>
+ *   <li>The coordinate operations sorted by source and target codes, as records of {@link #PAIR_SIZE} bytes.</li>
+ *   <li>The string pool, which contains the codes and names.</li>
+ *   <li>The serialized objects.</li>
+ * </ol>
+ *
+ * All sections are built in memory before to be written in the file, because the header needs
+ * the section sizes. This is okay since snapshots are created at build time.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+final class SnapshotWriter {
+    /**
+     * Number identifying the file format, followed by the format version.
+     * The format version is followed by the Apache SIS version, because
+     * the serialized objects can be read only by the same SIS version.
+     */
+    static final int MAGIC = 0x53495341, VERSION = 2;
+
+    /**
+     * Number of bytes in a record of the entries section.
+     * Each record contains the position of the code and of the name in the string pool,
+     * the index of the object type, the length of serialized object and its position.
+     */
+    static final int ENTRY_SIZE = 3*Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    /**
+     * Number of bytes in a record of the pairs section. Each record contains the positions
+     * of the source and target <abbr>CRS</abbr> codes in the string pool, and the index
+     * of the coordinate operation in the entries section.
+     */
+    static final int PAIR_SIZE = 3*Integer.BYTES;
+
+    /**
+     * An object to write in the snapshot.
+     */
+    private static final class Entry {
+        /** Code and name of the object. */
+        final String code, name;
+
+        /** Index of the object type in the {@link #types} list. */
+        final int type;
+
+        /** Position and length of the serialized object in the data section. */
+        final long position;
+        final int length;
+
+        /** Index of this entry after sorting by code. */
+        int index;
+
+        /** Creates a new entry. */
+        Entry(String code, String name, int type, long position, int length) {
+            this.code     = code;
+            this.name     = name;
+            this.type     = type;
+            this.position = position;
+            this.length   = length;
+        }
+    }
+
+    /**
+     * A coordinate operation between two <abbr>CRS</abbr> identified by their codes.
+     */
+    private static final class Pair {
+        /** Codes of the source and target <abbr>CRS</abbr>. */
+        final String source, target;
+
+        /** The coordinate operation. */
+        final Entry operation;
+
+        /** Creates a new pair. */
+        Pair(String source, String target, Entry operation) {
+            this.source    = source;
+            this.target    = target;
+            this.operation = operation;
+        }
+    }
+
+    /**
+     * The namespace of the codes, for example {@code "EPSG"}.
+     */
+    private final String codespace;
+
+    /**
+     * The authority responsible for the codes, or {@code null} if unknown.
+     */
+    private final Citation authority;
+
+    /**
+     * Types of objects, as GeoAPI interfaces when possible.
+     */
+    private final List<Class<?>> types;
+
+    /**
+     * Objects written in the data section, in no particular order.
+     */
+    private final List<Entry> entries;
+
+    /**
+     * Coordinate operations between pairs of <abbr>CRS</abbr>, in the order they were written.
+     */
+    private final List<Pair> pairs;
+
+    /**
+     * Position of strings already written in the string pool.
+     */
+    private final Map<String,Integer> stringPositions;
+
+    /**
+     * The string pool and the serialized objects.
+     */
+    private final ByteArrayOutputStream strings, data;
+
+    /**
+     * Creates a new writer for objects in the given namespace.
+     */
+    private SnapshotWriter(final String codespace, final Citation authority) {
+        this.codespace  = codespace;
+        this.authority  = authority;
+        types           = new ArrayList<>();
+        entries         = new ArrayList<>();
+        pairs           = new ArrayList<>();
+        stringPositions = new HashMap<>();
+        strings         = new ByteArrayOutputStream();
+        data            = new ByteArrayOutputStream();
+    }
+
+    /**
+     * Creates a snapshot of the objects identified by the given codes.
+     *
+     * @param  source  the factory to use for creating the objects to write.
+     * @param  codes   codes of the objects to write.
+     * @param  target  the file to write.
+     * @return codes of the objects that cannot be created or serialized.
+     */
+    static Set<String> write(final GeodeticAuthorityFactory source, final Iterable<String> codes, final Path target)
+            throws FactoryException, IOException
+    {
+        final Citation authority = source.getAuthority();
+        String codespace = Citations.toCodeSpace(authority);
+        if (codespace == null) {
+            codespace = source.getCodeSpaces().stream().findFirst().orElse("");
+        }
+        final var writer  = new SnapshotWriter(codespace, authority);
+        final var skipped = new LinkedHashSet<String>();
+        final var buffer  = new ByteArrayOutputStream();
+        for (final String code : codes) {
+            final IdentifiedObject object;
+            try {
+                object = source.createObject(code);
+                buffer.reset();
+                try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+                    out.writeObject(object);
+                }
+            } catch (FactoryException | IOException | RuntimeException e) {
+                skipped.add(code);
+                continue;
+            }
+            writer.add(source.trimNamespace(code), object, buffer);
+        }
+        try (OutputStream out = Files.newOutputStream(target)) {
+            writer.write(out);
+        }
+        return skipped;
+    }
+
+    /**
+     * Adds an object to the snapshot.
+     *
+     * @param  code        code of the object, without namespace.
+     * @param  object      the object to add.
+     * @param  serialized  the serialized object.
+     */
+    private void add(final String code, final IdentifiedObject object, final ByteArrayOutputStream serialized) {
+        final Class<?> type = Classes.getStandardClass(object, IdentifiedObject.class);
+        int typeIndex = types.indexOf(type);
+        if (typeIndex < 0) {
+            typeIndex = types.size();
+            types.add(type);
+        }
+        final Identifier id = object.getName();
+        final String name = (id != null) ? id.getCode() : code;
+        final var entry = new Entry(code, name, typeIndex, data.size(), serialized.size());
+        data.writeBytes(serialized.toByteArray());
+        entries.add(entry);
+        if (object instanceof CoordinateOperation) {
+            final var op = (CoordinateOperation) object;
+            final String sourceCode = code(op.getSourceCRS());
+            final String targetCode = code(op.getTargetCRS());
+            if (sourceCode != null && targetCode != null) {
+                pairs.add(new Pair(sourceCode, targetCode, entry));
+            }
+        }
+    }
+
+    /**
+     * Returns the code of the given <abbr>CRS</abbr> in the namespace of this snapshot, or {@code null} if none.
+     */
+    private String code(final CoordinateReferenceSystem crs) {
+        if (crs != null) {
+            for (final ReferenceIdentifier id : crs.getIdentifiers()) {
+                if (codespace.equalsIgnoreCase(id.getCodeSpace())) {
+                    return id.getCode();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the position of the given string in the string pool, adding the string if not already present.
+     * Strings are stored as an unsigned short for the number of bytes, followed by the UTF-8 bytes.
+     */
+    private int position(final String text) {
+        return stringPositions.computeIfAbsent(text, (s) -> {
+            final int position = strings.size();
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) {
+                bytes = Arrays.copyOf(bytes, 0xFFFF);
+            }
+            strings.write(bytes.length >>> Byte.SIZE);
+            strings.write(bytes.length);
+            strings.write(bytes, 0, bytes.length);
+            return position;
+        });
+    }
+
+    /**
+     * Writes a string in the header, using the same encoding as in the string pool.
+     */
+    private static void writeString(final DataOutputStream out, final String text) throws IOException {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Writes all sections in the given stream.
+     */
+    private void write(final OutputStream stream) throws IOException {
+        /*
+         * Sort entries by code, then build the index of entries sorted by name.
+         * Ties in names are resolved with CRS first (see `SnapshotDataAccess.rank(Class)`),
+         * then by code order. Pairs of CRS are sorted with a stable sort, which preserves
+         * the order of preference given by the source factory.
+         */
+        entries.sort(Comparator.comparing((Entry e) -> e.code));
+        for (int i=0; i<entries.size(); i++) {
+            entries.get(i).index = i;
+        }
+        final var byName = new ArrayList<Entry>(entries);
+        byName.sort(Comparator.comparing((Entry e) -> SnapshotDataAccess.normalize(e.name))
+                              .thenComparingInt((e) -> SnapshotDataAccess.rank(types.get(e.type))));
+        pairs.sort(Comparator.comparing((Pair p) -> p.source).thenComparing((p) -> p.target));
+        final int[] codePositions = new int[entries.size()];
+        final int[] namePositions = new int[entries.size()];
+        for (int i=0; i<codePositions.length; i++) {
+            final Entry e = entries.get(i);
+            codePositions[i] = position(e.code);
+            namePositions[i] = position(e.name);
+        }
+        final int[] pairPositions = new int[pairs.size() * 2];
+        for (int i=0; i<pairs.size(); i++) {
+            final Pair p = pairs.get(i);
+            pairPositions[i*2  ] = position(p.source);
+            pairPositions[i*2+1] = position(p.target);
+        }
+        final var out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeString(out, Version.SIS.toString());
+        writeString(out, codespace);
+        byte[] citation = new byte[0];
+        if (authority != null) {
+            final var b = new ByteArrayOutputStream();
+            try (ObjectOutputStream s = new ObjectOutputStream(b)) {
+                s.writeObject(authority);
+                citation = b.toByteArray();
+            } catch (NotSerializableException e) {
+                // The reader will infer a citation from the namespace.
+            }
+        }
+        out.writeInt(citation.length);
+        out.write(citation);
+        out.writeInt(types.size());
+        for (final Class<?> type : types) {
+            writeString(out, type.getName());
+        }
+        out.writeInt(entries.size());
+        out.writeInt(pairs.size());
+        out.writeInt(strings.size());
+        for (int i=0; i<codePositions.length; i++) {
+            final Entry e = entries.get(i);
+            out.writeInt (codePositions[i]);
+            out.writeInt (namePositions[i]);
+            out.writeInt (e.type);
+            out.writeInt (e.length);
+            out.writeLong(e.position);
+        }
+        for (final Entry e : byName) {
+            out.writeInt(e.index);
+        }
+        for (int i=0; i<pairs.size(); i++) {
+            out.writeInt(pairPositions[i*2]);
+            out.writeInt(pairPositions[i*2+1]);
+            out.writeInt(pairs.get(i).operation.index);
+        }
+        strings.writeTo(out);
+        data.writeTo(out);
+        out.flush();
+    }
+}
@@ -562,6 +562,11 @@ public class Resources extends IndexedResourceBundle {
          */
         public static final short ShallHaveSameConventionalRS = 103;
 
+        /**
+         * The “{0}” snapshot has been created by Apache SIS {1}, but the current version is {2}.
+         */
+        public static final short SnapshotFromOtherVersion_3 = 111;
+
         /**
          * Matrix is singular.
          */
@@ -632,6 +637,11 @@ public class Resources extends IndexedResourceBundle {
          * Using datum shift grid from “{0}” to “{1}” created on {2} (updated on {3}).
          */
         public static final short UsingDatumShiftGrid_4 = 93;
+
+        /**
+         * Using a snapshot of the “{0}” geodetic dataset read from “{1}”.
+         */
+        public static final short UsingSnapshotOfAuthority_2 = 110;
     }
 
     /**
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.ArrayDeque;
 import java.util.Iterator;
 import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 import org.opengis.util.FactoryException;
 import org.opengis.parameter.ParameterValueGroup;
 import org.opengis.parameter.ParameterDescriptorGroup;
@@ -32,8 +33,11 @@ import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.crs.SingleCRS;
 import org.opengis.referencing.crs.CRSFactory;
 import org.opengis.referencing.cs.CSFactory;
+import org.opengis.metadata.extent.GeographicBoundingBox;
 import org.apache.sis.referencing.CRS;
 import org.apache.sis.referencing.IdentifiedObjects;
+import org.apache.sis.geometry.GeneralEnvelope;
+import org.apache.sis.metadata.iso.extent.Extents;
 import org.apache.sis.referencing.factory.GeodeticObjectFactory;
 import org.apache.sis.referencing.factory.InvalidGeodeticParameterException;
 import org.apache.sis.referencing.operation.transform.AbstractMathTransform;
@@ -49,11 +53,14 @@ import org.apache.sis.util.Classes;
 import org.apache.sis.util.Debug;
 import org.apache.sis.util.LenientComparable;
 import org.apache.sis.util.internal.shared.Constants;
-import org.apache.sis.util.collection.WeakHashSet;
+import org.apache.sis.util.collection.ConcurrentWeakHashSet;
 import org.apache.sis.util.collection.Containers;
 import org.apache.sis.util.collection.Cache;
 import org.apache.sis.util.iso.AbstractFactory;
+import org.apache.sis.util.logging.Logging;
 import org.apache.sis.util.resources.Errors;
+import org.apache.sis.measure.Longitude;
+import org.apache.sis.system.Configuration;
 
 // Specific to the main and geoapi-3.1 branches:
 import org.opengis.referencing.crs.GeographicCRS;
@@ -95,6 +102,46 @@ public class DefaultCoordinateOperationFactory extends AbstractFactory implement
     @Debug
     static final boolean USE_EPSG_FACTORY = true;
 
+    /**
+     * Key for the maximal number of coordinate operations to keep by strong references in the cache.
+     * The value shall be an {@link Integer} or another {@link Number}. If this property is not specified, the default value is 50.
+     * Operations in excess of this limit are kept by soft references and may be discarded by the garbage collector.
+     * This limit applies separately to the operations that depend on the area of interest or desired accuracy.
+     *
+     * @see #DefaultCoordinateOperationFactory(Map, MathTransformFactory)
+     * @since 1.7
+     */
+    public static final String CACHE_SIZE_KEY = "cacheSize";
+
+    /**
+     * Key for the resolution, in degrees, of the grid on which the areas of interest are snapped for caching purposes.
+     * The value shall be a {@link Double} or another {@link Number}. If this property is not specified, the default
+     * value is given by the {@code org.apache.sis.referencing.areaOfInterestResolution} system property, or is 0 if
+     * that system property is not set. A value of 0 disables the cache of operations that depend on the context.
+     * The system property is the only way to enable this cache for the {@linkplain #provider() default factory}
+     * used by {@link CRS#findOperation CRS.findOperation(…)}.
+     *
+     * <p>If a positive value is specified, operations that depend on the {@linkplain CoordinateOperationContext#getAreaOfInterest()
+     * area of interest} or on the {@linkplain CoordinateOperationContext#getDesiredAccuracy() desired accuracy} are cached with
+     * a key made of the area of interest expanded to the nearest grid cell boundaries, and of the desired accuracy rounded down
+     * to a power of 2. The operation is always computed with the context specified by the caller; the quantized values are used
+     * only for looking in the cache. An operation found in the cache is returned only if its domain of validity contains
+     * the area of interest and if its accuracy is equal or better than the desired accuracy.
+     * Otherwise, a new operation is computed for the given context.</p>
+     *
+     * @see #DefaultCoordinateOperationFactory(Map, MathTransformFactory)
+     * @since 1.7
+     */
+    public static final String AREA_RESOLUTION_KEY = "areaOfInterestResolution";
+
+    /**
+     * Name of the system property specifying the default value of {@link #AREA_RESOLUTION_KEY}.
+     * This property is read when a factory is created without explicit resolution,
+     * including the {@linkplain #provider() default factory}.
+     */
+    @Configuration
+    static final String AREA_RESOLUTION_PROPERTY = "org.apache.sis.referencing.areaOfInterestResolution";
+
     /**
      * The default properties, or an empty map if none. This map shall be immutable
      * in order to allow usage without synchronization in multi-thread context.
@@ -124,17 +171,41 @@ public class DefaultCoordinateOperationFactory extends AbstractFactory implement
      * This applies to objects created explicitly, not to coordinate operations inferred by a
      * call to {@link #createOperation(CoordinateReferenceSystem, CoordinateReferenceSystem)}.
      */
-    private final WeakHashSet<IdentifiedObject> pool;
+    private final ConcurrentWeakHashSet<IdentifiedObject> pool;
 
     /**
      * The cache of coordinate operations found for a given pair of source and target CRS.
      * We cache only operations found when {@link CoordinateOperationContext} values were
      * not used (otherwise we would need to store some context values in the key).
      *
+     * @see #contextualCache
      * @see #createOperation(CoordinateReferenceSystem, CoordinateReferenceSystem, CoordinateOperationContext)
      */
     private final Cache<CRSPair, CoordinateOperation> cache;
 
+    /**
+     * The cache of coordinate operations which depend on the area of interest or desired accuracy.
+     * Keys contain a quantized form of the {@link CoordinateOperationContext}.
+     * Values are verified to be valid in the context of each request before to be returned.
+     *
+     * @see #AREA_RESOLUTION_KEY
+     */
+    private final Cache<OperationKey, CoordinateOperation> contextualCache;
+
+    /**
+     * Size in degrees of the grid cells on which the areas of interest are snapped, or 0 for no contextual cache.
+     *
+     * @see #AREA_RESOLUTION_KEY
+     */
+    final double areaResolution;
+
+    /**
+     * Number of calls to {@code createOperation(…)} which found an operation in a cache or which did not.
+     *
+     * @see #getCacheStatistics()
+     */
+    private final LongAdder cacheHits, cacheMisses;
+
     /**
      * The default factory instance.
      */
@@ -170,6 +241,9 @@ public class DefaultCoordinateOperationFactory extends AbstractFactory implement
      * The new factory will fallback on the map given to this constructor
      * for any property not present in the map given to a {@code createFoo(Map<String,?>, …)} method.
      *
+     * <p>The properties map may contain the {@value #CACHE_SIZE_KEY} and {@value #AREA_RESOLUTION_KEY} entries
+     * for configuring the cache of coordinate operations. Those entries are not used as default properties.</p>
+     *
      * @param properties  the default properties, or {@code null} if none.
      * @param factory     the factory to use for creating {@linkplain AbstractMathTransform math transforms},
      *                    or {@code null} for the default factory.
@@ -178,6 +252,8 @@ public class DefaultCoordinateOperationFactory extends AbstractFactory implement
     public DefaultCoordinateOperationFactory(Map<String,?> properties, MathTransformFactory factory) {
         final CSFactory  csFactory;
         final CRSFactory crsFactory;
+        Number cacheSize  = null;
+        Number resolution = null;
         if (properties == null || properties.isEmpty()) {
             properties = Map.of();
             crsFactory = null;
@@ -195,6 +271,8 @@ public class DefaultCoordinateOperationFactory extends AbstractFactory implement
                 crsFactory = (CRSFactory)           (value = properties.remove(key = ReferencingFactoryContainer.CRS_FACTORY));
                 csFactory  = (CSFactory)            (value = properties.remove(key = ReferencingFactoryContainer.CS_FACTORY));
                 mtFactory  = (MathTransformFactory) (value = properties.remove(key = ReferencingFactoryContainer.MT_FACTORY));
+                cacheSize  = (Number)               (value = properties.remove(key = CACHE_SIZE_KEY));
+                resolution = (Number)               (value = properties.remove(key = AREA_RESOLUTION_KEY));
             } catch (ClassCastException e) {
                 throw new IllegalArgumentException(Errors.forProperties(properties)
                         .getString(Errors.Keys.IllegalPropertyValueClass_2, key, Classes.getClass(value)));
@@ -209,8 +287,33 @@ public class DefaultCoordinateOperationFactory extends AbstractFactory implement
         this.csFactory  = ( csFactory != null) ?  csFactory : GeodeticObjectFactory.provider();
         this.crsFactory = (crsFactory != null) ? crsFactory : GeodeticObjectFactory.provider();
         defaultProperties = properties;
-        pool = new WeakHashSet<>(IdentifiedObject.class);
-        cache = new Cache<>(12, 50, true);
+        pool = new ConcurrentWeakHashSet<>(IdentifiedObject.class);
+        final int size = (cacheSize != null) ? cacheSize.intValue() : 50;
+        ArgumentChecks.ensurePositive(CACHE_SIZE_KEY, size);
+        areaResolution = (resolution != null) ? resolution.doubleValue() : parseAreaResolution(System.getProperty(AREA_RESOLUTION_PROPERTY));
+        ArgumentChecks.ensureBetween(AREA_RESOLUTION_KEY, 0, Longitude.MAX_VALUE - Longitude.MIN_VALUE, areaResolution);
+        cache           = new Cache<>(12, size, true);
+        contextualCache = new Cache<>(12, size, true);
+        cacheHits       = new LongAdder();
+        cacheMisses     = new LongAdder();
+    }
+
+    /**
+     * Parses the value of the {@value #AREA_RESOLUTION_PROPERTY} system property, or returns 0 if none.
+     * Invalid values are logged and ignored, because this method is invoked for creating the default factory.
+     *
+     * @param  value  the system property value, or {@code null} if none.
+     * @return the resolution in degrees, or 0 if none or invalid.
+     */
+    static double parseAreaResolution(final String value) {
+        if (value != null && !value.isBlank()) try {
+            final double resolution = Double.parseDouble(value);
+            ArgumentChecks.ensureBetween(AREA_RESOLUTION_PROPERTY, 0, Longitude.MAX_VALUE - Longitude.MIN_VALUE, resolution);
+            return resolution;
+        } catch (IllegalArgumentException e) {      // Include NumberFormatException.
+            Logging.recoverableException(AbstractCoordinateOperation.LOGGER, DefaultCoordinateOperationFactory.class, "<init>", e);
+        }
+        return 0;
     }
 
     /**
@@ -699,7 +802,9 @@ next:   for (SingleCRS component : CRS.getSingleComponents(targetCRS)) {
      *
      * <p>The default implementation performs the following steps:</p>
      * <ul>
-     *   <li>If a coordinate operation has been previously cached for the given CRS and context, return it.</li>
+     *   <li>If a coordinate operation has been previously cached for the given CRS and context, return it.
+     *       If {@value #AREA_RESOLUTION_KEY} has been specified, the context is compared after quantization
+     *       and the cached operation is verified to be valid in the area of interest with the desired accuracy.</li>
      *   <li>Otherwise:
      *     <ol>
      *       <li>Invoke {@link #createOperationFinder(CoordinateOperationAuthorityFactory, CoordinateOperationContext)}.</li>
@@ -731,25 +836,130 @@ next:   for (SingleCRS component : CRS.getSingleComponents(targetCRS)) {
     {
         final var key = new CRSPair(sourceCRS, targetCRS);
         CoordinateOperation op = getCachedOperation(key);
-        if (op == null) {
-            boolean resultWasContextSensitive = false;
-            final Cache.Handler<CoordinateOperation> handler = cache.lock(key);
-            try {
-                op = handler.peek();
-                if (op == null) {
-                    final CoordinateOperationFinder finder = createOperationFinder(getFactorySIS(), context);
-                    op = finder.createOperation(sourceCRS, targetCRS);
-                    if (context != null) {
-                        resultWasContextSensitive = context.resultWasContextSensitive();
-                    }
+        if (op != null) {
+            cacheHits.increment();
+            return op;
+        }
+        final OperationKey contextualKey = OperationKey.create(key, context, areaResolution);
+        if (contextualKey != null) {
+            return createOperation(key, contextualKey, context);
+        }
+        boolean resultWasContextSensitive = false;
+        final Cache.Handler<CoordinateOperation> handler = cache.lock(key);
+        try {
+            op = handler.peek();
+            if (op != null) {
+                cacheHits.increment();
+            } else {
+                cacheMisses.increment();
+                final CoordinateOperationFinder finder = createOperationFinder(getFactorySIS(), context);
+                op = finder.createOperation(sourceCRS, targetCRS);
+                if (context != null) {
+                    resultWasContextSensitive = context.resultWasContextSensitive();
+                }
+            }
+        } finally {
+            handler.putAndUnlock(resultWasContextSensitive ? null : op);
+        }
+        return op;
+    }
+
+    /**
+     * Finds or creates an operation which may depend on the area of interest or desired accuracy.
+     * The quantized context is used only as a key for looking in the cache. The operation is always
+     * computed with the context specified by the user, and an operation found in the cache is returned
+     * only if it is valid for that context.
+     *
+     * @param  key            the source and target <abbr>CRS</abbr>.
+     * @param  contextualKey  the source and target <abbr>CRS</abbr> together with the quantized context.
+     * @param  context        the context specified by the user.
+     * @return a coordinate operation from the source to the target <abbr>CRS</abbr>.
+     */
+    private CoordinateOperation createOperation(final CRSPair key, final OperationKey contextualKey,
+            final CoordinateOperationContext context) throws FactoryException
+    {
+        CoordinateOperation op = contextualCache.peek(contextualKey);
+        if (op != null && isValidFor(op, context)) {
+            cacheHits.increment();
+            context.resultWasContextSensitive = true;
+            return op;
+        }
+        boolean resultWasContextSensitive = false;
+        final Cache.Handler<CoordinateOperation> handler = contextualCache.lock(contextualKey);
+        CoordinateOperation cached = null;
+        try {
+            cached = handler.peek();
+            if (cached != null && isValidFor(cached, context)) {
+                cacheHits.increment();
+                resultWasContextSensitive = true;
+                op = cached;
+            } else {
+                cacheMisses.increment();
+                final CoordinateOperationFinder finder = createOperationFinder(getFactorySIS(), context);
+                op = finder.createOperation(key.sourceCRS, key.targetCRS);
+                resultWasContextSensitive = context.resultWasContextSensitive();
+                if (!resultWasContextSensitive) {
+                    cache.putIfAbsent(key, op);
                 }
-            } finally {
-                handler.putAndUnlock(resultWasContextSensitive ? null : op);
             }
+        } finally {
+            handler.putAndUnlock(resultWasContextSensitive ? op : cached);
+        }
+        if (resultWasContextSensitive) {
+            context.resultWasContextSensitive = true;
         }
         return op;
     }
 
+    /**
+     * Returns whether the given cached operation can be returned for a request with the given context.
+     * The domain of validity of the operation shall contain the area of interest, and the accuracy of the
+     * operation shall be equal or better than the desired accuracy. An operation without domain of validity
+     * is assumed valid everywhere, but an operation of unknown accuracy does not meet any desired accuracy.
+     *
+     * @param  op       the operation found in the cache.
+     * @param  context  the context specified by the user.
+     * @return whether the given operation can be used in the given context.
+     */
+    private static boolean isValidFor(final CoordinateOperation op, final CoordinateOperationContext context) {
+        final double desired = context.getDesiredAccuracy();
+        if (desired > 0 && !(CRS.getLinearAccuracy(op) <= desired)) {
+            return false;
+        }
+        final GeographicBoundingBox request = Extents.getGeographicBoundingBox(context.getAreaOfInterest());
+        if (request != null) {
+            final GeographicBoundingBox domain = CRS.getGeographicBoundingBox(op);
+            if (domain != null) {
+                return new GeneralEnvelope(domain).contains(new GeneralEnvelope(request));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns statistics about the cache of coordinate operations used by {@code createOperation(…)}.
+     * The returned map contains the following entries, all values being {@link Long} instances:
+     *
+     * <ul>
+     *   <li>{@code "hits"}: number of operations found in the cache.</li>
+     *   <li>{@code "misses"}: number of operations that had to be computed.</li>
+     *   <li>{@code "size"}: number of operations currently in the caches,
+     *       including the ones that may be garbage-collected soon.</li>
+     * </ul>
+     *
+     * This information can be used for tuning the {@value #CACHE_SIZE_KEY} and {@value #AREA_RESOLUTION_KEY}
+     * properties. Values may change concurrently if other threads are creating operations.
+     *
+     * @return number of cache hits, misses and size.
+     *
+     * @since 1.7
+     */
+    public Map<String,Long> getCacheStatistics() {
+        return Map.of("hits",   cacheHits.sum(),
+                      "misses", cacheMisses.sum(),
+                      "size",   (long) (cache.size() + contextualCache.size()));
+    }
+
     /**
      * Returns an operation for the given pair of <abbr>CRS</abbr> if that operation is already in the cache.
      *
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.operation;
+
+import java.util.Arrays;
+import org.opengis.metadata.extent.Extent;
+import org.opengis.metadata.extent.GeographicBoundingBox;
+import org.apache.sis.metadata.iso.extent.Extents;
+
+
+/**
+ * A pair of source-destination <abbr>CRS</abbr> together with a quantized area of interest and desired accuracy.
+ * Used as key in the cache of operations which depend on the {@link CoordinateOperationContext}.
+ * The bounding box is expanded to a grid of fixed resolution and the desired accuracy is rounded
+ * down to a power of 2, in order to allow many requests having slightly different contexts
+ * to share the same cached operation.
+ *
+ * <p>Because different contexts can map to the same key, the operation found in the cache may have been computed
+ * for a different area of interest or desired accuracy. Callers shall verify that the cached operation is valid
+ * for the context of the request before to return it.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+final class OperationKey extends org.apache.sis.pending.jdk.Record {
+    /**
+     * The source and target <abbr>CRS</abbr>.
+     */
+    private final CRSPair crs;
+
+    /**
+     * Bounds of the area of interest in units of the grid resolution, in (west, east, south, north) order,
+     * or {@code null} if the context does not specify an area of interest.
+     */
+    private final int[] area;
+
+    /**
+     * The size of grid cells in degrees.
+     */
+    private final double resolution;
+
+    /**
+     * The binary exponent of the desired accuracy, or {@link Integer#MIN_VALUE} for the best accuracy available.
+     */
+    private final int accuracy;
+
+    /**
+     * Creates a new key for the given values.
+     */
+    private OperationKey(final CRSPair crs, final int[] area, final double resolution, final int accuracy) {
+        this.crs        = crs;
+        this.area       = area;
+        this.resolution = resolution;
+        this.accuracy   = accuracy;
+    }
+
+    /**
+     * Creates a key for the given pair of <abbr>CRS</abbr> in the given context.
+     * Returns {@code null} if the context contains information that cannot be quantized,
+     * such as constant coordinates or vertical and temporal extents.
+     *
+     * @param  crs         the source and target <abbr>CRS</abbr>.
+     * @param  context     the context of the operation to create, or {@code null}.
+     * @param  resolution  size of grid cells in degrees, or 0 for disabling the cache of contextual operations.
+     * @return the key, or {@code null} if the operation for the given context should not be cached.
+     */
+    static OperationKey create(final CRSPair crs, final CoordinateOperationContext context, final double resolution) {
+        if (context == null || !(resolution > 0) || context.canReadFromCache()
+                || context.getConstantCoordinates() != null || context.getOperationFilter() != null)
+        {
+            return null;
+        }
+        int[] area = null;
+        final Extent aoi = context.getAreaOfInterest();
+        if (aoi != null) {
+            if (!aoi.getVerticalElements().isEmpty() || !aoi.getTemporalElements().isEmpty()) {
+                return null;
+            }
+            final GeographicBoundingBox bbox = Extents.getGeographicBoundingBox(aoi);
+            if (bbox == null || Double.isNaN(bbox.getWestBoundLongitude()) || Double.isNaN(bbox.getEastBoundLongitude())
+                             || Double.isNaN(bbox.getSouthBoundLatitude()) || Double.isNaN(bbox.getNorthBoundLatitude()))
+            {
+                return null;
+            }
+            area = new int[] {
+                (int) Math.floor(bbox.getWestBoundLongitude() / resolution),
+                (int) Math.ceil (bbox.getEastBoundLongitude() / resolution),
+                (int) Math.floor(bbox.getSouthBoundLatitude() / resolution),
+                (int) Math.ceil (bbox.getNorthBoundLatitude() / resolution)
+            };
+        }
+        final double desired = context.getDesiredAccuracy();
+        final int accuracy = (desired > 0) ? Math.getExponent(desired) : Integer.MIN_VALUE;
+        return new OperationKey(crs, area, resolution, accuracy);
+    }
+
+    /**
+     * Returns the hash code value.
+     */
+    @Override
+    public int hashCode() {
+        return crs.hashCode() + 37 * (Arrays.hashCode(area) + 31 * accuracy) + Double.hashCode(resolution);
+    }
+
+    /**
+     * Compares this key to the specified object for equality.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof OperationKey) {
+            final var that = (OperationKey) object;
+            return accuracy == that.accuracy
+                    && Double.doubleToLongBits(resolution) == Double.doubleToLongBits(that.resolution)
+                    && Arrays.equals(area, that.area)
+                    && crs.equals(that.crs);
+        }
+        return false;
+    }
+
+    /**
+     * Returns a string representation of this key for debugging purposes.
+     */
+    @Override
+    public String toString() {
+        return crs + " in " + Arrays.toString(area) + " × " + resolution + "°";
+    }
+}
@@ -21,6 +21,7 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
 import org.apache.sis.util.resources.Errors;
 import org.apache.sis.util.logging.Logging;
 import org.apache.sis.referencing.operation.provider.AbstractProvider;
@@ -70,6 +71,14 @@ public abstract class GridLoader {
      */
     protected final ByteBuffer buffer;
 
+    /**
+     * Number of bytes read from the channel or skipped since the beginning of the file.
+     * This is the channel position, ignoring the bytes which are still in the buffer.
+     *
+     * @see #position()
+     */
+    private long channelPosition;
+
     /**
      * Creates a new loader for the given channel and an existing buffer.
      *
@@ -81,7 +90,7 @@ public abstract class GridLoader {
         this.file    = file;
         this.buffer  = buffer;
         this.channel = channel;
-        channel.read(buffer);
+        channelPosition = Math.max(channel.read(buffer), 0);
         buffer.flip();
     }
 
@@ -101,6 +110,7 @@ public abstract class GridLoader {
             buffer.compact();
             do {
                 final int c = channel.read(buffer);
+                if (c > 0) channelPosition += c;
                 if (c <= 0) {
                     if (c != 0) {
                         throw new EOFException(Errors.format(Errors.Keys.UnexpectedEndOfFile_1, file));
@@ -115,16 +125,36 @@ public abstract class GridLoader {
     }
 
     /**
-     * Skips exactly <var>n</var> bytes.
+     * Returns the position in the file of the next byte to read from the buffer.
+     * This is the offset from the beginning of the file, assuming that the channel
+     * given at construction time was positioned at the beginning of the file.
+     *
+     * @return position in the file of the next byte to read.
+     */
+    protected final long position() {
+        return channelPosition - buffer.remaining();
+    }
+
+    /**
+     * Skips exactly <var>n</var> bytes. If the channel is seekable and the bytes to skip are
+     * not already in the buffer, then this method moves the channel position without reading
+     * the skipped bytes. This is useful when the skipped bytes are grid data which will be
+     * read later by another mechanism, for example {@link MappedGrid}.
      *
      * @param  n  the number of bytes to skip.
      */
-    protected final void skip(int n) throws IOException {
+    protected final void skip(long n) throws IOException {
         int p;
-        while ((p = buffer.position() + n) > buffer.limit()) {
+        if (n > buffer.remaining() && channel instanceof SeekableByteChannel) {
+            channelPosition = position() + n;
+            ((SeekableByteChannel) channel).position(channelPosition);
+            buffer.clear().flip();
+            return;
+        }
+        while ((p = Math.toIntExact(buffer.position() + n)) > buffer.limit()) {
             n -= buffer.remaining();
             buffer.clear();
-            ensureBufferContains(Math.min(n, buffer.capacity()));
+            ensureBufferContains((int) Math.min(n, buffer.capacity()));
         }
         buffer.position(p);
     }
@@ -80,6 +80,7 @@ public abstract class LoadedGrid<C extends Quantity<C>, T extends Quantity<T>> e
      * Cache of grids loaded so far. The keys are typically {@link URI}s or a tuple of URIs.
      * Values are grids stored by hard references until the amount of data exceed 32768 (about 128 kilobytes
      * if the values use the {@code float} type), in which case the oldest grids will be replaced by soft references.
+     * Grids backed by memory-mapped files ({@link MappedGrid}) have a low cost because their data are not in the heap.
      *
      * <h4>Memory consumption</h4>
      * The use of soft references instead of weak references is on the assumption that users typically use
@@ -94,7 +95,7 @@ public abstract class LoadedGrid<C extends Quantity<C>, T extends Quantity<T>> e
             for (final Object data : grid.getData()) {
                 if (data instanceof LoadedGrid<?,?>) {
                     p += cost((LoadedGrid<?,?>) data);      // When `grid` is a GridGroup.
-                } else {
+                } else if (data.getClass().isArray()) {     // Otherwise a `MappedGrid` region, not in heap.
                     p *= Array.getLength(data);             // short[], float[] or double[].
                 }
             }
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.operation.gridded;
+
+import java.util.Arrays;
+import java.io.Serializable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.net.URI;
+import java.nio.ByteOrder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.FileSystems;
+import java.nio.file.StandardOpenOption;
+import javax.measure.Unit;
+import javax.measure.Quantity;
+import org.opengis.parameter.ParameterDescriptorGroup;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
+import org.apache.sis.math.DecimalFunctions;
+
+
+/**
+ * A datum shift grid which reads the values directly from a memory-mapped file.
+ * This is used for large grids, such as national high-resolution <abbr>NTv2</abbr> grids,
+ * where loading all values in {@code float[]} arrays would consume hundreds of megabytes
+ * while a transformation typically uses only a few cells. With memory-mapping, only the
+ * pages of the file which contain the cells around the transformed points are read by the
+ * operating system, and those pages are not counted in the Java heap.
+ *
+ * <p>The file content is expected to be a sequence of records of fixed length, in row-major order.
+ * Each record contains the translation values as {@code float} numbers at fixed positions.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ *
+ * @param <C>  dimension of the coordinate unit (usually {@link javax.measure.quantity.Angle}).
+ * @param <T>  dimension of the translation unit (usually {@link javax.measure.quantity.Angle}
+ *             or {@link javax.measure.quantity.Length}).
+ */
+public final class MappedGrid<C extends Quantity<C>, T extends Quantity<T>> extends LoadedGrid<C,T> {
+    /**
+     * Serial number for inter-operability with different versions.
+     */
+    private static final long serialVersionUID = 4155620475384717322L;
+
+    /**
+     * Minimal size in bytes of grid data for using memory-mapping instead of loading the values in arrays.
+     * Smaller grids are loaded in memory because they can be compressed by {@link CompressedGrid} and because
+     * memory-mapping has a fixed cost.
+     *
+     * <p>This field is not final for allowing tests to force memory-mapping on small grid files.
+     * It should not be modified in other context.</p>
+     */
+    static long MAPPING_THRESHOLD = 4L * 1024 * 1024;
+
+    /**
+     * The region of the file which contains the grid data, together with the mapped buffer.
+     * This object is returned by {@link #getData()} for cache management and comparisons.
+     * The mapped buffer is excluded from comparisons in order to avoid reading all data.
+     */
+    private static final class Region implements Serializable {
+        /** For cross-version compatibility. */
+        private static final long serialVersionUID = -6301852618436549617L;
+
+        /** The file which contains the grid data. */
+        private final URI file;
+
+        /** Position in the file of the first byte of the first record. */
+        private final long position;
+
+        /** Number of bytes of grid data. */
+        private final int length;
+
+        /** Number of bytes in a record. */
+        final int recordLength;
+
+        /** Position in a record of the {@code float} value for each dimension. */
+        final int[] fields;
+
+        /** Values by which to divide the {@code float} values for each dimension. */
+        final double[] divisors;
+
+        /** Whether the data are in big-endian byte order. */
+        private final boolean bigEndian;
+
+        /** The mapped grid data. This is recreated after deserialization. */
+        transient ByteBuffer buffer;
+
+        /** Creates a new region and maps the data of the given file. */
+        Region(final Path path, final URI file, final long position, final int length, final int recordLength,
+               final int[] fields, final double[] divisors, final ByteOrder order) throws IOException
+        {
+            this.file         = file;
+            this.position     = position;
+            this.length       = length;
+            this.recordLength = recordLength;
+            this.fields       = fields;
+            this.divisors     = divisors;
+            this.bigEndian    = (order == ByteOrder.BIG_ENDIAN);
+            buffer = map(path);
+        }
+
+        /** Maps the region of the given file. The channel can be closed after the mapping. */
+        private ByteBuffer map(final Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, position, length)
+                        .order(bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        /** Maps again the file after deserialization. */
+        private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            buffer = map(Path.of(file));
+        }
+
+        /** Returns a hash code value based on the file and the region in that file. */
+        @Override public int hashCode() {
+            return file.hashCode() + Long.hashCode(position) + 31 * length;
+        }
+
+        /** Compares the file and the region in that file, ignoring the buffer. */
+        @Override public boolean equals(final Object other) {
+            if (other instanceof Region) {
+                final Region that = (Region) other;
+                return position     == that.position     &&
+                       length       == that.length       &&
+                       recordLength == that.recordLength &&
+                       bigEndian    == that.bigEndian    &&
+                       file.equals(that.file)            &&
+                       Arrays.equals(fields,   that.fields) &&
+                       Arrays.equals(divisors, that.divisors);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The region of the file which contains the grid data.
+     */
+    private final Region region;
+
+    /**
+     * Creates a new datum shift grid reading values from the given file.
+     * The grid geometry arguments are the same as {@link LoadedGrid.Float}.
+     *
+     * @param  path          path to the file, which shall be in the default file system.
+     * @param  position      position in the file of the first byte of the first record.
+     * @param  recordLength  number of bytes in a record (a cell of the grid).
+     * @param  fields        position in a record of the {@code float} value for each dimension.
+     * @param  divisors      values by which to divide the {@code float} values for each dimension.
+     * @param  order         byte order of the values in the file.
+     * @throws IOException if an error occurred while mapping the file.
+     */
+    public MappedGrid(final Unit<C> coordinateUnit,
+                      final Unit<T> translationUnit,
+                      final boolean isCellValueRatio,
+                      final double x0, final double y0,
+                      final double Δx, final double Δy,
+                      final int    nx, final int    ny,
+                      final ParameterDescriptorGroup descriptor,
+                      final GridFile file, final Path path, final long position, final int recordLength,
+                      final int[] fields, final double[] divisors, final ByteOrder order)
+            throws NoninvertibleTransformException, IOException
+    {
+        super(coordinateUnit, translationUnit, isCellValueRatio, x0, y0, Δx, Δy, nx, ny, descriptor, file);
+        final int length = Math.multiplyExact(Math.multiplyExact(nx, ny), recordLength);
+        region = new Region(path, file.resolved(), position, length, recordLength, fields.clone(), divisors.clone(), order);
+    }
+
+    /**
+     * Creates a new grid of the same geometry as the given grid but using a different data region.
+     */
+    private MappedGrid(final LoadedGrid<C,T> grid, final Region region) {
+        super(grid);
+        this.region = region;
+    }
+
+    /**
+     * Returns the path to the given file if the grid data of the given size should be memory-mapped.
+     * This method returns {@code null} if the data are small enough for being loaded in memory,
+     * too large for a single mapped buffer, or if the file is not on the default file system.
+     *
+     * @param  file    the file which contains the grid data.
+     * @param  length  number of bytes of grid data.
+     * @return path to the file to map, or {@code null} if the data should be loaded in memory.
+     */
+    public static Path mappable(final GridFile file, final long length) {
+        if (length >= MAPPING_THRESHOLD && length <= Integer.MAX_VALUE) {
+            final Path path = file.path().orElse(null);
+            if (path != null && path.getFileSystem() == FileSystems.getDefault()) {
+                return path;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a new grid with the same geometry as this grid but a different data region.
+     * This method is invoked by {@link #useSharedData()} when it detects that a newly created
+     * grid uses the same data as an existing grid.
+     */
+    @Override
+    protected final LoadedGrid<C,T> setData(final Object[] other) {
+        return new MappedGrid<>(this, (Region) other[0]);
+    }
+
+    /**
+     * Returns the region of the file which contains the data. This method is for cache management,
+     * {@link #equals(Object)} and {@link #hashCode()} implementations only and should not be invoked
+     * in other context.
+     */
+    @Override
+    protected final Object[] getData() {
+        return new Object[] {region};
+    }
+
+    /**
+     * Returns the number of shift dimensions.
+     */
+    @Override
+    public final int getTranslationDimensions() {
+        return region.fields.length;
+    }
+
+    /**
+     * Returns the cell value at the given dimension and grid index.
+     * Only the page of the file which contains the requested cell is read.
+     * This method can be invoked concurrently in different threads.
+     *
+     * @param  dim    the dimension for which to get an average value.
+     * @param  gridX  the grid index along the <var>x</var> axis, from 0 inclusive to {@code nx} exclusive.
+     * @param  gridY  the grid index along the <var>y</var> axis, from 0 inclusive to {@code ny} exclusive.
+     * @return the offset at the given dimension in the grid cell at the given index.
+     */
+    @Override
+    public final double getCellValue(final int dim, final int gridX, final int gridY) {
+        final Region r = region;
+        final int i = (gridX + gridY*scanlineStride) * r.recordLength + r.fields[dim];
+        return DecimalFunctions.floatToDouble(r.buffer.getFloat(i)) / r.divisors[dim];
+    }
+}
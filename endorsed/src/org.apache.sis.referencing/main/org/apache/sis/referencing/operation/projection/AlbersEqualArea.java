@@ -23,6 +23,7 @@ import org.opengis.parameter.ParameterDescriptor;
 import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.Matrix;
 import org.opengis.referencing.operation.OperationMethod;
+import org.opengis.referencing.operation.TransformException;
 import org.apache.sis.referencing.internal.Resources;
 import org.apache.sis.referencing.internal.shared.Formulas;
 import org.apache.sis.util.Workaround;
@@ -275,6 +276,50 @@ public class AlbersEqualArea extends AuthalicConversion {
          */
     }
 
+    /**
+     * Projects an arbitrary number of coordinate tuples. This method is an optimization of the
+     * {@linkplain #transform(double[], int, double[], int, boolean) single-point method} for the
+     * ellipsoidal case: the formulas are inlined in a loop without derivative computation.
+     *
+     * @throws TransformException if a point cannot be converted.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff,
+                          final double[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        if ((srcPts == dstPts && srcOff < dstOff) || getClass() != AlbersEqualArea.class) {
+            super.transform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else while (--numPts >= 0) {
+            final double θ = srcPts[srcOff  ];
+            final double ρ = sqrt(C - nm*qm(sin(srcPts[srcOff+1])));
+            dstPts[dstOff  ] = ρ * sin(θ);
+            dstPts[dstOff+1] = ρ * cos(θ);
+            srcOff += DIMENSION;
+            dstOff += DIMENSION;
+        }
+    }
+
+    /**
+     * Converts an arbitrary number of (<var>x</var>,<var>y</var>) coordinates.
+     * This is the loop of {@link #inverseTransform(double[], int, double[], int)} with formulas inlined.
+     */
+    @Override
+    void inverseTransform(final double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
+            throws ProjectionException
+    {
+        if (getClass() != AlbersEqualArea.class) {
+            super.inverseTransform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else while (--numPts >= 0) {
+            final double x = srcPts[srcOff  ];
+            final double y = srcPts[srcOff+1];
+            dstPts[dstOff  ] = atan2(x, y);
+            dstPts[dstOff+1] = φ((C - (x*x + y*y)) / (nm*qmPolar));
+            srcOff += DIMENSION;
+            dstOff += DIMENSION;
+        }
+    }
+
 
     /**
      * Provides the transform equations for the spherical case of the Albers Equal Area projection.
@@ -27,6 +27,7 @@ import org.opengis.parameter.ParameterDescriptor;
 import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.OperationMethod;
 import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.TransformException;
 import org.apache.sis.measure.Latitude;
 import org.apache.sis.parameter.Parameters;
 import org.apache.sis.geometry.Envelope2D;
@@ -495,6 +496,59 @@ public class LambertConicConformal extends ConformalProjection {
         dstPts[dstOff+1] = -φ(pow(fastHypot(x, y), 1/n));   // Equivalent to φ(pow(hypot(x,y), -1/n)) but more accurate for n>0.
     }
 
+    /**
+     * Projects an arbitrary number of coordinate tuples. This method is an optimization of the
+     * {@linkplain #transform(double[], int, double[], int, boolean) single-point method} for the
+     * ellipsoidal case: the formulas are inlined in a loop without derivative computation.
+     *
+     * @throws TransformException if a point cannot be converted.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff,
+                          final double[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        if ((srcPts == dstPts && srcOff < dstOff) || getClass() != LambertConicConformal.class) {
+            super.transform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else while (--numPts >= 0) {
+            final double θ    = srcPts[srcOff  ];
+            final double φ    = srcPts[srcOff+1];
+            final double absφ = abs(φ);
+            final double ρ;
+            if (absφ < PI/2) {
+                ρ = pow(expΨ(φ, eccentricity*sin(φ)), n);
+            } else if (absφ < PI/2 + ANGULAR_TOLERANCE) {
+                ρ = (φ*n >= 0) ? POSITIVE_INFINITY : 0;
+            } else {
+                ρ = NaN;
+            }
+            dstPts[dstOff  ] = ρ * sin(θ);
+            dstPts[dstOff+1] = ρ * cos(θ);
+            srcOff += DIMENSION;
+            dstOff += DIMENSION;
+        }
+    }
+
+    /**
+     * Converts an arbitrary number of (<var>x</var>,<var>y</var>) coordinates.
+     * This is the loop of {@link #inverseTransform(double[], int, double[], int)} with formulas inlined.
+     */
+    @Override
+    void inverseTransform(final double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
+            throws ProjectionException
+    {
+        if (getClass() != LambertConicConformal.class) {
+            super.inverseTransform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else while (--numPts >= 0) {
+            final double x = srcPts[srcOff  ];
+            final double y = srcPts[srcOff+1];
+            dstPts[dstOff  ] = atan2(x, y);
+            dstPts[dstOff+1] = -φ(pow(fastHypot(x, y), 1/n));
+            srcOff += DIMENSION;
+            dstOff += DIMENSION;
+        }
+    }
+
 
     /**
      * Provides the transform equations for the spherical case of the Lambert Conformal projection.
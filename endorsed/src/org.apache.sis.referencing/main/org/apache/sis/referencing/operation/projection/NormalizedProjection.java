@@ -761,6 +761,32 @@ public abstract class NormalizedProjection extends AbstractMathTransform2D imple
     protected abstract void inverseTransform(double[] srcPts, int srcOff, double[] dstPts, int dstOff)
             throws ProjectionException;
 
+    /**
+     * Inverse converts an arbitrary number of coordinate tuples. The default implementation invokes
+     * {@link #inverseTransform(double[], int, double[], int)} in a loop. Subclasses can override
+     * with a loop specialized to their formulas, in which case the call site is specific to that
+     * subclass and can be inlined by the compiler instead of being shared by all map projections.
+     *
+     * <p>Callers must ensure that the loop can be executed with indices in increasing order,
+     * i.e. that {@code srcOff >= dstOff} if {@code srcPts} and {@code dstPts} are the same array.</p>
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset of the first point to be converted in the source array.
+     * @param  dstPts  the array into which the converted point coordinates are returned.
+     * @param  dstOff  the offset of the location of the first converted point in the destination array.
+     * @param  numPts  the number of point objects to be converted.
+     * @throws ProjectionException if a point cannot be converted.
+     */
+    void inverseTransform(final double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
+            throws ProjectionException
+    {
+        while (--numPts >= 0) {
+            inverseTransform(srcPts, srcOff, dstPts, dstOff);
+            srcOff += DIMENSION;
+            dstOff += DIMENSION;
+        }
+    }
+
     /**
      * Returns the inverse of this map projection.
      * Subclasses do not need to override this method, as they should override
@@ -834,15 +860,13 @@ public abstract class NormalizedProjection extends AbstractMathTransform2D imple
          * case where conversions can be applied by a loop with indices in increasing order.
          */
         @Override
-        public void transform(final double[] srcPts, int srcOff,
-                              final double[] dstPts, int dstOff, int numPts) throws TransformException
+        public void transform(final double[] srcPts, final int srcOff,
+                              final double[] dstPts, final int dstOff, final int numPts) throws TransformException
         {
             if (srcPts == dstPts && srcOff < dstOff) {
                 super.transform(srcPts, srcOff, dstPts, dstOff, numPts);
-            } else while (--numPts >= 0) {
-                forward.inverseTransform(srcPts, srcOff, dstPts, dstOff);
-                srcOff += DIMENSION;
-                dstOff += DIMENSION;
+            } else {
+                forward.inverseTransform(srcPts, srcOff, dstPts, dstOff, numPts);
             }
         }
 
@@ -27,6 +27,7 @@ import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.MathTransformFactory;
 import org.opengis.referencing.operation.Matrix;
 import org.opengis.referencing.operation.OperationMethod;
+import org.opengis.referencing.operation.TransformException;
 import org.apache.sis.geometry.Envelope2D;
 import org.apache.sis.referencing.operation.matrix.Matrix2;
 import org.apache.sis.referencing.operation.matrix.MatrixSIS;
@@ -733,6 +734,46 @@ public class TransverseMercator extends NormalizedProjection {
         throw new ProjectionException(Resources.format(Resources.Keys.NoConvergence));
     }
 
+    /**
+     * Projects an arbitrary number of coordinate tuples. This method is an optimization of the default loop
+     * inherited from the parent class, which is shared by all transforms and catches exceptions for each point.
+     * This loop invokes the single-point method from a call site specific to the ellipsoidal Transverse Mercator,
+     * which allows the compiler to inline that method and discard the derivative computation.
+     * The formulas are not duplicated here because of their length.
+     *
+     * @throws TransformException if a point cannot be converted.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff,
+                          final double[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        if ((srcPts == dstPts && srcOff < dstOff) || getClass() != TransverseMercator.class) {
+            super.transform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else while (--numPts >= 0) {
+            transform(srcPts, srcOff, dstPts, dstOff, false);       // Never throws for this class.
+            srcOff += DIMENSION;
+            dstOff += DIMENSION;
+        }
+    }
+
+    /**
+     * Converts an arbitrary number of (η, ξ) coordinates. This method is identical to the
+     * default implementation, except that the call site is specific to this class.
+     */
+    @Override
+    void inverseTransform(final double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
+            throws ProjectionException
+    {
+        if (getClass() != TransverseMercator.class) {
+            super.inverseTransform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else while (--numPts >= 0) {
+            inverseTransform(srcPts, srcOff, dstPts, dstOff);
+            srcOff += DIMENSION;
+            dstOff += DIMENSION;
+        }
+    }
+
 
 
 
@@ -29,6 +29,7 @@ import java.nio.ByteOrder;
 import java.nio.ByteBuffer;
 import java.net.URI;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.nio.charset.StandardCharsets;
 import jakarta.xml.bind.annotation.XmlTransient;
 import javax.measure.Unit;
@@ -46,6 +47,7 @@ import org.apache.sis.referencing.operation.gridded.GridLoader;
 import org.apache.sis.referencing.operation.gridded.GridGroup;
 import org.apache.sis.referencing.operation.gridded.GridFile;
 import org.apache.sis.referencing.operation.gridded.LoadedGrid;
+import org.apache.sis.referencing.operation.gridded.MappedGrid;
 import org.apache.sis.referencing.internal.Resources;
 import org.apache.sis.referencing.internal.shared.Formulas;
 import org.apache.sis.parameter.ParameterBuilder;
@@ -546,7 +548,20 @@ public final class NTv2 extends AbstractProvider {
              */
             final double size = Math.max(dx, dy);
             final LoadedGrid<Angle,Angle> grid;
-            if (isV2) {
+            final Path mapped = isV2 ? MappedGrid.mappable(file, (long) count * RECORD_LENGTH) : null;
+            if (mapped != null) {
+                /*
+                 * Large NTv2 grid (typically national high-resolution grid): read the values directly from
+                 * the file when needed instead of loading them in memory. The accuracy records are not read,
+                 * because it would require to read the whole file. A default accuracy is computed below.
+                 * The order of fields in a record is latitude shift, longitude shift, latitude accuracy and
+                 * longitude accuracy.
+                 */
+                grid = new MappedGrid<>(unit, unit, true, -xmin, ymin, -dx, dy, width, height, PARAMETERS,
+                        file, mapped, position(), RECORD_LENGTH, new int[] {Float.BYTES, 0}, new double[] {dx, dy},
+                        buffer.order());
+                skip((long) count * RECORD_LENGTH);
+            } else if (isV2) {
                 final LoadedGrid.Float<Angle,Angle> data;
                 data = new LoadedGrid.Float<>(2, unit, unit, true,
                         -xmin, ymin, -dx, dy, width, height, PARAMETERS, file);
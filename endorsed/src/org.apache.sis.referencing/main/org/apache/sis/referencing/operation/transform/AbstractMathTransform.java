@@ -20,6 +20,8 @@ import java.util.List;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.logging.Logger;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
 import java.lang.reflect.Type;
 import org.opengis.util.FactoryException;
 import org.opengis.geometry.Envelope;
@@ -792,6 +794,61 @@ public abstract class AbstractMathTransform extends FormattableObject
         }
     }
 
+    /**
+     * Transforms a list of coordinate tuples stored in a buffer of {@code double} values.
+     * The coordinates are read from the {@code srcPts} buffer starting at its current position,
+     * in the same interleaved order as in the {@code transform(double[], …)} methods.
+     * The results are written in the {@code dstPts} buffer starting at its current position.
+     * The positions of both buffers are advanced by the number of values read or written.
+     *
+     * <p>This method is useful for coordinates stored outside the Java heap, for example in memory-mapped files.
+     * The default implementation delegates to {@link #transform(double[], int, double[], int, int)} directly if
+     * both buffers are backed by accessible arrays, or by chunks of coordinates copied in a temporary array
+     * otherwise. Subclasses can override this method if they can work directly on buffers.</p>
+     *
+     * @param  srcPts  the buffer containing the source point coordinates.
+     * @param  dstPts  the buffer into which the transformed point coordinates are written.
+     *                 May be the same instance as {@code srcPts}, but shall not overlap otherwise.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws java.nio.BufferUnderflowException if {@code srcPts} does not contain enough remaining values.
+     * @throws java.nio.BufferOverflowException if {@code dstPts} does not have enough remaining space.
+     * @throws TransformException if a point cannot be transformed. If the transform fills the untransformable
+     *         points with {@linkplain Double#NaN} values, then the exception is thrown only after all points
+     *         have been written.
+     *
+     * @see MathTransforms#transform(MathTransform, DoubleBuffer, DoubleBuffer, int)
+     *
+     * @since 1.7
+     */
+    public void transform(final DoubleBuffer srcPts, final DoubleBuffer dstPts, final int numPts)
+            throws TransformException
+    {
+        MathTransforms.transformByChunks(this, srcPts, dstPts, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate tuples stored in a buffer of {@code float} values.
+     * This method works as {@link #transform(DoubleBuffer, DoubleBuffer, int)},
+     * but delegating to {@link #transform(float[], int, float[], int, int)}.
+     *
+     * @param  srcPts  the buffer containing the source point coordinates.
+     * @param  dstPts  the buffer into which the transformed point coordinates are written.
+     *                 May be the same instance as {@code srcPts}, but shall not overlap otherwise.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws java.nio.BufferUnderflowException if {@code srcPts} does not contain enough remaining values.
+     * @throws java.nio.BufferOverflowException if {@code dstPts} does not have enough remaining space.
+     * @throws TransformException if a point cannot be transformed.
+     *
+     * @see MathTransforms#transform(MathTransform, FloatBuffer, FloatBuffer, int)
+     *
+     * @since 1.7
+     */
+    public void transform(final FloatBuffer srcPts, final FloatBuffer dstPts, final int numPts)
+            throws TransformException
+    {
+        MathTransforms.transformByChunks(this, srcPts, dstPts, numPts);
+    }
+
     /**
      * Gets the derivative of this transform at a point.
      * The default implementation performs the following steps:
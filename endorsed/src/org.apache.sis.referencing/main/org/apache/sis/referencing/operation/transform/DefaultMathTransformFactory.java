@@ -38,7 +38,7 @@ import org.apache.sis.io.wkt.Parser;
 import org.apache.sis.util.ArgumentChecks;
 import org.apache.sis.util.internal.shared.Constants;
 import org.apache.sis.util.iso.AbstractFactory;
-import org.apache.sis.util.collection.WeakHashSet;
+import org.apache.sis.util.collection.ConcurrentWeakHashSet;
 import org.apache.sis.referencing.internal.ParameterizedTransformBuilder;
 import org.apache.sis.referencing.internal.shared.CoordinateOperations;
 import org.apache.sis.referencing.operation.DefaultOperationMethod;
@@ -193,7 +193,7 @@ public class DefaultMathTransformFactory extends AbstractFactory implements Math
      *
      * @see #unique(MathTransform)
      */
-    private final WeakHashSet<MathTransform> pool;
+    private final ConcurrentWeakHashSet<MathTransform> pool;
 
     /**
      * The <i>Well Known Text</i> parser for {@code MathTransform} instances.
@@ -288,7 +288,7 @@ public class DefaultMathTransformFactory extends AbstractFactory implements Math
         methodsByName = new ConcurrentHashMap<>();
         methodsByType = new IdentityHashMap<>();
         lastMethod    = new ThreadLocal<>();
-        pool          = new WeakHashSet<>(MathTransform.class);
+        pool          = new ConcurrentWeakHashSet<>(MathTransform.class);
         parser        = new AtomicReference<>();
     }
 
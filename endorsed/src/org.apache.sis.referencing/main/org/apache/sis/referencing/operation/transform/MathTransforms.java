@@ -19,8 +19,14 @@ package org.apache.sis.referencing.operation.transform;
 import java.util.Map;
 import java.util.List;
 import java.util.BitSet;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
 import java.awt.geom.AffineTransform;
 import javax.measure.UnitConverter;
 import org.opengis.util.FactoryException;
@@ -41,6 +47,7 @@ import org.apache.sis.util.OptionalCandidate;
 import org.apache.sis.util.ArgumentChecks;
 import org.apache.sis.util.ArraysExt;
 import org.apache.sis.util.internal.shared.DoubleDouble;
+import org.apache.sis.util.resources.Errors;
 
 // Specific to the main branch:
 import org.opengis.geometry.MismatchedDimensionException;
@@ -61,7 +68,7 @@ import org.opengis.geometry.MismatchedDimensionException;
  * GeoAPI factory interfaces instead.
  *
  * @author  Martin Desruisseaux (Geomatys)
- * @version 1.5
+ * @version 1.7
  *
  * @see MathTransformFactory
  *
@@ -822,4 +829,344 @@ public final class MathTransforms {
         }
         return derivative;
     }
+    /**
+     * Transforms a list of coordinate tuples stored in buffers of {@code double} values.
+     * The coordinates are read from {@code srcPts} and written to {@code dstPts} starting at the current
+     * buffer positions, in the same interleaved order as in {@link MathTransform#transform(double[], int,
+     * double[], int, int)}. The positions of both buffers are advanced by the number of values read or written.
+     * If {@code srcPts} and {@code dstPts} are the same instance, then the position is advanced by the number
+     * of values written.
+     *
+     * <p>This method avoids copying all coordinates in the Java heap when the buffers are views over
+     * memory-mapped files or direct buffers. If the given transform is an {@link AbstractMathTransform},
+     * then this method delegates to {@link AbstractMathTransform#transform(DoubleBuffer, DoubleBuffer, int)}.
+     * Otherwise, coordinates are copied by chunks in a temporary array, unless the buffers are backed by
+     * accessible arrays in which case the arrays are used directly.</p>
+     *
+     * @param  transform  the transform to apply.
+     * @param  srcPts     the buffer containing the source point coordinates.
+     * @param  dstPts     the buffer into which the transformed point coordinates are written.
+     *                    May be the same instance as {@code srcPts}, but shall not overlap otherwise.
+     * @param  numPts     the number of point objects to be transformed.
+     * @throws java.nio.BufferUnderflowException if {@code srcPts} does not contain enough remaining values.
+     * @throws java.nio.BufferOverflowException if {@code dstPts} does not have enough remaining space.
+     * @throws TransformException if a point cannot be transformed.
+     *
+     * @since 1.7
+     */
+    public static void transform(final MathTransform transform, final DoubleBuffer srcPts,
+            final DoubleBuffer dstPts, final int numPts) throws TransformException
+    {
+        ArgumentChecks.ensureNonNull("transform", transform);
+        if (transform instanceof AbstractMathTransform) {
+            ((AbstractMathTransform) transform).transform(srcPts, dstPts, numPts);
+        } else {
+            transformByChunks(transform, srcPts, dstPts, numPts);
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples stored in buffers of {@code float} values.
+     * This method works as {@link #transform(MathTransform, DoubleBuffer, DoubleBuffer, int)}
+     * but for single-precision floating point numbers.
+     *
+     * @param  transform  the transform to apply.
+     * @param  srcPts     the buffer containing the source point coordinates.
+     * @param  dstPts     the buffer into which the transformed point coordinates are written.
+     *                    May be the same instance as {@code srcPts}, but shall not overlap otherwise.
+     * @param  numPts     the number of point objects to be transformed.
+     * @throws java.nio.BufferUnderflowException if {@code srcPts} does not contain enough remaining values.
+     * @throws java.nio.BufferOverflowException if {@code dstPts} does not have enough remaining space.
+     * @throws TransformException if a point cannot be transformed.
+     *
+     * @since 1.7
+     */
+    public static void transform(final MathTransform transform, final FloatBuffer srcPts,
+            final FloatBuffer dstPts, final int numPts) throws TransformException
+    {
+        ArgumentChecks.ensureNonNull("transform", transform);
+        if (transform instanceof AbstractMathTransform) {
+            ((AbstractMathTransform) transform).transform(srcPts, dstPts, numPts);
+        } else {
+            transformByChunks(transform, srcPts, dstPts, numPts);
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples stored in one buffer per dimension (planar layout).
+     * For example, if the source dimension is 2, then {@code srcPts[0]} contains all <var>x</var> values
+     * and {@code srcPts[1]} contains all <var>y</var> values. The values are read and written starting at
+     * the current buffer positions, and all positions are advanced by {@code numPts}.
+     * A target buffer can be the same instance as a source buffer.
+     * Coordinates are copied by chunks in a temporary array of interleaved coordinates.
+     *
+     * @param  transform  the transform to apply.
+     * @param  srcPts     the buffers containing the source coordinates, one buffer per source dimension.
+     * @param  dstPts     the buffers where to write the target coordinates, one buffer per target dimension.
+     * @param  numPts     the number of point objects to be transformed.
+     * @throws MismatchedDimensionException if the length of an array of buffers does not match the dimension.
+     * @throws java.nio.BufferUnderflowException if a source buffer does not contain enough remaining values.
+     * @throws java.nio.BufferOverflowException if a target buffer does not have enough remaining space.
+     * @throws TransformException if a point cannot be transformed.
+     *
+     * @since 1.7
+     */
+    public static void transform(final MathTransform transform, final DoubleBuffer[] srcPts,
+            final DoubleBuffer[] dstPts, int numPts) throws TransformException
+    {
+        ArgumentChecks.ensureNonNull("transform", transform);
+        ArgumentChecks.ensureNonNull("srcPts", srcPts);
+        ArgumentChecks.ensureNonNull("dstPts", dstPts);
+        final int srcDim = transform.getSourceDimensions();
+        final int dstDim = transform.getTargetDimensions();
+        if (srcPts.length != srcDim) {
+            throw new MismatchedDimensionException(Errors.format(
+                    Errors.Keys.MismatchedDimension_3, "srcPts", srcDim, srcPts.length));
+        }
+        if (dstPts.length != dstDim) {
+            throw new MismatchedDimensionException(Errors.format(
+                    Errors.Keys.MismatchedDimension_3, "dstPts", dstDim, dstPts.length));
+        }
+        if (numPts <= 0) {
+            return;
+        }
+        /*
+         * Reads through duplicated buffers for allowing a source buffer to be also a target buffer.
+         * This is safe because the values of each chunk are all read before any value is written.
+         */
+        final var sources = new DoubleBuffer[srcDim];
+        for (int i=0; i<srcDim; i++) {
+            final DoubleBuffer b = srcPts[i];
+            ArgumentChecks.ensureNonNullElement("srcPts", i, b);
+            if (b.remaining() < numPts) throw new BufferUnderflowException();
+            sources[i] = b.duplicate();
+        }
+        for (int i=0; i<dstDim; i++) {
+            final DoubleBuffer b = dstPts[i];
+            ArgumentChecks.ensureNonNullElement("dstPts", i, b);
+            if (b.remaining() < numPts) throw new BufferOverflowException();
+        }
+        final int chunkSize = Math.max(1, AbstractMathTransform.MAXIMUM_BUFFER_SIZE / Math.max(srcDim, dstDim));
+        final double[] buffer = new double[Math.min(chunkSize, numPts) * Math.max(srcDim, dstDim)];
+        TransformException failure = null;
+        do {
+            final int n = Math.min(chunkSize, numPts);
+            for (int i=0; i<srcDim; i++) {
+                final DoubleBuffer b = sources[i];
+                for (int k=i, j=0; j<n; j++, k += srcDim) {
+                    buffer[k] = b.get();
+                }
+            }
+            try {
+                transform.transform(buffer, 0, buffer, 0, n);
+            } catch (TransformException exception) {
+                failure = keepOrThrow(transform, failure, exception);
+            }
+            for (int i=0; i<dstDim; i++) {
+                final DoubleBuffer b = dstPts[i];
+                for (int k=i, j=0; j<n; j++, k += dstDim) {
+                    b.put(buffer[k]);
+                }
+            }
+            numPts -= n;
+        } while (numPts != 0);
+        for (int i=0; i<srcDim; i++) {
+            srcPts[i].position(sources[i].position());
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate tuples using many threads. The array is split in chunks small enough
+     * for fitting in the processor cache, and the chunks are transformed in parallel by the given pool.
+     * Coordinates are interleaved in the arrays as in {@link MathTransform#transform(double[], int, double[], int, int)}.
+     * This method is worth to use only for large arrays, for example with millions of points.
+     *
+     * <p>Contrarily to the single-thread methods, this method does not stop at the first failure.
+     * If a chunk cannot be transformed, then its points are transformed one by one and the points
+     * that still fail are set to {@link Double#NaN}. The indices of those points (starting at 0 for
+     * the point at {@code srcOff}) are returned in a bit set. Points which are transformed to NaN
+     * without exception are not reported in the returned set.</p>
+     *
+     * <p>The given transform shall be thread-safe. This is the case of all Apache SIS implementations,
+     * which are immutable. For transforming coordinates with a
+     * {@linkplain org.opengis.referencing.operation.CoordinateOperation coordinate operation},
+     * use the transform given by {@code getMathTransform()}.</p>
+     *
+     * @param  transform  the transform to apply.
+     * @param  srcPts     the array containing the source point coordinates.
+     * @param  srcOff     the offset to the first point to be transformed in the source array.
+     * @param  dstPts     the array into which the transformed point coordinates are returned.
+     *                    May be the same as {@code srcPts}.
+     * @param  dstOff     the offset to the location of the first transformed point in the destination array.
+     * @param  numPts     the number of point objects to be transformed.
+     * @param  pool       the pool of threads to use, or {@code null} for the {@linkplain ForkJoinPool#commonPool() common pool}.
+     * @return indices of the points that cannot be transformed. Empty if all points were transformed.
+     * @throws IndexOutOfBoundsException if a range of coordinates is outside the array bounds.
+     *
+     * @since 1.7
+     */
+    public static BitSet transformInParallel(final MathTransform transform,
+            double[] srcPts, int srcOff, final double[] dstPts, final int dstOff,
+            final int numPts, ForkJoinPool pool)
+    {
+        ArgumentChecks.ensureNonNull("transform", transform);
+        ArgumentChecks.ensurePositive("numPts", numPts);
+        final int srcDim = transform.getSourceDimensions();
+        final int dstDim = transform.getTargetDimensions();
+        Objects.checkFromIndexSize(srcOff, Math.multiplyExact(numPts, srcDim), srcPts.length);
+        Objects.checkFromIndexSize(dstOff, Math.multiplyExact(numPts, dstDim), dstPts.length);
+        final var failures = new BitSet();
+        if (numPts != 0) {
+            if (srcPts == dstPts && (srcOff != dstOff || srcDim != dstDim)) {
+                // Overlapping regions would be read by one task after being written by another task.
+                srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + numPts * srcDim);
+                srcOff = 0;
+            }
+            if (pool == null) {
+                pool = ForkJoinPool.commonPool();
+            }
+            pool.invoke(new ParallelTransform(transform, srcPts, srcOff, dstPts, dstOff, 0, numPts, failures));
+        }
+        return failures;
+    }
+
+    /**
+     * Implementation of {@link AbstractMathTransform#transform(DoubleBuffer, DoubleBuffer, int)}
+     * for arbitrary transforms. See the public method for a description of the parameters.
+     */
+    static void transformByChunks(final MathTransform transform, DoubleBuffer srcPts,
+            final DoubleBuffer dstPts, int numPts) throws TransformException
+    {
+        if (numPts <= 0) {
+            return;
+        }
+        final int srcDim    = transform.getSourceDimensions();
+        final int dstDim    = transform.getTargetDimensions();
+        final int srcLength = Math.multiplyExact(numPts, srcDim);
+        final int dstLength = Math.multiplyExact(numPts, dstDim);
+        if (srcPts.remaining() < srcLength) throw new BufferUnderflowException();
+        if (dstPts.remaining() < dstLength) throw new BufferOverflowException();
+        if (srcPts.hasArray() && dstPts.hasArray()) {
+            final int srcPos = srcPts.position();
+            final int dstPos = dstPts.position();
+            try {
+                transform.transform(srcPts.array(), srcPts.arrayOffset() + srcPos,
+                                    dstPts.array(), dstPts.arrayOffset() + dstPos, numPts);
+            } finally {
+                srcPts.position(srcPos + srcLength);
+                dstPts.position(dstPos + dstLength);            // Must be last in case of same buffer.
+            }
+            return;
+        }
+        if (srcPts == dstPts) {
+            if (srcDim >= dstDim) {
+                srcPts = srcPts.duplicate();                    // Writing will never be ahead of reading.
+            } else {
+                final double[] copy = new double[srcLength];    // Rare case: writing would overwrite unread values.
+                srcPts.duplicate().get(copy);
+                srcPts = DoubleBuffer.wrap(copy);
+            }
+        }
+        final int chunkSize = Math.max(1, AbstractMathTransform.MAXIMUM_BUFFER_SIZE / Math.max(srcDim, dstDim));
+        final double[] buffer = new double[Math.min(chunkSize, numPts) * Math.max(srcDim, dstDim)];
+        TransformException failure = null;
+        do {
+            final int n = Math.min(chunkSize, numPts);
+            srcPts.get(buffer, 0, n * srcDim);
+            try {
+                transform.transform(buffer, 0, buffer, 0, n);
+            } catch (TransformException exception) {
+                failure = keepOrThrow(transform, failure, exception);
+            }
+            dstPts.put(buffer, 0, n * dstDim);
+            numPts -= n;
+        } while (numPts != 0);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Implementation of {@link AbstractMathTransform#transform(FloatBuffer, FloatBuffer, int)}
+     * for arbitrary transforms. This is a copy of the method for {@code double} values.
+     */
+    static void transformByChunks(final MathTransform transform, FloatBuffer srcPts,
+            final FloatBuffer dstPts, int numPts) throws TransformException
+    {
+        if (numPts <= 0) {
+            return;
+        }
+        final int srcDim    = transform.getSourceDimensions();
+        final int dstDim    = transform.getTargetDimensions();
+        final int srcLength = Math.multiplyExact(numPts, srcDim);
+        final int dstLength = Math.multiplyExact(numPts, dstDim);
+        if (srcPts.remaining() < srcLength) throw new BufferUnderflowException();
+        if (dstPts.remaining() < dstLength) throw new BufferOverflowException();
+        if (srcPts.hasArray() && dstPts.hasArray()) {
+            final int srcPos = srcPts.position();
+            final int dstPos = dstPts.position();
+            try {
+                transform.transform(srcPts.array(), srcPts.arrayOffset() + srcPos,
+                                    dstPts.array(), dstPts.arrayOffset() + dstPos, numPts);
+            } finally {
+                srcPts.position(srcPos + srcLength);
+                dstPts.position(dstPos + dstLength);            // Must be last in case of same buffer.
+            }
+            return;
+        }
+        if (srcPts == dstPts) {
+            if (srcDim >= dstDim) {
+                srcPts = srcPts.duplicate();                    // Writing will never be ahead of reading.
+            } else {
+                final float[] copy = new float[srcLength];      // Rare case: writing would overwrite unread values.
+                srcPts.duplicate().get(copy);
+                srcPts = FloatBuffer.wrap(copy);
+            }
+        }
+        final int chunkSize = Math.max(1, AbstractMathTransform.MAXIMUM_BUFFER_SIZE / Math.max(srcDim, dstDim));
+        final float[] buffer = new float[Math.min(chunkSize, numPts) * Math.max(srcDim, dstDim)];
+        TransformException failure = null;
+        do {
+            final int n = Math.min(chunkSize, numPts);
+            srcPts.get(buffer, 0, n * srcDim);
+            try {
+                transform.transform(buffer, 0, buffer, 0, n);
+            } catch (TransformException exception) {
+                failure = keepOrThrow(transform, failure, exception);
+            }
+            dstPts.put(buffer, 0, n * dstDim);
+            numPts -= n;
+        } while (numPts != 0);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Decides whether to continue after a chunk of points failed to be transformed.
+     * If the transform declares itself as the last completed transform, then the untransformable points
+     * have been replaced by NaN values and the loop can continue with the next chunk. Otherwise, the given
+     * exception is rethrown.
+     *
+     * @param  transform  the transform which failed.
+     * @param  failure    the exception of a previous chunk, or {@code null} if none.
+     * @param  exception  the exception of the current chunk.
+     * @return the exception to throw after all chunks have been transformed.
+     * @throws TransformException the given exception if the loop cannot continue.
+     */
+    private static TransformException keepOrThrow(final MathTransform transform,
+            final TransformException failure, final TransformException exception) throws TransformException
+    {
+        if (exception.getLastCompletedTransform() != transform) {
+            throw exception;
+        }
+        if (failure == null) {
+            return exception;
+        }
+        failure.addSuppressed(exception);
+        return failure;
+    }
 }
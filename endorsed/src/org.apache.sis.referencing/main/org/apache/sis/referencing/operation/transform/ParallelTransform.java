@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.operation.transform;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.RecursiveAction;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+
+
+/**
+ * A task transforming a range of coordinate tuples, split recursively in smaller tasks executed in parallel.
+ * Each leaf task transforms a chunk of coordinates small enough for fitting in the processor cache.
+ * If a chunk fails to be transformed, then the points of that chunk are transformed one by one
+ * and the points that still fail are set to NaN and recorded in the {@link #failures} set.
+ *
+ * <h2>Thread safety</h2>
+ * The math transform is presumed immutable and thread-safe, as required by Apache SIS.
+ * The source and target arrays shall not overlap, except if they are the same array
+ * at the same offset with the same number of source and target dimensions.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ *
+ * @see MathTransforms#transformInParallel(MathTransform, double[], int, double[], int, int, java.util.concurrent.ForkJoinPool)
+ */
+@SuppressWarnings("serial")         // Not intended to be serialized.
+final class ParallelTransform extends RecursiveAction {
+    /**
+     * Maximal number of coordinate values in the arrays of a leaf task.
+     * The current value is 64 kilobytes of {@code double} values.
+     */
+    private static final int CHUNK_SIZE = 8192;
+
+    /**
+     * The transform to apply.
+     */
+    private final MathTransform transform;
+
+    /**
+     * The source and target arrays.
+     */
+    private final double[] srcPts, dstPts;
+
+    /**
+     * Offset of the first coordinate of this task in the source and target arrays.
+     */
+    private final int srcOff, dstOff;
+
+    /**
+     * Index of the first point of this task, relative to the first point of the whole operation.
+     */
+    private final int first;
+
+    /**
+     * Number of points to transform in this task.
+     */
+    private final int numPts;
+
+    /**
+     * Maximal number of points in a leaf task.
+     */
+    private final int chunkPoints;
+
+    /**
+     * Indices of the points that cannot be transformed. Shared by all tasks.
+     * All accesses must be synchronized on this set.
+     */
+    private final BitSet failures;
+
+    /**
+     * Creates a new task for transforming the given range of points.
+     */
+    ParallelTransform(final MathTransform transform,
+                      final double[] srcPts, final int srcOff,
+                      final double[] dstPts, final int dstOff,
+                      final int first, final int numPts, final BitSet failures)
+    {
+        this.transform = transform;
+        this.srcPts    = srcPts;
+        this.srcOff    = srcOff;
+        this.dstPts    = dstPts;
+        this.dstOff    = dstOff;
+        this.first     = first;
+        this.numPts    = numPts;
+        this.failures  = failures;
+        chunkPoints = Math.max(1, CHUNK_SIZE / Math.max(transform.getSourceDimensions(), transform.getTargetDimensions()));
+    }
+
+    /**
+     * Splits this task in two halves if it is larger than a chunk, or transforms the points otherwise.
+     */
+    @Override
+    protected void compute() {
+        if (numPts > chunkPoints) {
+            final int half = numPts >>> 1;
+            final int srcDim = transform.getSourceDimensions();
+            final int dstDim = transform.getTargetDimensions();
+            invokeAll(new ParallelTransform(transform, srcPts, srcOff, dstPts, dstOff, first, half, failures),
+                      new ParallelTransform(transform, srcPts, srcOff + half*srcDim, dstPts, dstOff + half*dstDim,
+                                            first + half, numPts - half, failures));
+        } else {
+            transformChunk();
+        }
+    }
+
+    /**
+     * Transforms all points of this task in a single call, with a fallback on point-by-point
+     * transformations if a point failed. If the source and target regions are the same,
+     * a copy of the source coordinates is kept for allowing the fallback.
+     */
+    private void transformChunk() {
+        double[] source = srcPts;
+        int offset = srcOff;
+        if (source == dstPts) {
+            source = Arrays.copyOfRange(source, offset, offset + numPts * transform.getSourceDimensions());
+            offset = 0;
+        }
+        try {
+            transform.transform(source, offset, dstPts, dstOff, numPts);
+        } catch (TransformException e) {
+            transformPointByPoint(source, offset);
+        }
+    }
+
+    /**
+     * Transforms the points of this task one by one. Points that cannot be transformed are set to NaN.
+     *
+     * @param  source  the array containing the source coordinates.
+     * @param  offset  offset of the first coordinate in the source array.
+     */
+    private void transformPointByPoint(final double[] source, int offset) {
+        final int srcDim = transform.getSourceDimensions();
+        final int dstDim = transform.getTargetDimensions();
+        int target = dstOff;
+        for (int i=0; i<numPts; i++) {
+            try {
+                transform.transform(source, offset, dstPts, target, 1);
+            } catch (TransformException e) {
+                Arrays.fill(dstPts, target, target + dstDim, Double.NaN);
+                synchronized (failures) {
+                    failures.set(first + i);
+                }
+            }
+            offset += srcDim;
+            target += dstDim;
+        }
+    }
+}
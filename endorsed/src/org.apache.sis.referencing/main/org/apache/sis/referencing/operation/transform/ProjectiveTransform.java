@@ -83,6 +83,12 @@ class ProjectiveTransform extends AbstractLinearTransform implements ExtendedPre
      */
     private final Number[] numbers;
 
+    /**
+     * Whether the last row is [0 0 … 1] and all denominators are 1. In such case, the last row
+     * does not need to be computed and the division can be omitted when transforming arrays.
+     */
+    private final boolean affineWithoutDenominator;
+
     /**
      * Constructs a transform from the specified matrix.
      * The matrix is usually square and affine, but this is not enforced.
@@ -180,6 +186,7 @@ class ProjectiveTransform extends AbstractLinearTransform implements ExtendedPre
                 elt[k] = denominator.doubleValue();
             }
         }
+        affineWithoutDenominator = isAffineWithoutDenominator();
     }
 
     /**
@@ -400,10 +407,16 @@ class ProjectiveTransform extends AbstractLinearTransform implements ExtendedPre
                 }
             }
         }
+        /*
+         * If the transform is affine without denominators, the last row does not need to be computed
+         * (the weight is always 1) and the division performed at the end of the loop can be omitted.
+         */
+        final boolean affine = affineWithoutDenominator;
+        final int numSums = affine ? dstDim : numRow;
         final double[] buffer = new double[numRow];
         while (--numPts >= 0) {
             int mix = 0;
-            for (int j=0; j<numRow; j++) {
+            for (int j=0; j<numSums; j++) {
                 double sum = elt[mix + srcDim];         // Initialize to translation term.
                 for (int i=0; i<srcDim; i++) {
                     final double e = elt[mix++];
@@ -426,19 +439,39 @@ class ProjectiveTransform extends AbstractLinearTransform implements ExtendedPre
                 buffer[j] = sum;
                 mix += NON_SCALE_COLUMNS;       // Skip the translation column and the denominator column.
             }
-            int k = numCol;
-            final int rowStride = numCol + 1;
-            final double w = buffer[dstDim];
-            for (int j=0; j<dstDim; j++) {
-                // `w` is equal to 1 if the transform is affine.
-                dstPts[dstOff + j] = buffer[j] / (w * elt[k]);
-                k += rowStride;
+            if (affine) {
+                System.arraycopy(buffer, 0, dstPts, dstOff, dstDim);
+            } else {
+                int k = numCol;
+                final int rowStride = numCol + 1;
+                final double w = buffer[dstDim];
+                for (int j=0; j<dstDim; j++) {
+                    // `w` is equal to 1 if the transform is affine.
+                    dstPts[dstOff + j] = buffer[j] / (w * elt[k]);
+                    k += rowStride;
+                }
             }
             srcOff += srcInc;
             dstOff += dstInc;
         }
     }
 
+    /**
+     * Returns {@code true} if the last row is [0 0 … 1] and all denominators are 1.
+     * This method is invoked at construction time for initializing {@link #affineWithoutDenominator}.
+     */
+    private boolean isAffineWithoutDenominator() {
+        final int rowStride = numCol + 1;
+        for (int k = numCol; k < elt.length; k += rowStride) {
+            if (elt[k] != 1) return false;                      // Denominator column.
+        }
+        int k = elt.length - numCol;                            // Beginning of last row.
+        for (int i=1; i<numCol; i++) {
+            if (elt[k++] != 0) return false;
+        }
+        return elt[k] == 1;
+    }
+
     /**
      * Transforms an array of floating point coordinates by this matrix. Point coordinates must have a dimension
      * equal to <code>{@link Matrix#getNumCol()} - 1</code>. For example, for square matrix of size 4×4, coordinate
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.geometry;
+
+import java.util.Random;
+import org.opengis.geometry.Envelope;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.apache.sis.math.Statistics;
+import org.apache.sis.util.internal.shared.Constants;
+
+// Test dependencies
+import org.apache.sis.test.Benchmark;
+import org.apache.sis.referencing.operation.HardCodedConversions;
+
+
+/**
+ * Compares the throughput of {@link EnvelopeTransformer} with {@link Envelopes#transform(MathTransform, Envelope)}.
+ * The envelopes are transformed by a Lambert Conic Conformal projection.
+ *
+ * <h2>Usage</h2>
+ * Run the {@code main} method. The throughput (in thousands of envelopes per second) is printed
+ * for each method. The first runs are for warmup and are not included in the statistics.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+@Benchmark
+public final class EnvelopeTransformerBenchmark {
+    /**
+     * Number of envelopes to transform in each run.
+     */
+    private static final int NUM_ENVELOPES = 200_000;
+
+    /**
+     * Number of runs for each method, including the warmup runs.
+     */
+    private static final int NUM_RUNS = 8;
+
+    /**
+     * Number of runs to ignore at the beginning of each benchmark.
+     */
+    private static final int NUM_WARMUPS = 3;
+
+    /**
+     * Do not allow instantiation of this class.
+     */
+    private EnvelopeTransformerBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark and prints the results to the standard output.
+     *
+     * @param  args  ignored.
+     * @throws TransformException if an error occurred while transforming the envelopes.
+     */
+    @SuppressWarnings("UseOfSystemOutOrSystemErr")
+    public static void main(String[] args) throws TransformException {
+        final MathTransform transform = HardCodedConversions.createCRS(HardCodedConversions.LAMBERT)
+                .getConversionFromBase().getMathTransform();
+        final var random = new Random();
+        final var envelopes = new GeneralEnvelope[NUM_ENVELOPES];
+        for (int i=0; i<envelopes.length; i++) {
+            final double x = random.nextDouble() * 100 - 50;
+            final double y = random.nextDouble() *  60 + 10;
+            final var envelope = new GeneralEnvelope(2);
+            envelope.setRange(0, x, x + random.nextDouble() * 5);
+            envelope.setRange(1, y, y + random.nextDouble() * 5);
+            envelopes[i] = envelope;
+        }
+        final var transformer = new EnvelopeTransformer(transform);
+        final var target      = new GeneralEnvelope(2);
+        final var statics     = new Statistics("Envelopes");
+        final var reusable    = new Statistics("EnvelopeTransformer");
+        for (int i=0; i<NUM_RUNS; i++) {
+            long time = System.nanoTime();
+            for (final GeneralEnvelope envelope : envelopes) {
+                Envelopes.transform(transform, envelope);
+            }
+            long middle = System.nanoTime();
+            for (final GeneralEnvelope envelope : envelopes) {
+                transformer.transform(envelope, target);
+            }
+            final long end = System.nanoTime();
+            if (i >= NUM_WARMUPS) {
+                statics .accept(NUM_ENVELOPES / ((middle - time) / (double) Constants.NANOS_PER_MILLISECOND));
+                reusable.accept(NUM_ENVELOPES / ((end - middle)  / (double) Constants.NANOS_PER_MILLISECOND));
+            }
+        }
+        System.out.println("Method                 Kenvelopes/s   (standard deviation)");
+        for (final Statistics s : new Statistics[] {statics, reusable}) {
+            System.out.printf("%-20s  %12.1f   (%.1f)%n", s.name(), s.mean(), s.standardDeviation(false));
+        }
+    }
+}
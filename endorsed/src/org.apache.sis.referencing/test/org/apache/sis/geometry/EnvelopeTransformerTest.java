@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.geometry;
+
+import java.util.Map;
+import java.util.Random;
+import org.opengis.geometry.Envelope;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.apache.sis.parameter.Parameters;
+import org.apache.sis.referencing.operation.matrix.Matrix3;
+import org.apache.sis.referencing.operation.transform.MathTransforms;
+import org.apache.sis.referencing.operation.transform.WraparoundTransform;
+
+// Test dependencies
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.apache.sis.test.TestCase;
+import org.apache.sis.test.TestUtilities;
+import org.apache.sis.referencing.operation.HardCodedConversions;
+import static org.apache.sis.referencing.Assertions.assertEnvelopeEquals;
+
+
+/**
+ * Tests the {@link EnvelopeTransformer} class.
+ * Results are compared with hard-coded values or with the bounds of points sampled densely on envelope borders.
+ * The {@link Envelopes} static methods are not used as a reference because they delegate to the class tested here.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+public final class EnvelopeTransformerTest extends TestCase {
+    /**
+     * Creates a new test case.
+     */
+    public EnvelopeTransformerTest() {
+    }
+
+    /**
+     * Returns the bounds of points sampled on the border of the given two-dimensional envelope.
+     * This is used as a reference computed without {@link EnvelopeTransformer}.
+     * Extremum values of the transforms used in this test are located on the envelope border.
+     *
+     * @param  transform  the transform to apply on the sampled points.
+     * @param  envelope   the envelope to sample.
+     * @param  n          number of intervals along each border.
+     * @return bounds of all transformed points.
+     */
+    private static GeneralEnvelope sampleBorder(final MathTransform transform, final Envelope envelope, final int n)
+            throws TransformException
+    {
+        final double[] lower = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        final double[] upper = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        final double[] point = new double[2];
+        for (int side=0; side<4; side++) {
+            final int along = side & 1;             // The dimension which varies along the border.
+            final int other = 1 - along;
+            for (int i=0; i<=n; i++) {
+                point[along] = envelope.getMinimum(along) + envelope.getSpan(along) * i / n;
+                point[other] = (side < 2) ? envelope.getMinimum(other) : envelope.getMaximum(other);
+                transform.transform(point, 0, point, 0, 1);
+                for (int j=0; j<2; j++) {
+                    lower[j] = Math.min(lower[j], point[j]);
+                    upper[j] = Math.max(upper[j], point[j]);
+                }
+            }
+        }
+        return new GeneralEnvelope(lower, upper);
+    }
+
+    /**
+     * Transforms many random envelopes with the given transform and compares
+     * with the bounds of points sampled densely on the envelope borders.
+     *
+     * @param  transform  the transform to test.
+     * @param  tolerance  tolerance threshold for comparing envelopes.
+     */
+    private static void compareWithSampling(final MathTransform transform, final double tolerance) throws TransformException {
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        final var transformer = new EnvelopeTransformer(transform);
+        final var envelope = new GeneralEnvelope(2);
+        final var target = new GeneralEnvelope(2);
+        for (int i=0; i<100; i++) {
+            final double x = random.nextDouble() * 100 -  50;
+            final double y = random.nextDouble() *  60 +  10;
+            envelope.setRange(0, x, x + random.nextDouble() * 30);
+            envelope.setRange(1, y, y + random.nextDouble() * 10);
+            final GeneralEnvelope expected = sampleBorder(transform, envelope, 1000);
+            assertSame(target, transformer.transform(envelope, target));
+            assertEnvelopeEquals(expected, target, tolerance, tolerance);
+        }
+    }
+
+    /**
+     * Tests the transformation of many envelopes with a map projection.
+     * The bottom border of envelopes crossing the central meridian has a minimum <var>y</var> value
+     * between the corners, which the transformer shall find. The tolerance of 10 metres accounts
+     * for the distance between sampled points, and is small compared to the envelope sizes.
+     *
+     * @throws TransformException if a coordinate transformation failed.
+     */
+    @Test
+    public void testMapProjection() throws TransformException {
+        compareWithSampling(HardCodedConversions.createCRS(HardCodedConversions.LAMBERT)
+                .getConversionFromBase().getMathTransform(), 10);
+    }
+
+    /**
+     * Tests the transformation of many envelopes with an affine transform.
+     * This test uses the fast path based on matrix coefficients.
+     *
+     * @throws TransformException if a coordinate transformation failed.
+     */
+    @Test
+    public void testAffine() throws TransformException {
+        final MathTransform transform = MathTransforms.linear(new Matrix3(
+                2, -3, 10,
+                1,  4, -7,
+                0,  0,  1));
+        compareWithSampling(transform, 1E-9);
+        /*
+         * Hard-coded expected values, then the same transform with the source envelope used as the target.
+         */
+        final var transformer = new EnvelopeTransformer(transform);
+        final var envelope = new GeneralEnvelope(new double[] {0, 0}, new double[] {10, 5});
+        final var expected = new GeneralEnvelope(new double[] {-5, -7}, new double[] {30, 23});
+        assertEnvelopeEquals(expected, transformer.transform(envelope));
+        assertSame(envelope, transformer.transform(envelope, envelope));
+        assertEnvelopeEquals(expected, envelope);
+    }
+
+    /**
+     * Tests the identity transform.
+     *
+     * @throws TransformException if a coordinate transformation failed.
+     */
+    @Test
+    public void testIdentity() throws TransformException {
+        final var transformer = new EnvelopeTransformer(MathTransforms.identity(2));
+        final var envelope = new GeneralEnvelope(new double[] {4, 5}, new double[] {8, 9});
+        assertEnvelopeEquals(envelope, transformer.transform(envelope));
+    }
+
+    /**
+     * Tests {@link EnvelopeTransformer#transformWithWraparound(Envelope)} on two envelopes.
+     * The second envelope verifies that the wraparound state is reset between envelopes.
+     *
+     * @throws TransformException if a coordinate transformation failed.
+     */
+    @Test
+    public void testWraparound() throws TransformException {
+        final var transformer = new EnvelopeTransformer(WraparoundTransform.create(2, 0, 360, -180, 0));
+        final var envelope = new GeneralEnvelope(new double[] {-200, 5}, new double[] {-100, 9});
+        for (int i=0; i<2; i++) {
+            final Map<Parameters, GeneralEnvelope> results = transformer.transformWithWraparound(envelope);
+            assertEquals(2, results.size());
+            final GeneralEnvelope[] envelopes = results.values().toArray(GeneralEnvelope[]::new);
+            assertEnvelopeEquals(new GeneralEnvelope(new double[] {-200, 5}, new double[] {-100, 9}), envelopes[0]);
+            assertEnvelopeEquals(new GeneralEnvelope(new double[] { 160, 5}, new double[] { 260, 9}), envelopes[1]);
+        }
+        envelope.setRange(0, 10, 20);
+        final Map<Parameters, GeneralEnvelope> results = transformer.transformWithWraparound(envelope);
+        assertEquals(1, results.size());
+        assertEnvelopeEquals(envelope, results.values().iterator().next());
+    }
+}
@@ -634,6 +634,56 @@ public class GeodeticCalculatorTest extends TestCase {
         assertEquals(90, c.getConstantAzimuth());
     }
 
+    /**
+     * Tests {@link GeodeticCalculator#computeGeodesics(double[], double[], double[], double[], double[])}
+     * and its parallel variant. The results are compared with the values computed one pair at a time.
+     */
+    @Test
+    public void testComputeGeodesics() {
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        final int numPairs = 10000;
+        final double[] startPoints = new double[numPairs * 2];
+        final double[] endPoints   = new double[numPairs * 2];
+        for (int i=0; i<startPoints.length; i += 2) {
+            startPoints[i] = random.nextDouble() * 160 - 80;  startPoints[i+1] = random.nextDouble() * 360 - 180;
+            endPoints  [i] = random.nextDouble() * 160 - 80;  endPoints  [i+1] = random.nextDouble() * 180 - 90;
+        }
+        endPoints[2] = Double.NaN;
+        final double[] distances = new double[numPairs];
+        final double[] azimuths1 = new double[numPairs];
+        final double[] azimuths2 = new double[numPairs];
+        final double[] parallel  = new double[numPairs];
+        final GeodeticCalculator c = create(false);
+        c.computeGeodesics(startPoints, endPoints, distances, azimuths1, azimuths2);
+        c.computeGeodesicsInParallel(startPoints, endPoints, parallel, null, null);
+        assertArrayEquals(distances, parallel);
+        assertTrue(Double.isNaN(distances[1]));
+        assertTrue(Double.isNaN(azimuths1[1]));
+        final GeodeticCalculator reference = create(false);
+        for (int i=0; i<numPairs; i += 97) {
+            if (i == 1) continue;
+            reference.setStartGeographicPoint(startPoints[i*2], startPoints[i*2+1]);
+            reference.setEndGeographicPoint  (  endPoints[i*2],   endPoints[i*2+1]);
+            final double expected;
+            try {
+                expected = reference.getGeodesicDistance();
+            } catch (GeodeticException e) {
+                assertTrue(Double.isNaN(distances[i]));
+                continue;
+            }
+            assertEquals(expected, distances[i]);
+            assertEquals(reference.getStartingAzimuth(), azimuths1[i]);
+            assertEquals(reference.getEndingAzimuth(),   azimuths2[i]);
+        }
+        /*
+         * Single start point for all pairs.
+         */
+        c.computeGeodesics(new double[] {startPoints[0], startPoints[1]}, endPoints, distances, null, null);
+        reference.setStartGeographicPoint(startPoints[0], startPoints[1]);
+        reference.setEndGeographicPoint(endPoints[6], endPoints[7]);
+        assertEquals(reference.getGeodesicDistance(), distances[3]);
+    }
+
     /**
      * Tests {@link GeodeticCalculator#createProjectionAroundStart()}.
      * This method tests self-consistency.
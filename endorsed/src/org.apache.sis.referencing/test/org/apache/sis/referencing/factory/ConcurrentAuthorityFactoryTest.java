@@ -16,6 +16,7 @@
  */
 package org.apache.sis.referencing.factory;
 
+import java.util.Set;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Queue;
@@ -23,6 +24,8 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import java.lang.reflect.Field;
 import org.opengis.util.FactoryException;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.datum.Datum;
 import static org.apache.sis.util.internal.shared.Constants.NANOS_PER_MILLISECOND;
 
 // Test dependencies
@@ -170,6 +173,32 @@ public final class ConcurrentAuthorityFactoryTest extends TestCase {
         assumeTrue(r1 & r2, "The execution of ConcurrentAuthorityFactory.disposeExpired() could not complete.");
     }
 
+    /**
+     * Tests {@link ConcurrentAuthorityFactory#prefetch(Class, java.util.Collection)}
+     * followed by {@link ConcurrentAuthorityFactory#getCachedCodes(Class)}.
+     *
+     * @throws FactoryException if an error occurred while creating an object.
+     */
+    @Test
+    public void testPrefetch() throws FactoryException {
+        final Mock factory = new Mock();
+        final Set<String> failures = factory.prefetch(CoordinateReferenceSystem.class,
+                List.of("84", "4326", "4979", "5714", "9999", "6326"));
+        assertEquals(Set.of("9999", "6326"), failures);
+        assertEquals(Set.of("84", "4326", "4979", "5714"), factory.getCachedCodes(CoordinateReferenceSystem.class));
+        assertTrue(factory.getCachedCodes(Datum.class).isEmpty());
+        /*
+         * Objects should be taken from the cache without new Data Access Object.
+         */
+        final List<AuthorityFactoryMock> createdDAOs = factory.createdDAOs();
+        assertNotNull(factory.createCoordinateReferenceSystem("4326"));
+        assertNotNull(factory.createGeographicCRS("4326"));         // Shall be cached under the specific type too.
+        assertNotNull(factory.createVerticalCRS("5714"));
+        assertEquals(createdDAOs, factory.createdDAOs());
+        assertTrue(factory.prefetch(Datum.class, List.of()).isEmpty());
+        factory.releasePrefetched();
+    }
+
     /**
      * Sleeps and ensures that the sleep time did not exceeded the timeout. The sleep time could be greater if the test
      * machine is under heavy load (for example a Jenkins server), in which case we will cancel the test without failure.
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.factory;
+
+import java.util.Set;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.opengis.util.FactoryException;
+import org.opengis.referencing.IdentifiedObject;
+import org.opengis.referencing.NoSuchAuthorityCodeException;
+import org.opengis.referencing.crs.GeographicCRS;
+import org.opengis.referencing.crs.VerticalCRS;
+import org.opengis.referencing.datum.GeodeticDatum;
+
+// Test dependencies
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.apache.sis.test.TestCase;
+import static org.apache.sis.test.Assertions.assertSetEquals;
+import org.apache.sis.referencing.crs.HardCodedCRS;
+import org.apache.sis.referencing.datum.HardCodedDatum;
+
+
+/**
+ * Tests {@link SnapshotAuthorityFactory}.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+@SuppressWarnings("exports")
+public final class SnapshotAuthorityFactoryTest extends TestCase {
+    /**
+     * Creates a new test case.
+     */
+    public SnapshotAuthorityFactoryTest() {
+    }
+
+    /**
+     * Writes a snapshot of the objects provided by {@link AuthorityFactoryMock}, then reads them back.
+     *
+     * @throws IOException if an error occurred while writing the snapshot.
+     * @throws FactoryException if an error occurred while creating an object.
+     */
+    @Test
+    public void testWriteAndRead() throws IOException, FactoryException {
+        final var source = new AuthorityFactoryMock("EPSG", null);
+        final var codes  = new LinkedHashSet<String>(source.getAuthorityCodes(IdentifiedObject.class));
+        codes.add("9999");
+        final Path file = Files.createTempFile("SIS", ".snapshot");
+        try {
+            assertSetEquals(Set.of("9999"), SnapshotAuthorityFactory.write(source, codes, file));
+            final var factory = new SnapshotAuthorityFactory(file);
+            assertSetEquals(Set.of("EPSG"), factory.getCodeSpaces());
+            assertEquals(HardCodedCRS.WGS84_LATITUDE_FIRST, factory.createGeographicCRS("EPSG:4326"));
+            assertEquals(HardCodedCRS.WGS84, factory.createGeographicCRS("84"));
+            assertEquals(HardCodedCRS.DEPTH, factory.createVerticalCRS("9905"));
+            assertEquals(HardCodedDatum.WGS84, factory.createGeodeticDatum("6326"));
+            /*
+             * Search by name, case-insensitive and ignoring punctuation.
+             */
+            assertEquals(HardCodedDatum.WGS84, factory.createObject(HardCodedDatum.WGS84.getName().getCode().toUpperCase()));
+            assertEquals(HardCodedDatum.TOKYO.getName().getCode(),
+                         factory.getDescriptionText(GeodeticDatum.class, "6301").orElseThrow().toString());
+            /*
+             * Listing of codes by type.
+             */
+            assertSetEquals(Set.of("84", "4326"), factory.getAuthorityCodes(GeographicCRS.class));
+            assertSetEquals(Set.of("5714", "9905"), factory.getAuthorityCodes(VerticalCRS.class));
+            assertTrue(factory.createFromCoordinateReferenceSystemCodes("4326", "84").isEmpty());
+            var e = assertThrows(NoSuchAuthorityCodeException.class, () -> factory.createObject("9999"));
+            assertEquals("9999", e.getAuthorityCode());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests the use of a fallback for the objects which are not in the snapshot.
+     *
+     * @throws IOException if an error occurred while writing the snapshot.
+     * @throws FactoryException if an error occurred while creating an object.
+     */
+    @Test
+    public void testFallback() throws IOException, FactoryException {
+        final var source = new AuthorityFactoryMock("EPSG", null);
+        final Path file = Files.createTempFile("SIS", ".snapshot");
+        try {
+            assertTrue(SnapshotAuthorityFactory.write(source, List.of("4326"), file).isEmpty());
+            final var factory = new SnapshotAuthorityFactory(file, source);
+            assertEquals(HardCodedCRS.WGS84_LATITUDE_FIRST, factory.createGeographicCRS("4326"));
+            assertEquals(HardCodedCRS.WGS84, factory.createGeographicCRS("84"));
+            assertEquals(HardCodedCRS.DEPTH, factory.createVerticalCRS("9905"));
+            assertEquals(HardCodedDatum.TOKYO.getName().getCode(),
+                         factory.getDescriptionText(GeodeticDatum.class, "6301").orElseThrow().toString());
+            assertSetEquals(Set.of("4326"), factory.getAuthorityCodes(GeographicCRS.class));
+            var e = assertThrows(NoSuchAuthorityCodeException.class, () -> factory.createObject("9999"));
+            assertEquals("9999", e.getAuthorityCode());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that a snapshot created by another Apache SIS version, or in another format version, is rejected.
+     *
+     * @throws IOException if an error occurred while writing the snapshot.
+     * @throws FactoryException if an error occurred while creating an object.
+     */
+    @Test
+    public void testVersionMismatch() throws IOException, FactoryException {
+        final var source = new AuthorityFactoryMock("EPSG", null);
+        final Path file = Files.createTempFile("SIS", ".snapshot");
+        try {
+            SnapshotAuthorityFactory.write(source, List.of("4326"), file);
+            final byte[] original = Files.readAllBytes(file);
+            /*
+             * The SIS version is written after the magic number, the format version
+             * and the string length. Replace its first character by another one.
+             */
+            byte[] content = original.clone();
+            content[2*Integer.BYTES + Short.BYTES] = 'X';
+            Files.write(file, content);
+            assertThrows(FactoryDataException.class, () -> new SnapshotAuthorityFactory(file));
+            /*
+             * Unsupported format version (last byte of the big-endian integer after the magic number).
+             */
+            content = original.clone();
+            content[2*Integer.BYTES - 1] = Byte.MAX_VALUE;
+            Files.write(file, content);
+            assertThrows(FactoryDataException.class, () -> new SnapshotAuthorityFactory(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that deserialization rejects the classes which are not in the allow-list.
+     *
+     * @throws IOException if an error occurred while serializing or deserializing an object.
+     */
+    @Test
+    public void testDeserializationFilter() throws IOException {
+        assertEquals(HardCodedDatum.WGS84, SnapshotAuthorityFactory.deserialize(serialize(HardCodedDatum.WGS84)));
+        final byte[] bytes = serialize(new AtomicInteger(3));
+        assertThrows(InvalidClassException.class, () -> SnapshotAuthorityFactory.deserialize(bytes));
+    }
+
+    /**
+     * Returns the serialized form of the given object.
+     */
+    private static byte[] serialize(final Object object) throws IOException {
+        final var buffer = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(buffer)) {
+            out.writeObject(object);
+        }
+        return buffer.toByteArray();
+    }
+}
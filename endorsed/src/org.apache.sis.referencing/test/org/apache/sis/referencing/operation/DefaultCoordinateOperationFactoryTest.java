@@ -16,6 +16,7 @@
  */
 package org.apache.sis.referencing.operation;
 
+import java.util.Map;
 import java.util.List;
 import java.text.ParseException;
 import org.opengis.util.FactoryException;
@@ -27,6 +28,7 @@ import org.opengis.referencing.operation.CoordinateOperationAuthorityFactory;
 import org.opengis.referencing.operation.SingleOperation;
 import org.opengis.referencing.operation.TransformException;
 import org.apache.sis.referencing.CRS;
+import org.apache.sis.metadata.iso.extent.DefaultGeographicBoundingBox;
 import org.apache.sis.referencing.internal.PositionalAccuracyConstant;
 import org.apache.sis.referencing.internal.shared.Formulas;
 import org.apache.sis.util.internal.shared.Constants;
@@ -38,6 +40,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.apache.sis.referencing.crs.HardCodedCRS;
@@ -343,4 +346,77 @@ public final class DefaultCoordinateOperationFactoryTest extends MathTransformTe
                         CoordinateOperationFinderTest.expectedAGD66(false));
         validate();
     }
+
+    /**
+     * Tests the cache of operations created with an area of interest.
+     * Two requests with slightly different areas of interest should share the same operation
+     * when the {@link DefaultCoordinateOperationFactory#AREA_RESOLUTION_KEY} property is specified.
+     *
+     * @throws ParseException if a CRS used in this test cannot be parsed.
+     * @throws FactoryException if the operation cannot be created.
+     */
+    @Test
+    public void testCacheWithAreaOfInterest() throws ParseException, FactoryException {
+        final CoordinateReferenceSystem sourceCRS = HardCodedCRS.WGS84_LATITUDE_FIRST;
+        final CoordinateReferenceSystem targetCRS = parse(CoordinateOperationFinderTest.AGD66());
+        final var c1 = CoordinateOperationContext.fromBoundingBox(new DefaultGeographicBoundingBox(140.2, 141.7, -35.3, -34.1));
+        final var c2 = CoordinateOperationContext.fromBoundingBox(new DefaultGeographicBoundingBox(140.4, 141.2, -35.1, -34.6));
+        final var c3 = CoordinateOperationContext.fromBoundingBox(new DefaultGeographicBoundingBox(110.4, 111.2, -20.1, -19.6));
+        final var key = new CRSPair(sourceCRS, targetCRS);
+        assertEquals   (OperationKey.create(key, c1, 1), OperationKey.create(key, c2, 1));
+        assertNotEquals(OperationKey.create(key, c1, 1), OperationKey.create(key, c3, 1));
+        assertNull     (OperationKey.create(key, c1, 0));
+        assertNull     (OperationKey.create(key, new CoordinateOperationContext(), 1));
+
+        final var instance = new DefaultCoordinateOperationFactory(Map.of(
+                DefaultCoordinateOperationFactory.CACHE_SIZE_KEY, 100,
+                DefaultCoordinateOperationFactory.AREA_RESOLUTION_KEY, 1.0), null);
+        final CoordinateOperation op = instance.createOperation(sourceCRS, targetCRS, c1);
+        assertSame(op, instance.createOperation(sourceCRS, targetCRS, c2));
+        final Map<String,Long> statistics = instance.getCacheStatistics();
+        assertEquals(1, statistics.get("hits"));
+        assertEquals(1, statistics.get("misses"));
+        /*
+         * With a resolution of zero, operations that depend on the context are not cached.
+         */
+        final var disabled = new DefaultCoordinateOperationFactory(Map.of(
+                DefaultCoordinateOperationFactory.CACHE_SIZE_KEY, 100,
+                DefaultCoordinateOperationFactory.AREA_RESOLUTION_KEY, 0.0), null);
+        disabled.createOperation(sourceCRS, targetCRS, c1);
+        assertEquals(0, disabled.getCacheStatistics().get("hits"));
+    }
+
+    /**
+     * Tests the parsing of the {@value DefaultCoordinateOperationFactory#AREA_RESOLUTION_PROPERTY} system property.
+     * Invalid values shall be ignored (with a log record) instead of preventing the creation of the default factory.
+     */
+    @Test
+    public void testParseAreaResolution() {
+        assertEquals(0,   DefaultCoordinateOperationFactory.parseAreaResolution(null));
+        assertEquals(0,   DefaultCoordinateOperationFactory.parseAreaResolution(" "));
+        assertEquals(0.5, DefaultCoordinateOperationFactory.parseAreaResolution("0.5"));
+        assertEquals(0,   DefaultCoordinateOperationFactory.parseAreaResolution("abc"));
+        assertEquals(0,   DefaultCoordinateOperationFactory.parseAreaResolution("400"));
+    }
+
+    /**
+     * Tests the cache of operations created with an area of interest through {@link CRS#findOperation
+     * CRS.findOperation(…)}, which uses the default factory. This test requires the default factory
+     * to be configured by the {@value DefaultCoordinateOperationFactory#AREA_RESOLUTION_PROPERTY}
+     * system property, which is set by the build script when running the tests.
+     *
+     * @throws ParseException if a CRS used in this test cannot be parsed.
+     * @throws FactoryException if the operation cannot be created.
+     */
+    @Test
+    public void testFindOperationWithAreaOfInterest() throws ParseException, FactoryException {
+        assumeTrue(DefaultCoordinateOperationFactory.provider().areaResolution >= 1,
+                "Requires the " + DefaultCoordinateOperationFactory.AREA_RESOLUTION_PROPERTY + " system property.");
+        final CoordinateReferenceSystem sourceCRS = HardCodedCRS.WGS84_LATITUDE_FIRST;
+        final CoordinateReferenceSystem targetCRS = parse(CoordinateOperationFinderTest.AGD66());
+        final CoordinateOperation op = CRS.findOperation(sourceCRS, targetCRS,
+                new DefaultGeographicBoundingBox(140.2, 141.7, -35.3, -34.1));
+        assertSame(op, CRS.findOperation(sourceCRS, targetCRS,
+                new DefaultGeographicBoundingBox(140.4, 141.2, -35.1, -34.6)));
+    }
 }
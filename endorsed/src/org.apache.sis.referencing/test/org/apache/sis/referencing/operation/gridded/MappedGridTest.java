@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.operation.gridded;
+
+import java.net.URI;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import org.opengis.geometry.Envelope;
+import org.opengis.parameter.ParameterValueGroup;
+import org.opengis.referencing.operation.MathTransform;
+import org.apache.sis.referencing.operation.provider.NTv2;
+import org.apache.sis.referencing.operation.transform.MathTransforms;
+import org.apache.sis.referencing.operation.transform.InterpolatedTransform;
+import org.apache.sis.referencing.operation.transform.DefaultMathTransformFactory;
+import static org.apache.sis.referencing.operation.gridded.GridLoader.DEGREES_TO_SECONDS;
+
+// Test dependencies
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.apache.sis.test.TestCase;
+import org.apache.sis.referencing.operation.provider.NTv2Test;
+import org.apache.sis.referencing.operation.provider.DatumShiftTestCase;
+
+
+/**
+ * Tests {@link MappedGrid} as created by the <abbr>NTv2</abbr> provider.
+ * The test file is too small for being memory-mapped with the default threshold,
+ * so this test lowers {@link MappedGrid#MAPPING_THRESHOLD} temporarily.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+public final class MappedGridTest extends TestCase {
+    /**
+     * Creates a new test case.
+     */
+    public MappedGridTest() {
+    }
+
+    /**
+     * Loads the <abbr>NTv2</abbr> test file through the provider with memory-mapping enabled,
+     * then compares the values with the grid loaded in memory. This test exercises the code
+     * path where the grid loader skips the data instead of reading them.
+     *
+     * <p>The test file is copied in a temporary file for avoiding to get the grid loaded in memory
+     * from the cache, since the cache key is the file. The temporary file is deleted only on exit
+     * because some platforms do not allow the deletion of a file which is still memory-mapped.</p>
+     *
+     * @throws Exception if an error occurred while loading or mapping the grid, or while transforming a point.
+     */
+    @Test
+    public void testLoadThroughProvider() throws Exception {
+        final Path copy = Files.createTempFile("NTv2", ".gsb");
+        copy.toFile().deleteOnExit();
+        try (InputStream in = DatumShiftTestCase.getResourceAsConvertibleURL(NTv2Test.TEST_FILE).openStream()) {
+            Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+        }
+        final MathTransform mapped;
+        final long threshold = MappedGrid.MAPPING_THRESHOLD;
+        try {
+            MappedGrid.MAPPING_THRESHOLD = 0;
+            mapped = create(copy.toUri());
+        } finally {
+            MappedGrid.MAPPING_THRESHOLD = threshold;
+        }
+        final MathTransform loaded = create(DatumShiftTestCase.getResourceAsConvertibleURL(NTv2Test.TEST_FILE).toURI());
+        final LoadedGrid<?,?> expected = getShiftGrid(loaded);
+        final LoadedGrid<?,?> actual   = getShiftGrid(mapped);
+        assertInstanceOf(LoadedGrid.Float.class, expected);
+        assertInstanceOf(MappedGrid.class, actual);
+        assertEquals(expected.getDomainOfValidity(), actual.getDomainOfValidity());
+        assertEquals(2, actual.getTranslationDimensions());
+        /*
+         * Compare all cell values. If the loader did not skip exactly the grid data,
+         * or if the position of the data in the file was wrong, the values would differ.
+         */
+        final int[] size = expected.getGridSize();
+        assertArrayEquals(size, actual.getGridSize());
+        for (int dim=0; dim<2; dim++) {
+            for (int y=0; y<size[1]; y++) {
+                for (int x=0; x<size[0]; x++) {
+                    assertEquals(expected.getCellValue(dim, x, y), actual.getCellValue(dim, x, y), 1E-7);
+                }
+            }
+        }
+        /*
+         * Transform the point in the center of the domain of validity.
+         * The grid envelope is in arc-seconds while the transforms work on degrees.
+         */
+        final Envelope domain = expected.getDomainOfValidity();
+        final double[] point = {
+            domain.getMedian(0) / DEGREES_TO_SECONDS,
+            domain.getMedian(1) / DEGREES_TO_SECONDS
+        };
+        final double[] reference = new double[2];
+        final double[] result    = new double[2];
+        loaded.transform(point, 0, reference, 0, 1);
+        mapped.transform(point, 0, result,    0, 1);
+        assertArrayEquals(reference, result, 1E-9);
+    }
+
+    /**
+     * Creates a <abbr>NTv2</abbr> transform using the grid in the given file.
+     */
+    private static MathTransform create(final URI file) throws Exception {
+        final NTv2 provider = new NTv2();
+        final ParameterValueGroup values = provider.getParameters().createValue();
+        values.parameter("Latitude and longitude difference file").setValue(file);
+        return provider.createMathTransform(DefaultMathTransformFactory.provider(), values);
+    }
+
+    /**
+     * Returns the datum shift grid used by the given transform.
+     */
+    private static LoadedGrid<?,?> getShiftGrid(final MathTransform transform) {
+        for (final MathTransform step : MathTransforms.getSteps(transform)) {
+            if (step instanceof InterpolatedTransform) {
+                return assertInstanceOf(LoadedGrid.class, ((InterpolatedTransform) step).getShiftGrid());
+            }
+        }
+        return fail("No interpolated transform in " + transform);
+    }
+}
@@ -21,6 +21,7 @@ import static java.lang.Double.NaN;
 import org.opengis.util.FactoryException;
 import org.opengis.referencing.operation.TransformException;
 import org.apache.sis.referencing.internal.shared.Formulas;
+import org.apache.sis.referencing.operation.transform.CoordinateDomain;
 
 // Test dependencies
 import org.junit.jupiter.api.Test;
@@ -148,6 +149,29 @@ public final class AlbersEqualAreaTest extends MapProjectionTestCase {
                        TestUtilities.createRandomNumberGenerator());
     }
 
+    /**
+     * Verifies that projecting many points in a single call gives the same results as projecting
+     * each point individually. This is a check of the loop optimized for the ellipsoidal case.
+     *
+     * @throws FactoryException if an error occurred while creating the map projection.
+     * @throws TransformException if an error occurred while projecting a point.
+     */
+    @Test
+    public void testBatchConsistency() throws FactoryException, TransformException {
+        createCompleteProjection(new org.apache.sis.referencing.operation.provider.AlbersEqualArea(),
+                CLARKE_A,   // Semi-major axis from Snyder table 15
+                CLARKE_B,   // Semi-minor axis
+                0,          // Central meridian
+                0,          // Latitude of origin
+                29.5,       // Standard parallel 1 (from Snyder table 15)
+                45.5,       // Standard parallel 2 (from Snyder table 15)
+                NaN,        // Scale factor (none)
+                0,          // False easting
+                0);         // False northing
+        verifyBatchConsistency(CoordinateDomain.GEOGRAPHIC_RADIANS_NORTH.generateRandomInput(
+                TestUtilities.createRandomNumberGenerator(), 2, 500));
+    }
+
     /**
      * Uses test point from PROJ library as a reference.
      *
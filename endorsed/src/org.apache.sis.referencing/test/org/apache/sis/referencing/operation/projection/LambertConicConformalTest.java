@@ -179,6 +179,19 @@ public final class LambertConicConformalTest extends MapProjectionTestCase {
         verifyDerivative(toRadians(10), toRadians(60));
     }
 
+    /**
+     * Verifies that projecting many points in a single call gives the same results as projecting
+     * each point individually. This is a check of the loop optimized for the ellipsoidal case.
+     *
+     * @throws TransformException if an error occurred while projecting a point.
+     */
+    @Test
+    public void testBatchConsistency() throws TransformException {
+        createNormalizedProjection(true, 40);
+        verifyBatchConsistency(CoordinateDomain.GEOGRAPHIC_RADIANS_NORTH.generateRandomInput(
+                TestUtilities.createRandomNumberGenerator(), 2, 500));
+    }
+
     /**
      * Tests the <q>Lambert Conic Conformal (1SP)</q> case (EPSG:9801).
      * This test is defined in GeoAPI conformance test suite.
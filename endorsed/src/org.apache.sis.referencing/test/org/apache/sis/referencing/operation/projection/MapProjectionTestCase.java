@@ -174,6 +174,46 @@ abstract class MapProjectionTestCase extends MathTransformTestCase {
         return kernel;
     }
 
+    /**
+     * Verifies that the methods transforming many points in a single call produce the same results
+     * as the methods transforming a single point, in both forward and inverse directions.
+     * This test is for projections overriding the {@code transform(…, int numPts)} methods.
+     * The arrays are tested both as separated arrays and as overlapping regions of the same array.
+     *
+     * @param  sources  the (λ,φ) coordinates to project, in radians.
+     * @throws TransformException if a point cannot be converted.
+     */
+    final void verifyBatchConsistency(final double[] sources) throws TransformException {
+        final NormalizedProjection kernel = getKernel();
+        final int numPts = sources.length / 2;
+        final double[] expected = new double[sources.length];
+        final double[] inverse  = new double[sources.length];
+        for (int i=0; i < sources.length; i += 2) {
+            kernel.transform(sources, i, expected, i, false);
+            kernel.inverseTransform(expected, i, inverse, i);
+        }
+        final double[] actual = new double[sources.length];
+        kernel.transform(sources, 0, actual, 0, numPts);
+        assertArrayEquals(expected, actual, "Forward projection in a separated array.");
+        kernel.inverse().transform(expected, 0, actual, 0, numPts);
+        assertArrayEquals(inverse, actual, "Inverse projection in a separated array.");
+        /*
+         * Overlapping regions of the same array, with source before and after the destination.
+         */
+        for (int shift = -1; shift <= 1; shift += 2) {
+            final double[] buffer = new double[sources.length + 1];
+            final int srcOff = (shift < 0) ? 1 : 0;
+            final int dstOff = srcOff + shift;
+            System.arraycopy(sources, 0, buffer, srcOff, sources.length);
+            kernel.transform(buffer, srcOff, buffer, dstOff, numPts);
+            System.arraycopy(buffer, dstOff, actual, 0, actual.length);
+            assertArrayEquals(expected, actual, "Forward projection in the same array.");
+            kernel.inverse().transform(buffer, dstOff, buffer, srcOff, numPts);
+            System.arraycopy(buffer, srcOff, actual, 0, actual.length);
+            assertArrayEquals(inverse, actual, "Inverse projection in the same array.");
+        }
+    }
+
     /**
      * Projects the given latitude value. The longitude is fixed to zero.
      * This method is useful for testing the behavior close to poles in a simple case.
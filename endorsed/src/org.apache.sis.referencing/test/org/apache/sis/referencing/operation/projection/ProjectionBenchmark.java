@@ -29,6 +29,7 @@ import org.apache.sis.measure.Latitude;
 import org.apache.sis.parameter.Parameters;
 import org.apache.sis.util.internal.shared.Constants;
 import org.apache.sis.referencing.operation.provider.AbstractProvider;
+import org.apache.sis.referencing.operation.transform.AbstractMathTransform;
 import org.apache.sis.referencing.operation.transform.LinearTransform;
 import org.apache.sis.referencing.operation.transform.MathTransforms;
 
@@ -41,10 +42,13 @@ import org.apache.sis.test.Benchmark;
  * Measures the performance of a given map projection implementation.
  * This class can be used for comparing different implementation alternatives,
  * for example with {@code ALLOW_TRIGONOMETRIC_IDENTITIES} flag on or off.
+ * The non-linear kernel is measured both with the method projecting all points in a single call
+ * and with the method projecting one point at a time, for verifying the benefit of batch loops.
  *
  * <h2>Usage</h2>
- * Modify the provider created in the {@code main} method if needed, and run. Change map projection implementation
- * (for example by changing a {@code ALLOW_TRIGONOMETRIC_IDENTITIES} flag value) and run again.
+ * Specify the projection to benchmark as the first argument ({@code "TM"}, {@code "LCC"} or {@code "Albers"}),
+ * or modify the providers created in the {@code main} method if needed, and run. Change map projection
+ * implementation (for example by changing a {@code ALLOW_TRIGONOMETRIC_IDENTITIES} flag value) and run again.
  *
  * @author  Martin Desruisseaux (Geomatys)
  */
@@ -54,15 +58,42 @@ public final class ProjectionBenchmark {
      * Runs the benchmark and prints the time result to the standard output.
      * Edit this method for measuring the performance of a different map projection implementation.
      *
-     * @param  args ignored.
+     * @param  args  the projection to benchmark: {@code "TM"}, {@code "LCC"} (the default) or {@code "Albers"}.
      * @throws Exception if an error occurred while creating the map projection, projecting a point, <i>etc.</i>
      */
     public static void main(String[] args) throws Exception {
-        final var benchmark = new ProjectionBenchmark(    // Put on next line the provider of the projection to benchmark.
-                new org.apache.sis.referencing.operation.provider.LambertConformal2SP(),
-                8,      // Central meridian
-                25,     // Standard parallel 1
-                40);    // Standard parallel 2
+        final ProjectionBenchmark benchmark;
+        final String name = (args.length != 0) ? args[0] : "LCC";
+        switch (name) {
+            case "TM": {
+                benchmark = new ProjectionBenchmark(
+                        new org.apache.sis.referencing.operation.provider.TransverseMercator(),
+                        9,      // Central meridian
+                        0,      // Used only for the domain of points to project.
+                        48,     // Idem (points up to 60°N).
+                        false); // Do not set above values as standard parallels.
+                break;
+            }
+            case "LCC": {
+                benchmark = new ProjectionBenchmark(
+                        new org.apache.sis.referencing.operation.provider.LambertConformal2SP(),
+                        8,      // Central meridian
+                        25,     // Standard parallel 1
+                        40,     // Standard parallel 2
+                        true);
+                break;
+            }
+            case "Albers": {
+                benchmark = new ProjectionBenchmark(
+                        new org.apache.sis.referencing.operation.provider.AlbersEqualArea(),
+                        -96,    // Central meridian
+                        29.5,   // Standard parallel 1
+                        45.5,   // Standard parallel 2
+                        true);
+                break;
+            }
+            default: throw new IllegalArgumentException("Unknown projection: " + name);
+        }
 
         for (int i=0; i<10; i++) {
             benchmark.run(true);
@@ -118,15 +149,18 @@ public final class ProjectionBenchmark {
     private ProjectionBenchmark(final AbstractProvider provider,
                       final double centralMeridian,
                       final double standardParallel1,
-                      final double standardParallel2) throws FactoryException, NoninvertibleTransformException
+                      final double standardParallel2,
+                      final boolean setStandardParallels) throws FactoryException, NoninvertibleTransformException
     {
         random = new Random();
         final Parameters values = Parameters.castOrWrap(provider.getParameters().createValue());
         values.parameter(Constants.SEMI_MAJOR)         .setValue(MapProjectionTestCase.WGS84_A);
         values.parameter(Constants.SEMI_MINOR)         .setValue(MapProjectionTestCase.WGS84_B);
         values.parameter(Constants.CENTRAL_MERIDIAN)   .setValue(centralMeridian);
-        values.parameter(Constants.STANDARD_PARALLEL_1).setValue(standardParallel1);
-        values.parameter(Constants.STANDARD_PARALLEL_2).setValue(standardParallel2);
+        if (setStandardParallels) {
+            values.parameter(Constants.STANDARD_PARALLEL_1).setValue(standardParallel1);
+            values.parameter(Constants.STANDARD_PARALLEL_2).setValue(standardParallel2);
+        }
         forward = new Transforms("Forward", provider.createMathTransform(new MathTransformFactoryMock(provider), values));
         inverse = new Transforms("Inverse", forward.projection.inverse());
         coordinates = new double[NUM_POINTS * DIMENSION];
@@ -172,6 +206,12 @@ public final class ProjectionBenchmark {
          */
         private final Statistics performance;
 
+        /**
+         * Statistics about the time needed for performing the map projection one point at a time.
+         * This is measured only on the non-linear kernel.
+         */
+        private final Statistics pointByPoint;
+
         /**
          * Creates a decomposition of the given map projection.
          *
@@ -180,7 +220,8 @@ public final class ProjectionBenchmark {
          */
         private Transforms(final String label, final MathTransform projection) {
             this.projection = projection;
-            performance = new Statistics(label);
+            performance  = new Statistics(label);
+            pointByPoint = new Statistics(label + " (point by point)");
             final List<MathTransform> steps = MathTransforms.getSteps(projection);
             int kernelIndex = -1;
             for (int i=steps.size(); --i >= 0;) {
@@ -238,6 +279,25 @@ public final class ProjectionBenchmark {
             System.out.printf("%s time: %1.4f%n", performance.name(), seconds);
             performance.accept(seconds);
         }
+
+        /**
+         * Runs the benchmark only on the non-linear part of the map projection, one point at a time.
+         * This is for comparison with {@link #runKernel(double[], double[])}.
+         */
+        @SuppressWarnings("UseOfSystemOutOrSystemErr")
+        final void runKernelPointByPoint(final double[] sources, final double[] targets) throws TransformException {
+            final var single = (AbstractMathTransform) kernel;
+            normalize.transform(sources, 0, targets, 0, NUM_POINTS);
+            long time = System.nanoTime();
+            for (int i=0; i < NUM_POINTS * DIMENSION; i += DIMENSION) {
+                single.transform(targets, i, targets, i, false);
+            }
+            time = System.nanoTime() - time;
+            denormalize.transform(targets, 0, targets, 0, NUM_POINTS);
+            final double seconds = time / (double) Constants.NANOS_PER_SECOND;
+            System.out.printf("%s time: %1.4f%n", pointByPoint.name(), seconds);
+            pointByPoint.accept(seconds);
+        }
     }
 
     /**
@@ -248,6 +308,8 @@ public final class ProjectionBenchmark {
      */
     private void run(final boolean kernelOnly) throws TransformException {
         if (kernelOnly) {
+            forward.runKernelPointByPoint(coordinates, result);
+            inverse.runKernelPointByPoint(result, result);
             forward.runKernel(coordinates, result);
             inverse.runKernel(result, result);
         } else {
@@ -273,7 +335,9 @@ public final class ProjectionBenchmark {
     @SuppressWarnings("UseOfSystemOutOrSystemErr")
     private void printStatistics() throws IOException {
         System.out.println();
-        StatisticsFormat.getInstance().format(new Statistics[] {forward.performance, inverse.performance}, System.out);
+        StatisticsFormat.getInstance().format(new Statistics[] {
+                forward.performance, forward.pointByPoint,
+                inverse.performance, inverse.pointByPoint}, System.out);
         System.out.printf("%nAverage error is %1.2E cm (standard deviation %1.1E).%n", errors.mean(), errors.standardDeviation(false));
         System.out.flush();
     }
@@ -33,6 +33,7 @@ import static org.apache.sis.referencing.operation.provider.TransverseMercator.L
 
 // Test dependencies
 import org.junit.jupiter.api.Test;
+import org.apache.sis.test.TestUtilities;
 import org.apache.sis.test.OptionalTestData;
 import static org.apache.sis.test.Assertions.assertSerializedEquals;
 
@@ -186,6 +187,23 @@ public final class TransverseMercatorTest extends MapProjectionTestCase {
         verifyDerivative(toRadians(+6), toRadians(60));
     }
 
+    /**
+     * Verifies that projecting many points in a single call gives the same results as projecting
+     * each point individually. This is a check of the loop optimized for the ellipsoidal case.
+     *
+     * @throws TransformException if an error occurred while projecting a point.
+     */
+    @Test
+    public void testBatchConsistency() throws TransformException {
+        createNormalizedProjection(true, 0);
+        final double[] sources = CoordinateDomain.GEOGRAPHIC_RADIANS_HALF_λ.generateRandomInput(
+                TestUtilities.createRandomNumberGenerator(), 2, 500);
+        for (int i=0; i < sources.length; i += 2) {
+            sources[i] *= 0.5;      // Stay far enough from the ±90° singularity.
+        }
+        verifyBatchConsistency(sources);
+    }
+
     /**
      * Verifies that deserialized projections work as expected. This implies that deserialization
      * recomputed the internal transient fields, especially the series expansion coefficients.
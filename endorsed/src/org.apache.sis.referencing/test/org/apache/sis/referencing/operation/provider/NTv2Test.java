@@ -33,6 +33,7 @@ import org.apache.sis.referencing.operation.matrix.Matrix3;
 import org.apache.sis.referencing.operation.gridded.GridFile;
 import org.apache.sis.referencing.operation.gridded.GridGroup;
 import org.apache.sis.referencing.operation.gridded.LoadedGrid;
+import org.apache.sis.referencing.operation.gridded.MappedGrid;
 import static org.apache.sis.referencing.operation.gridded.GridLoader.DEGREES_TO_SECONDS;
 import org.apache.sis.geometry.Envelope2D;
 import org.apache.sis.geometry.Envelopes;
@@ -174,6 +175,46 @@ public final class NTv2Test extends DatumShiftTestCase {
         assertSame(grid, NTv2.getOrLoad(NTv2.class, file, 2), "Grid should be cached.");
     }
 
+    /**
+     * Tests reading the test file with a memory-mapped grid. The values should be the same
+     * as the values loaded in memory, ignoring rounding errors. The test file is too small
+     * for being memory-mapped by the loader, so this test creates the mapped grid directly.
+     *
+     * @throws Exception if an error occurred while loading or mapping the grid.
+     *
+     * @see org.apache.sis.referencing.operation.gridded.MappedGridTest
+     */
+    @Test
+    public void testMappedGrid() throws Exception {
+        final GridFile file = getResource(TEST_FILE);
+        final Path path = Path.of(file.resolved());
+        final LoadedGrid<Angle,Angle> loaded = NTv2.getOrLoad(NTv2.class, file, 2);
+        final int[] size = loaded.getGridSize();
+        final Matrix3 gridToCRS = Matrix3.castOrCopy(loaded.getCoordinateToGrid().inverse().getMatrix());
+        final ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (Integer.compareUnsigned(header.getInt(8), Integer.reverseBytes(header.getInt(8))) > 0) {
+            header.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        /*
+         * The data begin after the overview header and the sub-grid header. The number of records
+         * in each header is given by the NUM_OREC and NUM_SREC records. Each record is 16 bytes.
+         */
+        final int position = (header.getInt(8) + header.getInt(16 + 8)) * 16;
+        final double Δx = gridToCRS.m00, Δy = gridToCRS.m11;
+        final var mapped = new MappedGrid<Angle,Angle>(Units.ARC_SECOND, Units.ARC_SECOND, true,
+                gridToCRS.m02, gridToCRS.m12, Δx, Δy, size[0], size[1], loaded.getParameterDescriptors(),
+                file, path, position, 16, new int[] {Float.BYTES, 0}, new double[] {-Δx, Δy}, header.order());
+        assertEquals(loaded.getDomainOfValidity(), mapped.getDomainOfValidity());
+        assertEquals(2, mapped.getTranslationDimensions());
+        for (int dim=0; dim<2; dim++) {
+            for (int y=0; y<size[1]; y++) {
+                for (int x=0; x<size[0]; x++) {
+                    assertEquals(loaded.getCellValue(dim, x, y), mapped.getCellValue(dim, x, y), 1E-7);
+                }
+            }
+        }
+    }
+
     /**
      * Tests using a file containing many grids. This tests depends on the {@value #MULTIGRID_TEST_FILE}
      * to be present in the {@code $SIS_DATA/DatumChanges} directory.
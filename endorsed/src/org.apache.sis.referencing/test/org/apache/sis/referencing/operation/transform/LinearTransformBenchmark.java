@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.referencing.operation.transform;
+
+import java.util.Random;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.apache.sis.math.Statistics;
+import org.apache.sis.referencing.operation.matrix.Matrices;
+import org.apache.sis.referencing.operation.matrix.Matrix4;
+import org.apache.sis.util.internal.shared.Constants;
+
+// Test dependencies
+import org.apache.sis.test.Benchmark;
+
+
+/**
+ * Measures the throughput of {@link ProjectiveTransform} applied on large arrays of coordinates.
+ * The transforms are created by {@link MathTransforms} in the same way as in production code.
+ * The affine cases, including a transform dropping a dimension, skip the computation of the
+ * last matrix row and the divisions. The non-affine case uses the general algorithm and is
+ * shown for comparison.
+ *
+ * <h2>Usage</h2>
+ * Run the {@code main} method. The throughput (in millions of points per second) is printed
+ * for each transform. The first runs are for warmup and are not included in the statistics.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+@Benchmark
+public final class LinearTransformBenchmark {
+    /**
+     * Number of points to transform in each run.
+     */
+    private static final int NUM_POINTS = 10_000_000;
+
+    /**
+     * Number of runs for each transform, including the warmup runs.
+     */
+    private static final int NUM_RUNS = 8;
+
+    /**
+     * Number of runs to ignore at the beginning of each benchmark.
+     */
+    private static final int NUM_WARMUPS = 3;
+
+    /**
+     * Do not allow instantiation of this class.
+     */
+    private LinearTransformBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark and prints the results to the standard output.
+     *
+     * @param  args  ignored.
+     * @throws TransformException if an error occurred while transforming the coordinates.
+     */
+    public static void main(String[] args) throws TransformException {
+        final var affine3D = new Matrix4(
+                0.8, -0.6,  0,   1000,
+                0.6,  0.8,  0,   -500,
+                0,    0,    2,     10,
+                0,    0,    0,      1);
+        final var projective3D = new Matrix4(
+                0.8, -0.6,  0,   1000,
+                0.6,  0.8,  0,   -500,
+                0,    0,    2,     10,
+                0,    0,    0.001,  1);
+        final var dropZ = Matrices.create(3, 4, new double[] {
+                0.8, -0.6,  0,   1000,
+                0.6,  0.8,  0,   -500,
+                0,    0,    0,      1});
+        System.out.println("Transform       Mpoints/s   (standard deviation)");
+        run("Affine 3D",      MathTransforms.linear(affine3D));
+        run("Affine 3D → 2D", MathTransforms.linear(dropZ));
+        run("Projective 3D",  MathTransforms.linear(projective3D));
+    }
+
+    /**
+     * Measures the throughput of the given transform and prints the result.
+     *
+     * @param  label      the label to show in the report.
+     * @param  transform  the transform to benchmark.
+     * @throws TransformException if an error occurred while transforming the coordinates.
+     */
+    @SuppressWarnings("UseOfSystemOutOrSystemErr")
+    private static void run(final String label, final MathTransform transform) throws TransformException {
+        final int dimension = transform.getSourceDimensions();
+        final var random = new Random();
+        final double[] source = new double[NUM_POINTS * dimension];
+        for (int i=0; i<source.length; i++) {
+            source[i] = random.nextDouble() * 1000;
+        }
+        final double[] target = new double[NUM_POINTS * transform.getTargetDimensions()];
+        final var throughput = new Statistics(label);
+        for (int i=0; i<NUM_RUNS; i++) {
+            long time = System.nanoTime();
+            transform.transform(source, 0, target, 0, NUM_POINTS);
+            time = System.nanoTime() - time;
+            if (i >= NUM_WARMUPS) {
+                throughput.accept(NUM_POINTS / (time / (double) Constants.NANOS_PER_MILLISECOND) / 1000);
+            }
+        }
+        System.out.printf("%-14s  %9.1f   (%.1f)%n", label, throughput.mean(), throughput.standardDeviation(false));
+    }
+}
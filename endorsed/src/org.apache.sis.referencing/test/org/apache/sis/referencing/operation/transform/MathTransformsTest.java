@@ -17,6 +17,13 @@
 package org.apache.sis.referencing.operation.transform;
 
 import java.util.List;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
 import org.opengis.geometry.DirectPosition;
 import org.opengis.referencing.operation.Matrix;
 import org.opengis.referencing.operation.MathTransform;
@@ -251,4 +258,204 @@ public final class MathTransformsTest extends TestCase {
         assertInstanceOf(MathTransform2D.class, tr);
         assertFalse(tr.isIdentity());
     }
+    /**
+     * Creates an array of coordinate values for the buffer tests.
+     */
+    private static double[] sequence(final int length) {
+        final double[] values = new double[length];
+        for (int i=0; i<length; i++) {
+            values[i] = (i % 7) - 0.25 * (i % 5);
+        }
+        return values;
+    }
+
+    /**
+     * Tests {@link MathTransforms#transform(MathTransform, DoubleBuffer, DoubleBuffer, int)}
+     * with buffers backed by arrays, direct buffers and a buffer used as both source and target.
+     * The number of points is large enough for requiring many chunks.
+     *
+     * @throws TransformException if a coordinate cannot be transformed.
+     */
+    @Test
+    public void testTransformDoubleBuffer() throws TransformException {
+        final MathTransform tr = createConcatenateAndPassThrough();
+        final int numPts = 1000;
+        final double[] source = sequence(numPts * 3);
+        final double[] expected = new double[source.length];
+        tr.transform(source, 0, expected, 0, numPts);
+        /*
+         * Heap buffers with offsets, which should delegate directly to the arrays.
+         */
+        DoubleBuffer src = DoubleBuffer.wrap(source);
+        DoubleBuffer dst = DoubleBuffer.allocate(source.length + 5);
+        dst.position(5);
+        MathTransforms.transform(tr, src, dst, numPts);
+        assertEquals(source.length, src.position());
+        assertEquals(dst.capacity(), dst.position());
+        assertArrayEquals(expected, Arrays.copyOfRange(dst.array(), 5, dst.capacity()));
+        /*
+         * Direct buffers, which require copies by chunks. Source and target in the same buffer.
+         */
+        dst = ByteBuffer.allocateDirect(source.length * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        dst.put(source).flip();
+        MathTransforms.transform(tr, dst, dst, numPts);
+        assertEquals(source.length, dst.position());
+        final double[] actual = new double[source.length];
+        dst.flip().get(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    /**
+     * Tests {@link MathTransforms#transform(MathTransform, DoubleBuffer, DoubleBuffer, int)}
+     * in-place with a transform having more target dimensions than source dimensions.
+     *
+     * @throws TransformException if a coordinate cannot be transformed.
+     */
+    @Test
+    public void testTransformDoubleBufferToMoreDimensions() throws TransformException {
+        final MathTransform tr = MathTransforms.linear(Matrices.create(4, 3, new double[] {
+            2, 0, 1,
+            0, 3, 2,
+            1, 1, 0,
+            0, 0, 1}));
+        final int numPts = 400;
+        final double[] source = sequence(numPts * 2);
+        final double[] expected = new double[numPts * 3];
+        tr.transform(source, 0, expected, 0, numPts);
+        final DoubleBuffer buffer = ByteBuffer.allocateDirect(expected.length * Double.BYTES).asDoubleBuffer();
+        buffer.put(source).flip().limit(buffer.capacity());
+        MathTransforms.transform(tr, buffer, buffer, numPts);
+        assertEquals(expected.length, buffer.position());
+        final double[] actual = new double[expected.length];
+        buffer.flip().get(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    /**
+     * Tests {@link MathTransforms#transform(MathTransform, FloatBuffer, FloatBuffer, int)}.
+     *
+     * @throws TransformException if a coordinate cannot be transformed.
+     */
+    @Test
+    public void testTransformFloatBuffer() throws TransformException {
+        final MathTransform tr = createConcatenateAndPassThrough();
+        final int numPts = 300;
+        final double[] values = sequence(numPts * 3);
+        final float[] source = new float[values.length];
+        for (int i=0; i<values.length; i++) {
+            source[i] = (float) values[i];
+        }
+        final float[] expected = new float[source.length];
+        tr.transform(source, 0, expected, 0, numPts);
+        final FloatBuffer src = ByteBuffer.allocateDirect(source.length * Float.BYTES).asFloatBuffer();
+        final FloatBuffer dst = ByteBuffer.allocateDirect(source.length * Float.BYTES).asFloatBuffer();
+        src.put(source).flip();
+        MathTransforms.transform(tr, src, dst, numPts);
+        assertFalse(src.hasRemaining());
+        assertFalse(dst.hasRemaining());
+        final float[] actual = new float[source.length];
+        dst.flip().get(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    /**
+     * Tests {@link MathTransforms#transform(MathTransform, DoubleBuffer[], DoubleBuffer[], int)}
+     * with one buffer per dimension. Some target buffers are the same instances as source buffers.
+     *
+     * @throws TransformException if a coordinate cannot be transformed.
+     */
+    @Test
+    public void testTransformPlanar() throws TransformException {
+        final MathTransform tr = createConcatenateAndPassThrough();
+        final int numPts = 500;
+        final double[] source = sequence(numPts * 3);
+        final double[] expected = new double[source.length];
+        tr.transform(source, 0, expected, 0, numPts);
+        final var planes = new DoubleBuffer[3];
+        for (int i=0; i<planes.length; i++) {
+            planes[i] = ByteBuffer.allocateDirect(numPts * Double.BYTES).asDoubleBuffer();
+            for (int j=0; j<numPts; j++) {
+                planes[i].put(j, source[j*3 + i]);
+            }
+        }
+        final var targets = new DoubleBuffer[] {planes[0], planes[1], DoubleBuffer.allocate(numPts)};
+        MathTransforms.transform(tr, planes, targets, numPts);
+        for (int i=0; i<planes.length; i++) {
+            assertFalse(planes [i].hasRemaining());
+            assertFalse(targets[i].hasRemaining());
+            for (int j=0; j<numPts; j++) {
+                assertEquals(expected[j*3 + i], targets[i].get(j));
+            }
+        }
+    }
+
+    /**
+     * A transform which cannot transform points having a negative <var>x</var> value.
+     * Other points are transformed to (2<var>x</var>, <var>y</var> + 1).
+     */
+    private static final class FailingTransform extends AbstractMathTransform2D {
+        @Override
+        public Matrix transform(double[] srcPts, int srcOff, double[] dstPts, int dstOff, boolean derivate)
+                throws TransformException
+        {
+            final double x = srcPts[srcOff];
+            if (x < 0) {
+                throw new TransformException("Negative x value.");
+            }
+            if (dstPts != null) {
+                dstPts[dstOff]   = 2 * x;
+                dstPts[dstOff+1] = srcPts[srcOff+1] + 1;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Tests {@link MathTransforms#transformInParallel(MathTransform, double[], int, double[], int, int, ForkJoinPool)}
+     * with a transform which fails on some points. Those points shall be set to NaN and reported.
+     */
+    @Test
+    public void testTransformInParallel() {
+        final var tr = new FailingTransform();
+        final int numPts = 100000;
+        final double[] source = new double[numPts * 2];
+        final var expectedFailures = new BitSet();
+        for (int i=0; i<numPts; i++) {
+            source[i*2]   = (i % 1000 == 7) ? -i : i;
+            source[i*2+1] = i;
+            if (source[i*2] < 0) expectedFailures.set(i);
+        }
+        final var pool = new ForkJoinPool(4);
+        try {
+            final double[] target = new double[source.length + 2];
+            assertEquals(expectedFailures, MathTransforms.transformInParallel(tr, source, 0, target, 2, numPts, pool));
+            verifyParallelTransform(expectedFailures, target, 2, numPts);
+            /*
+             * Same test but in-place, first at the same offset then with a shift.
+             */
+            final double[] data = Arrays.copyOf(source, source.length + 2);
+            assertEquals(expectedFailures, MathTransforms.transformInParallel(tr, data, 0, data, 0, numPts, pool));
+            verifyParallelTransform(expectedFailures, data, 0, numPts);
+            System.arraycopy(source, 0, data, 0, source.length);
+            assertEquals(expectedFailures, MathTransforms.transformInParallel(tr, data, 0, data, 2, numPts, null));
+            verifyParallelTransform(expectedFailures, data, 2, numPts);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Verifies the result of a call to {@code transformInParallel(…)} with {@link FailingTransform}.
+     */
+    private static void verifyParallelTransform(final BitSet failures, final double[] actual, int offset, final int numPts) {
+        for (int i=0; i<numPts; i++) {
+            if (failures.get(i)) {
+                assertTrue(Double.isNaN(actual[offset++]));
+                assertTrue(Double.isNaN(actual[offset++]));
+            } else {
+                assertEquals(2*i, actual[offset++]);
+                assertEquals(i+1, actual[offset++]);
+            }
+        }
+    }
 }
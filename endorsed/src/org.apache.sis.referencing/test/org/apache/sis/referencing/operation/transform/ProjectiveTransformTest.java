@@ -16,6 +16,7 @@
  */
 package org.apache.sis.referencing.operation.transform;
 
+import java.util.Arrays;
 import org.opengis.util.FactoryException;
 import org.opengis.referencing.operation.Matrix;
 import org.opengis.referencing.operation.MathTransform;
@@ -285,6 +286,45 @@ public class ProjectiveTransformTest extends TransformTestCase {
                         new double[] {   150, 63.327, -306.5});
     }
 
+    /**
+     * Tests the transformation of arrays by an affine transform without denominators, for which the last row
+     * and the divisions are omitted. This test includes the handling of NaN values in a dimension multiplied
+     * by a zero coefficient and the case of overlapping source and target arrays.
+     *
+     * @throws TransformException if a coordinate conversion failed.
+     */
+    @Test
+    public void testAffineWithoutDenominator() throws TransformException {
+        final var affine = new Matrix4(
+                2, 0, 1, 100,
+                0, 3, 0, -40,
+                0, 0, 1,   0,
+                0, 0, 0,   1);
+        final var tested = new ProjectiveTransform(affine);
+        transform = tested;
+        matrix = affine;
+        final double[] source = {
+            4, 7, 1,   Double.NaN, 5, 0,   8, Double.NaN, 2,   0, 0, 0
+        };
+        final int numPts = source.length / 3;
+        final double[] actual = new double[source.length];
+        tested.transform(source, 0, actual, 0, numPts);
+        assertArrayEquals(new double[] {
+            109, -19, 1,   Double.NaN, -25, 0,   118, Double.NaN, 2,   100, -40, 0
+        }, actual);
+        /*
+         * Overlapping arrays, in both directions.
+         */
+        for (int shift = -1; shift <= 1; shift += 2) {
+            final double[] buffer = new double[source.length + 1];
+            final int srcOff = (shift < 0) ? 1 : 0;
+            final int dstOff = srcOff + shift;
+            System.arraycopy(source, 0, buffer, srcOff, source.length);
+            tested.transform(buffer, srcOff, buffer, dstOff, numPts);
+            assertArrayEquals(actual, Arrays.copyOfRange(buffer, dstOff, dstOff + actual.length));
+        }
+    }
+
     /**
      * Returns the transform without {@link TransformResultComparator} wrapper.
      * The transform is the one computed by {@link ProjectiveTransform#optimize()}.
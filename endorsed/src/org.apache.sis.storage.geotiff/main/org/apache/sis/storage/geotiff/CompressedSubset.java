@@ -19,6 +19,8 @@ package org.apache.sis.storage.geotiff;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
 import java.awt.Point;
 import java.awt.image.Raster;
 import static java.lang.Math.toIntExact;
@@ -27,6 +29,7 @@ import org.apache.sis.storage.tiling.TiledGridCoverageResource;
 import org.apache.sis.storage.geotiff.inflater.Inflater;
 import org.apache.sis.image.DataType;
 import org.apache.sis.image.internal.shared.RasterFactory;
+import org.apache.sis.io.stream.ChannelDataInput;
 
 
 /**
@@ -168,6 +171,37 @@ final class CompressedSubset extends DataSubset {
         return n;
     }
 
+    /**
+     * Creates an inflater reading compressed data from the given input.
+     * The arguments other than {@code input} are the ones given to the {@code readSlice(…)} method.
+     *
+     * @param  input        the source of data to decompress.
+     * @param  lower        (<var>x</var>, <var>y</var>) coordinates of the first pixel to read relative to the tile.
+     * @param  upper        (<var>x</var>, <var>y</var>) coordinates after the last pixel to read relative to the tile.
+     * @param  subsampling  (<var>sx</var>, <var>sy</var>) subsampling factors.
+     * @return the inflater for the given input.
+     */
+    private Inflater createInflater(final ChannelDataInput input, final long[] lower, final long[] upper,
+                                    final long[] subsampling) throws IOException, DataStoreException
+    {
+        final int width        = pixelCount(lower, upper, subsampling, xDimension);
+        final int chunksPerRow = width * (targetPixelStride / samplesPerChunk);
+        return Inflater.create(
+                source.listeners(),                   // Object where to report warnings.
+                input,                                // The source of data to decompress.
+                source.getCompression(),              // The compression method.
+                source.getPredictor(),                // The mathematical operator to apply after decompression.
+                sourcePixelStride,                    // Number of sample values per pixel in the source image.
+                toIntExact(getTileSize(xDimension)),  // Number of pixels in a row of source image.
+                chunksPerRow,                         // Number of pixels per row in target image.
+                samplesPerChunk,                      // Number of sample values per pixel.
+                skipAfterChunks,                      // Number of sample values to skip between pixels.
+                getPixelsPerElement(),                // Number of pixels per primitive element (for packed.
+                getDataType(),                        // Primitive type used for storing data elements in the bank.
+                source.getJPEGTables(),               // Tables shared by all JPEG tiles, or null if none.
+                source.isYCbCr());                    // Whether to convert JPEG components from YCbCr to RGB.
+    }
+
     /**
      * Reads a two-dimensional slice of the data cube from the given input channel.
      *
@@ -182,11 +216,81 @@ final class CompressedSubset extends DataSubset {
     @Override
     Raster readSlice(final long[] offsets, final long[] byteCounts, final long[] lower, final long[] upper,
                      final long[] subsampling, final Point location) throws IOException, DataStoreException
+    {
+        if (inflater == null) {
+            inflater = createInflater(input(), lower, upper, subsampling);
+        }
+        return readSlice(inflater, offsets, byteCounts, lower, upper, subsampling, location);
+    }
+
+    /**
+     * Reads the compressed bytes of a two-dimensional slice and returns a task for decompressing them.
+     * All banks are read in a single array, then decompressed by a new inflater reading that array.
+     * The task does not use the input channel and can be executed in any thread.
+     *
+     * @return the task decoding the tile, or {@code null} if the tile is too large for a single array.
+     */
+    @Override
+    Callable<Raster> prefetchSlice(final long[] offsets, final long[] byteCounts, final long[] lower, final long[] upper,
+                                   final long[] subsampling, final Point location) throws IOException, DataStoreException
+    {
+        long length = 0;
+        for (final long n : byteCounts) {
+            length += n;
+        }
+        if (length > Integer.MAX_VALUE) {
+            return null;
+        }
+        /*
+         * Read the bytes of all banks in a single array. The offsets are replaced
+         * by positions in that array. Other arguments are cloned because the caller
+         * will modify them for the next tiles.
+         */
+        final ChannelDataInput input = input();
+        final byte[] data = new byte[(int) length];
+        final long[] positions = new long[offsets.length];
+        int position = 0;
+        for (int b=0; b<offsets.length; b++) {
+            final int n = (int) byteCounts[b];
+            input.seek(offsets[b]);
+            input.readFully(data, position, n);
+            positions[b] = position;
+            position += n;
+        }
+        final var buffer  = ByteBuffer.wrap(data).order(input.buffer.order());
+        final var decoder = createInflater(new ChannelDataInput(input.filename, buffer), lower, upper, subsampling);
+        final var counts  = byteCounts.clone();
+        final var min     = lower.clone();
+        final var max     = upper.clone();
+        final var steps   = subsampling.clone();
+        final var origin  = new Point(location);
+        return () -> {
+            try (decoder) {
+                return readSlice(decoder, positions, counts, min, max, steps, origin);
+            }
+        };
+    }
+
+    /**
+     * Reads a two-dimensional slice of the data cube using the given inflater.
+     * This method does not use the shared {@link #inflater} and may be invoked in any thread.
+     *
+     * @param  inflater     the inflater to use for decompressing the data.
+     * @param  offsets      position in the inflater input where tile data begins, one value per bank.
+     * @param  byteCounts   number of bytes for the compressed tile data, one value per bank.
+     * @param  lower        (<var>x</var>, <var>y</var>) coordinates of the first pixel to read relative to the tile.
+     * @param  upper        (<var>x</var>, <var>y</var>) coordinates after the last pixel to read relative to the tile.
+     * @param  subsampling  (<var>sx</var>, <var>sy</var>) subsampling factors.
+     * @param  location     pixel coordinates in the upper-left corner of the tile to return.
+     * @return a single tile decoded from the <abbr>TIFF</abbr> file.
+     */
+    private Raster readSlice(final Inflater inflater, final long[] offsets, final long[] byteCounts,
+                             final long[] lower, final long[] upper, final long[] subsampling, final Point location)
+            throws IOException, DataStoreException
     {
         final DataType dataType = getDataType();
         final int  width        = pixelCount(lower, upper, subsampling, xDimension);
         final int  height       = pixelCount(lower, upper, subsampling, yDimension);
-        final int  chunksPerRow = width * (targetPixelStride / samplesPerChunk);
         final int  betweenRows  = Math.toIntExact(subsampling[1] - 1);
         final long head         = beforeFirstBand + sourcePixelStride * (lower[xDimension]);
         final long tail         = afterLastBand   - sourcePixelStride * (lower[xDimension] + (width-1)*subsampling[xDimension]);
@@ -204,22 +308,6 @@ final class CompressedSubset extends DataSubset {
          */
         final int pixelsPerElement = getPixelsPerElement();                 // Always ≥ 1 and usually = 1.
         assert (head % pixelsPerElement) == 0 : head;
-        if (inflater == null) {
-            inflater = Inflater.create(
-                    source.listeners(),                   // Object where to report warnings.
-                    input(),                              // The source of data to decompress.
-                    source.getCompression(),              // The compression method.
-                    source.getPredictor(),                // The mathematical operator to apply after decompression.
-                    sourcePixelStride,                    // Number of sample values per pixel in the source image.
-                    toIntExact(getTileSize(xDimension)),  // Number of pixels in a row of source image.
-                    chunksPerRow,                         // Number of pixels per row in target image.
-                    samplesPerChunk,                      // Number of sample values per pixel.
-                    skipAfterChunks,                      // Number of sample values to skip between pixels.
-                    pixelsPerElement,                     // Number of pixels per primitive element (for packed.
-                    dataType);                            // Primitive type used for storing data elements in the bank.
-        }
-        @SuppressWarnings("LocalVariableHidesMemberVariable")
-        final Inflater inflater = this.inflater;
         final int      capacity = getBankCapacity(pixelsPerElement);
         final Buffer[] banks    = new Buffer[numBanks];
         for (int b=0; b<numBanks; b++) {
@@ -90,6 +90,18 @@ public final class Compression implements Serializable {
     public static final Compression DEFLATE = new Compression(
             CompressionMethod.DEFLATE, Deflater.DEFAULT_COMPRESSION, Predictor.NONE);
 
+    /**
+     * Zstandard compression with a default predictor. Zstandard is usually faster than {@link #DEFLATE}
+     * for both compression and decompression, with a similar compression ratio. However, this compression
+     * is not supported by all <abbr>TIFF</abbr> readers. The compression level cannot be specified.
+     *
+     * @see #withPredictor(int)
+     *
+     * @since 1.7
+     */
+    public static final Compression ZSTD = new Compression(
+            CompressionMethod.ZSTD, Deflater.DEFAULT_COMPRESSION, Predictor.NONE);
+
     /**
      * The key for declaring the compression at store creation time.
      * See class Javadoc for usage example.
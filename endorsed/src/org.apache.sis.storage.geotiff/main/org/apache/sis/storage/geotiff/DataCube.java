@@ -167,6 +167,18 @@ abstract class DataCube extends TiledGridCoverageResource implements StoreResour
      */
     abstract Predictor getPredictor();
 
+    /**
+     * Returns the quantization and Huffman tables shared by all <abbr>JPEG</abbr> compressed tiles,
+     * or {@code null} if none. This is the content of the {@code JPEGTables} <abbr>TIFF</abbr> tag.
+     */
+    abstract byte[] getJPEGTables();
+
+    /**
+     * Returns {@code true} if the compressed data are YCbCr components to convert to RGB by the decoder.
+     * This is currently supported only with <abbr>JPEG</abbr> compression.
+     */
+    abstract boolean isYCbCr();
+
     /**
      * Returns the fill value used in image of floating point type before replacement by NaN.
      * If no value is declared or if the image type is an integer type, returns {@code null}.
@@ -20,6 +20,11 @@ import java.util.Arrays;
 import java.nio.Buffer;
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.nio.file.Path;
 import java.awt.Point;
 import java.awt.image.BandedSampleModel;
@@ -71,6 +76,13 @@ import static org.apache.sis.pending.jdk.JDK18.ceilDiv;
  * @author  Martin Desruisseaux (Geomatys)
  */
 class DataSubset extends TiledGridCoverage {
+    /**
+     * Maximal number of unrequested bytes between two tiles for merging them in a single request
+     * when prefetching tiles from a remote file. For an average download speed of 25 Mb/s,
+     * downloading 64 kB requires about 1/50 of second, which is less than a round trip.
+     */
+    private static final int PREFETCH_MAX_GAP = 64 * 1024;
+
     /**
      * The resource which contain this {@code DataSubset}.
      * Used for fetching information like the input channel and where to report warnings.
@@ -338,7 +350,9 @@ class DataSubset extends TiledGridCoverage {
      * The {@link Raster#getMinX()} and {@code getMinY()} coordinates of returned rasters
      * will start at the given {@code offsetAOI} values.
      *
-     * <p>This method is thread-safe. Synchronization is done on {@link DataCube#getSynchronizationLock()}.</p>
+     * <p>This method is thread-safe. Synchronization is done on {@link DataCube#getSynchronizationLock()}.
+     * If an {@linkplain GeoTiffStore#executor executor} has been specified, the compressed bytes are read
+     * sequentially in the synchronized block, then decompressed in parallel after the lock has been released.</p>
      *
      * @param  iterator  an iterator over the tiles that intersect the Area Of Interest specified by user.
      * @return tiles decoded from the TIFF file.
@@ -362,6 +376,7 @@ class DataSubset extends TiledGridCoverage {
         final Tile[] missings = new Tile[iterator.tileCountInQuery];
         int numMissings = 0;
         boolean needsCompaction = false;
+        FutureTask<Raster>[] pending = null;
         synchronized (source.getSynchronizationLock()) {
             do {
                 final Raster tile = iterator.getCachedTile();
@@ -386,13 +401,13 @@ class DataSubset extends TiledGridCoverage {
             } while (iterator.next());
             if (numMissings != 0) {
                 Arrays.sort(missings, 0, numMissings);
+                if (numMissings > 1 && input.useRangeOfInterest()) {
+                    prefetch(missings, numMissings, includedBanks, input);
+                }
                 /*
                  * At this point we finished to list all tiles inside the Area Of Interest (AOI), both the ones that
                  * were already in memory and the new ones. The loop below processes only the new tiles, by reading
                  * them in the order they appear in the TIFF file.
-                 *
-                 * TODO: Use `tile.byteCount` for checking if two tiles are consecutive in the TIFF file.
-                 * In such case we should send only one HTTP range request.
                  */
                 final long[] lower       = new long[BIDIMENSIONAL];   // Coordinates of the first pixel to read relative to the tile.
                 final long[] upper       = new long[BIDIMENSIONAL];   // Coordinates after the last pixel to read relative to the tile.
@@ -400,6 +415,12 @@ class DataSubset extends TiledGridCoverage {
                 final Point  origin      = new Point();
                 final long[] offsets     = new long[numBanks];
                 final long[] byteCounts  = new long[numBanks];
+                final Executor executor  = (numMissings > 1) ? source.reader.store.executor : null;
+                if (executor != null) {
+                    @SuppressWarnings({"unchecked", "rawtypes"})
+                    final FutureTask<Raster>[] tasks = new FutureTask[numMissings];
+                    pending = tasks;
+                }
                 try (Closeable finisher  = createInflater()) {
                     for (int i=0; i<numMissings; i++) {
                         final Tile tile = missings[i];
@@ -431,6 +452,17 @@ class DataSubset extends TiledGridCoverage {
                                 }
                                 r = emptyTiles.create(origin);
                             } else {
+                                final Callable<Raster> decoder;
+                                if (pending != null && (decoder = prefetchSlice(offsets, byteCounts, lower, upper, subsampling, origin)) != null) {
+                                    final var task = new FutureTask<Raster>(decoder);
+                                    pending[i] = task;
+                                    try {
+                                        executor.execute(task);
+                                    } catch (RejectedExecutionException e) {
+                                        // Ignore, the task will be run in this thread by `collect(…)`.
+                                    }
+                                    continue;
+                                }
                                 r = readSlice(offsets, byteCounts, lower, upper, subsampling, origin);
                             }
                             result[tile.getTileIndexInResultArray()] = tile.cache(r);
@@ -441,6 +473,9 @@ class DataSubset extends TiledGridCoverage {
                 }
             }
         }
+        if (pending != null) {
+            collect(missings, pending, result);
+        }
         /*
          * If the subsampling is larger than tile size, some tiles were empty and excluded.
          * The corresponding elements in the `result` array were left to the null value.
@@ -456,6 +491,77 @@ class DataSubset extends TiledGridCoverage {
         return result;
     }
 
+    /**
+     * Downloads concurrently the bytes of all tiles to read when the input is a remote file (HTTP, S3, …).
+     * Tiles separated by small gaps are merged in a single request. The bytes are saved in the cache of the
+     * input channel, from where they will be read by {@code readSlice(…)}. Tiles already in the cache are
+     * skipped. If the channel does not support concurrent requests of ranges of bytes, this method does
+     * nothing and the tiles will be read by {@code readSlice(…)} as usual.
+     * This method shall be invoked in the synchronized block of {@link #readTiles(TileIterator)}.
+     *
+     * @param  missings       the tiles to read.
+     * @param  numMissings    number of valid elements in the {@code missings} array.
+     * @param  includedBanks  indices of banks to read, or {@code null} for reading all of them.
+     * @param  input          the input from which to read the tiles.
+     * @throws IOException if an error occurred while downloading the bytes.
+     */
+    private void prefetch(final Tile[] missings, final int numMissings, final int[] includedBanks,
+                          final ChannelDataInput input) throws IOException
+    {
+        final long[] offsets    = new long[numBanks];
+        final long[] byteCounts = new long[numBanks];
+        final long[] allOffsets = new long[numMissings * numBanks];
+        final long[] allLengths = new long[allOffsets.length];
+        for (int i=0; i<numMissings; i++) {
+            final Tile tile = missings[i];
+            tile.copyTileInfo(tileOffsets,    offsets,    includedBanks, numTiles);
+            tile.copyTileInfo(tileByteCounts, byteCounts, includedBanks, numTiles);
+            System.arraycopy(offsets,    0, allOffsets, i * numBanks, numBanks);
+            System.arraycopy(byteCounts, 0, allLengths, i * numBanks, numBanks);
+        }
+        input.readRanges(allOffsets, allLengths, PREFETCH_MAX_GAP, null);
+    }
+
+    /**
+     * Waits for the completion of the tiles decoded in background threads and stores them in the result array.
+     * Tasks not yet started by the executor are run in the current thread, which avoids starvation when the
+     * executor is busy (for example because this method is itself invoked from a thread of that executor).
+     * This method is invoked outside the synchronized block, as the tasks do not use the input channel.
+     *
+     * @param  missings  the tiles to load, in the same order as {@code pending}.
+     * @param  pending   tasks decoding the tiles, or {@code null} for tiles that are already in the result array.
+     * @param  result    where to store the decoded tiles.
+     */
+    private static void collect(final Tile[] missings, final FutureTask<Raster>[] pending, final Raster[] result)
+            throws IOException, DataStoreException
+    {
+        int i = 0;
+        try {
+            for (; i < pending.length; i++) {
+                final FutureTask<Raster> task = pending[i];
+                if (task != null) {
+                    task.run();                 // No-op if the task has already been started by the executor.
+                    final Tile tile = missings[i];
+                    result[tile.getTileIndexInResultArray()] = tile.cache(task.get());
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new DataStoreException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException)        throw (IOException) cause;
+            if (cause instanceof DataStoreException) throw (DataStoreException) cause;
+            if (cause instanceof RuntimeException)   throw (RuntimeException) cause;
+            if (cause instanceof Error)              throw (Error) cause;
+            throw new DataStoreException(cause);
+        } finally {
+            while (i < pending.length) {
+                final FutureTask<Raster> task = pending[i++];
+                if (task != null) task.cancel(false);
+            }
+        }
+    }
+
     /**
      * Invoked in a synchronized block before the first call to {@code readSlice(…)}.
      * Subclasses can override this method for allocating resources to be reused for
@@ -475,6 +581,32 @@ class DataSubset extends TiledGridCoverage {
      */
     private static final Closeable NOOP = () -> {};
 
+    /**
+     * Reads the bytes of a two-dimensional slice and returns a task for decoding them in a background thread.
+     * This method is invoked in replacement of {@code readSlice(…)} when an {@linkplain GeoTiffStore#executor
+     * executor} is available. It is invoked in the same synchronized block and with the same arguments,
+     * except that the arrays may be modified by the caller after this method returned.
+     * The returned task shall not use the input channel.
+     *
+     * <p>The default implementation returns {@code null}, meaning that the tile should be read
+     * immediately by {@code readSlice(…)}. This is appropriate for uncompressed data.</p>
+     *
+     * @param  offsets      position in the channel where tile data begins, one value per bank.
+     * @param  byteCounts   number of bytes for the compressed tile data, one value per bank.
+     * @param  lower        (<var>x</var>, <var>y</var>) coordinates of the first pixel to read relative to the tile.
+     * @param  upper        (<var>x</var>, <var>y</var>) coordinates after the last pixel to read relative to the tile.
+     * @param  subsampling  (<var>sx</var>, <var>sy</var>) subsampling factors.
+     * @param  location     pixel coordinates in the upper-left corner of the tile to return.
+     * @return the task decoding the tile, or {@code null} for reading the tile with {@code readSlice(…)}.
+     * @throws IOException if an I/O error occurred.
+     * @throws DataStoreException if a logical error occurred.
+     */
+    Callable<Raster> prefetchSlice(long[] offsets, long[] byteCounts, long[] lower, long[] upper,
+                                   long[] subsampling, Point location) throws IOException, DataStoreException
+    {
+        return null;
+    }
+
     /**
      * Reads a two-dimensional slice of the data cube from the given input channel. This method is usually
      * invoked for reading the tile in full, in which case the {@code lower} argument is (0,0) and the
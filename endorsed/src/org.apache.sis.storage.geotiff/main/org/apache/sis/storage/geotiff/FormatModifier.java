@@ -68,7 +68,28 @@ public enum FormatModifier {
      */
     PYRAMIDED,
 
-    // TODO: COG, SPARSE.
+    /**
+     * The Cloud Optimized GeoTIFF (<abbr>COG</abbr>) format.
+     * This modifier implies {@link #PYRAMIDED}, but additionally forces the file layout mandated by
+     * the <abbr>COG</abbr> conventions: all Image File Directories (<abbr>IFD</abbr>) are written first,
+     * starting with the full resolution image, then the tiles are written from the coarsest overview
+     * to the finest resolution. The file also contains the structural metadata ("ghost area") defined
+     * by <abbr>GDAL</abbr>, and each tile is surrounded by a leader containing the tile size and a trailer
+     * repeating the last 4 bytes of the tile. This layout allows cloud-aware readers to fetch the header
+     * in a single request, and to verify that the file has not been modified in a way that breaks the
+     * optimizations.
+     *
+     * <p>Tiles are computed and written one at a time, so the full image does not need to be in memory.
+     * However, the source image may be read twice: once for computing the overviews, then once for
+     * writing the full resolution tiles.</p>
+     *
+     * @see <a href="https://docs.ogc.org/is/21-026/21-026.html">OGC Cloud Optimized GeoTIFF standard</a>
+     *
+     * @since 1.7
+     */
+    COG,
+
+    // TODO: SPARSE.
 
     /**
      * Whether to allow the writing of tiles of any size.
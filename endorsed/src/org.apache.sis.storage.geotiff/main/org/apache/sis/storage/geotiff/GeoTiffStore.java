@@ -22,6 +22,7 @@ import java.util.Locale;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Spliterator;
+import java.util.concurrent.Executor;
 import java.net.URI;
 import java.io.IOException;
 import java.nio.charset.Charset;
@@ -131,6 +132,14 @@ public class GeoTiffStore extends DataStore implements Aggregate {
      */
     final Locale dataLocale;
 
+    /**
+     * The executor to use for decompressing tiles in background threads, or {@code null} if none.
+     * If null, all tiles are decompressed in the thread that requested them.
+     *
+     * @see OptionKey#EXECUTOR
+     */
+    final Executor executor;
+
     /**
      * The {@link GeoTiffStoreProvider#LOCATION} parameter value, or {@code null} if none.
      * This is used for information purpose only, not for actual reading operations.
@@ -259,6 +268,7 @@ public class GeoTiffStore extends DataStore implements Aggregate {
 
         compression = connector.getOption(Compression.OPTION_KEY);
         dataLocale  = connector.getOption(OptionKey.LOCALE);
+        executor    = connector.getOption(OptionKey.EXECUTOR);
         location    = connector.getStorageAs(URI.class);
         path        = connector.getStorageAs(Path.class);
         try {
@@ -713,7 +723,9 @@ public class GeoTiffStore extends DataStore implements Aggregate {
      * Encodes the given image in the GeoTIFF file.
      * The image is appended after any existing images in the GeoTIFF file.
      * If the {@link FormatModifier#PYRAMIDED} was given at construction time,
-     * then overviews are automatically written.
+     * then overviews are automatically written. If the {@link FormatModifier#COG}
+     * was given, then the image and its overviews are written in the order mandated
+     * by the Cloud Optimized GeoTIFF conventions.
      *
      * @param  image     the image to encode.
      * @param  grid      mapping from pixel coordinates to "real world" coordinates, or {@code null} if none.
@@ -736,11 +748,15 @@ public class GeoTiffStore extends DataStore implements Aggregate {
             writer.synchronize(reader, false);
             long offsetIFD = -1;
             try {
-                offsetIFD = writer.append(image, grid, metadata, false);
-                final OverviewIterator it = overviews(writer);
-                while ((image = it.nextOverview(image)) != null) {
-                    offsetIFD = writer.append(image, null, null, true);
-                    // Grid and metadata are null as we don't want to repeat metadata in overviews.
+                if (writer.isCloudOptimized()) {
+                    offsetIFD = writer.appendCloudOptimized(image, grid, metadata, overviews(writer));
+                } else {
+                    offsetIFD = writer.append(image, grid, metadata, false);
+                    final OverviewIterator it = overviews(writer);
+                    while ((image = it.nextOverview(image)) != null) {
+                        offsetIFD = writer.append(image, null, null, true);
+                        // Grid and metadata are null as we don't want to repeat metadata in overviews.
+                    }
                 }
             } finally {
                 writer.synchronize(reader, true);
@@ -325,6 +325,7 @@ final class ImageFileDirectory extends DataCube {
      *   <tr><td>2</td> <td>RGB</td>              <td>RGB value of (0,0,0) represents black, and (255,255,255) represents white.</td></tr>
      *   <tr><td>3</td> <td>PaletteColor</td>     <td>The value of the component is used as an index into the RGB values of the {@link #colorMap}.</td></tr>
      *   <tr><td>4</td> <td>TransparencyMask</td> <td>Defines an irregularly shaped region of another image in the same TIFF file.</td></tr>
+     *   <tr><td>6</td> <td>YCbCr</td>            <td>Luminance and chrominance, converted to RGB at decoding time.</td></tr>
      * </table>
      */
     private byte photometricInterpretation = -1;
@@ -389,6 +390,14 @@ final class ImageFileDirectory extends DataCube {
      */
     private Predictor predictor;
 
+    /**
+     * The quantization and Huffman tables shared by all tiles compressed with <abbr>JPEG</abbr>,
+     * or {@code null} if none. When present, the tiles are usually abbreviated <abbr>JPEG</abbr> streams.
+     *
+     * @see #getJPEGTables()
+     */
+    private byte[] jpegTables;
+
     /**
      * The date/time found in the {@code DATE_TIME} tag, or {@code null} if none.
      * According the <abbr>TIFF</abbr> specification, this is the image creation date.
@@ -663,6 +672,14 @@ final class ImageFileDirectory extends DataCube {
                 }
                 break;
             }
+            /*
+             * Quantization and Huffman tables shared by all JPEG compressed tiles.
+             * This is a complete JPEG stream containing only tables (no image).
+             */
+            case TAG_JPEG_TABLES: {
+                jpegTables = input().readBytes(Math.toIntExact(count));
+                break;
+            }
             /*
              * Mathematical operator that is applied to the image data before an encoding scheme is applied.
              * 1=none, 2=horizontal differencing. More values may be added in the future.
@@ -761,6 +778,7 @@ final class ImageFileDirectory extends DataCube {
              * 2 = RGB. RGB value of (0,0,0) represents black, and (65535,65535,65535) represents white.
              * 3 = Palette color. The value of the component is used as an index into the RGB values of the ColorMap.
              * 4 = Transparency Mask. Defines an irregularly shaped region of another image in the same TIFF file.
+             * 6 = YCbCr. Supported only with JPEG compression, in which case the decoder converts to RGB.
              */
             case TAG_PHOTOMETRIC_INTERPRETATION: {
                 final short value = type.readAsShort(input(), count);
@@ -1545,7 +1563,7 @@ final class ImageFileDirectory extends DataCube {
      * This method must be thread-safe because it can be invoked directly by the user.
      */
     @Override
-    @SuppressWarnings("ReturnOfCollectionOrArrayField")
+    @SuppressWarnings({"ReturnOfCollectionOrArrayField", "fallthrough"})
     public List<SampleDimension> getSampleDimensions() throws DataStoreException {
         synchronized (getSynchronizationLock()) {
             if (sampleDimensions == null) {
@@ -1564,6 +1582,7 @@ final class ImageFileDirectory extends DataCube {
                         case PHOTOMETRIC_INTERPRETATION_BLACK_IS_ZERO:
                         case PHOTOMETRIC_INTERPRETATION_WHITE_IS_ZERO: nameKey = Vocabulary.Keys.Grayscale;  break;
                         case PHOTOMETRIC_INTERPRETATION_PALETTE_COLOR: nameKey = Vocabulary.Keys.ColorIndex; break;
+                        case PHOTOMETRIC_INTERPRETATION_Y_CB_CR: if (!isYCbCr()) break;   // Else fallthrough.
                         case PHOTOMETRIC_INTERPRETATION_RGB: {
                             switch (band) {
                                 case 0: nameKey = Vocabulary.Keys.Red;   break;
@@ -1753,6 +1772,7 @@ final class ImageFileDirectory extends DataCube {
      * @see #getSampleModel(int[])
      */
     @Override
+    @SuppressWarnings("fallthrough")
     protected ColorModel getColorModel(final int[] bands) throws DataStoreContentException {
         assert Thread.holdsLock(getSynchronizationLock());
         if (bands != null) {
@@ -1799,6 +1819,13 @@ final class ImageFileDirectory extends DataCube {
                     createSingleBandColorModel(Color.BLACK, Color.WHITE);
                     break;
                 }
+                case PHOTOMETRIC_INTERPRETATION_Y_CB_CR: {
+                    if (!isYCbCr()) {
+                        unsupportedTagValue((short) TAG_PHOTOMETRIC_INTERPRETATION, photometricInterpretation);
+                        break;
+                    }
+                    // Else fallthrough: the decoder converts YCbCr to RGB.
+                }
                 case PHOTOMETRIC_INTERPRETATION_RGB: {
                     if (alphaBand >= 0) alphaBand += 3;     // Must add the number of color bands.
                     final var builder = new ColorModelBuilder().bitsPerSample(bitsPerSample)
@@ -1945,6 +1972,24 @@ final class ImageFileDirectory extends DataCube {
         return (predictor != null) ? predictor : Predictor.NONE;
     }
 
+    /**
+     * Returns the quantization and Huffman tables shared by all <abbr>JPEG</abbr> compressed tiles, or {@code null}.
+     * This method does not clone the array because it is invoked only by the inflater, which does not modify it.
+     */
+    @Override
+    byte[] getJPEGTables() {
+        return jpegTables;
+    }
+
+    /**
+     * Returns {@code true} if the compressed data are YCbCr components to convert to RGB by the decoder.
+     */
+    @Override
+    boolean isYCbCr() {
+        return photometricInterpretation == PHOTOMETRIC_INTERPRETATION_Y_CB_CR
+                && compression == CompressionMethod.JPEG && samplesPerPixel >= 3;
+    }
+
     /**
      * Reports a warning with a message created from the given resource keys and parameters.
      * Note that the log record will not necessarily be sent to the logging framework;
@@ -22,6 +22,7 @@ import java.nio.ByteOrder;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Deque;
 import java.util.Queue;
@@ -97,6 +98,22 @@ final class Writer extends IOBase implements OverviewIterator, Flushable {
      */
     static final short TIFF_ULONG = 16;
 
+    /**
+     * The structural metadata written by <abbr>GDAL</abbr> at the beginning of Cloud Optimized GeoTIFF files,
+     * except the first line which contains the size of this metadata. Those lines declare that the <abbr>IFD</abbr>s
+     * are before tile data, and that each tile is surrounded by a leader and a trailer. The last character is a
+     * padding space, as in files written by <abbr>GDAL</abbr>.
+     *
+     * @see #writeGhostArea()
+     */
+    private static final String COG_STRUCTURAL_METADATA =
+            "LAYOUT=IFDS_BEFORE_DATA\n"
+          + "BLOCK_ORDER=ROW_MAJOR\n"
+          + "BLOCK_LEADER=SIZE_AS_UINT4\n"
+          + "BLOCK_TRAILER=LAST_4_BYTES_REPEATED\n"
+          + "KNOWN_INCOMPATIBLE_EDITION=NO\n"
+          + ' ';
+
     /**
      * Sizes of a few TIFF tags used in this writer.
      *
@@ -156,6 +173,14 @@ final class Writer extends IOBase implements OverviewIterator, Flushable {
      */
     private final boolean isPyramided;
 
+    /**
+     * Whether to write the images in the order mandated by Cloud Optimized GeoTIFF <abbr>COG</abbr>.
+     * If {@code true}, then {@link #isPyramided} is also {@code true}.
+     *
+     * @see #appendCloudOptimized(RenderedImage, GridGeometry, Metadata, OverviewIterator)
+     */
+    private final boolean isCOG;
+
     /**
      * Whether to disable the <abbr>TIFF</abbr> requirement that tile sizes are multiple of 16 pixels.
      */
@@ -210,7 +235,8 @@ final class Writer extends IOBase implements OverviewIterator, Flushable {
         super(store);
         this.output = output;
         isBigTIFF   = ArraysExt.contains(options, FormatModifier.BIG_TIFF);
-        isPyramided = ArraysExt.contains(options, FormatModifier.PYRAMIDED);
+        isCOG       = ArraysExt.contains(options, FormatModifier.COG);
+        isPyramided = ArraysExt.contains(options, FormatModifier.PYRAMIDED) || isCOG;
         anyTileSize = ArraysExt.contains(options, FormatModifier.ANY_TILE_SIZE);
         /*
          * Write the TIFF file header before first IFD. Stream position matter and must start at zero.
@@ -219,13 +245,31 @@ final class Writer extends IOBase implements OverviewIterator, Flushable {
         output.relocateOrigin();
         output.writeShort((output.buffer.order() == ByteOrder.LITTLE_ENDIAN) ? LITTLE_ENDIAN : BIG_ENDIAN);
         output.writeShort(isBigTIFF ? BIG_TIFF : CLASSIC);
+        final byte[] ghost = isCOG ? ghostArea() : ArraysExt.EMPTY_BYTE;
         if (isBigTIFF) {
-            output.writeShort((short) Long.BYTES);            // Byte size of offsets.
-            output.writeShort((short) 0);                     // Constant.
-            output.writeLong(Long.BYTES + 4*Short.BYTES);     // Position of the first IFD.
+            output.writeShort((short) Long.BYTES);                          // Byte size of offsets.
+            output.writeShort((short) 0);                                   // Constant.
+            output.writeLong(Long.BYTES + 4*Short.BYTES + ghost.length);    // Position of the first IFD.
         } else {
-            output.writeInt(Integer.BYTES + 2*Short.BYTES);
+            output.writeInt(Integer.BYTES + 2*Short.BYTES + ghost.length);
         }
+        output.write(ghost);
+    }
+
+    /**
+     * Returns the "ghost area" to write after the header of Cloud Optimized GeoTIFF files.
+     * This is the structural metadata defined by <abbr>GDAL</abbr>, in US-ASCII characters.
+     * The length of the returned array is even for keeping the first <abbr>IFD</abbr> word-aligned.
+     */
+    private static byte[] ghostArea() {
+        String metadata = COG_STRUCTURAL_METADATA;
+        String header;
+        while (((header = String.format("GDAL_STRUCTURAL_METADATA_SIZE=%06d bytes\n", metadata.length())).length()
+                + metadata.length() & 1) != 0)
+        {
+            metadata += ' ';
+        }
+        return (header + metadata).getBytes(StandardCharsets.US_ASCII);
     }
 
     /**
@@ -243,6 +287,7 @@ final class Writer extends IOBase implements OverviewIterator, Flushable {
         super(reader.store);
         isBigTIFF = (reader.intSizeExpansion != 0);
         isPyramided = false;
+        isCOG       = false;
         anyTileSize = false;
         try {
             output = new ChannelDataOutput(reader.input);
@@ -289,6 +334,7 @@ final class Writer extends IOBase implements OverviewIterator, Flushable {
         final var modifiers = EnumSet.noneOf(FormatModifier.class);
         if (isBigTIFF)   modifiers.add(FormatModifier.BIG_TIFF);
         if (isPyramided) modifiers.add(FormatModifier.PYRAMIDED);
+        if (isCOG)       modifiers.add(FormatModifier.COG);
         return modifiers;
     }
 
@@ -320,6 +366,14 @@ final class Writer extends IOBase implements OverviewIterator, Flushable {
         return null;
     }
 
+    /**
+     * Returns whether this writer shall use {@link #appendCloudOptimized appendCloudOptimized(…)}
+     * instead of writing the image and its overviews one after the other.
+     */
+    final boolean isCloudOptimized() {
+        return isCOG;
+    }
+
     /**
      * Encodes the given image to the output stream given at construction time.
      * The image is appended after any previous images written before the given one.
@@ -366,25 +420,117 @@ final class Writer extends IOBase implements OverviewIterator, Flushable {
             } finally {
                 largeTagData.clear();       // For making sure that there is no memory retention.
             }
-            tiles.writeRasters(output);
+            tiles.writeRasters(output, false);
             wordAlign(output);
             tiles.writeOffsetsAndLengths(output);
             flush();
             currentIFD = tiles.nextIFD;     // Set only after the operation succeeded.
         } catch (Throwable e) {
-            try {
-                deferredWrites.clear();
-                output.truncate(offsetIFD);
-                if (currentIFD != null) {
-                    currentIFD.setAsLong(0);
-                    currentIFD.update(output);
+            rollback(offsetIFD, e);
+            throw e;
+        }
+        return offsetIFD;
+    }
+
+    /**
+     * Encodes the given image and all its overviews in the layout mandated by Cloud Optimized GeoTIFF.
+     * The Image File Directories (IFD) of all images are written first, from finest to coarsest resolution.
+     * Then the tiles are written in reverse order, from the coarsest overview to the full resolution image.
+     * Each tile is preceded by a leader and followed by a trailer as declared in the {@linkplain #ghostArea()
+     * ghost area}. Tiles are requested and written one at a time, so the images can be computed on the fly.
+     *
+     * @param  image      the full resolution image to encode.
+     * @param  grid       mapping from pixel coordinates to "real world" coordinates, or {@code null} if none.
+     * @param  metadata   title, author and other information, or {@code null} if none.
+     * @param  overviews  provider of the overviews to write after the full resolution image.
+     * @return offset in {@link #output} where the Image File Directory (IFD) of the coarsest overview starts.
+     * @throws RasterFormatException if the raster uses an unsupported sample model.
+     * @throws ArithmeticException if an integer overflow occurs.
+     * @throws IOException if an error occurred while writing to the output.
+     * @throws DataStoreException if an image has a property which is not supported by TIFF specification or by this writer.
+     */
+    @SuppressWarnings("UseSpecificCatch")
+    public final long appendCloudOptimized(RenderedImage image, final GridGeometry grid, final Metadata metadata,
+                                           final OverviewIterator overviews) throws IOException, DataStoreException
+    {
+        final var levels = new ArrayList<ReformattedImage>();
+        do levels.add(new ReformattedImage(image, this::processor, anyTileSize));
+        while ((image = overviews.nextOverview(image)) != null);
+        /*
+         * Same preparation as `append(…)`, except that the offset
+         * is the position of the first IFD instead of the single IFD.
+         */
+        final long offsetFirstIFD = output.length();
+        if (offsetFirstIFD < 0) {
+            throw new DataStoreException(Errors.format(Errors.Keys.UnknownContentLength));
+        }
+        if (currentIFD != null) {
+            currentIFD.setAsLong(offsetFirstIFD);
+            writeOrQueue(currentIFD);
+            output.seek(offsetFirstIFD);
+        }
+        try {
+            /*
+             * Write all IFDs, each one followed by the tag values that do not fit in the entries.
+             * The `nextIFD` pointer of each directory is updated with the position of the next one.
+             * Grid and metadata are written only for the full resolution image.
+             */
+            final var tiles = new TileMatrix[levels.size()];
+            long offsetIFD = offsetFirstIFD;
+            for (int i=0; i<tiles.length; i++) {
+                if (i != 0) {
+                    offsetIFD = output.getStreamPosition();
+                    final UpdatableWrite<?> previous = tiles[i-1].nextIFD;
+                    previous.setAsLong(offsetIFD);
+                    writeOrQueue(previous);
                 }
-            } catch (Throwable more) {
-                e.addSuppressed(more);
+                try {
+                    final boolean overview = (i != 0);
+                    tiles[i] = writeImageFileDirectory(levels.get(i), overview ? null : grid, overview ? null : metadata, overview);
+                } finally {
+                    largeTagData.clear();
+                }
+                wordAlign(output);
+            }
+            /*
+             * Write the tiles, coarsest overview first. The offsets and lengths
+             * in each IFD can be updated only after all tiles have been written.
+             */
+            for (int i = tiles.length; --i >= 0;) {
+                tiles[i].writeRasters(output, true);
             }
+            wordAlign(output);
+            for (final TileMatrix t : tiles) {
+                t.writeOffsetsAndLengths(output);
+            }
+            flush();
+            currentIFD = tiles[tiles.length - 1].nextIFD;       // Set only after the operation succeeded.
+            return offsetIFD;
+        } catch (Throwable e) {
+            rollback(offsetFirstIFD, e);
             throw e;
         }
-        return offsetIFD;
+    }
+
+    /**
+     * Discards all data written after the given offset after a failure.
+     * The pointer to the IFD that was in process of being written is reset to zero.
+     *
+     * @param  offsetIFD  offset where the IFD of the image that failed to be written was starting.
+     * @param  e          the exception which caused the failure.
+     */
+    @SuppressWarnings("UseSpecificCatch")
+    private void rollback(final long offsetIFD, final Throwable e) {
+        try {
+            deferredWrites.clear();
+            output.truncate(offsetIFD);
+            if (currentIFD != null) {
+                currentIFD.setAsLong(0);
+                currentIFD.update(output);
+            }
+        } catch (Throwable more) {
+            e.addSuppressed(more);
+        }
     }
 
     /**
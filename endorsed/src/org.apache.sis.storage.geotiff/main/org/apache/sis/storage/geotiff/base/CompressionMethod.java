@@ -101,6 +101,15 @@ public enum CompressionMethod {
 
     // ---- Remaining are extension to both baseline and OGC standard ----
 
+    /**
+     * Zstandard compression, as specified by <abbr>RFC</abbr> 8878.
+     * This compression is supported by <abbr>GDAL</abbr> and libtiff since version 4.0.10.
+     * <ul>
+     *   <li>Other name: "ZSTD"</li>
+     * </ul>
+     */
+    ZSTD(50000),
+
     /** Unsupported. */ CCITTFAX3(COMPRESSION_CCITT_T_4),
     /** Unsupported. */ CCITTFAX4(COMPRESSION_CCITT_T_6),
     /** Unsupported. */ NEXT(32766),
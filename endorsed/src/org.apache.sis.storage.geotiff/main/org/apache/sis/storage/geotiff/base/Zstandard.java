@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff.base;
+
+
+/**
+ * Constants and tables shared by the Zstandard decoder and encoder.
+ * Zstandard is a compression format combining a dictionary matching stage (LZ77)
+ * with entropy coding stages using Huffman coding and Finite State Entropy (<abbr>FSE</abbr>).
+ * The format is specified by <abbr>RFC</abbr> 8878. This class contains only the parts of
+ * that specification which are needed by both the reader and the writer.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ *
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc8878">Zstandard Compression and the 'application/zstd' Media Type</a>
+ */
+public final class Zstandard {
+    /**
+     * Magic number at the beginning of each Zstandard frame.
+     */
+    public static final int MAGIC = 0xFD2FB528;
+
+    /**
+     * Magic number of skippable frames, ignoring the 4 lowest bits.
+     */
+    public static final int SKIPPABLE_MAGIC = 0x184D2A50;
+
+    /**
+     * Maximal number of bytes in a block after decompression.
+     */
+    public static final int MAX_BLOCK_SIZE = 128 * 1024;
+
+    /**
+     * Block types, as stored in bits 1-2 of the block header.
+     */
+    public static final int RAW_BLOCK = 0, RLE_BLOCK = 1, COMPRESSED_BLOCK = 2;
+
+    /**
+     * Types of literals section, as stored in bits 0-1 of the literals section header.
+     */
+    public static final int RAW_LITERALS = 0, RLE_LITERALS = 1, COMPRESSED_LITERALS = 2, TREELESS_LITERALS = 3;
+
+    /**
+     * Compression modes of the literals lengths, offsets and match lengths codes.
+     */
+    public static final int PREDEFINED_MODE = 0, RLE_MODE = 1, FSE_MODE = 2, REPEAT_MODE = 3;
+
+    /**
+     * Minimal length of a match.
+     */
+    public static final int MIN_MATCH = 3;
+
+    /**
+     * Maximal number of bits in a Huffman code for the literals.
+     */
+    public static final int MAX_HUFFMAN_BITS = 11;
+
+    /**
+     * Minimal accuracy log of <abbr>FSE</abbr> tables (except in <abbr>RLE</abbr> mode).
+     */
+    public static final int MIN_ACCURACY_LOG = 5;
+
+    /**
+     * Maximal accuracy log of the <abbr>FSE</abbr> tables for literals lengths, match lengths,
+     * offsets and Huffman weights respectively.
+     */
+    public static final int LITERALS_LENGTH_MAX_LOG = 9, MATCH_LENGTH_MAX_LOG = 9,
+                            OFFSET_MAX_LOG = 8, HUFFMAN_WEIGHTS_MAX_LOG = 6;
+
+    /**
+     * Maximal value of offset codes supported by this implementation.
+     */
+    public static final int MAX_OFFSET_CODE = 31;
+
+    /**
+     * Baseline of literals lengths for each literals length code.
+     * The number of additional bits to read is given by {@link #LITERALS_LENGTH_BITS}.
+     */
+    public static final int[] LITERALS_LENGTH_BASE = {
+        0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 18, 20, 22, 24, 28, 32, 40,
+        48, 64, 128, 256, 512, 1024, 2048, 4096, 8192, 16384, 32768, 65536
+    };
+
+    /**
+     * Number of additional bits to read for each literals length code.
+     */
+    public static final byte[] LITERALS_LENGTH_BITS = {
+        0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 3, 3,
+        4, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16
+    };
+
+    /**
+     * Baseline of match lengths for each match length code.
+     * The number of additional bits to read is given by {@link #MATCH_LENGTH_BITS}.
+     */
+    public static final int[] MATCH_LENGTH_BASE = {
+        3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26,
+        27, 28, 29, 30, 31, 32, 33, 34, 35, 37, 39, 41, 43, 47, 51, 59, 67, 83, 99, 131, 259, 515,
+        1027, 2051, 4099, 8195, 16387, 32771, 65539
+    };
+
+    /**
+     * Number of additional bits to read for each match length code.
+     */
+    public static final byte[] MATCH_LENGTH_BITS = {
+        0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+        0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 3, 3, 4, 4, 5, 7, 8, 9,
+        10, 11, 12, 13, 14, 15, 16
+    };
+
+    /**
+     * Predefined distribution of literals length codes, with an accuracy log of 6.
+     * The -1 values stand for "less than 1" probabilities.
+     */
+    public static final short[] LITERALS_LENGTH_DEFAULT = {
+        4, 3, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 2, 1, 1, 1, 2, 2, 2, 2, 2, 2, 2, 2,
+        2, 3, 2, 1, 1, 1, 1, 1, -1, -1, -1, -1
+    };
+
+    /**
+     * Predefined distribution of match length codes, with an accuracy log of 6.
+     * The -1 values stand for "less than 1" probabilities.
+     */
+    public static final short[] MATCH_LENGTH_DEFAULT = {
+        1, 4, 3, 2, 2, 2, 2, 2, 2, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,
+        1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,
+        -1, -1, -1, -1, -1, -1, -1
+    };
+
+    /**
+     * Predefined distribution of offset codes, with an accuracy log of 5.
+     * The -1 values stand for "less than 1" probabilities.
+     */
+    public static final short[] OFFSET_DEFAULT = {
+        1, 1, 1, 1, 1, 1, 2, 2, 2, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1,
+        -1, -1, -1, -1, -1
+    };
+
+    /**
+     * Accuracy logs of the predefined distributions.
+     */
+    public static final int LITERALS_LENGTH_DEFAULT_LOG = 6, MATCH_LENGTH_DEFAULT_LOG = 6, OFFSET_DEFAULT_LOG = 5;
+
+    /**
+     * Do not allow instantiation of this class.
+     */
+    private Zstandard() {
+    }
+
+    /**
+     * Returns the index of the highest bit set in the given value, which must be strictly positive.
+     *
+     * @param  value  the value for which to get the highest bit.
+     * @return index of the highest bit, from 0 to 31.
+     */
+    public static int highBit(final int value) {
+        return (Integer.SIZE - 1) - Integer.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Returns the literals length code for the given number of literals.
+     *
+     * @param  length  number of literals.
+     * @return code of the given literals length.
+     */
+    public static int literalsLengthCode(final int length) {
+        if (length < 16) return length;
+        if (length < 24) return 16 + ((length - 16) >>> 1);
+        if (length < 64) {
+            // 24→20, 28→21, 32→22, 40→23, 48→24.
+            return (length < 32) ? 20 + ((length - 24) >>> 2)
+                 : (length < 48) ? 22 + ((length - 32) >>> 3) : 24;
+        }
+        return highBit(length) + 19;
+    }
+
+    /**
+     * Returns the match length code for the given match length.
+     *
+     * @param  length  the match length, at least {@value #MIN_MATCH}.
+     * @return code of the given match length.
+     */
+    public static int matchLengthCode(final int length) {
+        final int n = length - MIN_MATCH;
+        if (n < 32) return n;
+        if (n < 128) {
+            int code = 32;
+            while (code + 1 < MATCH_LENGTH_BASE.length && MATCH_LENGTH_BASE[code + 1] <= length) code++;
+            return code;
+        }
+        return highBit(n) + 36;
+    }
+
+    /**
+     * Spreads the symbols in a <abbr>FSE</abbr> table according their normalized probabilities.
+     * This is the first step of the construction of both the decoding and encoding tables.
+     * The symbols with a "less than 1" probability are put at the end of the table.
+     *
+     * @param  norm       normalized probabilities of each symbol, or -1 for "less than 1" probability.
+     * @param  numSymbol  number of valid elements in the {@code norm} array.
+     * @param  log        accuracy log of the table.
+     * @return the symbol associated to each state.
+     */
+    public static byte[] spread(final short[] norm, final int numSymbol, final int log) {
+        final int size = 1 << log;
+        final int mask = size - 1;
+        final int step = (size >>> 1) + (size >>> 3) + 3;
+        final var symbols = new byte[size];
+        int high = size - 1;
+        for (int s=0; s<numSymbol; s++) {
+            if (norm[s] == -1) {
+                symbols[high--] = (byte) s;
+            }
+        }
+        int position = 0;
+        for (int s=0; s<numSymbol; s++) {
+            for (int i = norm[s]; --i >= 0;) {
+                symbols[position] = (byte) s;
+                do position = (position + step) & mask;
+                while (position > high);
+            }
+        }
+        return symbols;
+    }
+}
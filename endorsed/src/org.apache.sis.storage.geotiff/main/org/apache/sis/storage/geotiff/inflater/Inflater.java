@@ -20,6 +20,7 @@ import java.util.Arrays;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.Buffer;
+import javax.imageio.ImageReader;
 import org.apache.sis.image.DataType;
 import org.apache.sis.math.MathFunctions;
 import org.apache.sis.util.ArgumentChecks;
@@ -176,6 +177,8 @@ public abstract class Inflater implements Closeable {
      * @param  skipAfterChunks    number of sample values to skip between chunks. May be empty or null.
      * @param  pixelsPerElement   number of pixels per primitive element. Always 1 except for multi-pixels packed images.
      * @param  dataType           primitive type used for storing data elements in the bank.
+     * @param  jpegTables         content of the {@code JPEGTables} tag, or {@code null} if none. Used only for JPEG.
+     * @param  isYCbCr            whether the JPEG components should be converted from YCbCr to RGB.
      * @return the inflater for the given targe type.
      * @throws IOException if an I/O operation was required and failed.
      * @throws UnsupportedEncodingException if the compression, predictor or data type is unsupported.
@@ -196,7 +199,9 @@ public abstract class Inflater implements Closeable {
                                   final int               samplesPerChunk,
                                   final int[]             skipAfterChunks,
                                   final int               pixelsPerElement,
-                                  final DataType          dataType)
+                                  final DataType          dataType,
+                                  final byte[]            jpegTables,
+                                  final boolean           isYCbCr)
             throws IOException, UnsupportedEncodingException
     {
         ArgumentChecks.ensureNonNull("input", input);
@@ -206,6 +211,17 @@ public abstract class Inflater implements Closeable {
             case DEFLATE:  inflater = new Deflate (input, listeners, false); break;
             case PACKBITS: inflater = new PackBits(input, listeners); break;
             case CCITTRLE: inflater = new CCITTRLE(input, listeners, sourceWidth); break;
+            case ZSTD:     inflater = new ZSTD    (input, listeners); break;
+            case JPEG: {
+                if (dataType == DataType.BYTE) {
+                    final ImageReader reader = JPEG.createReader();
+                    if (reader != null) {
+                        inflater = new JPEG(input, listeners, reader, jpegTables, isYCbCr);
+                        break;
+                    }
+                }
+                throw unsupportedEncoding(listeners, Resources.Keys.UnsupportedCompressionMethod_1, compression);
+            }
             case NONE: {
                 if (predictor == Predictor.NONE) {
                     return CopyFromBytes.create(input, dataType, chunksPerRow, samplesPerChunk, skipAfterChunks, pixelsPerElement);
@@ -0,0 +1,320 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff.inflater;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.io.IOException;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.awt.image.Raster;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.PixelInterleavedSampleModel;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import org.apache.sis.storage.event.StoreListeners;
+import org.apache.sis.io.stream.ChannelDataInput;
+import org.apache.sis.io.stream.inflater.InflaterChannel;
+
+
+/**
+ * Inflater for values encoded with the <abbr>JPEG</abbr> compression (<abbr>TIFF</abbr> compression 7).
+ * Each tile or strip is a <abbr>JPEG</abbr> stream, usually abbreviated (without quantization and Huffman
+ * tables) when the tables are shared by all tiles in the {@code JPEGTables} <abbr>TIFF</abbr> tag.
+ *
+ * <p>The entropy decoding is delegated to the <abbr>JPEG</abbr> reader of the Java platform, but in a way
+ * that avoids most of the cost of the Image I/O framework: a single reader is created for all tiles, the
+ * shared tables are copied only once in a buffer reused for all tiles, and the samples are obtained with
+ * {@link ImageReader#readRaster readRaster(…)}, which returns the components as stored in the stream
+ * without color conversion and without creation of {@link java.awt.image.BufferedImage}.
+ * The conversion from YCbCr to RGB, if needed, is done by this class.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+final class JPEG extends InflaterChannel {
+    /**
+     * The marker for "Start Of Image" and "End Of Image".
+     * Those markers are the first and last 2 bytes of a <abbr>JPEG</abbr> stream.
+     */
+    private static final short SOI = (short) 0xFFD8, EOI = (short) 0xFFD9;
+
+    /**
+     * Number of fractional bits in the fixed-point arithmetic used for YCbCr to RGB conversion.
+     */
+    private static final int SCALE_BITS = 16;
+
+    /**
+     * Tables for YCbCr to RGB conversion, indexed by the Cb or Cr values. The values in the {@code CR_R}
+     * and {@code CB_B} tables are the contributions to the red and blue components respectively.
+     * The values in {@code CR_G} and {@code CB_G} tables are the contributions to the green component,
+     * in fixed-point arithmetic with {@value #SCALE_BITS} fractional bits.
+     */
+    private static final int[] CR_R, CB_B, CR_G, CB_G;
+    static {
+        CR_R = new int[256];
+        CB_B = new int[256];
+        CR_G = new int[256];
+        CB_G = new int[256];
+        final double one = 1 << SCALE_BITS;
+        for (int i=0; i<256; i++) {
+            final int x = i - 128;
+            CR_R[i] = (int) Math.round(1.40200 * x);
+            CB_B[i] = (int) Math.round(1.77200 * x);
+            CR_G[i] = (int) Math.round(-0.71414 * one * x);
+            CB_G[i] = (int) Math.round(-0.34414 * one * x) + (1 << (SCALE_BITS - 1));
+        }
+    }
+
+    /**
+     * The reader to use for decoding the <abbr>JPEG</abbr> streams.
+     * This reader is reused for all tiles, then disposed when this channel is closed.
+     */
+    private final ImageReader reader;
+
+    /**
+     * Whether to convert the YCbCr components to RGB components.
+     */
+    private final boolean isYCbCr;
+
+    /**
+     * Number of bytes at the beginning of {@link #stream} which are the shared tables, without the EOI marker.
+     * This is zero if there is no shared table.
+     */
+    private final int tablesLength;
+
+    /**
+     * A buffer containing a complete <abbr>JPEG</abbr> stream for the tile to decode. The first {@link #tablesLength}
+     * bytes are the shared tables, which are copied only once. They are followed by the content of the current tile,
+     * without its SOI marker if the tables are used. This array is reused for all tiles and expanded when needed.
+     */
+    private byte[] stream;
+
+    /**
+     * Number of bytes to read from the input for the current tile.
+     */
+    private int byteCount;
+
+    /**
+     * The decoded sample values of the current tile, or {@code null} if not yet decoded.
+     * Values are pixel interleaved and may begin at an offset given by {@link #position}.
+     */
+    private byte[] samples;
+
+    /**
+     * Index in {@link #samples} of the next byte to return, and index after the last byte to return.
+     */
+    private int position, limit;
+
+    /**
+     * Creates a new channel which will decompress data from the given input.
+     * The {@link #setInputRegion(long, long)} method must be invoked after construction
+     * before a reading process can start.
+     *
+     * @param  input      the source of data to decompress.
+     * @param  listeners  object where to report warnings.
+     * @param  reader     the reader to use for decoding the <abbr>JPEG</abbr> streams.
+     * @param  tables     content of the {@code JPEGTables} tag, or {@code null} if none.
+     * @param  isYCbCr    whether to convert YCbCr components to RGB.
+     */
+    JPEG(final ChannelDataInput input, final StoreListeners listeners, final ImageReader reader,
+         final byte[] tables, final boolean isYCbCr)
+    {
+        super(input, listeners);
+        this.reader  = reader;
+        this.isYCbCr = isYCbCr;
+        int length = 0;
+        if (tables != null && (length = tables.length) >= 4) {
+            if (marker(tables, length - 2) == EOI) {
+                length -= 2;
+            }
+            stream = new byte[Math.max(length, 8192)];
+            System.arraycopy(tables, 0, stream, 0, length);
+        } else {
+            length = 0;
+        }
+        tablesLength = length;
+    }
+
+    /**
+     * Returns a reader for <abbr>JPEG</abbr> streams, or {@code null} if none.
+     */
+    static ImageReader createReader() {
+        final Iterator<ImageReader> it = ImageIO.getImageReadersByFormatName("jpeg");
+        return it.hasNext() ? it.next() : null;
+    }
+
+    /**
+     * Returns the marker at the given index of the given array.
+     */
+    private static short marker(final byte[] data, final int index) {
+        return (short) (((data[index] & 0xFF) << Byte.SIZE) | (data[index + 1] & 0xFF));
+    }
+
+    /**
+     * Prepares this inflater for reading a new tile or a new band of a tile.
+     * The decoding is deferred until the first call to {@link #read(ByteBuffer)}.
+     *
+     * @param  start      stream position where to start reading.
+     * @param  byteCount  number of bytes to read from the input.
+     * @throws IOException if the stream cannot be seek to the given start position.
+     */
+    @Override
+    public void setInputRegion(final long start, final long byteCount) throws IOException {
+        super.setInputRegion(start, byteCount);
+        this.byteCount = Math.toIntExact(byteCount);
+        samples  = null;
+        position = 0;
+        limit    = 0;
+    }
+
+    /**
+     * Reads the compressed bytes of the current tile and decodes them.
+     * After this method call, the decoded bytes are in {@link #samples}
+     * between the {@link #position} and {@link #limit} indices.
+     *
+     * @throws IOException if an error occurred while reading or decoding the tile.
+     */
+    private void decode() throws IOException {
+        int length = byteCount;
+        boolean abbreviated = false;
+        if (tablesLength != 0 && length >= 2) {
+            if (input.readShort() == SOI) {
+                length -= 2;                    // Skip the SOI marker, since the tables already have one.
+                abbreviated = true;
+            } else {
+                input.seek(input.getStreamPosition() - Short.BYTES);
+            }
+        }
+        final int end = Math.addExact(tablesLength, length);
+        if (stream == null) {
+            stream = new byte[end];
+        } else if (stream.length < end) {
+            stream = Arrays.copyOf(stream, end);        // Keep the tables for the next tiles.
+        }
+        input.readFully(stream, tablesLength, length);
+        final int start = abbreviated ? 0 : tablesLength;
+        final Raster raster;
+        try (var in = new MemoryCacheImageInputStream(new ByteArrayInputStream(stream, start, end - start))) {
+            reader.setInput(in, true, true);
+            raster = reader.readRaster(0, null);
+        } finally {
+            reader.setInput(null);
+        }
+        /*
+         * The raster created by the JPEG reader is usually pixel-interleaved with no padding.
+         * In such case, we can use the backing array directly. Otherwise copy in a new array.
+         */
+        final int width    = raster.getWidth();
+        final int height   = raster.getHeight();
+        final int numBands = raster.getNumBands();
+        final int count    = Math.multiplyExact(Math.multiplyExact(width, height), numBands);
+        final DataBuffer buffer = raster.getDataBuffer();
+        if (buffer instanceof DataBufferByte && buffer.getNumBanks() == 1 && isCompact(raster, numBands)) {
+            samples  = ((DataBufferByte) buffer).getData();
+            position = buffer.getOffset();
+        } else {
+            samples  = (byte[]) raster.getDataElements(raster.getMinX(), raster.getMinY(), width, height, null);
+            position = 0;
+        }
+        limit = position + count;
+        if (isYCbCr && numBands >= 3) {
+            toRGB(samples, position, limit, numBands);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the given raster is pixel interleaved with the bands in order and no padding.
+     */
+    private static boolean isCompact(final Raster raster, final int numBands) {
+        if (raster.getSampleModel() instanceof PixelInterleavedSampleModel) {
+            final var model = (PixelInterleavedSampleModel) raster.getSampleModel();
+            if (model.getPixelStride() == numBands && model.getScanlineStride() == raster.getWidth() * numBands
+                    && raster.getSampleModelTranslateX() == raster.getMinX()
+                    && raster.getSampleModelTranslateY() == raster.getMinY())
+            {
+                final int[] offsets = model.getBandOffsets();
+                for (int i=0; i<offsets.length; i++) {
+                    if (offsets[i] != i) return false;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Converts in-place the YCbCr components of all pixels to RGB components.
+     * The extra components after the three first ones (e.g. alpha) are left unchanged.
+     *
+     * @param  samples    the pixel-interleaved samples values to convert.
+     * @param  start      index of the first sample to convert.
+     * @param  end        index after the last sample to convert.
+     * @param  numBands   number of bands, which is the pixel stride.
+     */
+    static void toRGB(final byte[] samples, int start, final int end, final int numBands) {
+        for (; start < end; start += numBands) {
+            final int y  = Byte.toUnsignedInt(samples[start    ]);
+            final int cb = Byte.toUnsignedInt(samples[start + 1]);
+            final int cr = Byte.toUnsignedInt(samples[start + 2]);
+            samples[start    ] = clamp(y + CR_R[cr]);
+            samples[start + 1] = clamp(y + ((CB_G[cb] + CR_G[cr]) >> SCALE_BITS));
+            samples[start + 2] = clamp(y + CB_B[cb]);
+        }
+    }
+
+    /**
+     * Clamps the given value to the range of unsigned bytes.
+     */
+    private static byte clamp(final int value) {
+        return (byte) Math.max(0, Math.min(255, value));
+    }
+
+    /**
+     * Decompresses some bytes from the {@linkplain #input input} into the given destination buffer.
+     * The whole tile is decoded on the first invocation of this method after {@link #setInputRegion
+     * setInputRegion(…)}, then the decoded bytes are returned in consecutive invocations.
+     *
+     * @param  target  the buffer into which bytes are to be transferred.
+     * @return the number of bytes read, or -1 if end-of-stream.
+     * @throws IOException if some other I/O error occurs.
+     */
+    @Override
+    public int read(final ByteBuffer target) throws IOException {
+        if (samples == null) {
+            decode();
+        }
+        final int n = Math.min(target.remaining(), limit - position);
+        if (n <= 0) {
+            return (target.hasRemaining()) ? -1 : 0;
+        }
+        target.put(samples, position, n);
+        position += n;
+        return n;
+    }
+
+    /**
+     * Releases resources used by the <abbr>JPEG</abbr> reader.
+     * The {@linkplain #input input} is not closed.
+     */
+    @Override
+    public void close() {
+        super.close();
+        reader.dispose();
+    }
+}
@@ -0,0 +1,1012 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff.inflater;
+
+import java.util.Arrays;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.apache.sis.storage.event.StoreListeners;
+import org.apache.sis.storage.geotiff.base.Resources;
+import org.apache.sis.io.stream.ChannelDataInput;
+import org.apache.sis.io.stream.inflater.InflaterChannel;
+import static org.apache.sis.storage.geotiff.base.Zstandard.*;
+
+
+/**
+ * Inflater for values encoded with the Zstandard compression (<abbr>TIFF</abbr> compression 50000).
+ * This is a pure Java implementation of the decoder specified by <abbr>RFC</abbr> 8878, without
+ * support for dictionaries (which are not used in <abbr>TIFF</abbr> files).
+ *
+ * <p>The whole tile is decompressed on the first call to {@link #read(ByteBuffer)}, because the
+ * Zstandard matches can reference any previous byte of the tile. The arrays for the compressed
+ * and decompressed bytes are reused for all tiles.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+final class ZSTD extends InflaterChannel {
+    /**
+     * Number of bits in the bit container of {@link BitReader}.
+     */
+    private static final int CONTAINER_SIZE = Long.SIZE;
+
+    /**
+     * Decoding tables for the predefined distributions of literals lengths, match lengths and offsets codes.
+     */
+    private static final Table LITERALS_LENGTH_TABLE, MATCH_LENGTH_TABLE, OFFSET_TABLE;
+    static {
+        LITERALS_LENGTH_TABLE = new Table();
+        MATCH_LENGTH_TABLE    = new Table();
+        OFFSET_TABLE          = new Table();
+        LITERALS_LENGTH_TABLE.build(LITERALS_LENGTH_DEFAULT, LITERALS_LENGTH_DEFAULT.length, LITERALS_LENGTH_DEFAULT_LOG);
+        MATCH_LENGTH_TABLE   .build(MATCH_LENGTH_DEFAULT,    MATCH_LENGTH_DEFAULT.length,    MATCH_LENGTH_DEFAULT_LOG);
+        OFFSET_TABLE         .build(OFFSET_DEFAULT,          OFFSET_DEFAULT.length,          OFFSET_DEFAULT_LOG);
+    }
+
+    /**
+     * A Finite State Entropy (<abbr>FSE</abbr>) decoding table.
+     * For each state, the table gives the decoded symbol, the number of bits to read for computing the
+     * next state, and the value to add to those bits. Instances are mutable for allowing reuse.
+     */
+    private static final class Table {
+        /** Accuracy log, which is the number of bits to read for the initial state. */
+        int log;
+
+        /** Symbol associated to each state. */
+        byte[] symbols;
+
+        /** Number of bits to read for computing the next state. */
+        byte[] numBits;
+
+        /** Value to add to the bits read for computing the next state. */
+        int[] baselines;
+
+        /** Normalized probabilities, used only as a temporary array. */
+        final short[] norm = new short[256];
+
+        /** Creates a new table to be initialized by a {@code build(…)} method. */
+        Table() {
+        }
+
+        /**
+         * Builds the decoding table from the given normalized probabilities.
+         *
+         * @param norm       normalized probabilities of each symbol, or -1 for "less than 1" probability.
+         * @param numSymbol  number of valid elements in the {@code norm} array.
+         * @param log        accuracy log of the table.
+         */
+        final void build(final short[] norm, final int numSymbol, final int log) {
+            final int size = 1 << log;
+            this.log  = log;
+            symbols   = spread(norm, numSymbol, log);
+            numBits   = new byte[size];
+            baselines = new int [size];
+            final int[] next = new int[numSymbol];
+            for (int s=0; s<numSymbol; s++) {
+                next[s] = (norm[s] == -1) ? 1 : norm[s];
+            }
+            for (int u=0; u<size; u++) {
+                final int n  = next[symbols[u] & 0xFF]++;
+                final int nb = log - highBit(n);
+                numBits  [u] = (byte) nb;
+                baselines[u] = (n << nb) - size;
+            }
+        }
+
+        /**
+         * Builds a table which always return the given symbol (<abbr>RLE</abbr> mode).
+         *
+         * @param symbol  the symbol to return.
+         */
+        final void build(final int symbol) {
+            log       = 0;
+            symbols   = new byte[] {(byte) symbol};
+            numBits   = new byte[1];
+            baselines = new int [1];
+        }
+    }
+
+    /**
+     * Reader of a bit stream in backward direction. Zstandard bit streams are written forward
+     * but read backward, starting from the last bit written before a final "1" marker bit.
+     * This reader uses a bit container for reading many bits with a single array access.
+     */
+    private static final class BitReader {
+        /** The buffer containing the bit stream. */
+        private final ByteBuffer buffer;
+
+        /** Index of the first byte of the bit stream. */
+        private int start;
+
+        /** Index of the first byte loaded in the {@link #bits} container. */
+        private int address;
+
+        /** The bits loaded from the stream, in little-endian order. */
+        private long bits;
+
+        /** Number of bits already consumed from the container, counted from the highest bit. */
+        private int consumed;
+
+        /** Creates a new reader for the given buffer, which must be in little-endian order. */
+        BitReader(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Prepares this reader for reading the bit stream in the given range.
+         *
+         * @return {@code false} if the stream is invalid.
+         */
+        final boolean initialize(final int start, final int end) {
+            final int length = end - start;
+            if (length <= 0) return false;
+            final int last = buffer.get(end - 1) & 0xFF;
+            if (last == 0) return false;
+            this.start = start;
+            if (length >= Long.BYTES) {
+                address  = end - Long.BYTES;
+                bits     = buffer.getLong(address);
+                consumed = 0;
+            } else {
+                address = start;
+                bits = 0;
+                for (int i=0; i<length; i++) {
+                    bits |= (buffer.get(start + i) & 0xFFL) << (i * Byte.SIZE);
+                }
+                consumed = (Long.BYTES - length) * Byte.SIZE;
+            }
+            consumed += Integer.numberOfLeadingZeros(last) - (Integer.SIZE - Byte.SIZE) + 1;
+            return true;
+        }
+
+        /**
+         * Returns the value of the next bits without consuming them.
+         * If there is not enough bits, the missing lowest bits are zeros.
+         *
+         * @param  n  number of bits to peek, from 0 to 31 inclusive.
+         */
+        final int peek(final int n) {
+            final long v = (consumed < CONTAINER_SIZE) ? bits << consumed : 0;
+            return (int) ((v >>> 1) >>> (CONTAINER_SIZE - 1 - n));
+        }
+
+        /**
+         * Reads and consumes the given number of bits.
+         *
+         * @param  n  number of bits to read, from 0 to 31 inclusive.
+         */
+        final int read(final int n) {
+            final int v = peek(n);
+            consumed += n;
+            return v;
+        }
+
+        /** Consumes the given number of bits. */
+        final void skip(final int n) {
+            consumed += n;
+        }
+
+        /**
+         * Refills the bit container. After this method call, at least 57 bits are available
+         * in the container, except if the beginning of the stream has been reached.
+         *
+         * @return whether more bits than available in the stream have been consumed.
+         */
+        final boolean reload() {
+            if (consumed > CONTAINER_SIZE) {
+                return true;
+            }
+            if (address >= start + Long.BYTES) {
+                address  -= consumed >>> 3;
+                consumed &= Byte.SIZE - 1;
+            } else if (address != start) {
+                final int n = Math.min(consumed >>> 3, address - start);
+                address  -= n;
+                consumed -= n * Byte.SIZE;
+            } else {
+                return false;
+            }
+            bits = buffer.getLong(address);
+            return false;
+        }
+
+        /** Returns whether all bits of the stream have been consumed, no more and no less. */
+        final boolean finished() {
+            return address == start && consumed == CONTAINER_SIZE;
+        }
+    }
+
+    /**
+     * The compressed bytes of the current tile, wrapped in a buffer in little-endian order.
+     * The array is reused for all tiles and expanded when needed.
+     */
+    private ByteBuffer compressed;
+
+    /**
+     * Reader of the bit streams in the {@link #compressed} buffer.
+     */
+    private BitReader reader;
+
+    /**
+     * Number of bytes to read from the input for the current tile.
+     */
+    private int byteCount;
+
+    /**
+     * The decompressed bytes of the current tile. This array is reused for all tiles and expanded when needed.
+     */
+    private byte[] output;
+
+    /**
+     * Number of valid bytes in the {@link #output} array.
+     */
+    private int outputLength;
+
+    /**
+     * Index in {@link #output} of the next byte to return by {@link #read(ByteBuffer)},
+     * or -1 if the tile has not yet been decompressed.
+     */
+    private int position;
+
+    /**
+     * Index in {@link #output} of the first byte of the current frame.
+     * Matches cannot reference bytes before this position.
+     */
+    private int frameStart;
+
+    /**
+     * The literals of the current block. The valid length is {@link #literalsCount}.
+     */
+    private final byte[] literals;
+
+    /**
+     * Number of valid elements in the {@link #literals} array.
+     */
+    private int literalsCount;
+
+    /**
+     * The three last offsets, used for offset values 1 to 3.
+     */
+    private final int[] repeatedOffsets;
+
+    /**
+     * Huffman weights of each symbol. Used only as a temporary array during Huffman table decoding.
+     */
+    private final byte[] weights;
+
+    /**
+     * Decoding table of the Huffman code for literals. For a given value of {@link #huffmanLog} bits,
+     * {@code huffmanSymbols} gives the decoded literal and {@code huffmanBits} gives the number of bits
+     * to consume. The table is kept from one block to the next for the "treeless" literals blocks.
+     */
+    private final byte[] huffmanSymbols, huffmanBits;
+
+    /**
+     * Number of bits of the Huffman decoding table, or 0 if there is no table yet.
+     */
+    private int huffmanLog;
+
+    /**
+     * The tables specified in the compressed stream, created when first needed and reused.
+     */
+    private final Table literalsLengthTable, offsetTable, matchLengthTable, weightsTable;
+
+    /**
+     * The tables used in the previous block, for the "repeat" mode.
+     */
+    private Table previousLiteralsLength, previousOffset, previousMatchLength;
+
+    /**
+     * Creates a new channel which will decompress data from the given input.
+     * The {@link #setInputRegion(long, long)} method must be invoked after construction
+     * before a reading process can start.
+     *
+     * @param  input      the source of data to decompress.
+     * @param  listeners  object where to report warnings.
+     */
+    public ZSTD(final ChannelDataInput input, final StoreListeners listeners) {
+        super(input, listeners);
+        output              = new byte[0];
+        literals            = new byte[MAX_BLOCK_SIZE];
+        repeatedOffsets     = new int[3];
+        weights             = new byte[256];
+        huffmanSymbols      = new byte[1 << MAX_HUFFMAN_BITS];
+        huffmanBits         = new byte[1 << MAX_HUFFMAN_BITS];
+        literalsLengthTable = new Table();
+        offsetTable         = new Table();
+        matchLengthTable    = new Table();
+        weightsTable        = new Table();
+    }
+
+    /**
+     * Prepares this inflater for reading a new tile or a new band of a tile.
+     * The decompression is deferred until the first call to {@link #read(ByteBuffer)}.
+     *
+     * @param  start      stream position where to start reading.
+     * @param  byteCount  number of bytes to read from the input.
+     * @throws IOException if the stream cannot be seek to the given start position.
+     */
+    @Override
+    public void setInputRegion(final long start, final long byteCount) throws IOException {
+        super.setInputRegion(start, byteCount);
+        this.byteCount = Math.toIntExact(byteCount);
+        outputLength   = 0;
+        position       = -1;
+    }
+
+    /**
+     * Decompresses some bytes from the {@linkplain #input input} into the given destination buffer.
+     * The whole tile is decompressed on the first invocation of this method after {@link #setInputRegion
+     * setInputRegion(…)}, then the decompressed bytes are returned in consecutive invocations.
+     *
+     * @param  target  the buffer into which bytes are to be transferred.
+     * @return the number of bytes read, or -1 if end-of-stream.
+     * @throws IOException if some other I/O error occurs.
+     */
+    @Override
+    public int read(final ByteBuffer target) throws IOException {
+        if (position < 0) {
+            decompress();
+            position = 0;
+        }
+        final int n = Math.min(target.remaining(), outputLength - position);
+        if (n <= 0) {
+            return (target.hasRemaining()) ? -1 : 0;
+        }
+        target.put(output, position, n);
+        position += n;
+        return n;
+    }
+
+    /**
+     * Reads all compressed bytes of the current tile and decompresses them in the {@link #output} array.
+     * A tile may contain many frames, which are decompressed one after the other.
+     *
+     * @throws IOException if an error occurred while reading the input or if the data are invalid.
+     */
+    private void decompress() throws IOException {
+        if (compressed == null || compressed.capacity() < byteCount) {
+            compressed = ByteBuffer.wrap(new byte[Math.max(byteCount, 1024)]).order(ByteOrder.LITTLE_ENDIAN);
+            reader = new BitReader(compressed);
+        }
+        input.readFully(compressed.array(), 0, byteCount);
+        compressed.limit(byteCount);
+        int p = 0;
+        while (p < byteCount) {
+            if (byteCount - p < Integer.BYTES) {
+                throw corrupted();
+            }
+            final int magic = compressed.getInt(p);
+            if ((magic & ~0xF) == SKIPPABLE_MAGIC) {
+                p = Math.addExact(p + 2*Integer.BYTES, compressed.getInt(p + Integer.BYTES));
+            } else if (magic == MAGIC) {
+                p = decompressFrame(p + Integer.BYTES);
+            } else {
+                throw corrupted();
+            }
+        }
+    }
+
+    /**
+     * Decompresses a frame starting at the given position (after the magic number).
+     *
+     * @param  p  position of the frame header descriptor.
+     * @return position after the frame.
+     */
+    private int decompressFrame(int p) throws IOException {
+        final int descriptor = u8(p++);
+        if ((descriptor & 0x08) != 0) {
+            throw corrupted();                              // Reserved bit.
+        }
+        final boolean singleSegment = (descriptor & 0x20) != 0;
+        if (!singleSegment) {
+            p++;                                            // Window descriptor, ignored.
+        }
+        switch (descriptor & 3) {                           // Dictionary identifier.
+            case 0: break;
+            case 1: if (u8(p++) != 0) throw unsupportedDictionary(); break;
+            case 2: if (compressed.getShort(p) != 0) throw unsupportedDictionary(); p += Short.BYTES; break;
+            case 3: if (compressed.getInt(p) != 0) throw unsupportedDictionary(); p += Integer.BYTES; break;
+        }
+        long contentSize = -1;
+        switch (descriptor >>> 6) {
+            case 0: if (singleSegment) contentSize = u8(p++); break;
+            case 1: contentSize = (compressed.getShort(p) & 0xFFFF) + 256; p += Short.BYTES; break;
+            case 2: contentSize = compressed.getInt(p) & 0xFFFFFFFFL; p += Integer.BYTES; break;
+            case 3: contentSize = compressed.getLong(p); p += Long.BYTES; break;
+        }
+        if (contentSize >= 0) {
+            ensureCapacity(Math.addExact(outputLength, Math.toIntExact(contentSize)));
+        }
+        frameStart = outputLength;
+        repeatedOffsets[0] = 1;
+        repeatedOffsets[1] = 4;
+        repeatedOffsets[2] = 8;
+        huffmanLog = 0;
+        previousLiteralsLength = null;
+        previousOffset         = null;
+        previousMatchLength    = null;
+        boolean last;
+        do {
+            if (byteCount - p < 3) {
+                throw corrupted();
+            }
+            final int header = u8(p) | (u8(p+1) << 8) | (u8(p+2) << 16);
+            final int size = header >>> 3;
+            last = (header & 1) != 0;
+            p += 3;
+            switch ((header >>> 1) & 3) {
+                case RAW_BLOCK: {
+                    checkBounds(p, size);
+                    ensureCapacity(outputLength + size);
+                    System.arraycopy(compressed.array(), p, output, outputLength, size);
+                    outputLength += size;
+                    p += size;
+                    break;
+                }
+                case RLE_BLOCK: {
+                    checkBounds(p, 1);
+                    ensureCapacity(outputLength + size);
+                    Arrays.fill(output, outputLength, outputLength += size, compressed.get(p++));
+                    break;
+                }
+                case COMPRESSED_BLOCK: {
+                    if (size > MAX_BLOCK_SIZE) throw corrupted();
+                    checkBounds(p, size);
+                    final int end = p + size;
+                    decompressSequences(decompressLiterals(p, end), end);
+                    p = end;
+                    break;
+                }
+                default: throw corrupted();
+            }
+        } while (!last);
+        if (contentSize >= 0 && outputLength - frameStart != contentSize) {
+            throw corrupted();
+        }
+        if ((descriptor & 0x04) != 0) {
+            p += Integer.BYTES;                             // Checksum, ignored.
+        }
+        return p;
+    }
+
+    /**
+     * Decompresses the literals section of a compressed block into the {@link #literals} array.
+     *
+     * @param  p    position of the literals section header.
+     * @param  end  position after the end of the block.
+     * @return position after the literals section.
+     */
+    private int decompressLiterals(int p, final int end) throws IOException {
+        final int b0 = u8(p);
+        final int type = b0 & 3;
+        final int sizeFormat = (b0 >>> 2) & 3;
+        if (type == RAW_LITERALS || type == RLE_LITERALS) {
+            final int size;
+            switch (sizeFormat) {
+                case 1:  size = (b0 >>> 4) + (u8(p+1) << 4); p += 2; break;
+                case 3:  size = (b0 >>> 4) + (u8(p+1) << 4) + (u8(p+2) << 12); p += 3; break;
+                default: size = b0 >>> 3; p++; break;
+            }
+            if (size > MAX_BLOCK_SIZE) throw corrupted();
+            if (type == RAW_LITERALS) {
+                checkBounds(p, size);
+                System.arraycopy(compressed.array(), p, literals, 0, size);
+                p += size;
+            } else {
+                Arrays.fill(literals, 0, size, compressed.get(p++));
+            }
+            literalsCount = size;
+            return p;
+        }
+        /*
+         * Huffman-compressed literals, in 1 or 4 streams. If the type is "treeless",
+         * the Huffman table of the previous block is reused.
+         */
+        final int size, length;
+        switch (sizeFormat) {
+            case 2: {
+                final int v = compressed.getInt(p);
+                size   = (v >>> 4)  & 0x3FFF;
+                length = (v >>> 18) & 0x3FFF;
+                p += 4;
+                break;
+            }
+            case 3: {
+                final long v = (compressed.getInt(p) & 0xFFFFFFFFL) | ((long) u8(p+4) << Integer.SIZE);
+                size   = (int) (v >>> 4)  & 0x3FFFF;
+                length = (int) (v >>> 22) & 0x3FFFF;
+                p += 5;
+                break;
+            }
+            default: {
+                final int v = u8(p) | (u8(p+1) << 8) | (u8(p+2) << 16);
+                size   = (v >>> 4)  & 0x3FF;
+                length = (v >>> 14) & 0x3FF;
+                p += 3;
+                break;
+            }
+        }
+        if (size > MAX_BLOCK_SIZE || p + length > end) {
+            throw corrupted();
+        }
+        final int streamsEnd = p + length;
+        if (type == COMPRESSED_LITERALS) {
+            p = readHuffmanTable(p, streamsEnd);
+        } else if (huffmanLog == 0) {
+            throw corrupted();
+        }
+        if (sizeFormat == 0) {
+            decodeHuffman(p, streamsEnd, 0, size);
+        } else {
+            final int s1 = p  + 6 + (compressed.getShort(p)   & 0xFFFF);
+            final int s2 = s1 + (compressed.getShort(p+2) & 0xFFFF);
+            final int s3 = s2 + (compressed.getShort(p+4) & 0xFFFF);
+            final int segment = (size + 3) >>> 2;
+            if (s3 > streamsEnd || segment * 3 > size) {
+                throw corrupted();
+            }
+            decodeHuffman(p + 6, s1, 0, segment);
+            decodeHuffman(s1, s2, segment, segment);
+            decodeHuffman(s2, s3, segment*2, segment);
+            decodeHuffman(s3, streamsEnd, segment*3, size - segment*3);
+        }
+        literalsCount = size;
+        return streamsEnd;
+    }
+
+    /**
+     * Reads the description of a Huffman table and builds the decoding table.
+     *
+     * @param  p    position of the Huffman tree description.
+     * @param  end  maximal position where the description can end.
+     * @return position after the Huffman tree description.
+     */
+    private int readHuffmanTable(int p, final int end) throws IOException {
+        final int header = u8(p++);
+        int count;
+        if (header >= 128) {
+            /*
+             * Weights stored directly as 4 bits values.
+             */
+            count = header - 127;
+            checkBounds(p, (count + 1) >>> 1);
+            for (int i=0; i<count; i++) {
+                final int b = u8(p + (i >>> 1));
+                weights[i] = (byte) (((i & 1) == 0) ? b >>> 4 : b & 0xF);
+            }
+            p += (count + 1) >>> 1;
+        } else {
+            /*
+             * Weights compressed with FSE, decoded with two interleaved states.
+             */
+            final int stop = p + header;
+            if (stop > end) throw corrupted();
+            final Table t = weightsTable;
+            if (!reader.initialize(readTable(p, stop, HUFFMAN_WEIGHTS_MAX_LOG, MAX_HUFFMAN_BITS + 1, t), stop)) {
+                throw corrupted();
+            }
+            int state1 = reader.read(t.log);
+            int state2 = reader.read(t.log);
+            count = 0;
+            while (true) {
+                if (count >= weights.length - 2) throw corrupted();
+                weights[count++] = t.symbols[state1];
+                state1 = t.baselines[state1] + reader.read(t.numBits[state1]);
+                if (reader.reload()) {
+                    weights[count++] = t.symbols[state2];
+                    break;
+                }
+                weights[count++] = t.symbols[state2];
+                state2 = t.baselines[state2] + reader.read(t.numBits[state2]);
+                if (reader.reload()) {
+                    weights[count++] = t.symbols[state1];
+                    break;
+                }
+            }
+            p = stop;
+        }
+        /*
+         * Compute the weight of the last symbol, which is implicit.
+         * Then build the decoding table.
+         */
+        int total = 0;
+        for (int i=0; i<count; i++) {
+            final int w = weights[i];
+            if (w > MAX_HUFFMAN_BITS) throw corrupted();
+            if (w != 0) total += 1 << (w - 1);
+        }
+        if (total == 0 || count >= weights.length) throw corrupted();
+        final int log = highBit(total) + 1;
+        final int rest = (1 << log) - total;
+        if (log > MAX_HUFFMAN_BITS || Integer.bitCount(rest) != 1) {
+            throw corrupted();
+        }
+        weights[count++] = (byte) (highBit(rest) + 1);
+        final int[] rankStart = new int[MAX_HUFFMAN_BITS + 2];
+        for (int i=0; i<count; i++) {
+            rankStart[weights[i]]++;
+        }
+        int next = 0;
+        for (int w=1; w <= log; w++) {
+            final int n = rankStart[w];
+            rankStart[w] = next;
+            next += n << (w - 1);
+        }
+        for (int s=0; s<count; s++) {
+            final int w = weights[s];
+            if (w != 0) {
+                final int i = rankStart[w];
+                final int n = 1 << (w - 1);
+                Arrays.fill(huffmanSymbols, i, i+n, (byte) s);
+                Arrays.fill(huffmanBits,    i, i+n, (byte) (log + 1 - w));
+                rankStart[w] = i + n;
+            }
+        }
+        huffmanLog = log;
+        return p;
+    }
+
+    /**
+     * Decodes a Huffman-compressed stream of literals.
+     *
+     * @param  start   position of the first byte of the stream.
+     * @param  end     position after the last byte of the stream.
+     * @param  offset  index in {@link #literals} where to store the first decoded literal.
+     * @param  count   number of literals to decode.
+     */
+    private void decodeHuffman(final int start, final int end, int offset, final int count) throws IOException {
+        if (!reader.initialize(start, end)) {
+            throw corrupted();
+        }
+        final int log = huffmanLog;
+        final byte[] symbols = huffmanSymbols;
+        final byte[] numBits = huffmanBits;
+        final int stop = offset + count;
+        final int fast = stop - 3;
+        while (offset < fast) {                 // Decode 4 symbols per reload (44 bits at most).
+            int i = reader.peek(log); literals[offset++] = symbols[i]; reader.skip(numBits[i]);
+            i = reader.peek(log); literals[offset++] = symbols[i]; reader.skip(numBits[i]);
+            i = reader.peek(log); literals[offset++] = symbols[i]; reader.skip(numBits[i]);
+            i = reader.peek(log); literals[offset++] = symbols[i]; reader.skip(numBits[i]);
+            reader.reload();
+        }
+        while (offset < stop) {
+            final int i = reader.peek(log);
+            literals[offset++] = symbols[i];
+            reader.skip(numBits[i]);
+        }
+        reader.reload();
+        if (!reader.finished()) {
+            throw corrupted();
+        }
+    }
+
+    /**
+     * Reads the description of a <abbr>FSE</abbr> table and builds the decoding table.
+     *
+     * @param  p          position of the table description.
+     * @param  end        maximal position where the description can end.
+     * @param  maxLog     maximal accuracy log.
+     * @param  maxSymbol  maximal symbol value.
+     * @param  table      the table to initialize.
+     * @return position after the table description.
+     */
+    private int readTable(final int p, final int end, final int maxLog, final int maxSymbol, final Table table)
+            throws IOException
+    {
+        int bitPos = p * Byte.SIZE;
+        final int log = bits(bitPos, 4, end) + MIN_ACCURACY_LOG;
+        if (log > maxLog) throw corrupted();
+        bitPos += 4;
+        final short[] norm = table.norm;
+        int remaining = (1 << log) + 1;
+        int threshold = 1 << log;
+        int numBits   = log + 1;
+        int symbol    = 0;
+        while (remaining > 1 && symbol <= maxSymbol) {
+            final int max = (2*threshold - 1) - remaining;
+            int count = bits(bitPos, numBits - 1, end);
+            if (count < max) {
+                bitPos += numBits - 1;
+            } else {
+                count = bits(bitPos, numBits, end);
+                if (count >= threshold) count -= max;
+                bitPos += numBits;
+            }
+            count--;
+            remaining -= Math.abs(count);
+            norm[symbol++] = (short) count;
+            if (count == 0) {
+                int repeat;
+                do {
+                    repeat = bits(bitPos, 2, end);
+                    bitPos += 2;
+                    if (symbol + repeat > maxSymbol + 1) throw corrupted();
+                    for (int i=0; i<repeat; i++) {
+                        norm[symbol++] = 0;
+                    }
+                } while (repeat == 3);
+            }
+            while (remaining < threshold) {
+                numBits--;
+                threshold >>>= 1;
+            }
+        }
+        final int stop = (bitPos + (Byte.SIZE - 1)) / Byte.SIZE;
+        if (remaining != 1 || stop > end) {
+            throw corrupted();
+        }
+        table.build(norm, symbol, log);
+        return stop;
+    }
+
+    /**
+     * Reads bits in forward direction, as used in <abbr>FSE</abbr> table descriptions.
+     * Bits after the given end position are read as zeros.
+     *
+     * @param  bitPos  position of the first bit to read, counted from the beginning of the buffer.
+     * @param  n       number of bits to read, from 0 to 24 inclusive.
+     * @param  end     position after the last byte which can be read.
+     */
+    private int bits(final int bitPos, final int n, final int end) {
+        final int p = bitPos >>> 3;
+        int v = 0;
+        for (int i = Math.min(end - p, 4); --i >= 0;) {
+            v |= u8(p + i) << (i * Byte.SIZE);
+        }
+        return (v >>> (bitPos & 7)) & ((1 << n) - 1);
+    }
+
+    /**
+     * Returns the table to use for the given compression mode.
+     *
+     * @param  mode        the compression mode.
+     * @param  predefined  the table for predefined mode.
+     * @param  previous    the table used in the previous block, or {@code null} if none.
+     * @return the table to use, or {@code null} if the table description must be read.
+     */
+    private Table selectTable(final int mode, final Table predefined, final Table previous) throws IOException {
+        switch (mode) {
+            case PREDEFINED_MODE: return predefined;
+            case REPEAT_MODE: {
+                if (previous == null) throw corrupted();
+                return previous;
+            }
+            default: return null;
+        }
+    }
+
+    /**
+     * Decompresses the sequences section of a compressed block and executes the sequences.
+     *
+     * @param  p    position of the sequences section header.
+     * @param  end  position after the end of the block.
+     */
+    private void decompressSequences(int p, final int end) throws IOException {
+        if (p >= end) throw corrupted();
+        int numSequences = u8(p++);
+        if (numSequences >= 128) {
+            if (numSequences == 255) {
+                checkBounds(p, 2);
+                numSequences = (compressed.getShort(p) & 0xFFFF) + 0x7F00;
+                p += 2;
+            } else {
+                checkBounds(p, 1);
+                numSequences = ((numSequences - 128) << 8) + u8(p++);
+            }
+        }
+        if (numSequences == 0) {
+            if (p != end) throw corrupted();
+            appendLiterals(0, literalsCount);
+            return;
+        }
+        checkBounds(p, 1);
+        final int modes = u8(p++);
+        if ((modes & 3) != 0) throw corrupted();
+        /*
+         * Read the tables for literals lengths, offsets and match lengths, in that order.
+         */
+        Table ll = selectTable((modes >>> 6) & 3, LITERALS_LENGTH_TABLE, previousLiteralsLength);
+        if (ll == null) {
+            ll = literalsLengthTable;
+            p  = readTable((modes >>> 6) & 3, p, end, LITERALS_LENGTH_MAX_LOG, LITERALS_LENGTH_BASE.length - 1, ll);
+        }
+        Table of = selectTable((modes >>> 4) & 3, OFFSET_TABLE, previousOffset);
+        if (of == null) {
+            of = offsetTable;
+            p  = readTable((modes >>> 4) & 3, p, end, OFFSET_MAX_LOG, MAX_OFFSET_CODE, of);
+        }
+        Table ml = selectTable((modes >>> 2) & 3, MATCH_LENGTH_TABLE, previousMatchLength);
+        if (ml == null) {
+            ml = matchLengthTable;
+            p  = readTable((modes >>> 2) & 3, p, end, MATCH_LENGTH_MAX_LOG, MATCH_LENGTH_BASE.length - 1, ml);
+        }
+        previousLiteralsLength = ll;
+        previousOffset         = of;
+        previousMatchLength    = ml;
+        /*
+         * Decode and execute the sequences.
+         */
+        final BitReader r = reader;
+        if (!r.initialize(p, end)) {
+            throw corrupted();
+        }
+        int llState = r.read(ll.log);
+        int ofState = r.read(of.log);
+        int mlState = r.read(ml.log);
+        r.reload();
+        final int[] rep = repeatedOffsets;
+        int literalsPosition = 0;
+        while (true) {
+            final int ofCode = of.symbols[ofState];
+            final int mlCode = ml.symbols[mlState];
+            final int llCode = ll.symbols[llState];
+            if (ofCode > MAX_OFFSET_CODE - 1) {
+                throw corrupted();
+            }
+            int offset = (1 << ofCode) + r.read(ofCode);
+            r.reload();
+            final int matchLength    = MATCH_LENGTH_BASE   [mlCode] + r.read(MATCH_LENGTH_BITS   [mlCode]);
+            final int literalsLength = LITERALS_LENGTH_BASE[llCode] + r.read(LITERALS_LENGTH_BITS[llCode]);
+            r.reload();
+            /*
+             * Offset values 1 to 3 are references to the repeated offsets.
+             * Other values are new offsets, shifted by 3.
+             */
+            if (offset > 3) {
+                offset -= 3;
+                rep[2] = rep[1];
+                rep[1] = rep[0];
+                rep[0] = offset;
+            } else {
+                if (literalsLength == 0) offset++;
+                switch (offset) {
+                    case 1: offset = rep[0]; break;
+                    case 2: offset = rep[1]; rep[1] = rep[0]; rep[0] = offset; break;
+                    case 3: offset = rep[2]; rep[2] = rep[1]; rep[1] = rep[0]; rep[0] = offset; break;
+                    default: {
+                        offset = rep[0] - 1;
+                        if (offset == 0) throw corrupted();
+                        rep[2] = rep[1]; rep[1] = rep[0]; rep[0] = offset;
+                        break;
+                    }
+                }
+            }
+            /*
+             * Execute the sequence: copy the literals, then the match.
+             */
+            if (literalsLength > literalsCount - literalsPosition) {
+                throw corrupted();
+            }
+            appendLiterals(literalsPosition, literalsLength);
+            literalsPosition += literalsLength;
+            copyMatch(offset, matchLength);
+            if (--numSequences == 0) {
+                break;
+            }
+            llState = ll.baselines[llState] + r.read(ll.numBits[llState]);
+            mlState = ml.baselines[mlState] + r.read(ml.numBits[mlState]);
+            ofState = of.baselines[ofState] + r.read(of.numBits[ofState]);
+            r.reload();
+        }
+        if (!r.finished()) {
+            throw corrupted();
+        }
+        appendLiterals(literalsPosition, literalsCount - literalsPosition);
+    }
+
+    /**
+     * Reads the table for the given compression mode, which shall be <abbr>RLE</abbr> or <abbr>FSE</abbr>.
+     *
+     * @return position after the table description.
+     */
+    private int readTable(final int mode, final int p, final int end, final int maxLog, final int maxSymbol,
+                          final Table table) throws IOException
+    {
+        if (mode == FSE_MODE) {
+            return readTable(p, end, maxLog, maxSymbol, table);
+        }
+        checkBounds(p, 1);
+        final int symbol = u8(p);
+        if (symbol > maxSymbol) throw corrupted();
+        table.build(symbol);
+        return p + 1;
+    }
+
+    /**
+     * Appends the given range of literals to the output.
+     */
+    private void appendLiterals(final int start, final int length) {
+        ensureCapacity(outputLength + length);
+        System.arraycopy(literals, start, output, outputLength, length);
+        outputLength += length;
+    }
+
+    /**
+     * Appends a copy of previous output bytes. If the offset is smaller than the length,
+     * the copied bytes are repeated, each copy starting where the previous one ended.
+     *
+     * @param  offset  distance backward from the current output position.
+     * @param  length  number of bytes to copy.
+     */
+    private void copyMatch(final int offset, final int length) throws IOException {
+        if (offset > outputLength - frameStart) {
+            throw corrupted();
+        }
+        ensureCapacity(outputLength + length);
+        final int source = outputLength - offset;
+        if (offset >= length) {
+            System.arraycopy(output, source, output, outputLength, length);
+        } else {
+            // The pattern doubles in size after each copy.
+            int copied = 0;
+            while (copied < length) {
+                final int n = Math.min(copied + offset, length - copied);
+                System.arraycopy(output, source, output, outputLength + copied, n);
+                copied += n;
+            }
+        }
+        outputLength += length;
+    }
+
+    /**
+     * Ensures that the {@link #output} array has at least the given capacity.
+     */
+    private void ensureCapacity(final int capacity) {
+        if (capacity > output.length) {
+            output = Arrays.copyOf(output, Math.max(capacity, Math.min(output.length * 2, Integer.MAX_VALUE - 8)));
+        }
+    }
+
+    /**
+     * Returns the unsigned byte at the given position of the compressed stream.
+     */
+    private int u8(final int p) {
+        return compressed.get(p) & 0xFF;
+    }
+
+    /**
+     * Verifies that the given number of bytes is available at the given position of the compressed stream.
+     */
+    private void checkBounds(final int p, final int length) throws IOException {
+        if (length < 0 || p > byteCount - length) {
+            throw corrupted();
+        }
+    }
+
+    /**
+     * Returns the resources for error messages.
+     */
+    private Resources resources() {
+        return Resources.forLocale(listeners != null ? listeners.getLocale() : null);
+    }
+
+    /**
+     * The exception to throw if the decompression process encounters data that it cannot process.
+     */
+    private IOException corrupted() {
+        return new IOException(resources().getString(Resources.Keys.CorruptedCompression_2, input.filename, "ZSTD"));
+    }
+
+    /**
+     * The exception to throw if the stream requires a dictionary.
+     */
+    private IOException unsupportedDictionary() {
+        return new IOException(resources().getString(Resources.Keys.UnsupportedCompressionMethod_1, "ZSTD with dictionary"));
+    }
+}
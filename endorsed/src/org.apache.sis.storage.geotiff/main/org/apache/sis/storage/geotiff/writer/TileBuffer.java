@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff.writer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import org.apache.sis.io.stream.ChannelDataOutput;
+
+
+/**
+ * A channel which keeps in memory the bytes of a single tile before to copy them in the GeoTIFF file.
+ * This is used for Cloud Optimized GeoTIFF, where each tile must be preceded by a leader and followed
+ * by a trailer. The leader contains the number of bytes of the tile, and the trailer is a copy of the
+ * last 4 bytes of the tile. Those values can be known only after the tile has been compressed.
+ *
+ * <p>Only one tile (or one plane of a tile in the case of planar images) is hold in memory at a time.
+ * The array is reused for all tiles of all images.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ *
+ * @see <a href="https://gdal.org/en/stable/drivers/raster/cog.html#header-ghost-area">GDAL ghost area</a>
+ */
+final class TileBuffer implements WritableByteChannel {
+    /**
+     * Number of bytes in the leader and in the trailer.
+     */
+    static final int LEADER_LENGTH = Integer.BYTES, TRAILER_LENGTH = Integer.BYTES;
+
+    /**
+     * The bytes of the tile being written. Only the {@link #length} first bytes are valid.
+     */
+    private byte[] data;
+
+    /**
+     * Number of valid bytes in the {@link #data} array.
+     */
+    private int length;
+
+    /**
+     * Creates a new buffer with the given initial capacity.
+     *
+     * @param  capacity  initial capacity in number of bytes.
+     */
+    TileBuffer(final int capacity) {
+        data = new byte[Math.max(capacity, TRAILER_LENGTH)];
+    }
+
+    /**
+     * Appends the remaining bytes of the given buffer to the tile data.
+     *
+     * @param  source  the bytes to append.
+     * @return number of bytes appended.
+     */
+    @Override
+    public int write(final ByteBuffer source) {
+        final int n = source.remaining();
+        final int required = Math.addExact(length, n);
+        if (required > data.length) {
+            final var copy = new byte[Math.max(required, (int) Math.min(data.length * 2L, Integer.MAX_VALUE - 8))];
+            System.arraycopy(data, 0, copy, 0, length);
+            data = copy;
+        }
+        source.get(data, length, n);
+        length = required;
+        return n;
+    }
+
+    /**
+     * Copies the tile data in the given output, preceded by the leader and followed by the trailer.
+     * The leader is the tile length as an unsigned 32-bits integer in little-endian byte order.
+     * After this method call, this buffer is empty and ready for the next tile.
+     *
+     * @param  output  where to write the tile.
+     * @return stream position of the first byte of the tile data, after the leader.
+     * @throws IOException if an error occurred while writing to the given output.
+     */
+    final long transferTo(final ChannelDataOutput output) throws IOException {
+        final ByteOrder order = output.buffer.order();
+        try {
+            output.buffer.order(ByteOrder.LITTLE_ENDIAN);
+            output.writeInt(length);
+        } finally {
+            output.buffer.order(order);
+        }
+        final long position = output.getStreamPosition();
+        output.write(data, 0, length);
+        final int start = length - TRAILER_LENGTH;
+        if (start >= 0) {
+            output.write(data, start, TRAILER_LENGTH);
+        } else {
+            output.write(data, 0, length);          // Tile smaller than the trailer (should not happen).
+            output.repeat(-start, (byte) 0);
+        }
+        length = 0;
+        return position;
+    }
+
+    /**
+     * Returns the number of bytes of the tile data, without leader and trailer.
+     */
+    final int length() {
+        return length;
+    }
+
+    /**
+     * Returns {@code true} since this channel is always open.
+     */
+    @Override
+    public boolean isOpen() {
+        return true;
+    }
+
+    /**
+     * Does nothing, as there is no resource to release.
+     */
+    @Override
+    public void close() {
+    }
+}
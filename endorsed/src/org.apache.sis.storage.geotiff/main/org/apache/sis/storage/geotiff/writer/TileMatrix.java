@@ -180,13 +180,21 @@ public final class TileMatrix {
      * Caller shall invoke {@link #writeOffsetsAndLengths(ChannelDataOutput)} after this method.
      * This invocation is not done by this method for allowing the caller to control when to write data.
      *
-     * @param  output  where to write the tiles data.
+     * <p>If {@code blockLeaders} is {@code true}, then each tile is compressed in a temporary buffer before
+     * to be copied in the output, preceded by its length as a 4 bytes integer and followed by a copy of its
+     * last 4 bytes. This is the layout used by <abbr>GDAL</abbr> for Cloud Optimized GeoTIFF. The offsets
+     * and lengths stored in the <abbr>IFD</abbr> do not include those leaders and trailers.</p>
+     *
+     * @param  output        where to write the tiles data.
+     * @param  blockLeaders  whether to write a leader and a trailer around each tile.
      * @throws RasterFormatException if the raster uses an unsupported sample model.
      * @throws ArithmeticException if an integer overflow occurs.
      * @throws DataStoreException if the compression method is unsupported.
      * @throws IOException if an error occurred while writing to the given output.
      */
-    public void writeRasters(final ChannelDataOutput output) throws DataStoreException, IOException {
+    public void writeRasters(final ChannelDataOutput output, final boolean blockLeaders)
+            throws DataStoreException, IOException
+    {
         ChannelDataOutput compOutput    = null;
         PixelChannel      compressor    = null;
         SampleModel       sampleModel   = null;
@@ -195,6 +203,21 @@ public final class TileMatrix {
         final ByteOrder   fileByteOrder = output.buffer.order();
         final int minTileX = image.getMinTileX();
         final int minTileY = image.getMinTileY();
+        /*
+         * If each tile needs a leader and a trailer, we need to know the tile length before to write the tile.
+         * In such case, tiles are compressed in a temporary buffer (`staging`) instead of in the final output.
+         * Only one tile is hold in memory at a time.
+         */
+        final TileBuffer staging;
+        final ChannelDataOutput target;
+        if (blockLeaders) {
+            staging = new TileBuffer(tileSize);
+            target  = new ChannelDataOutput(output.filename, staging, false,
+                            ByteBuffer.allocate(output.buffer.capacity()).order(fileByteOrder));
+        } else {
+            staging = null;
+            target  = output;
+        }
         for (int tileIndex = 0; tileIndex < numTiles; tileIndex++) {
             /*
              * In current implementation, we iterate from left to right then top to bottom.
@@ -221,7 +244,7 @@ public final class TileMatrix {
              * so `compressor` is usually created only once and shared by all tiles.
              */
             if (!Objects.equals(sampleModel, sampleModel = tile.getSampleModel())) {
-                direct = type.equals(DataType.BYTE) && rect.suggestDirect(output);
+                direct = type.equals(DataType.BYTE) && rect.suggestDirect(target);
                 if (compressor != null) {
                     compressor.close();
                     compressor = null;
@@ -239,7 +262,8 @@ public final class TileMatrix {
                 if (compressionLevel != 0) {
                     final long length = Math.multiplyExact(builder.length(), type.bytes());
                     switch (compression) {
-                        case DEFLATE: compressor = new ZIP(output, length, compressionLevel); break;
+                        case DEFLATE: compressor = new ZIP(target, length, compressionLevel); break;
+                        case ZSTD:    compressor = new ZSTD(target, length); break;
                         default: throw new DataStoreException(compression.unsupported(null));
                     }
                     switch (predictor) {
@@ -252,9 +276,9 @@ public final class TileMatrix {
                         }
                     }
                     ByteBuffer buffer = direct ? ByteBuffer.allocate(0) : compressor.createBuffer();
-                    compOutput = new ChannelDataOutput(output.filename, compressor, false, buffer.order(fileByteOrder));
+                    compOutput = new ChannelDataOutput(target.filename, compressor, false, buffer.order(fileByteOrder));
                 } else {
-                    compOutput = output;
+                    compOutput = target;
                     assert predictor == Predictor.NONE : predictor;     // Assumption documented in `Compression` class.
                 }
             }
@@ -266,7 +290,7 @@ public final class TileMatrix {
             for (int j=0; j<numPlanes; j++) {
                 final int  b        = builder.bankIndex(j);
                 final int  offset   = builder.bankOffset(j, bufferOffsets[b]);
-                final long position = output.getStreamPosition();
+                long position = target.getStreamPosition();
                 try {
                     if (dataByteOrder != null) {
                         compOutput.buffer.order(dataByteOrder);
@@ -289,8 +313,16 @@ public final class TileMatrix {
                     }
                 }
                 final int planeIndex = tileIndex + j*numTiles;
+                final int length;
+                if (staging != null) {
+                    target.flush();
+                    length   = staging.length();
+                    position = staging.transferTo(output);
+                } else {
+                    length = Math.toIntExact(Math.subtractExact(output.getStreamPosition(), position));
+                }
                 offsets[planeIndex] = position;
-                lengths[planeIndex] = Math.toIntExact(Math.subtractExact(output.getStreamPosition(), position));
+                lengths[planeIndex] = length;
             }
         }
         if (compressor != null) {
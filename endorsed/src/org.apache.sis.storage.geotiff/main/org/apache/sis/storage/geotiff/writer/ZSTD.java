@@ -0,0 +1,1103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff.writer;
+
+import java.util.Arrays;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.apache.sis.io.stream.ChannelDataOutput;
+import org.apache.sis.storage.geotiff.base.Resources;
+import static org.apache.sis.storage.geotiff.base.Zstandard.*;
+
+
+/**
+ * Compressor for values encoded with the Zstandard compression (<abbr>TIFF</abbr> compression 50000).
+ * This is a pure Java implementation of an encoder producing streams conform to <abbr>RFC</abbr> 8878.
+ * The matches are found with a single hash table as in the "fast" strategy of the reference implementation,
+ * which favors speed over compression ratio. The literals are compressed with Huffman coding, and the
+ * sequences with the predefined, <abbr>RLE</abbr> or computed <abbr>FSE</abbr> tables, whichever is the
+ * most compact.
+ *
+ * <p>Each tile is written as a single frame. Because matches can reference any previous byte of the frame,
+ * the whole tile is accumulated in memory before to be compressed by {@link #finish(ChannelDataOutput)}.
+ * The arrays are reused for all tiles.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+final class ZSTD extends CompressionChannel {
+    /**
+     * Number of bits of the hash values used as indexes in the table of previous positions.
+     */
+    private static final int HASH_LOG = 16;
+
+    /**
+     * Minimal length of the matches searched by this encoder.
+     * This is one more than the minimum allowed by the format.
+     */
+    private static final int MIN_SEARCH = Integer.BYTES;
+
+    /**
+     * Minimal number of literals for trying Huffman compression.
+     * Below this threshold, the literals are stored without compression.
+     */
+    private static final int MIN_HUFFMAN = 64;
+
+    /**
+     * Maximal number of literals in a single Huffman stream.
+     * Above this threshold, the literals are split in 4 streams.
+     */
+    private static final int MAX_SINGLE_STREAM = 1023;
+
+    /**
+     * Maximal number of Huffman weights which can be stored without compression.
+     */
+    private static final int MAX_DIRECT_WEIGHTS = 128;
+
+    /**
+     * Encoding tables for the predefined distributions of literals lengths, match lengths and offsets codes.
+     */
+    private static final Table LITERALS_LENGTH_TABLE, MATCH_LENGTH_TABLE, OFFSET_TABLE;
+    static {
+        LITERALS_LENGTH_TABLE = new Table();
+        MATCH_LENGTH_TABLE    = new Table();
+        OFFSET_TABLE          = new Table();
+        LITERALS_LENGTH_TABLE.build(LITERALS_LENGTH_DEFAULT, LITERALS_LENGTH_DEFAULT.length, LITERALS_LENGTH_DEFAULT_LOG);
+        MATCH_LENGTH_TABLE   .build(MATCH_LENGTH_DEFAULT,    MATCH_LENGTH_DEFAULT.length,    MATCH_LENGTH_DEFAULT_LOG);
+        OFFSET_TABLE         .build(OFFSET_DEFAULT,          OFFSET_DEFAULT.length,          OFFSET_DEFAULT_LOG);
+    }
+
+    /**
+     * A Finite State Entropy (<abbr>FSE</abbr>) encoding table.
+     * The construction of this table mirrors the construction of the decoding table,
+     * so that each state transition of the encoder is reverted by the decoder.
+     * Instances are mutable for allowing reuse.
+     */
+    private static final class Table {
+        /** Accuracy log, which is the number of bits of the final state. */
+        int log;
+
+        /** Normalized probabilities of each symbol. */
+        final short[] norm = new short[256];
+
+        /** The next states, in a range of indices specific to each symbol. */
+        final int[] states = new int[1 << LITERALS_LENGTH_MAX_LOG];
+
+        /** Values used for computing the number of bits to write for a given symbol and state. */
+        final int[] deltaNumBits = new int[256];
+
+        /** Offset of the range of {@link #states} for each symbol. */
+        final int[] deltaFindState = new int[256];
+
+        /** Creates a new table to be initialized by a {@code build(…)} method. */
+        Table() {
+        }
+
+        /**
+         * Builds the encoding table from the given normalized probabilities.
+         *
+         * @param norm       normalized probabilities of each symbol, or -1 for "less than 1" probability.
+         * @param numSymbol  number of valid elements in the {@code norm} array.
+         * @param log        accuracy log of the table.
+         */
+        final void build(final short[] norm, final int numSymbol, final int log) {
+            final int size = 1 << log;
+            final byte[] symbols = spread(norm, numSymbol, log);
+            final int[] position = new int[numSymbol];
+            int total = 0;
+            for (int s=0; s<numSymbol; s++) {
+                final int n = norm[s];
+                switch (n) {
+                    case 0: {
+                        deltaNumBits[s] = ((log + 1) << 16) - size;
+                        break;
+                    }
+                    case -1:
+                    case 1: {
+                        deltaNumBits[s] = (log << 16) - size;
+                        deltaFindState[s] = total - 1;
+                        position[s] = total++;
+                        break;
+                    }
+                    default: {
+                        final int maxBitsOut = log - highBit(n - 1);
+                        deltaNumBits[s] = (maxBitsOut << 16) - (n << maxBitsOut);
+                        deltaFindState[s] = total - n;
+                        position[s] = total;
+                        total += n;
+                        break;
+                    }
+                }
+            }
+            for (int u=0; u<size; u++) {
+                states[position[symbols[u] & 0xFF]++] = size + u;
+            }
+            this.log = log;
+        }
+
+        /**
+         * Builds a table which always return the given symbol (<abbr>RLE</abbr> mode).
+         * No bit is written for the states of such table.
+         *
+         * @param  symbol  the symbol to encode.
+         */
+        final void build(final int symbol) {
+            Arrays.fill(norm, 0, symbol, (short) 0);
+            norm[symbol] = 1;
+            build(norm, symbol + 1, 0);
+        }
+
+        /**
+         * Returns the initial state for encoding the given symbol. This is the state
+         * for which the decoder will read the largest number of bits after the symbol.
+         *
+         * @param  symbol  the last symbol to encode (first symbol to decode).
+         * @return the initial state.
+         */
+        final int initialState(final int symbol) {
+            final int delta = deltaNumBits[symbol];
+            final int numBits = (delta + (1 << 15)) >>> 16;
+            return states[((numBits << 16) - delta >> numBits) + deltaFindState[symbol]];
+        }
+
+        /**
+         * Encodes the given symbol by writing some bits of the current state,
+         * then returns the new state.
+         *
+         * @param  out     where to write the bits.
+         * @param  state   the current state.
+         * @param  symbol  the symbol to encode.
+         * @return the new state.
+         */
+        final int encode(final BitWriter out, final int state, final int symbol) {
+            final int numBits = (state + deltaNumBits[symbol]) >>> 16;
+            out.write(state, numBits);
+            return states[(state >>> numBits) + deltaFindState[symbol]];
+        }
+    }
+
+    /**
+     * Writer of a bit stream to be read in backward direction by the decoder.
+     * The bits are written from the lowest bits to the highest bits of each byte.
+     * The stream is terminated by a bit set to 1.
+     */
+    private static final class BitWriter {
+        /** Where to write the bytes. */
+        private final byte[] buffer;
+
+        /** Index of the next byte to write in the buffer. */
+        int position;
+
+        /** Bits not yet written in the buffer. */
+        private long bits;
+
+        /** Number of valid bits in {@link #bits}. */
+        private int count;
+
+        /** Creates a new writer for the given buffer. */
+        BitWriter(final byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        /** Starts a new stream at the given position. */
+        final void reset(final int position) {
+            this.position = position;
+            bits  = 0;
+            count = 0;
+        }
+
+        /**
+         * Writes the given number of lowest bits of the given value.
+         *
+         * @param  value  the value to write.
+         * @param  n      number of bits to write, from 0 to 31 inclusive.
+         */
+        final void write(final int value, final int n) {
+            if (count > Integer.SIZE) flush();
+            bits |= (value & ((1L << n) - 1)) << count;
+            count += n;
+        }
+
+        /** Writes all complete bytes. */
+        final void flush() {
+            while (count >= Byte.SIZE) {
+                buffer[position++] = (byte) bits;
+                bits >>>= Byte.SIZE;
+                count -= Byte.SIZE;
+            }
+        }
+
+        /**
+         * Writes the end-of-stream marker and all remaining bits.
+         *
+         * @return position after the end of the stream.
+         */
+        final int close() {
+            write(1, 1);
+            flush();
+            if (count != 0) {
+                buffer[position++] = (byte) bits;
+            }
+            return position;
+        }
+    }
+
+    /**
+     * The uncompressed bytes of the current tile. The array is reused for all tiles.
+     */
+    private final byte[] input;
+
+    /**
+     * View over the {@link #input} array for reading integers in little-endian byte order.
+     */
+    private final ByteBuffer view;
+
+    /**
+     * Number of valid bytes in the {@link #input} array.
+     */
+    private int inputLength;
+
+    /**
+     * Positions (plus one) of previous 4-bytes sequences, indexed by hash values.
+     * A value of zero means that there is no position for the hash value.
+     */
+    private final int[] hashTable;
+
+    /**
+     * The three last offsets, used for encoding repeated offsets with the values 1 to 3.
+     */
+    private final int[] repeatedOffsets;
+
+    /**
+     * The literals of the current block.
+     */
+    private final byte[] literals;
+
+    /**
+     * Literals length, match length and offset value of each sequence of the current block.
+     * The offset values are the offsets plus 3, or a value from 1 to 3 for repeated offsets.
+     */
+    private final int[] literalsLengths, matchLengths, offsetValues;
+
+    /**
+     * Literals length, match length and offset codes of each sequence of the current block.
+     */
+    private final byte[] literalsLengthCodes, matchLengthCodes, offsetCodes;
+
+    /**
+     * Temporary array for statistics about symbol frequencies.
+     */
+    private final int[] counts;
+
+    /**
+     * The Huffman code and code length of each literal.
+     */
+    private final int[] huffmanCodes, huffmanLengths;
+
+    /**
+     * Tables for the sequences or Huffman weights specified in the compressed stream.
+     */
+    private final Table literalsLengthTable, offsetTable, matchLengthTable, weightsTable;
+
+    /**
+     * Buffer where the compressed block is written before to be sent to the output.
+     */
+    private final byte[] block;
+
+    /**
+     * Writer of bit streams in the {@link #block} buffer.
+     */
+    private final BitWriter writer;
+
+    /**
+     * Creates a new channel which will compress data to the given output.
+     *
+     * @param  output  the destination of compressed data.
+     * @param  length  number of bytes to be compressed.
+     */
+    public ZSTD(final ChannelDataOutput output, final long length) {
+        super(output, length);
+        input           = new byte[Math.toIntExact(length)];
+        view            = ByteBuffer.wrap(input).order(ByteOrder.LITTLE_ENDIAN);
+        hashTable       = new int[1 << HASH_LOG];
+        repeatedOffsets = new int[3];
+        final int blockSize = (int) Math.min(length, MAX_BLOCK_SIZE);
+        final int maxSequences = blockSize / MIN_SEARCH + 1;
+        literals            = new byte[blockSize];
+        literalsLengths     = new int [maxSequences];
+        matchLengths        = new int [maxSequences];
+        offsetValues        = new int [maxSequences];
+        literalsLengthCodes = new byte[maxSequences];
+        matchLengthCodes    = new byte[maxSequences];
+        offsetCodes         = new byte[maxSequences];
+        counts              = new int [256];
+        huffmanCodes        = new int [256];
+        huffmanLengths      = new int [256];
+        literalsLengthTable = new Table();
+        offsetTable         = new Table();
+        matchLengthTable    = new Table();
+        weightsTable        = new Table();
+        /*
+         * Each sequence has at least 4 bytes and is encoded in at most 12 bytes.
+         * The literals section is smaller than the block, except for a few bytes of header.
+         */
+        block  = new byte[blockSize * 4 + 1024];
+        writer = new BitWriter(block);
+    }
+
+    /**
+     * Copies all remaining bytes from the given buffer. The compression is deferred
+     * to the {@link #finish(ChannelDataOutput)} method, after all bytes have been received.
+     *
+     * @param  source  the buffer from which bytes are to be transferred.
+     * @return the number of uncompressed bytes written.
+     * @throws IOException if more bytes than the expected length are written.
+     */
+    @Override
+    public int write(final ByteBuffer source) throws IOException {
+        final int n = source.remaining();
+        if (n > input.length - inputLength) {
+            throw new IOException(Resources.forLocale(null)
+                    .getString(Resources.Keys.UnexpectedTileLength_2, length, (long) inputLength + n));
+        }
+        source.get(input, inputLength, n);
+        inputLength += n;
+        return n;
+    }
+
+    /**
+     * Compresses all bytes of the tile and writes the compressed frame.
+     * Then resets this compressor for the next tile.
+     *
+     * @param  owner  the data output which is writing in this channel.
+     * @throws IOException if an error occurred while writing to the underlying output channel.
+     */
+    @Override
+    public void finish(final ChannelDataOutput owner) throws IOException {
+        super.finish(owner);
+        writeFrameHeader();
+        Arrays.fill(hashTable, 0);
+        repeatedOffsets[0] = 1;
+        repeatedOffsets[1] = 4;
+        repeatedOffsets[2] = 8;
+        int start = 0;
+        do {
+            final int end = Math.min(start + MAX_BLOCK_SIZE, inputLength);
+            writeBlock(start, end, end == inputLength);
+            start = end;
+        } while (start < inputLength);
+        inputLength = 0;
+    }
+
+    /**
+     * Writes the magic number and the frame header. The frame is declared as a single segment
+     * with the content size, which allows the decoder to allocate the output buffer in advance.
+     */
+    private void writeFrameHeader() throws IOException {
+        int p = 0;
+        p = writeInt(p, MAGIC);
+        final int size = inputLength;
+        if (size < 256) {
+            block[p++] = 0x20;
+            block[p++] = (byte) size;
+        } else if (size < 0x10000 + 256) {
+            block[p++] = 0x60;
+            block[p++] = (byte)  (size - 256);
+            block[p++] = (byte) ((size - 256) >>> Byte.SIZE);
+        } else {
+            block[p++] = (byte) 0xA0;
+            p = writeInt(p, size);
+        }
+        output.write(block, 0, p);
+    }
+
+    /**
+     * Compresses and writes the given range of input bytes as a block.
+     * If the compression does not reduce the size, the bytes are written without compression.
+     *
+     * @param  start  index of the first byte to compress.
+     * @param  end    index after the last byte to compress.
+     * @param  last   whether this block is the last one of the frame.
+     */
+    private void writeBlock(final int start, final int end, final boolean last) throws IOException {
+        final int size = end - start;
+        final int flag = last ? 1 : 0;
+        /*
+         * If all bytes have the same value (a common case with "no data" tiles),
+         * write a RLE block. Only one byte is needed for the block content.
+         */
+        final byte first = (size != 0) ? input[start] : 0;
+        int i = start;
+        while (++i < end && input[i] == first);
+        if (size > 1 && i == end) {
+            writeBlockHeader(size, RLE_BLOCK, flag);
+            output.writeByte(first);
+            return;
+        }
+        /*
+         * Try a compressed block. The repeated offsets need to be restored
+         * if the block is finally written without compression.
+         */
+        final int rep0 = repeatedOffsets[0];
+        final int rep1 = repeatedOffsets[1];
+        final int rep2 = repeatedOffsets[2];
+        final int compressedSize = compressBlock(start, end);
+        if (compressedSize < size) {
+            writeBlockHeader(compressedSize, COMPRESSED_BLOCK, flag);
+            output.write(block, 0, compressedSize);
+        } else {
+            repeatedOffsets[0] = rep0;
+            repeatedOffsets[1] = rep1;
+            repeatedOffsets[2] = rep2;
+            writeBlockHeader(size, RAW_BLOCK, flag);
+            output.write(input, start, size);
+        }
+    }
+
+    /**
+     * Writes the 3 bytes header of a block.
+     */
+    private void writeBlockHeader(final int size, final int type, final int last) throws IOException {
+        final int header = (size << 3) | (type << 1) | last;
+        output.writeByte(header);
+        output.writeByte(header >>> Byte.SIZE);
+        output.writeByte(header >>> (2 * Byte.SIZE));
+    }
+
+    /**
+     * Compresses the given range of input bytes in the {@link #block} buffer.
+     *
+     * @param  start  index of the first byte to compress.
+     * @param  end    index after the last byte to compress.
+     * @return number of bytes written in the {@link #block} buffer.
+     */
+    private int compressBlock(final int start, final int end) {
+        int numSequences  = 0;
+        int literalsCount = 0;
+        int anchor = start;
+        int ip = start;
+        final int limit = end - MIN_SEARCH;
+        while (ip <= limit) {
+            final int value = view.getInt(ip);
+            final int h = (value * 0x9E3779B1) >>> (Integer.SIZE - HASH_LOG);
+            final int candidate = hashTable[h] - 1;
+            hashTable[h] = ip + 1;
+            /*
+             * Check first for a match with the last offset, which is cheaper to encode.
+             * Otherwise check for a match with the previous position having the same hash.
+             */
+            int source;
+            final int rep0 = repeatedOffsets[0];
+            if (ip > anchor && rep0 <= ip && view.getInt(ip - rep0) == value) {
+                source = ip - rep0;
+            } else if (candidate >= 0 && view.getInt(candidate) == value) {
+                source = candidate;
+            } else {
+                ip += 1 + ((ip - anchor) >>> 6);       // Accelerate in incompressible data.
+                continue;
+            }
+            int matchLength = MIN_SEARCH;
+            while (ip + matchLength < end && input[ip + matchLength] == input[source + matchLength]) {
+                matchLength++;
+            }
+            while (ip > anchor && source > 0 && input[ip - 1] == input[source - 1]) {
+                ip--; source--; matchLength++;
+            }
+            /*
+             * Store the sequence.
+             */
+            final int literalsLength = ip - anchor;
+            System.arraycopy(input, anchor, literals, literalsCount, literalsLength);
+            literalsCount += literalsLength;
+            literalsLengths[numSequences] = literalsLength;
+            matchLengths   [numSequences] = matchLength;
+            offsetValues   [numSequences] = offsetValue(ip - source, literalsLength);
+            numSequences++;
+            ip += matchLength;
+            anchor = ip;
+            if (ip - 2 <= limit) {
+                hashTable[(view.getInt(ip - 2) * 0x9E3779B1) >>> (Integer.SIZE - HASH_LOG)] = ip - 1;
+            }
+        }
+        final int lastLiterals = end - anchor;
+        System.arraycopy(input, anchor, literals, literalsCount, lastLiterals);
+        literalsCount += lastLiterals;
+        /*
+         * Encode the literals section followed by the sequences section.
+         */
+        return writeSequences(writeLiterals(literalsCount), numSequences);
+    }
+
+    /**
+     * Returns the value to encode for the given offset, and updates the repeated offsets accordingly.
+     * This method mirrors the interpretation of offset values by the decoder.
+     *
+     * @param  offset          distance backward from the current position.
+     * @param  literalsLength  number of literals before the match.
+     * @return the offset value to encode.
+     */
+    private int offsetValue(final int offset, final int literalsLength) {
+        final int[] rep = repeatedOffsets;
+        if (literalsLength != 0) {
+            if (offset == rep[0]) return 1;
+            if (offset == rep[1]) {rep[1] = rep[0]; rep[0] = offset; return 2;}
+            if (offset == rep[2]) {rep[2] = rep[1]; rep[1] = rep[0]; rep[0] = offset; return 3;}
+        } else {
+            if (offset == rep[1]) {rep[1] = rep[0]; rep[0] = offset; return 1;}
+            if (offset == rep[2]) {rep[2] = rep[1]; rep[1] = rep[0]; rep[0] = offset; return 2;}
+            if (offset == rep[0] - 1) {rep[2] = rep[1]; rep[1] = rep[0]; rep[0] = offset; return 3;}
+        }
+        rep[2] = rep[1];
+        rep[1] = rep[0];
+        rep[0] = offset;
+        return offset + 3;
+    }
+
+    /**
+     * Writes the literals section at the beginning of the {@link #block} buffer.
+     * The literals are Huffman-compressed if it reduces their size.
+     *
+     * @param  n  number of literals.
+     * @return position after the literals section.
+     */
+    private int writeLiterals(final int n) {
+        if (n >= MIN_HUFFMAN) {
+            Arrays.fill(counts, 0);
+            for (int i=0; i<n; i++) {
+                counts[literals[i] & 0xFF]++;
+            }
+            int maxSymbol = counts.length;
+            while (counts[--maxSymbol] == 0);
+            if (counts[maxSymbol] == n) {
+                block[0] = (byte) (RLE_LITERALS | (3 << 2) | ((n & 0xF) << 4));
+                block[1] = (byte) (n >>> 4);
+                block[2] = (byte) (n >>> 12);
+                block[3] = literals[0];
+                return 4;
+            }
+            final int p = writeHuffmanLiterals(n, maxSymbol);
+            if (p > 0) return p;
+        }
+        int p;
+        if (n < 32) {
+            block[0] = (byte) (RAW_LITERALS | (n << 3));
+            p = 1;
+        } else if (n < 4096) {
+            block[0] = (byte) (RAW_LITERALS | (1 << 2) | ((n & 0xF) << 4));
+            block[1] = (byte) (n >>> 4);
+            p = 2;
+        } else {
+            block[0] = (byte) (RAW_LITERALS | (3 << 2) | ((n & 0xF) << 4));
+            block[1] = (byte) (n >>> 4);
+            block[2] = (byte) (n >>> 12);
+            p = 3;
+        }
+        System.arraycopy(literals, 0, block, p, n);
+        return p + n;
+    }
+
+    /**
+     * Writes the literals with Huffman compression, provided that it reduces the size.
+     * The {@link #counts} array shall contain the frequency of each literal.
+     *
+     * @param  n          number of literals.
+     * @param  maxSymbol  the largest literal value.
+     * @return position after the literals section, or 0 if Huffman compression is not worth.
+     */
+    private int writeHuffmanLiterals(final int n, final int maxSymbol) {
+        final int log = buildHuffmanCode(maxSymbol);
+        long numBits = 0;
+        for (int s=0; s <= maxSymbol; s++) {
+            numBits += (long) counts[s] * huffmanLengths[s];
+        }
+        final boolean single = (n <= MAX_SINGLE_STREAM);
+        final int headerSize = single ? 3 : (n < 0x4000) ? 4 : 5;
+        if (headerSize + (numBits >>> 3) + (single ? 1 : 10) + (maxSymbol >>> 2) >= n) {
+            return 0;       // Cheap estimation before to write the table.
+        }
+        int p = writeHuffmanWeights(headerSize, maxSymbol, log);
+        if (p == 0) {
+            return 0;
+        }
+        if (single) {
+            p = writeHuffmanStream(p, 0, n);
+        } else {
+            final int segment = (n + 3) >>> 2;
+            final int jump = p;
+            final int s1 = writeHuffmanStream(jump + 6, 0, segment);
+            final int s2 = writeHuffmanStream(s1, segment, segment);
+            final int s3 = writeHuffmanStream(s2, segment*2, segment);
+            p = writeHuffmanStream(s3, segment*3, n - segment*3);
+            writeShort(jump,   s1 - (jump + 6));
+            writeShort(jump+2, s2 - s1);
+            writeShort(jump+4, s3 - s2);
+        }
+        final int size = p - headerSize;
+        if (size >= n) {
+            return 0;
+        }
+        switch (headerSize) {
+            case 3: {
+                final int v = COMPRESSED_LITERALS | (n << 4) | (size << 14);
+                block[0] = (byte) v;
+                block[1] = (byte) (v >>> 8);
+                block[2] = (byte) (v >>> 16);
+                break;
+            }
+            case 4: {
+                writeInt(0, COMPRESSED_LITERALS | (2 << 2) | (n << 4) | (size << 18));
+                break;
+            }
+            default: {
+                final long v = COMPRESSED_LITERALS | (3 << 2) | ((long) n << 4) | ((long) size << 22);
+                writeInt(0, (int) v);
+                block[4] = (byte) (v >>> Integer.SIZE);
+                break;
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Computes the Huffman code length of each literal, limited to the maximal length allowed by the format.
+     * Then assigns the codes in the canonical order expected by the decoder.
+     * The {@link #counts} array shall contain the frequency of each literal,
+     * with at least two literals of non-zero frequency.
+     *
+     * @param  maxSymbol  the largest literal value.
+     * @return the maximal code length.
+     */
+    private int buildHuffmanCode(final int maxSymbol) {
+        final long[] leaves = new long[maxSymbol + 1];
+        int m = 0;
+        for (int s=0; s <= maxSymbol; s++) {
+            if (counts[s] != 0) {
+                leaves[m++] = ((long) counts[s] << Byte.SIZE) | s;
+            }
+        }
+        Arrays.sort(leaves, 0, m);
+        final long[] weight = new long[2*m - 1];
+        final int[]  parent = new int [2*m - 1];
+        int log;
+        for (int scale = 0;; scale++) {
+            /*
+             * Build the Huffman tree with two queues: the leaves sorted by frequency,
+             * and the internal nodes which are created in increasing order of weight.
+             * If the tree is too deep, reduce the differences between frequencies and retry.
+             */
+            for (int i=0; i<m; i++) {
+                weight[i] = ((leaves[i] >>> Byte.SIZE) >>> scale) | 1;
+            }
+            int leaf = 0, node = m;
+            for (int next = m; next < weight.length; next++) {
+                long sum = 0;
+                for (int k=0; k<2; k++) {
+                    final int c;
+                    if (leaf < m && (node >= next || weight[leaf] <= weight[node])) {
+                        c = leaf++;
+                    } else {
+                        c = node++;
+                    }
+                    parent[c] = next;
+                    sum += weight[c];
+                }
+                weight[next] = sum;
+            }
+            final int[] depth = new int[weight.length];
+            log = 0;
+            for (int i = weight.length - 1; --i >= 0;) {
+                depth[i] = depth[parent[i]] + 1;
+                if (i < m) log = Math.max(log, depth[i]);
+            }
+            if (log <= MAX_HUFFMAN_BITS) {
+                Arrays.fill(huffmanLengths, 0);
+                for (int i=0; i<m; i++) {
+                    huffmanLengths[(int) leaves[i] & 0xFF] = depth[i];
+                }
+                break;
+            }
+        }
+        /*
+         * Assign codes in the order of the decoding table: by increasing weight
+         * (decreasing code length), then by increasing symbol value.
+         */
+        final int[] rankStart = new int[MAX_HUFFMAN_BITS + 2];
+        for (int s=0; s <= maxSymbol; s++) {
+            final int length = huffmanLengths[s];
+            if (length != 0) rankStart[log + 1 - length]++;
+        }
+        int next = 0;
+        for (int w=1; w <= log; w++) {
+            final int n = rankStart[w];
+            rankStart[w] = next;
+            next += n << (w - 1);
+        }
+        for (int s=0; s <= maxSymbol; s++) {
+            final int length = huffmanLengths[s];
+            if (length != 0) {
+                final int w = log + 1 - length;
+                huffmanCodes[s] = rankStart[w] >>> (w - 1);
+                rankStart[w] += 1 << (w - 1);
+            }
+        }
+        return log;
+    }
+
+    /**
+     * Writes the description of the Huffman table as a list of weights. The weight of the last
+     * symbol is omitted. The weights are compressed with <abbr>FSE</abbr> if it reduces their size,
+     * or if there is too many weights for writing them directly.
+     *
+     * @param  p          position where to write the description.
+     * @param  maxSymbol  the largest literal value.
+     * @param  log        the maximal code length.
+     * @return position after the description, or 0 if the description cannot be written.
+     */
+    private int writeHuffmanWeights(final int p, final int maxSymbol, final int log) {
+        final byte[] weights = new byte[maxSymbol];
+        final int[] frequencies = new int[MAX_HUFFMAN_BITS + 1];
+        for (int s=0; s<maxSymbol; s++) {
+            final int length = huffmanLengths[s];
+            final int w = (length != 0) ? log + 1 - length : 0;
+            weights[s] = (byte) w;
+            frequencies[w]++;
+        }
+        final int directSize = (maxSymbol + 1) >>> 1;
+        int end = 0;
+        int maxWeight = frequencies.length;
+        while (frequencies[--maxWeight] == 0);
+        if (maxSymbol >= 2 && frequencies[maxWeight] != maxSymbol) {
+            end = writeFSE(p + 1, weights, maxSymbol, frequencies, maxWeight);
+            if (end - (p + 1) >= MAX_DIRECT_WEIGHTS) end = 0;
+        }
+        if (end != 0 && (maxSymbol > MAX_DIRECT_WEIGHTS || end - (p + 1) < directSize)) {
+            block[p] = (byte) (end - (p + 1));
+            return end;
+        }
+        if (maxSymbol > MAX_DIRECT_WEIGHTS) {
+            return 0;
+        }
+        block[p] = (byte) (127 + maxSymbol);
+        for (int i=0; i<maxSymbol; i += 2) {
+            final int next = (i + 1 < maxSymbol) ? weights[i + 1] : 0;
+            block[p + 1 + (i >>> 1)] = (byte) ((weights[i] << 4) | next);
+        }
+        return p + 1 + directSize;
+    }
+
+    /**
+     * Writes the Huffman weights compressed with <abbr>FSE</abbr>, using two interleaved states.
+     *
+     * @param  p            position where to write the table description followed by the bit stream.
+     * @param  weights      the weights to compress.
+     * @param  n            number of weights.
+     * @param  frequencies  number of occurrences of each weight.
+     * @param  maxWeight    the largest weight value.
+     * @return position after the bit stream.
+     */
+    private int writeFSE(int p, final byte[] weights, final int n, final int[] frequencies, final int maxWeight) {
+        final Table table = weightsTable;
+        p = writeTable(p, frequencies, maxWeight, n, HUFFMAN_WEIGHTS_MAX_LOG, table);
+        final BitWriter out = writer;
+        out.reset(p);
+        final int[] states = new int[2];
+        states[(n - 1) & 1] = table.initialState(weights[n - 1]);
+        states[(n - 2) & 1] = table.initialState(weights[n - 2]);
+        for (int i = n - 2; --i >= 0;) {
+            final int k = i & 1;
+            states[k] = table.encode(out, states[k], weights[i]);
+        }
+        out.write(states[1], table.log);
+        out.write(states[0], table.log);
+        return out.close();
+    }
+
+    /**
+     * Writes a Huffman-compressed stream of literals.
+     * The literals are written in reverse order, so that the decoder reads them in forward order.
+     *
+     * @param  p       position where to write the stream.
+     * @param  offset  index of the first literal to write.
+     * @param  count   number of literals to write.
+     * @return position after the stream.
+     */
+    private int writeHuffmanStream(final int p, final int offset, final int count) {
+        final BitWriter out = writer;
+        out.reset(p);
+        for (int i = offset + count; --i >= offset;) {
+            final int s = literals[i] & 0xFF;
+            out.write(huffmanCodes[s], huffmanLengths[s]);
+        }
+        return out.close();
+    }
+
+    /**
+     * Writes the sequences section.
+     *
+     * @param  p             position where to write the sequences section.
+     * @param  numSequences  number of sequences.
+     * @return position after the sequences section.
+     */
+    private int writeSequences(int p, final int numSequences) {
+        if (numSequences < 128) {
+            block[p++] = (byte) numSequences;
+        } else if (numSequences < 0x7F00) {
+            block[p++] = (byte) ((numSequences >>> 8) + 128);
+            block[p++] = (byte) numSequences;
+        } else {
+            block[p++] = (byte) 0xFF;
+            p = writeShort(p, numSequences - 0x7F00);
+        }
+        if (numSequences == 0) {
+            return p;
+        }
+        for (int i=0; i<numSequences; i++) {
+            literalsLengthCodes[i] = (byte) literalsLengthCode(literalsLengths[i]);
+            matchLengthCodes   [i] = (byte) matchLengthCode(matchLengths[i]);
+            offsetCodes        [i] = (byte) highBit(offsetValues[i]);
+        }
+        final int modes = p++;
+        final Table ll, of, ml;
+        int mode;
+        p = selectTable(p, literalsLengthCodes, numSequences, LITERALS_LENGTH_MAX_LOG, LITERALS_LENGTH_DEFAULT,
+                        LITERALS_LENGTH_DEFAULT_LOG, literalsLengthTable);
+        mode = p & 3; p >>>= 2;
+        ll = (mode == PREDEFINED_MODE) ? LITERALS_LENGTH_TABLE : literalsLengthTable;
+        int flags = mode << 6;
+        p = selectTable(p, offsetCodes, numSequences, OFFSET_MAX_LOG, OFFSET_DEFAULT, OFFSET_DEFAULT_LOG, offsetTable);
+        mode = p & 3; p >>>= 2;
+        of = (mode == PREDEFINED_MODE) ? OFFSET_TABLE : offsetTable;
+        flags |= mode << 4;
+        p = selectTable(p, matchLengthCodes, numSequences, MATCH_LENGTH_MAX_LOG, MATCH_LENGTH_DEFAULT,
+                        MATCH_LENGTH_DEFAULT_LOG, matchLengthTable);
+        mode = p & 3; p >>>= 2;
+        ml = (mode == PREDEFINED_MODE) ? MATCH_LENGTH_TABLE : matchLengthTable;
+        flags |= mode << 2;
+        block[modes] = (byte) flags;
+        /*
+         * Encode the sequences in reverse order. The decoder reads the initial states in the order
+         * literals length, offset, match length, then for each sequence the offset, match length and
+         * literals length additional bits, then the states updates in the same order as initial states.
+         */
+        final BitWriter out = writer;
+        out.reset(p);
+        int i = numSequences - 1;
+        int llCode = literalsLengthCodes[i];
+        int mlCode = matchLengthCodes[i];
+        int ofCode = offsetCodes[i];
+        int mlState = ml.initialState(mlCode);
+        int ofState = of.initialState(ofCode);
+        int llState = ll.initialState(llCode);
+        writeExtraBits(out, i, llCode, mlCode, ofCode);
+        while (--i >= 0) {
+            llCode = literalsLengthCodes[i];
+            mlCode = matchLengthCodes[i];
+            ofCode = offsetCodes[i];
+            ofState = of.encode(out, ofState, ofCode);
+            mlState = ml.encode(out, mlState, mlCode);
+            llState = ll.encode(out, llState, llCode);
+            writeExtraBits(out, i, llCode, mlCode, ofCode);
+        }
+        out.write(mlState, ml.log);
+        out.write(ofState, of.log);
+        out.write(llState, ll.log);
+        return out.close();
+    }
+
+    /**
+     * Writes the additional bits of the literals length, match length and offset of the given sequence.
+     */
+    private void writeExtraBits(final BitWriter out, final int i, final int llCode, final int mlCode, final int ofCode) {
+        out.write(literalsLengths[i] - LITERALS_LENGTH_BASE[llCode], LITERALS_LENGTH_BITS[llCode]);
+        out.write(matchLengths[i] - MATCH_LENGTH_BASE[mlCode], MATCH_LENGTH_BITS[mlCode]);
+        out.write(offsetValues[i], ofCode);
+    }
+
+    /**
+     * Selects the most compact compression mode for the given codes and writes the table description.
+     * The predefined table is preferred when the custom table does not save enough bits for paying
+     * the description cost.
+     *
+     * @param  p              position where to write the table description.
+     * @param  codes          the codes to encode.
+     * @param  n              number of codes.
+     * @param  maxLog         maximal accuracy log of the custom table.
+     * @param  defaultNorm    the predefined distribution.
+     * @param  defaultLog     accuracy log of the predefined distribution.
+     * @param  table          the table to initialize if the selected mode is RLE or FSE.
+     * @return position after the table description shifted by 2 bits, combined with the selected mode.
+     */
+    private int selectTable(int p, final byte[] codes, final int n, final int maxLog,
+                            final short[] defaultNorm, final int defaultLog, final Table table)
+    {
+        Arrays.fill(counts, 0, MAX_OFFSET_CODE + MATCH_LENGTH_BASE.length, 0);
+        for (int i=0; i<n; i++) {
+            counts[codes[i]]++;
+        }
+        int maxSymbol = MAX_OFFSET_CODE + MATCH_LENGTH_BASE.length;
+        while (counts[--maxSymbol] == 0);
+        if (counts[maxSymbol] == n && (n > 1 || maxSymbol >= defaultNorm.length)) {
+            table.build(maxSymbol);
+            block[p++] = (byte) maxSymbol;
+            return (p << 2) | RLE_MODE;
+        }
+        double predefinedCost = Double.POSITIVE_INFINITY;
+        if (maxSymbol < defaultNorm.length) {
+            predefinedCost = cost(defaultNorm, maxSymbol, defaultLog);
+            if (n < 16) {
+                return (p << 2) | PREDEFINED_MODE;
+            }
+        }
+        final int end = writeTable(p, counts, maxSymbol, n, maxLog, table);
+        if ((end - p) * Byte.SIZE + cost(table.norm, maxSymbol, table.log) < predefinedCost) {
+            return (end << 2) | FSE_MODE;
+        }
+        return (p << 2) | PREDEFINED_MODE;
+    }
+
+    /**
+     * Estimates the number of bits needed for encoding the symbols counted in {@link #counts}
+     * with the given normalized distribution.
+     */
+    private double cost(final short[] norm, final int maxSymbol, final int log) {
+        double bits = 0;
+        for (int s=0; s <= maxSymbol; s++) {
+            final int c = counts[s];
+            if (c != 0) {
+                final int n = norm[s];
+                if (n == 0) return Double.POSITIVE_INFINITY;
+                bits += c * (log - Math.log(Math.max(n, 1)) / Math.log(2));
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Normalizes the given frequencies, builds the encoding table and writes its description.
+     *
+     * @param  p          position where to write the table description.
+     * @param  frequency  number of occurrences of each symbol.
+     * @param  maxSymbol  the largest symbol having a non-zero frequency.
+     * @param  total      sum of all frequencies.
+     * @param  maxLog     maximal accuracy log.
+     * @param  table      the table to initialize.
+     * @return position after the table description.
+     */
+    private int writeTable(int p, final int[] frequency, final int maxSymbol, final int total,
+                           final int maxLog, final Table table)
+    {
+        /*
+         * Choose the accuracy log in the same way as the reference implementation.
+         * The table size is always greater than the number of distinct symbols.
+         */
+        final int minLog = Math.max(MIN_ACCURACY_LOG, Math.min(highBit(total) + 1, highBit(maxSymbol) + 2));
+        final int log = Math.max(minLog, Math.min(maxLog, highBit(total - 1) - 2));
+        final int size = 1 << log;
+        final short[] norm = table.norm;
+        int sum = 0, largest = 0;
+        for (int s=0; s <= maxSymbol; s++) {
+            final int c = frequency[s];
+            int v = 0;
+            if (c != 0) {
+                v = Math.max(1, (int) (((long) c * size + (total >>> 1)) / total));
+                if (c > frequency[largest]) largest = s;
+            }
+            norm[s] = (short) v;
+            sum += v;
+        }
+        while (sum > size) {
+            int s = 0;
+            for (int i=1; i <= maxSymbol; i++) {
+                if (norm[i] > norm[s]) s = i;
+            }
+            norm[s]--;
+            sum--;
+        }
+        norm[largest] += size - sum;
+        table.build(norm, maxSymbol + 1, log);
+        /*
+         * Write the table description. Zero probabilities are followed by a 2-bits repeat flag,
+         * and the number of bits of each value decreases when the remaining probabilities decrease.
+         */
+        long bits = log - MIN_ACCURACY_LOG;
+        int count = 4;
+        int remaining = size + 1;
+        int threshold = size;
+        int numBits = log + 1;
+        boolean previousIsZero = false;
+        int symbol = 0;
+        while (remaining > 1) {
+            if (previousIsZero) {
+                int start = symbol;
+                while (norm[symbol] == 0) symbol++;
+                while (symbol >= start + 3) {
+                    start += 3;
+                    bits |= 3L << count;
+                    count += 2;
+                    if (count > Integer.SIZE) {
+                        p = writeInt(p, (int) bits);
+                        bits >>>= Integer.SIZE;
+                        count -= Integer.SIZE;
+                    }
+                }
+                bits |= (long) (symbol - start) << count;
+                count += 2;
+            }
+            int c = norm[symbol++];
+            final int max = (2*threshold - 1) - remaining;
+            remaining -= Math.abs(c);
+            c++;
+            if (c >= threshold) c += max;
+            bits |= (long) c << count;
+            count += numBits;
+            if (c < max) count--;
+            previousIsZero = (c == 1);
+            while (remaining < threshold) {
+                numBits--;
+                threshold >>>= 1;
+            }
+            if (count > Integer.SIZE) {
+                p = writeInt(p, (int) bits);
+                bits >>>= Integer.SIZE;
+                count -= Integer.SIZE;
+            }
+        }
+        while (count > 0) {
+            block[p++] = (byte) bits;
+            bits >>>= Byte.SIZE;
+            count -= Byte.SIZE;
+        }
+        return p;
+    }
+
+    /**
+     * Writes a 16-bits integer in little-endian byte order in the {@link #block} buffer.
+     */
+    private int writeShort(int p, final int value) {
+        block[p++] = (byte) value;
+        block[p++] = (byte) (value >>> Byte.SIZE);
+        return p;
+    }
+
+    /**
+     * Writes a 32-bits integer in little-endian byte order in the {@link #block} buffer.
+     */
+    private int writeInt(int p, final int value) {
+        p = writeShort(p, value);
+        return writeShort(p, value >>> Short.SIZE);
+    }
+}
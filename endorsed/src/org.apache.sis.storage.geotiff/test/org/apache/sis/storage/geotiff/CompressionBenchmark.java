@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff;
+
+import java.util.Random;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import javax.imageio.plugins.tiff.BaselineTIFFTagSet;
+import org.apache.sis.geometry.Envelope2D;
+import org.apache.sis.coverage.grid.GridCoverage;
+import org.apache.sis.coverage.grid.GridCoverageBuilder;
+import org.apache.sis.storage.OptionKey;
+import org.apache.sis.storage.DataStores;
+import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.StorageConnector;
+import org.apache.sis.util.internal.shared.Constants;
+
+// Test dependencies
+import org.apache.sis.test.Benchmark;
+import org.apache.sis.referencing.crs.HardCodedCRS;
+
+
+/**
+ * Compares the speed and compression ratio of {@link Compression#ZSTD} with {@link Compression#DEFLATE}.
+ * The image is a synthetic elevation model (a smooth surface with some noise) encoded as unsigned
+ * 16 bits integers, which is typical of the rasters written in GeoTIFF files.
+ *
+ * <h2>Usage</h2>
+ * Run the {@code main} method. For each compression, the size of the file and the times
+ * (in milliseconds) for writing and reading the image are printed to the standard output.
+ * The reading is done twice: once in the caller thread, and once with the tiles decompressed
+ * in parallel by the {@linkplain ForkJoinPool#commonPool() common pool}.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+@Benchmark
+public final class CompressionBenchmark {
+    /**
+     * Size of the image to write.
+     */
+    private static final int WIDTH = 4096, HEIGHT = 4096;
+
+    /**
+     * Number of runs for each compression. The first run is for warmup.
+     */
+    private static final int NUM_RUNS = 6;
+
+    /**
+     * Runs the benchmark and prints the results to the standard output.
+     *
+     * @param  args  ignored.
+     * @throws IOException if an error occurred while creating or deleting the temporary file.
+     * @throws DataStoreException if an error occurred while writing or reading the image.
+     */
+    public static void main(String[] args) throws IOException, DataStoreException {
+        final GridCoverage coverage = createCoverage();
+        final Path file = Files.createTempFile("sis-benchmark-", ".tiff");
+        final int horizontal = BaselineTIFFTagSet.PREDICTOR_HORIZONTAL_DIFFERENCING;
+        final Compression[] compressions = {
+            Compression.DEFLATE,
+            Compression.DEFLATE.withPredictor(horizontal),
+            Compression.ZSTD,
+            Compression.ZSTD.withPredictor(horizontal)
+        };
+        System.out.println("Compression             Size (MB)   Write (ms)   Read (ms)   Parallel read (ms)");
+        for (final Compression compression : compressions) {
+            double writeTime = 0, readTime = 0, parallelTime = 0;
+            for (int i=0; i<NUM_RUNS; i++) {
+                Files.deleteIfExists(file);
+                long time = System.nanoTime();
+                write(coverage, compression, file);
+                final double t1 = (System.nanoTime() - time) / (double) Constants.NANOS_PER_MILLISECOND;
+                time = System.nanoTime();
+                read(file, null);
+                final double t2 = (System.nanoTime() - time) / (double) Constants.NANOS_PER_MILLISECOND;
+                time = System.nanoTime();
+                read(file, ForkJoinPool.commonPool());
+                final double t3 = (System.nanoTime() - time) / (double) Constants.NANOS_PER_MILLISECOND;
+                if (i != 0) {                   // First run is for warmup.
+                    writeTime    += t1;
+                    readTime     += t2;
+                    parallelTime += t3;
+                }
+            }
+            System.out.printf("%-22s  %9.2f   %10.1f   %9.1f   %18.1f%n",
+                    compression.method + (compression.predictor().orElse(1) != 1 ? " + predictor" : ""),
+                    Files.size(file) / 1E6, writeTime / (NUM_RUNS - 1), readTime / (NUM_RUNS - 1),
+                    parallelTime / (NUM_RUNS - 1));
+        }
+        Files.delete(file);
+    }
+
+    /**
+     * Creates the coverage to write.
+     */
+    private static GridCoverage createCoverage() {
+        final var image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_USHORT_GRAY);
+        final WritableRaster raster = image.getRaster();
+        final var random = new Random(1234);
+        for (int y=0; y<HEIGHT; y++) {
+            for (int x=0; x<WIDTH; x++) {
+                final double z = 1000 + 400 * Math.sin(x / 300.0) * Math.cos(y / 200.0) + 50 * Math.sin((x + y) / 40.0);
+                raster.setSample(x, y, 0, (int) z + random.nextInt(4));
+            }
+        }
+        return new GridCoverageBuilder()
+                .setDomain(new Envelope2D(HardCodedCRS.WGS84, -180, -90, 360, 180))
+                .setValues(image)
+                .build();
+    }
+
+    /**
+     * Writes the given coverage in the given file with the given compression.
+     */
+    private static void write(final GridCoverage coverage, final Compression compression, final Path file)
+            throws DataStoreException
+    {
+        final var connector = new StorageConnector(file);
+        connector.setOption(Compression.OPTION_KEY, compression);
+        try (var store = (GeoTiffStore) DataStores.openWritable(connector, "GeoTIFF")) {
+            store.append(coverage, null);
+        }
+    }
+
+    /**
+     * Reads all tiles of the image stored in the given file.
+     *
+     * @param  executor  the executor for decompressing tiles in parallel, or {@code null} for the caller thread.
+     */
+    private static void read(final Path file, final Executor executor) throws DataStoreException {
+        final var connector = new StorageConnector(file);
+        connector.setOption(OptionKey.EXECUTOR, executor);
+        try (var store = new GeoTiffStore(null, connector)) {
+            store.components().get(0).read(null).render(null).getData();
+        }
+    }
+}
@@ -22,6 +22,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.nio.file.Path;
 import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
@@ -31,6 +35,7 @@ import java.awt.image.BufferedImage;
 import java.awt.image.RenderedImage;
 import javax.imageio.ImageIO;
 import javax.imageio.ImageReader;
+import javax.imageio.plugins.tiff.BaselineTIFFTagSet;
 import javax.imageio.stream.ImageInputStream;
 import org.opengis.referencing.cs.AxisDirection;
 import org.opengis.referencing.operation.TransformException;
@@ -199,6 +204,57 @@ public final class GeoTiffStoreTest extends TestCase {
         testWriteAndRead(null, new Rectangle(64, 64), new Dimension(7, 7), 4964);
     }
 
+    /**
+     * Writes a tiled image with the Zstandard compression, then reads back the image.
+     * The length of the compressed stream is not verified.
+     *
+     * @throws Exception if a referencing or I/O error occurred.
+     */
+    @Test
+    public void testWriteZSTD() throws Exception {
+        final var tileSize = new Dimension(32, 16);
+        final var bounds = new Rectangle(tileSize.width * 3, tileSize.height * 2);
+        testWriteAndRead(Compression.ZSTD, null, bounds, tileSize, 0);
+        testWriteAndRead(Compression.ZSTD.withPredictor(BaselineTIFFTagSet.PREDICTOR_HORIZONTAL_DIFFERENCING),
+                         null, bounds, tileSize, 0);
+    }
+
+    /**
+     * Writes a compressed image with many tiles, then reads it back with tiles decompressed in parallel.
+     * The pixel values shall be the same as the ones read with all tiles decompressed in the caller thread.
+     *
+     * @throws Exception if a referencing or I/O error occurred.
+     */
+    @Test
+    public void testParallelRead() throws Exception {
+        final GridCoverage coverage = new GridCoverageBuilder()
+                .setIntegerValues(DataType.BYTE, new Rectangle(128, 64), new Dimension(32, 16), (x, y) -> 3 * y + x)
+                .build();
+        final var buffer = new ByteArrayOutputStream();
+        final var source = new StorageConnector(buffer);
+        source.setOption(Compression.OPTION_KEY, Compression.DEFLATE);
+        try (DataStore ds = DataStores.openWritable(source, "geotiff")) {
+            assertInstanceOf(GeoTiffStore.class, ds).append(coverage, null);
+        }
+        final byte[] data = buffer.toByteArray();
+        final var count = new AtomicInteger();
+        final var connector = new StorageConnector(ByteBuffer.wrap(data));
+        connector.setOption(OptionKey.EXECUTOR, (task) -> {
+            count.incrementAndGet();
+            ForkJoinPool.commonPool().execute(task);
+        });
+        final RenderedImage expected, actual;
+        try (var store = new GeoTiffStore(null, new StorageConnector(ByteBuffer.wrap(data)))) {
+            expected = assertSingleton(store.components()).read(null).render(null);
+        }
+        try (var store = new GeoTiffStore(null, connector)) {
+            actual = assertSingleton(store.components()).read(null).render(null);
+        }
+        assertEquals(16, count.get(), "Number of tiles decompressed by the executor.");
+        assertPixelsEqual(expected, null, actual, null);
+        assertPixelsEqual(coverage.render(null), null, actual, null);
+    }
+
     /**
      * Implementation of {@link #testWriteUntiled()} and {@link #testWriteTiled()}.
      * The image is written with no compression for avoiding variations in compression algorithms.
@@ -210,6 +266,22 @@ public final class GeoTiffStoreTest extends TestCase {
      */
     private static void testWriteAndRead(final String filename, final Rectangle bounds, final Dimension tileSize, final int length)
             throws TransformException, DataStoreException, IOException
+    {
+        testWriteAndRead(Compression.NONE, filename, bounds, tileSize, length);
+    }
+
+    /**
+     * Writes an image with the given compression, then reads back the image and performs some validations.
+     *
+     * @param  compression  the compression to use for writing the image.
+     * @param  filename     name of the file which contain the expected image, or {@code null} if none.
+     * @param  bounds       bounds of the image to create.
+     * @param  tileSize     size of the tiles, or {@code null} for the image size.
+     * @param  length       expected length in bytes, or 0 if unknown.
+     */
+    private static void testWriteAndRead(final Compression compression, final String filename,
+            final Rectangle bounds, final Dimension tileSize, final int length)
+            throws TransformException, DataStoreException, IOException
     {
         /*
          * We need a CRS which has no EPSG code for ensuring that the test write the same GeoTIFF keys
@@ -227,12 +299,14 @@ public final class GeoTiffStoreTest extends TestCase {
 
         final var buffer = new ByteArrayOutputStream(length);
         final var source = new StorageConnector(buffer);
-        source.setOption(Compression.OPTION_KEY, Compression.NONE);
+        source.setOption(Compression.OPTION_KEY, compression);
         try (DataStore ds = DataStores.openWritable(source, "geotiff")) {
             assertInstanceOf(GeoTiffStore.class, ds).append(coverage, null);
         }
         final byte[] actual = buffer.toByteArray();
-        assertEquals(length, actual.length);
+        if (length != 0) {
+            assertEquals(length, actual.length);
+        }
         if (filename != null) {
             final byte[] expected;
             try (InputStream in = GeoTiffStoreTest.class.getResourceAsStream(filename)) {
@@ -307,6 +381,28 @@ public final class GeoTiffStoreTest extends TestCase {
      */
     @Test
     public void testPyramided() throws Exception {
+        testPyramided(FormatModifier.PYRAMIDED);
+    }
+
+    /**
+     * Tests writing a Cloud Optimized GeoTIFF image. This test verifies the images in the same way as
+     * {@link #testPyramided()}, then verifies that the file layout complies with the <abbr>COG</abbr>
+     * conventions.
+     *
+     * @throws Exception if an error occurred while preparing or running the test.
+     */
+    @Test
+    public void testCloudOptimized() throws Exception {
+        testPyramided(FormatModifier.COG);
+    }
+
+    /**
+     * Writes a pyramided image with the given format modifier, then reads it with the standard reader.
+     *
+     * @param  modifier  {@link FormatModifier#PYRAMIDED} or {@link FormatModifier#COG}.
+     * @throws Exception if an error occurred while preparing or running the test.
+     */
+    private static void testPyramided(final FormatModifier modifier) throws Exception {
         final Random r   = TestUtilities.createRandomNumberGenerator();
         final int width  = r.nextInt(2 * Writer.OVERVIEW_SIZE) + 3 * Writer.OVERVIEW_SIZE;
         final int height = r.nextInt(2 * Writer.OVERVIEW_SIZE) + 3 * Writer.OVERVIEW_SIZE;
@@ -323,7 +419,7 @@ public final class GeoTiffStoreTest extends TestCase {
         try {
             final var connector = new StorageConnector(path);
             connector.setOption(FormatModifier.OPTION_KEY, new FormatModifier[] {
-                FormatModifier.PYRAMIDED
+                modifier
             });
             connector.setOption(OptionKey.OPEN_OPTIONS, new StandardOpenOption[] {
                 StandardOpenOption.CREATE,
@@ -362,8 +458,82 @@ public final class GeoTiffStoreTest extends TestCase {
                 }
                 reader.dispose();
             } while (imageReaders.hasNext());
+            if (modifier == FormatModifier.COG) {
+                verifyCloudOptimizedLayout(ByteBuffer.wrap(Files.readAllBytes(path)));
+            }
         } finally {
             Files.delete(path);
         }
     }
+
+    /**
+     * Verifies that the given classic TIFF file has the Cloud Optimized GeoTIFF layout.
+     * This method verifies the presence of the <abbr>GDAL</abbr> ghost area, that all
+     * <abbr>IFD</abbr>s are before tile data, that tiles of coarser images are before
+     * tiles of finer images, and that each tile has a leader and a trailer.
+     *
+     * @param  file  content of the TIFF file.
+     */
+    private static void verifyCloudOptimizedLayout(final ByteBuffer file) {
+        final boolean littleEndian = (file.getShort(0) == 0x4949);
+        file.order(littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        final String ghost = "GDAL_STRUCTURAL_METADATA_SIZE=";
+        final var chars = new byte[ghost.length()];
+        file.get(8, chars);
+        assertEquals(ghost, new String(chars, StandardCharsets.US_ASCII));
+        /*
+         * Walk through the chain of IFDs from finest to coarsest resolution.
+         * Tiles of each image shall be after the tiles of the next (coarser) image.
+         */
+        final int[] typeSizes = {0, 1, 1, 2, 4, 8, 1, 1, 2, 4, 8, 4, 8, 4, 0, 0, 8};
+        long endOfIFDs  = 0;
+        long finerStart = Long.MAX_VALUE;
+        int  numImages  = 0;
+        int  ifd        = file.getInt(4);
+        while (ifd != 0) {
+            assertTrue(ifd >= endOfIFDs, "IFDs shall be in increasing order.");
+            final int numEntries = Short.toUnsignedInt(file.getShort(ifd));
+            int[] offsets = null, lengths = null;
+            for (int i=0; i<numEntries; i++) {
+                final int entry = ifd + Short.BYTES + i*12;
+                final int tag   = Short.toUnsignedInt(file.getShort(entry));
+                final int size  = typeSizes[file.getShort(entry + 2)] * file.getInt(entry + 4);
+                final int start = (size <= Integer.BYTES) ? entry + 8 : file.getInt(entry + 8);
+                endOfIFDs = Math.max(endOfIFDs, start + size);
+                switch (tag) {
+                    case BaselineTIFFTagSet.TAG_TILE_OFFSETS:
+                    case BaselineTIFFTagSet.TAG_STRIP_OFFSETS: {
+                        offsets = new int[size / Integer.BYTES];
+                        file.position(start).asIntBuffer().get(offsets);
+                        break;
+                    }
+                    case BaselineTIFFTagSet.TAG_TILE_BYTE_COUNTS:
+                    case BaselineTIFFTagSet.TAG_STRIP_BYTE_COUNTS: {
+                        lengths = new int[size / Integer.BYTES];
+                        file.position(start).asIntBuffer().get(lengths);
+                        break;
+                    }
+                }
+            }
+            assertNotNull(offsets);
+            assertNotNull(lengths);
+            long start = Long.MAX_VALUE;
+            for (int i=0; i<offsets.length; i++) {
+                final int offset = offsets[i];
+                final int length = lengths[i];
+                int leader = file.getInt(offset - Integer.BYTES);
+                if (!littleEndian) leader = Integer.reverseBytes(leader);
+                assertEquals(length, leader, "Leader");
+                assertEquals(file.getInt(offset + length - Integer.BYTES), file.getInt(offset + length), "Trailer");
+                assertTrue(offset + length + Integer.BYTES <= finerStart, "Tiles of finer image shall be last.");
+                start = Math.min(start, offset - Integer.BYTES);
+            }
+            finerStart = start;
+            endOfIFDs = Math.max(endOfIFDs, ifd + Short.BYTES + numEntries*12 + Integer.BYTES);
+            ifd = file.getInt(ifd + Short.BYTES + numEntries*12);
+            numImages++;
+        }
+        assertTrue(numImages > 1);
+        assertTrue(finerStart >= endOfIFDs, "IFDs shall be before tile data.");
+    }
 }
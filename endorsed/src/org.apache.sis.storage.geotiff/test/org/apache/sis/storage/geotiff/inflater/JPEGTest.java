@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff.inflater;
+
+import java.io.IOException;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.awt.image.BufferedImage;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import org.apache.sis.io.stream.ChannelDataInput;
+
+// Test dependencies
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.apache.sis.test.TestCase;
+
+
+/**
+ * Tests the {@link JPEG} inflater.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+public final class JPEGTest extends TestCase {
+    /**
+     * Size of the image used in this test.
+     */
+    private static final int WIDTH = 16, HEIGHT = 8;
+
+    /**
+     * Maximal difference allowed between expected and actual sample values, because of lossy compression.
+     */
+    private static final int TOLERANCE = 6;
+
+    /**
+     * Creates a new test case.
+     */
+    public JPEGTest() {
+    }
+
+    /**
+     * Creates an RGB image with sample values computed from the pixel coordinates and the given seed.
+     * Colors vary slowly because the chrominance may be subsampled by the JPEG encoder.
+     */
+    private static BufferedImage createImage(final int seed) {
+        final var image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        for (int y=0; y<HEIGHT; y++) {
+            for (int x=0; x<WIDTH; x++) {
+                image.setRGB(x, y, ((seed + 2*x) << 16) | ((seed + 3*y) << 8) | (200 - seed));
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Encodes the given image as a <abbr>JPEG</abbr> stream with the highest quality.
+     */
+    private static byte[] encode(final BufferedImage image) throws IOException {
+        final ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        final ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(1);
+        final var buffer = new ByteArrayOutputStream();
+        try (var out = new MemoryCacheImageOutputStream(buffer)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Splits the given <abbr>JPEG</abbr> stream in a tables-only stream and an abbreviated stream.
+     * The quantization and Huffman tables are moved in the first stream, as in the {@code JPEGTables}
+     * <abbr>TIFF</abbr> tag, and all other segments are kept in the second stream.
+     *
+     * @param  stream  the complete stream to split.
+     * @return the tables-only stream and the abbreviated stream, in that order.
+     */
+    private static byte[][] split(final byte[] stream) {
+        final var tables = new ByteArrayOutputStream();
+        final var image  = new ByteArrayOutputStream();
+        tables.write(stream, 0, 2);                 // SOI
+        image .write(stream, 0, 2);
+        int i = 2;
+        while (true) {
+            final int marker = stream[i+1] & 0xFF;
+            final int length = ((stream[i+2] & 0xFF) << 8 | (stream[i+3] & 0xFF)) + 2;
+            if (marker == 0xDA) {                   // Start Of Scan: copy everything up to the end.
+                image.write(stream, i, stream.length - i);
+                break;
+            }
+            ((marker == 0xDB || marker == 0xC4) ? tables : image).write(stream, i, length);
+            i += length;
+        }
+        tables.write(0xFF);                         // EOI
+        tables.write(0xD9);
+        return new byte[][] {tables.toByteArray(), image.toByteArray()};
+    }
+
+    /**
+     * Decodes the given region of the given data and compares with the given image.
+     */
+    private static void verify(final JPEG decoder, final int start, final int length, final BufferedImage expected)
+            throws IOException
+    {
+        decoder.setInputRegion(start, length);
+        final ByteBuffer target = ByteBuffer.allocate(WIDTH * HEIGHT * 3 + 10);
+        while (decoder.read(target) > 0);
+        assertEquals(WIDTH * HEIGHT * 3, target.flip().remaining());
+        for (int y=0; y<HEIGHT; y++) {
+            for (int x=0; x<WIDTH; x++) {
+                final int rgb = expected.getRGB(x, y);
+                for (int shift = 16; shift >= 0; shift -= 8) {
+                    final int e = (rgb >>> shift) & 0xFF;
+                    final int a = Byte.toUnsignedInt(target.get());
+                    assertTrue(Math.abs(e - a) <= TOLERANCE, () -> "Expected " + e + " but got " + a);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests the decoding of two abbreviated streams sharing the same tables.
+     * The streams are read with an offset for simulating their position in a <abbr>TIFF</abbr> file.
+     *
+     * @throws IOException if an error occurred while encoding or decoding the image.
+     */
+    @Test
+    public void testAbbreviatedStreams() throws IOException {
+        final BufferedImage image1 = createImage(10);
+        final BufferedImage image2 = createImage(40);
+        final byte[][] tile1 = split(encode(image1));
+        final byte[][] tile2 = split(encode(image2));
+        final byte[] data = new byte[5 + tile1[1].length + tile2[1].length];
+        System.arraycopy(tile1[1], 0, data, 5, tile1[1].length);
+        System.arraycopy(tile2[1], 0, data, 5 + tile1[1].length, tile2[1].length);
+        final var decoder = new JPEG(new ChannelDataInput("test", ByteBuffer.wrap(data)), null,
+                                     JPEG.createReader(), tile1[0], true);
+        try {
+            verify(decoder, 5, tile1[1].length, image1);
+            verify(decoder, 5 + tile1[1].length, tile2[1].length, image2);
+            verify(decoder, 5, tile1[1].length, image1);
+        } finally {
+            decoder.close();
+        }
+    }
+
+    /**
+     * Tests the conversion of a YCbCr color to RGB.
+     */
+    @Test
+    public void testToRGB() {
+        final byte[] samples = {0, 91, 88, (byte) 205};
+        JPEG.toRGB(samples, 1, 4, 3);
+        assertEquals(200, Byte.toUnsignedInt(samples[1]), 1);
+        assertEquals( 50, Byte.toUnsignedInt(samples[2]), 1);
+        assertEquals( 20, Byte.toUnsignedInt(samples[3]), 1);
+        assertEquals(  0, samples[0]);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.storage.geotiff.inflater;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.apache.sis.io.stream.ChannelDataInput;
+import org.apache.sis.storage.geotiff.base.Zstandard;
+
+// Test dependencies
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.apache.sis.test.TestCase;
+
+
+/**
+ * Tests the {@link ZSTD} inflater. The compressed stream used in this test has been created
+ * by the reference implementation (libzstd 1.5) with the highest compression level, for
+ * exercising the Huffman-compressed literals and the <abbr>FSE</abbr> tables.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+public final class ZSTDTest extends TestCase {
+    /**
+     * A Zstandard frame created by libzstd for the text returned by {@link #expected()}.
+     */
+    private static final byte[] FRAME = {
+        0x28, (byte) 0xB5, 0x2F, (byte) 0xFD, 0x60, (byte) 0x8A, 0x01, 0x0D, 0x03, 0x00, 0x02, 0x04, 0x0E, 0x12,
+        (byte) 0x80, (byte) 0xDB, 0x01, 0x28, 0x34, (byte) 0xCC, (byte) 0x92, (byte) 0x96, (byte) 0xF5, 0x5B, 0x28,
+        (byte) 0xFD, 0x67, 0x42, (byte) 0xB0, 0x29, 0x54, 0x3A, (byte) 0xEB, (byte) 0xEA, (byte) 0xE9, (byte) 0xE8,
+        (byte) 0xE7, (byte) 0xE6, (byte) 0xE5, (byte) 0xE4, (byte) 0xFF, (byte) 0xF8, 0x52, 0x09, 0x1D, 0x53, 0x0A,
+        0x21, 0x3F, 0x10, (byte) 0xA3, (byte) 0xF3, (byte) 0xC5, 0x1D, (byte) 0xE2, (byte) 0x84, (byte) 0x96, 0x36,
+        0x63, (byte) 0xEE, (byte) 0xDD, (byte) 0xD8, 0x5A, (byte) 0xDE, 0x1E, 0x1D, 0x2B, 0x7D, 0x01, 0x17,
+        (byte) 0xA8, 0x10, (byte) 0x90, (byte) 0xDE, (byte) 0xFF, 0x33, (byte) 0x80, 0x33, 0x0B, 0x0F, 0x10, 0x12,
+        (byte) 0x81, 0x12, (byte) 0xFF, (byte) 0x96, 0x48, 0x62, 0x3E, 0x4B, (byte) 0xDC, 0x43, 0x19, (byte) 0xBC,
+        0x70, 0x09, (byte) 0xBC, 0x60, 0x40, 0x5A, (byte) 0x94, (byte) 0x94, 0x07, (byte) 0xC4, 0x00, 0x48, 0x06
+    };
+
+    /**
+     * Creates a new test case.
+     */
+    public ZSTDTest() {
+    }
+
+    /**
+     * Returns the uncompressed content of {@link #FRAME}.
+     */
+    private static byte[] expected() {
+        final var text = new StringBuilder();
+        for (int i=0; i<20; i++) {
+            text.append("Tile ").append(i).append(" of GeoTIFF image, row ").append(i % 4).append(".\n");
+        }
+        return text.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Decompresses the given stream, reading the result in chunks of the given size.
+     */
+    private static byte[] decompress(final byte[] stream, final int chunkSize) throws IOException {
+        final var inflater = new ZSTD(new ChannelDataInput("test", ByteBuffer.wrap(stream)), null);
+        inflater.setInputRegion(0, stream.length);
+        final var result = ByteBuffer.allocate(4096);
+        final var chunk  = ByteBuffer.allocate(chunkSize);
+        while (inflater.read(chunk.clear()) >= 0) {
+            result.put(chunk.flip());
+        }
+        return Arrays.copyOf(result.array(), result.position());
+    }
+
+    /**
+     * Verifies that the predefined distributions have the expected sum of probabilities.
+     */
+    @Test
+    public void testPredefinedDistributions() {
+        assertEquals(1 << Zstandard.LITERALS_LENGTH_DEFAULT_LOG, sum(Zstandard.LITERALS_LENGTH_DEFAULT));
+        assertEquals(1 << Zstandard.MATCH_LENGTH_DEFAULT_LOG,    sum(Zstandard.MATCH_LENGTH_DEFAULT));
+        assertEquals(1 << Zstandard.OFFSET_DEFAULT_LOG,          sum(Zstandard.OFFSET_DEFAULT));
+        assertEquals(Zstandard.LITERALS_LENGTH_BASE.length, Zstandard.LITERALS_LENGTH_DEFAULT.length);
+        assertEquals(Zstandard.MATCH_LENGTH_BASE.length,    Zstandard.MATCH_LENGTH_DEFAULT.length);
+        for (int code=0; code < Zstandard.MATCH_LENGTH_BASE.length; code++) {
+            final int base = Zstandard.MATCH_LENGTH_BASE[code];
+            assertEquals(code, Zstandard.matchLengthCode(base));
+            assertEquals(code, Zstandard.matchLengthCode(base + (1 << Zstandard.MATCH_LENGTH_BITS[code]) - 1));
+        }
+        for (int code=0; code < Zstandard.LITERALS_LENGTH_BASE.length; code++) {
+            final int base = Zstandard.LITERALS_LENGTH_BASE[code];
+            assertEquals(code, Zstandard.literalsLengthCode(base));
+            assertEquals(code, Zstandard.literalsLengthCode(base + (1 << Zstandard.LITERALS_LENGTH_BITS[code]) - 1));
+        }
+    }
+
+    /**
+     * Returns the sum of the given probabilities, with "less than 1" probabilities counted as 1.
+     */
+    private static int sum(final short[] norm) {
+        int sum = 0;
+        for (final short n : norm) {
+            sum += Math.abs(n);
+        }
+        return sum;
+    }
+
+    /**
+     * Tests the decompression of a frame created by the reference implementation.
+     *
+     * @throws IOException if an error occurred while decompressing the data.
+     */
+    @Test
+    public void testDecompress() throws IOException {
+        final byte[] expected = expected();
+        assertArrayEquals(expected, decompress(FRAME, 1000));
+        assertArrayEquals(expected, decompress(FRAME, 7));
+    }
+
+    /**
+     * Tests the decompression of many frames separated by a skippable frame.
+     *
+     * @throws IOException if an error occurred while decompressing the data.
+     */
+    @Test
+    public void testSkippableFrame() throws IOException {
+        final var stream = ByteBuffer.allocate(FRAME.length * 2 + 12).order(ByteOrder.LITTLE_ENDIAN);
+        stream.put(FRAME).putInt(Zstandard.SKIPPABLE_MAGIC + 3).putInt(4).putInt(-1).put(FRAME);
+        final byte[] expected = expected();
+        final byte[] actual = decompress(stream.array(), 100);
+        assertEquals(expected.length * 2, actual.length);
+        assertArrayEquals(expected, Arrays.copyOfRange(actual, 0, expected.length));
+        assertArrayEquals(expected, Arrays.copyOfRange(actual, expected.length, actual.length));
+    }
+
+    /**
+     * Verifies that a truncated stream causes an exception instead of an incorrect result.
+     */
+    @Test
+    public void testTruncated() {
+        final byte[] stream = Arrays.copyOf(FRAME, FRAME.length - 10);
+        assertThrows(IOException.class, () -> decompress(stream, 100));
+    }
+}
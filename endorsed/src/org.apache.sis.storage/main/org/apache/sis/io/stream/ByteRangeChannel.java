@@ -16,6 +16,8 @@
  */
 package org.apache.sis.io.stream;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
 
 
@@ -41,4 +43,45 @@ public abstract class ByteRangeChannel implements ReadableByteChannel {
      * @param  upper  position (exclusive) of the last byte to be requested.
      */
     public abstract void rangeOfInterest(long lower, long upper);
+
+    /**
+     * Receiver of the bytes read by {@link #readRanges readRanges(…)}.
+     * All calls to this method are done in the thread which invoked {@code readRanges(…)}.
+     */
+    @FunctionalInterface
+    public interface RangeConsumer {
+        /**
+         * Invoked when the bytes of a range are available.
+         * The buffer position is zero and its limit is the length of the range.
+         *
+         * @param  index  index of the range in the arrays given to {@code readRanges(…)}.
+         * @param  data   the bytes of the range.
+         * @throws IOException if an error occurred while processing the bytes.
+         */
+        void accept(int index, ByteBuffer data) throws IOException;
+    }
+
+    /**
+     * Reads the given ranges of bytes and delivers them to the given consumer as they arrive.
+     * Ranges separated by less than {@code maxGap} bytes may be merged in a single request,
+     * and the requests may be executed concurrently. Ranges may be delivered in any order.
+     * Ranges of length zero are ignored.
+     *
+     * <p>If the consumer is {@code null}, then this method only saves the bytes in the cache of this channel
+     * for making them available to subsequent calls to {@code read(…)}. Ranges which are already in the cache
+     * are skipped. This is useful for prefetching data before to read them sequentially.</p>
+     *
+     * <p>The default implementation returns {@code false} without reading anything.
+     * In such case, the caller should read the ranges itself.</p>
+     *
+     * @param  offsets   positions of the first byte of each range.
+     * @param  lengths   number of bytes of each range. Shall not be greater than {@link Integer#MAX_VALUE}.
+     * @param  maxGap    maximal number of unrequested bytes between two ranges for merging them.
+     * @param  consumer  the object to notify when the bytes of a range are available, or {@code null} if none.
+     * @return whether this method has read the ranges, or {@code false} if not supported by this channel.
+     * @throws IOException if an error occurred while reading the bytes or in the consumer.
+     */
+    public boolean readRanges(long[] offsets, long[] lengths, int maxGap, RangeConsumer consumer) throws IOException {
+        return false;
+    }
 }
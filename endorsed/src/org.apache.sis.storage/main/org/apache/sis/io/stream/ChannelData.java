@@ -417,7 +417,10 @@ public abstract class ChannelData implements Markable {
         final Channel channel = channel();
         if (channel instanceof SeekableByteChannel) {
             ((SeekableByteChannel) channel).position(channelOffset);
-            buffer.clear().limit(0);
+            buffer.clear();
+            if (!buffer.isReadOnly()) {
+                buffer.limit(0);            // Read-only buffers contain all data, which are kept.
+            }
             bufferOffset = 0;
             bitPosition  = 0;
             mark = null;
@@ -56,6 +56,11 @@ import static org.apache.sis.util.ArgumentChecks.ensureBetween;
  * <p>Since this class is only a helper tool, it does not "own" the channel and consequently does not provide
  * {@code close()} method. It is users responsibility to close the channel after usage.</p>
  *
+ * <h2>Read-only buffers</h2>
+ * If the {@linkplain #buffer buffer} is read-only, then it is assumed to contain all the stream data
+ * (for example the content of a memory-mapped file) and is never refilled from the channel.
+ * In such case, all seeks are performed inside the buffer.
+ *
  * <h2>Relationship with {@code ChannelImageInputStream}</h2>
  * This class API is compatible with the {@link javax.imageio.stream.ImageInputStream} interface, so subclasses
  * can implement that interface if they wish. This is done by {@link ChannelImageInputStream} for situations
@@ -175,6 +180,9 @@ public class ChannelDataInput extends ChannelData implements DataInput {
         if (limit == capacity) {
             return -2;
         }
+        if (buffer.isReadOnly()) {
+            return -1;
+        }
         final int position = buffer.position();
         buffer.limit(capacity).position(limit);
         int c = channel.read(buffer);
@@ -214,6 +222,9 @@ public class ChannelDataInput extends ChannelData implements DataInput {
         if (buffer.hasRemaining()) {
             return true;
         }
+        if (buffer.isReadOnly()) {
+            return false;                   // The buffer contains all data.
+        }
         moveBufferForward(buffer.limit());
         buffer.clear();
         int c = channel.read(buffer);
@@ -238,6 +249,9 @@ public class ChannelDataInput extends ChannelData implements DataInput {
         assert n >= 0 && n <= buffer.capacity() : n;
         n -= buffer.remaining();
         if (n > 0) {
+            if (buffer.isReadOnly()) {
+                throw new EOFException(eof());          // The buffer contains all data.
+            }
             moveBufferForward(buffer.position());
             buffer.compact();
             do {
@@ -710,6 +724,10 @@ public class ChannelDataInput extends ChannelData implements DataInput {
                 // Buffer position must be a multiple of the data size.
                 // If not, fix that by shifting the content to index 0.
                 if ((buffer.position() & ((1 << dataSizeShift) - 1)) != 0) {
+                    if (buffer.isReadOnly()) {
+                        readMisaligned(offset, length);
+                        return;
+                    }
                     moveBufferForward(buffer.position());
                     buffer.compact().flip();
                 }
@@ -727,6 +745,27 @@ public class ChannelDataInput extends ChannelData implements DataInput {
                 skipInBuffer(n << dataSizeShift);
             }
         }
+
+        /**
+         * Reads values when the buffer position is not a multiple of the data size and the buffer is read-only.
+         * The buffer content cannot be shifted in such case, so this method reads the values through a temporary
+         * view starting at the current buffer position. A view over the full buffer content is recreated after
+         * the read operation, for preserving the assumption documented in {@link #readFully(Buffer, int, int)}.
+         *
+         * @param  offset  the starting position within {@code dest} to write.
+         * @param  length  the number of values to read.
+         * @throws IOException if an error (including EOF) occurred while reading the stream.
+         */
+        private void readMisaligned(final int offset, final int length) throws IOException {
+            try {
+                readFully(null, offset, length);
+            } finally {
+                final int position = buffer.position();
+                buffer.position(0);
+                createView();                               // Must be after the change of buffer position.
+                buffer.position(position);
+            }
+        }
     }
 
     /**
@@ -1192,6 +1231,14 @@ loop:   while (hasRemaining()) {
              * Requested position is inside the current limits of the buffer.
              */
             buffer.position((int) p);
+        } else if (buffer.isReadOnly()) {
+            /*
+             * The buffer contains all data, so the requested position is outside the stream.
+             */
+            if (p < 0) {
+                throw new InvalidSeekException(Resources.format(Resources.Keys.StreamIsForwardOnly_1, filename));
+            }
+            throw new EOFException(eof());
         } else if ((p < 0 || p - buffer.limit() >= SEEK_THRESHOLD) && channel instanceof SeekableByteChannel) {
             /*
              * Requested position is outside the current limits of the buffer,
@@ -1247,6 +1294,41 @@ loop:   while (hasRemaining()) {
         }
     }
 
+    /**
+     * Reads the given ranges of bytes concurrently if the channel supports this operation.
+     * If the channel is a {@link ByteRangeChannel} capable to read many ranges concurrently
+     * (for example on a HTTP or S3 connection), then ranges separated by less than {@code maxGap}
+     * bytes may be merged, the requests may be executed in background threads, and the ranges are
+     * delivered to the consumer in any order. Otherwise, this method does nothing and returns {@code false}.
+     * In the latter case, the caller should read the ranges itself.
+     *
+     * <p>If the consumer is {@code null}, then the bytes are only saved in the cache of the channel
+     * and ranges already in the cache are skipped. This is useful for prefetching.</p>
+     *
+     * <p>The position of this input is not modified by this method.</p>
+     *
+     * @param  offsets   positions of the first byte of each range.
+     * @param  lengths   number of bytes of each range. Shall not be greater than {@link Integer#MAX_VALUE}.
+     * @param  maxGap    maximal number of unrequested bytes between two ranges for merging them.
+     * @param  consumer  the object to notify when the bytes of a range are available, or {@code null} if none.
+     * @return whether the ranges have been read, or {@code false} if the channel does not support this operation.
+     * @throws IOException if an error occurred while reading the bytes or in the consumer.
+     *
+     * @see ByteRangeChannel#readRanges(long[], long[], int, ByteRangeChannel.RangeConsumer)
+     */
+    public final boolean readRanges(final long[] offsets, final long[] lengths, final int maxGap,
+                                    final ByteRangeChannel.RangeConsumer consumer) throws IOException
+    {
+        if (channel instanceof ByteRangeChannel) {
+            final long[] positions = new long[offsets.length];
+            for (int i=0; i<positions.length; i++) {
+                positions[i] = toSeekableByteChannelPosition(offsets[i]);
+            }
+            return ((ByteRangeChannel) channel).readRanges(positions, lengths, maxGap, consumer);
+        }
+        return false;
+    }
+
     /**
      * Returns whether calls to {@code rangeOfInterest(…)} has any effect.
      * This method is useful when {@code rangeOfInterest(…)} is invoked in a loop.
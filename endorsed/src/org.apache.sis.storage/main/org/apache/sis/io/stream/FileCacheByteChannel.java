@@ -16,7 +16,15 @@
  */
 package org.apache.sis.io.stream;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.UnaryOperator;
 import java.io.EOFException;
 import java.io.IOException;
@@ -29,6 +37,7 @@ import java.nio.channels.SeekableByteChannel;
 import java.nio.channels.NonWritableChannelException;
 import org.apache.sis.storage.StorageConnector;
 import org.apache.sis.storage.internal.Resources;
+import org.apache.sis.system.CommonExecutor;
 import org.apache.sis.system.DelayedExecutor;
 import org.apache.sis.system.DelayedRunnable;
 import org.apache.sis.util.ArgumentChecks;
@@ -50,6 +59,7 @@ import static org.apache.sis.storage.base.StoreUtilities.LOGGER;
  *   <li>Bytes read from the input stream are cached in a temporary file for making backward seeks possible.</li>
  *   <li>The range of bytes of interest {@linkplain #rangeOfInterest(long, long) can be specified}.
  *       It makes possible to specify the range of bytes to download with HTTP connections.</li>
+ *   <li>Many ranges of bytes {@linkplain #readRanges can be downloaded concurrently}.</li>
  *   <li>This implementation is thread-safe.</li>
  *   <li>Current implementation is read-only.</li>
  * </ul>
@@ -74,6 +84,12 @@ public abstract class FileCacheByteChannel extends ByteRangeChannel implements S
      */
     static final int SKIP_THRESHOLD = 64 * 1024;
 
+    /**
+     * Maximal number of bytes in a request created by merging many ranges in {@link #readRanges readRanges(…)}.
+     * A range larger than this limit is still requested, but is not merged with other ranges.
+     */
+    private static final int MAX_MERGED_LENGTH = 16 * 1024 * 1024;
+
     /**
      * Number of nanoseconds to wait before to close an inactive connection.
      */
@@ -359,6 +375,15 @@ public abstract class FileCacheByteChannel extends ByteRangeChannel implements S
      */
     private long length = -1;
 
+    /**
+     * Whether the last connection declared that it accepts ranges of bytes.
+     * This is {@code false} if no connection has been opened yet.
+     * Used for deciding if concurrent requests of ranges can be done.
+     *
+     * @see #readRanges(long[], long[], int, RangeConsumer)
+     */
+    private boolean acceptRanges;
+
     /**
      * Creates a new channel which will cache bytes in a temporary file.
      * The source of bytes will be provided by {@link #openConnection(long, long)}.
@@ -498,6 +523,273 @@ public abstract class FileCacheByteChannel extends ByteRangeChannel implements S
         }
     }
 
+    /**
+     * Reads the given ranges of bytes with concurrent requests and delivers them as they arrive.
+     * Ranges that are already in the cache are delivered without new request. Other ranges are sorted
+     * and merged when separated by less than {@code maxGap} bytes, then requested in background threads.
+     * The bytes received are saved in the cache before to be delivered, so they can also be read later
+     * by {@link #read(ByteBuffer)}. The position of this channel is not modified by this method.
+     * If the consumer is {@code null}, then the ranges already in the cache are skipped
+     * and the downloaded ranges are only saved in the cache.
+     *
+     * <p>This method returns {@code false} if no connection has been opened yet, or if the last
+     * connection did not declare that it accepts ranges of bytes. In the latter case, each request
+     * may download the full file, which would be much worse than reading the file sequentially.</p>
+     *
+     * @param  offsets   positions of the first byte of each range.
+     * @param  lengths   number of bytes of each range. Shall not be greater than {@link Integer#MAX_VALUE}.
+     * @param  maxGap    maximal number of unrequested bytes between two ranges for merging them.
+     * @param  consumer  the object to notify when the bytes of a range are available, or {@code null} if none.
+     * @return whether this method has read the ranges.
+     * @throws IOException if an error occurred while reading the bytes or in the consumer.
+     */
+    @Override
+    public boolean readRanges(final long[] offsets, final long[] lengths, final int maxGap, final RangeConsumer consumer)
+            throws IOException
+    {
+        ArgumentChecks.ensurePositive("maxGap", maxGap);
+        if (offsets.length != lengths.length) {
+            throw new IllegalArgumentException(Errors.format(Errors.Keys.MismatchedArrayLengths));
+        }
+        /*
+         * Separate the ranges which are already in the cache from the ranges to download.
+         * The latter are sorted in increasing order of offsets for making merges easier.
+         */
+        final var cached   = new ArrayList<Integer>();
+        final var download = new ArrayList<Integer>();
+        synchronized (this) {
+            if (!acceptRanges) {
+                return false;
+            }
+            for (int i=0; i<offsets.length; i++) {
+                final long start  = offsets[i];
+                final int  size  = Math.toIntExact(lengths[i]);
+                ArgumentChecks.ensurePositive("lengths", size);
+                if (size != 0) {
+                    ArgumentChecks.ensurePositive("offsets", start);
+                    final int r = rangesOfAvailableBytes.indexOfRange(start);
+                    if (r >= 0 && rangesOfAvailableBytes.getMaxLong(r) - start >= size) {
+                        if (consumer != null) {
+                            cached.add(i);
+                        }
+                    } else {
+                        download.add(i);
+                    }
+                }
+            }
+        }
+        download.sort((i, j) -> Long.compare(offsets[i], offsets[j]));
+        /*
+         * Merge the ranges separated by small gaps, then start the downloads in background threads.
+         * The completed downloads are added in the `completed` queue in the order they finish.
+         */
+        final var tasks = new ArrayList<FutureTask<Fetch>>();
+        final BlockingQueue<FutureTask<Fetch>> completed = new LinkedBlockingQueue<>();
+        final Executor executor = CommonExecutor.instance();
+        for (int k=0; k < download.size();) {
+            final int first = k;
+            final long start = offsets[download.get(k)];
+            long end = start + lengths[download.get(k)];
+            while (++k < download.size()) {
+                final int  i     = download.get(k);
+                final long upper = Math.max(end, offsets[i] + lengths[i]);
+                if (offsets[i] - end > maxGap || upper - start > MAX_MERGED_LENGTH) break;
+                end = upper;
+            }
+            final var fetch = new Fetch(start, end, download.subList(first, k).stream().mapToInt(Integer::intValue).toArray());
+            final var task = new FutureTask<Fetch>(fetch) {
+                @Override protected void done() {
+                    completed.add(this);
+                }
+            };
+            tasks.add(task);
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // Ignore, the task will be run in the current thread.
+            }
+        }
+        /*
+         * While the downloads are in progress, deliver the ranges which were already in the cache.
+         * Then deliver the downloaded ranges as they arrive. If the executor did not started some
+         * tasks yet, execute them in the current thread instead of waiting.
+         */
+        for (final int i : cached) {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) lengths[i]);
+            long position = offsets[i];
+            do {
+                final int n = file.read(buffer, position);
+                if (n < 0) throw new EOFException(Errors.format(Errors.Keys.UnexpectedEndOfFile_1, filename()));
+                position += n;
+            } while (buffer.hasRemaining());
+            consumer.accept(i, buffer.flip());
+        }
+        final var missing = new ArrayList<Integer>();
+        int next = 0;
+        try {
+            for (int remaining = tasks.size(); remaining > 0; remaining--) {
+                FutureTask<Fetch> task;
+                while ((task = completed.poll()) == null && next < tasks.size()) {
+                    tasks.get(next++).run();                // No-op if the task has already been started.
+                }
+                if (task == null) {
+                    task = completed.take();
+                }
+                final Fetch fetch = task.get();
+                fetch.cache();
+                if (consumer == null) {
+                    continue;           // Bytes will be read from the cache later.
+                }
+                for (final int i : fetch.members) {
+                    final long offset = offsets[i] - fetch.start;
+                    final int  size   = (int) lengths[i];
+                    if (offset + size <= fetch.count) {
+                        consumer.accept(i, ByteBuffer.wrap(fetch.data, (int) offset, size).slice());
+                    } else {
+                        missing.add(i);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException)      throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error)            throw (Error) cause;
+            throw new IOException(cause);
+        } finally {
+            for (final FutureTask<Fetch> task : tasks) {
+                task.cancel(false);
+            }
+        }
+        /*
+         * If some connections returned less bytes than requested, read the missing ranges sequentially.
+         * It may happen if the server does not honor the ranges in the way that we expected.
+         */
+        if (!missing.isEmpty()) {
+            final var buffers = new ByteBuffer[missing.size()];
+            synchronized (this) {
+                final long saved = position;
+                try {
+                    for (int k=0; k<buffers.length; k++) {
+                        final int i = missing.get(k);
+                        final ByteBuffer buffer = ByteBuffer.allocate((int) lengths[i]);
+                        position = offsets[i];
+                        do if (read(buffer) < 0) {
+                            throw new EOFException(Errors.format(Errors.Keys.UnexpectedEndOfFile_1, filename()));
+                        } while (buffer.hasRemaining());
+                        buffers[k] = buffer.flip();
+                    }
+                } finally {
+                    position = saved;
+                }
+            }
+            for (int k=0; k<buffers.length; k++) {
+                consumer.accept(missing.get(k), buffers[k]);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A request for a range of bytes made of one or more merged ranges.
+     * Instances are executed in background threads by {@link #readRanges readRanges(…)}.
+     * This task reads the bytes from a new connection without modifying the state of the enclosing channel.
+     */
+    private final class Fetch implements Callable<Fetch> {
+        /** Position of the first byte to request (inclusive). */
+        final long start;
+
+        /** Indices of the ranges covered by this request. */
+        final int[] members;
+
+        /** The bytes received from the connection. */
+        final byte[] data;
+
+        /** Number of valid bytes in {@link #data}. May be less than the array length if the connection ended early. */
+        int count;
+
+        /** Number of bytes in the full stream as declared by the connection, or -1 if unknown. */
+        private long streamLength = -1;
+
+        /**
+         * Creates a new request.
+         *
+         * @param start    position of the first byte to request (inclusive).
+         * @param end      position after the last byte to request (exclusive).
+         * @param members  indices of the ranges covered by this request.
+         */
+        Fetch(final long start, final long end, final int[] members) {
+            this.start   = start;
+            this.members = members;
+            this.data    = new byte[Math.toIntExact(end - start)];
+        }
+
+        /**
+         * Opens a new connection for the range of bytes and reads them fully.
+         * This method is invoked in a background thread.
+         *
+         * @return {@code this}.
+         * @throws IOException if the connection cannot be established or an error occurred while reading.
+         */
+        @Override
+        public Fetch call() throws IOException {
+            final Connection c = openConnection(start, start + data.length - 1);
+            if (c != null) {
+                streamLength = c.length;
+                final InputStream input = c.input;
+                try {
+                    long skip = start - c.start;
+                    while (skip > 0) {
+                        long n = input.skip(skip);
+                        if (n <= 0) {
+                            if (input.read() < 0) break;
+                            n = 1;
+                        }
+                        skip -= n;
+                    }
+                    if (skip == 0) {
+                        count = input.readNBytes(data, 0, data.length);
+                    }
+                } finally {
+                    if (!abort(c)) {
+                        input.close();
+                    }
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Copies the bytes received by this request in the cache file.
+         * This method does not modify the position of the cache file.
+         *
+         * @throws IOException if an error occurred while writing in the cache file.
+         */
+        final void cache() throws IOException {
+            synchronized (FileCacheByteChannel.this) {
+                if (streamLength >= 0) {
+                    length = streamLength;
+                }
+                if (count != 0) {
+                    final ByteBuffer buffer = ByteBuffer.wrap(data, 0, count);
+                    long position = start;
+                    do {
+                        final int n = file.write(buffer, position);
+                        if (n <= 0) {
+                            // Should never happen, but check anyway as a safety against never-ending loop.
+                            throw new IOException();
+                        }
+                        position += n;
+                    } while (buffer.hasRemaining());
+                    rangesOfAvailableBytes.add(start, position);
+                    rangesOfInterest.remove(start, position);
+                }
+            }
+        }
+    }
+
     /**
      * Opens a connection on the range of bytes determined by the current channel position.
      * The range of bytes of interest is specified in the {@link #rangesOfInterest} set.
@@ -554,6 +846,7 @@ public abstract class FileCacheByteChannel extends ByteRangeChannel implements S
             length = c.length;
         }
         connection = c;                 // Set only on success.
+        acceptRanges = c.acceptRanges;
         /*
          * Remove the requested range from the list of ranges of interest.
          * The range to remove is determined on the assumption that caller
@@ -209,11 +209,13 @@ public class HyperRectangleReader {
             if (reader.dataArray() == null) {
                 reader.createDataArray(Math.max(capacity, limit));
             }
-            final Buffer view = reader.view();
 loop:       do {
                 reader.seek(streamPosition);
-                assert reader.view() == view;
-                reader.readFully(view, arrayPosition, contiguousDataLength);
+                /*
+                 * Fetch the view at each iteration because it may be replaced by a new view
+                 * when the data are read from a read-only buffer (e.g. a memory-mapped file).
+                 */
+                reader.readFully(reader.view(), arrayPosition, contiguousDataLength);
                 for (int i=0; i<cursor.length; i++) {
                     /*
                      * After we have read as much contiguous data as we can (may be a row, or a plane, or
@@ -64,6 +64,15 @@ public final class InternalOptionKey<T> extends OptionKey<T> {
     public static final InternalOptionKey<ReadWriteLock> LOCKS =
             new InternalOptionKey<>("LOCKS", ReadWriteLock.class);
 
+    /**
+     * Maximal size (in bytes) of local files to read through memory mapping.
+     * Files of size below this limit may be mapped in memory when opened for reading,
+     * in which case {@link ChannelDataInput} copies data directly from the mapped file.
+     * A value of 0 disables memory mapping. The default value is {@link MappedByteChannel#DEFAULT_SIZE_LIMIT}.
+     */
+    public static final InternalOptionKey<Long> MEMORY_MAPPING_LIMIT =
+            new InternalOptionKey<>("MEMORY_MAPPING_LIMIT", Long.class);
+
     /**
      * Additional information for the data store. This option is used for directives that are not defined
      * by Apache SIS, but are rather defined by some underlying implementations to which Apache SIS will
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.io.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+
+
+/**
+ * A read-only channel over a local file which has been mapped in memory.
+ * The {@linkplain #buffer() buffer} contains the full file content and can be given directly
+ * to the {@link ChannelDataInput} constructor, in which case read operations will copy bytes
+ * directly from the mapped memory to the destination arrays, without intermediate buffer and
+ * without system calls. The {@link #read(ByteBuffer)} method of this channel is provided only
+ * for code using the channel directly. It is not invoked by {@link ChannelDataInput}.
+ *
+ * <p>Closing this channel closes the file, but does not release the mapped memory.
+ * The latter is released by the garbage collector when the buffer is no longer referenced.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+public final class MappedByteChannel implements SeekableByteChannel {
+    /**
+     * Default maximal file size for using memory mapping. Files larger than this limit are read with ordinary
+     * buffered reads. This is the largest value accepted by {@link ByteBuffer}, because the whole file is mapped
+     * in a single buffer for allowing {@link ChannelDataInput} to seek anywhere without reading the channel.
+     */
+    public static final long DEFAULT_SIZE_LIMIT = Integer.MAX_VALUE;
+
+    /**
+     * The channel to the file which has been mapped.
+     */
+    private final FileChannel file;
+
+    /**
+     * The full content of the file. This buffer is read-only.
+     */
+    private final ByteBuffer data;
+
+    /**
+     * Position of this channel, used only by {@link #read(ByteBuffer)}.
+     */
+    private long position;
+
+    /**
+     * Creates a new channel for the given mapped file.
+     *
+     * @param  file  the channel to the file which has been mapped.
+     * @param  data  the full content of the file.
+     */
+    private MappedByteChannel(final FileChannel file, final ByteBuffer data) {
+        this.file = file;
+        this.data = data;
+    }
+
+    /**
+     * Maps the file of the given channel in memory if possible. This method returns {@code null}
+     * if the given channel is not a {@link FileChannel} positioned at the beginning of the file,
+     * if the file size is outside the given range, or if the operating system cannot map the file.
+     * In the latter case, the caller should fallback on ordinary buffered reads.
+     *
+     * @param  channel  the channel to map. Should be opened in read-only mode.
+     * @param  minSize  minimal file size for using memory mapping. Smaller files are not worth to map.
+     * @param  maxSize  maximal file size for using memory mapping.
+     * @return a channel over the mapped file, or {@code null} if the file has not been mapped.
+     * @throws IOException if an error occurred while fetching the file size or position.
+     */
+    public static MappedByteChannel tryMap(final ReadableByteChannel channel, final long minSize, long maxSize)
+            throws IOException
+    {
+        if (channel instanceof FileChannel) {
+            final var file = (FileChannel) channel;
+            if (file.position() == 0) {
+                final long size = file.size();
+                if (size >= minSize && size <= Math.min(maxSize, DEFAULT_SIZE_LIMIT)) try {
+                    return new MappedByteChannel(file, file.map(FileChannel.MapMode.READ_ONLY, 0, size));
+                } catch (IOException | UnsupportedOperationException e) {
+                    /*
+                     * The file system does not support memory mapping, or the address space is exhausted.
+                     * This is not an error since the caller can use ordinary reads. Ignore the exception.
+                     */
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the full content of the file as a read-only buffer.
+     * The buffer position is zero and its limit is the file size.
+     * Each call returns a new buffer sharing the same content.
+     *
+     * @return the full content of the file.
+     */
+    public ByteBuffer buffer() {
+        return data.asReadOnlyBuffer();
+    }
+
+    /**
+     * Copies bytes from the mapped file to the given buffer, starting at the current channel position.
+     *
+     * @param  dst  the buffer where to copy the bytes.
+     * @return number of bytes copied, or -1 if the end of file has been reached.
+     * @throws ClosedChannelException if this channel has been closed.
+     */
+    @Override
+    public int read(final ByteBuffer dst) throws ClosedChannelException {
+        ensureOpen();
+        final int limit = data.limit();
+        if (position >= limit) {
+            return -1;
+        }
+        final int start = (int) position;
+        final int n = Math.min(dst.remaining(), limit - start);
+        dst.put(data.duplicate().position(start).limit(start + n));
+        position += n;
+        return n;
+    }
+
+    /**
+     * Unsupported operation since this channel is read-only.
+     */
+    @Override
+    public int write(final ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    /**
+     * Returns the position used by {@link #read(ByteBuffer)}.
+     *
+     * @return the current position of this channel.
+     * @throws ClosedChannelException if this channel has been closed.
+     */
+    @Override
+    public long position() throws ClosedChannelException {
+        ensureOpen();
+        return position;
+    }
+
+    /**
+     * Sets the position used by {@link #read(ByteBuffer)}.
+     *
+     * @param  newPosition  the new position.
+     * @return {@code this}.
+     * @throws ClosedChannelException if this channel has been closed.
+     */
+    @Override
+    public SeekableByteChannel position(final long newPosition) throws ClosedChannelException {
+        ensureOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException();
+        }
+        position = newPosition;
+        return this;
+    }
+
+    /**
+     * Returns the size of the mapped file.
+     *
+     * @return the size of the file.
+     * @throws ClosedChannelException if this channel has been closed.
+     */
+    @Override
+    public long size() throws ClosedChannelException {
+        ensureOpen();
+        return data.limit();
+    }
+
+    /**
+     * Unsupported operation since this channel is read-only.
+     */
+    @Override
+    public SeekableByteChannel truncate(final long size) {
+        throw new NonWritableChannelException();
+    }
+
+    /**
+     * Throws an exception if this channel has been closed.
+     */
+    private void ensureOpen() throws ClosedChannelException {
+        if (!file.isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    /**
+     * Returns whether the file is still open.
+     */
+    @Override
+    public boolean isOpen() {
+        return file.isOpen();
+    }
+
+    /**
+     * Closes the file. The mapped memory stay valid until garbage-collected.
+     *
+     * @throws IOException if an error occurred while closing the file.
+     */
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -20,6 +20,7 @@ import java.util.Locale;
 import java.util.Optional;
 import java.util.logging.Logger;
 import java.util.function.Supplier;
+import java.util.concurrent.Executor;
 import java.time.ZoneId;
 import java.nio.ByteBuffer;
 import java.io.ObjectStreamException;
@@ -247,6 +248,18 @@ public class OptionKey<T> extends org.apache.sis.setup.OptionKey<T> {
     public static final OptionKey<CoverageModifier> COVERAGE_MODIFIER =
             new OptionKey<>("COVERAGE_MODIFIER", CoverageModifier.class);
 
+    /**
+     * The executor to use for work that a data store can perform in background threads.
+     * For example, a GeoTIFF reader may use this executor for decompressing many tiles in parallel
+     * after their compressed bytes have been read sequentially from the file.
+     * If this option is not specified, all data are decoded in the thread that requested them.
+     *
+     * <p>The data store may also decode some data in the requesting thread while waiting for the executor.
+     * Consequently, the given executor can be the same as the one in which the reading is requested.</p>
+     */
+    public static final OptionKey<Executor> EXECUTOR =
+            new OptionKey<>("EXECUTOR", Executor.class);
+
     /**
      * The listeners to declare as the parent of the data store listeners.
      * This option can be used when the {@link DataStore} to open is itself
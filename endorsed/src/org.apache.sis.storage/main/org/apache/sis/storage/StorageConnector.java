@@ -42,6 +42,7 @@ import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
 import java.nio.file.OpenOption;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
 import javax.imageio.IIOException;
 import javax.imageio.ImageIO;
 import javax.imageio.stream.ImageInputStream;
@@ -53,6 +54,7 @@ import javax.sql.DataSource;
 import org.apache.sis.util.Debug;
 import org.apache.sis.util.Classes;
 import org.apache.sis.util.Workaround;
+import org.apache.sis.util.ArraysExt;
 import org.apache.sis.util.ArgumentChecks;
 import org.apache.sis.util.ObjectConverters;
 import org.apache.sis.util.UnconvertibleObjectException;
@@ -77,6 +79,7 @@ import org.apache.sis.io.stream.ChannelDataOutput;
 import org.apache.sis.io.stream.ChannelImageInputStream;
 import org.apache.sis.io.stream.ChannelImageOutputStream;
 import org.apache.sis.io.stream.InternalOptionKey;
+import org.apache.sis.io.stream.MappedByteChannel;
 import org.apache.sis.system.Configuration;
 
 
@@ -1226,9 +1229,16 @@ public class StorageConnector implements Serializable {
         @SuppressWarnings("LocalVariableHidesMemberVariable")
         final String name = getStorageName();
         final ReadableByteChannel channel = factory.readable(name, null);
-        addView(ReadableByteChannel.class, channel, null, factory.isCoupled() ? CASCADE_ON_RESET : 0);
-        final ByteBuffer buffer = getChannelBuffer(factory);
-        final ChannelDataInput asDataInput = new ChannelDataInput(name, channel, buffer, false);
+        final MappedByteChannel mapped = factory.isCoupled() ? null : mapInMemory(channel);
+        final ChannelDataInput asDataInput;
+        if (mapped != null) {
+            addView(ReadableByteChannel.class, mapped);
+            asDataInput = new ChannelDataInput(name, mapped, mapped.buffer(), true);
+        } else {
+            addView(ReadableByteChannel.class, channel, null, factory.isCoupled() ? CASCADE_ON_RESET : 0);
+            final ByteBuffer buffer = getChannelBuffer(factory);
+            asDataInput = new ChannelDataInput(name, channel, buffer, false);
+        }
         addView(ChannelDataInput.class, asDataInput, ReadableByteChannel.class, CASCADE_ON_RESET);
         /*
          * Following is an undocumented mechanism for allowing some Apache SIS implementations of DataStore
@@ -1297,6 +1307,37 @@ public class StorageConnector implements Serializable {
         return asDataInput;
     }
 
+    /**
+     * Maps the file of the given channel in memory if this is possible and desirable.
+     * Mapping is not attempted if the user specified a buffer, if the file is opened for writing,
+     * or if the file is not larger than the default buffer size (because reading such file in the
+     * buffer is as efficient). If the operating system cannot map the file, then this method
+     * returns {@code null} and the caller should fallback on the usual buffered reads.
+     *
+     * <p>The mapped memory is released only when the buffer is garbage-collected.
+     * Consequently, on some platforms, the file may not be deleted before that time.
+     * The mapping can be disabled by setting {@link InternalOptionKey#MEMORY_MAPPING_LIMIT} to 0.</p>
+     *
+     * @param  channel  the channel opened on the storage.
+     * @return the channel over the mapped file, or {@code null} if the file has not been mapped.
+     * @throws IOException if an error occurred while fetching the file size.
+     */
+    private MappedByteChannel mapInMemory(final ReadableByteChannel channel) throws IOException {
+        if (getOption(OptionKey.BYTE_BUFFER) == null) {
+            final OpenOption[] options = getOption(OptionKey.OPEN_OPTIONS);
+            if (options == null || !(ArraysExt.contains(options, StandardOpenOption.WRITE) ||
+                                     ArraysExt.contains(options, StandardOpenOption.APPEND)))
+            {
+                final Long limit = getOption(InternalOptionKey.MEMORY_MAPPING_LIMIT);
+                final long maxSize = (limit != null) ? limit : MappedByteChannel.DEFAULT_SIZE_LIMIT;
+                if (maxSize > DEFAULT_BUFFER_SIZE) {
+                    return MappedByteChannel.tryMap(channel, DEFAULT_BUFFER_SIZE + 1, maxSize);
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Returns or allocate a buffer for use with the {@link ChannelDataInput} or {@link ChannelDataOutput}.
      * If the user did not specify a buffer, this method may allocate a direct buffer for better
@@ -16,8 +16,12 @@
  */
 package org.apache.sis.storage.tiling;
 
+import java.util.List;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import java.awt.Rectangle;
@@ -58,6 +62,7 @@ import org.apache.sis.util.resources.Errors;
 import org.apache.sis.util.collection.BackingStoreException;
 import org.apache.sis.math.DecimalFunctions;
 import org.apache.sis.storage.internal.Resources;
+import org.apache.sis.system.CommonExecutor;
 
 
 /**
@@ -359,23 +364,117 @@ final class ImageTileMatrix implements TileMatrix {
      */
     @Override
     public Optional<Tile> getTile(final long... indices) throws DataStoreException {
+        final Tile tile = builder(indices).createFirstTile();
+        return (tile.getStatus() == TileStatus.MISSING) ? Optional.empty() : Optional.of(tile);
+    }
+
+    /**
+     * Fetches asynchronously the tiles at the given indices.
+     * The tiles are decoded in background threads, so each future completes only when the content of its tile
+     * is available in memory. Before to submit the tasks, this method prepares in the caller thread a single
+     * image with deferred tile reading which encompasses all requested tiles (if they are in the same slice).
+     *
+     * @param  indices   indices of the tiles to fetch, as coordinates inside the matrix extent.
+     * @param  executor  the executor to use for fetching the tiles, or {@code null} for a default executor.
+     * @return one future for each element of {@code indices}, in the same order.
+     */
+    @Override
+    public List<CompletableFuture<Optional<Tile>>> fetchTiles(final List<long[]> indices, Executor executor) {
+        if (executor == null) {
+            executor = CommonExecutor.instance();
+        }
+        /*
+         * Compute the union of all valid tile indices. If all tiles are in the same two-dimensional slice,
+         * prepare an image covering them all. It avoids the creation of a new image for each tile below.
+         */
         final GridExtent extent = tilingScheme.getExtent();
-        if (extent.contains(indices)) try {
-            final int dimension = indices.length;
-            final long[] cellLow  = new long[dimension];
-            final long[] cellHigh = new long[dimension];
-            for (int i=0; i < dimension; i++) {
-                cellLow [i] = tileToCell(indices[i], i);
-                cellHigh[i] = addExact(cellLow[i], tileSize[i] - 1);    // Inclusive.
+        long[] low = null, high = null;
+        for (final long[] tile : indices) {
+            if (extent.contains(tile)) {
+                if (low == null) {
+                    low  = tile.clone();
+                    high = tile.clone();
+                } else {
+                    for (int i=0; i<tile.length; i++) {
+                        low [i] = min(low [i], tile[i]);
+                        high[i] = max(high[i], tile[i]);
+                    }
+                }
             }
-            final Tile tile = builder(indices, indices, cellLow, cellHigh).createFirstTile();
-            return (tile.getStatus() == TileStatus.MISSING) ? Optional.empty() : Optional.of(tile);
+        }
+        if (low != null) try {
+            @SuppressWarnings("LocalVariableHidesMemberVariable")
+            final TiledGridCoverage coverage = coverage();
+            boolean sameSlice = true;
+            for (int i=0; i<low.length; i++) {
+                if (i != coverage.xDimension && i != coverage.yDimension && low[i] != high[i]) {
+                    sameSlice = false;      // Tiles will be fetched individually below.
+                    break;
+                }
+            }
+            if (sameSlice) {
+                builder(low, high);
+            }
+        } catch (DataStoreException | ArithmeticException e) {
+            // Ignore. The exception will be reported by the request for the tile which caused it.
+            Logging.ignorableException(LOGGER, ImageTileMatrix.class, "fetchTiles", e);
+        }
+        /*
+         * Submit one task per tile. The image preparation is done in the caller thread because it is
+         * cheap when tiles are read at `getTile(…)` time, while the actual reading is done in background.
+         */
+        final var futures = new ArrayList<CompletableFuture<Optional<Tile>>>(indices.size());
+        for (final long[] tile : indices) {
+            CompletableFuture<Optional<Tile>> future;
+            try {
+                final IteratorBuilder builder = builder(tile);
+                future = CompletableFuture.supplyAsync(() -> Optional.of(builder.loadFirstTile()), executor);
+            } catch (DataStoreException | RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            futures.add(future);
+        }
+        return futures;
+    }
+
+    /**
+     * Creates an object which can be used for retrieving the tile at the given indices.
+     *
+     * @param  indices  indices of the tile to fetch, as coordinates inside the matrix extent.
+     * @return a request which can be used for getting the tile at the given indices.
+     * @throws NoSuchDataException if the given indices are outside the matrix extent.
+     * @throws DataStoreException if fetching the tile failed for another reason.
+     */
+    private IteratorBuilder builder(final long[] indices) throws DataStoreException {
+        if (tilingScheme.getExtent().contains(indices)) try {
+            return builder(indices, indices);
         } catch (ArithmeticException e) {
             throw new UnsupportedQueryException(e);
         }
         throw new NoSuchDataException(Resources.format(Resources.Keys.TileIndexesOutOfBounds));
     }
 
+    /**
+     * Creates an object which can be used for retrieving tiles in the given range of tile indices.
+     * This method computes the range of cell indices, then delegates to the method below.
+     *
+     * @param  tileLow   tile index (inclusive) of the first tile requested by the user.
+     * @param  tileHigh  tile index (inclusive) of the last tile requested by the user.
+     * @return a request which can be used for getting the tiles in the given region.
+     * @throws DataStoreException if the tiles cannot be fetched in the given ranges of tile indexes.
+     * @throws ArithmeticException if coordinate computation exceeds the capacity of 64-bits integers.
+     */
+    private IteratorBuilder builder(final long[] tileLow, final long[] tileHigh) throws DataStoreException {
+        final int dimension = tileLow.length;
+        final long[] cellLow  = new long[dimension];
+        final long[] cellHigh = new long[dimension];
+        for (int i=0; i < dimension; i++) {
+            cellLow [i] = tileToCell(tileLow[i], i);
+            cellHigh[i] = decrementExact(tileToCell(incrementExact(tileHigh[i]), i));   // Inclusive.
+        }
+        return builder(tileLow, tileHigh, cellLow, cellHigh);
+    }
+
     /**
      * Retrieves a stream of existing tiles in the specified region.
      * The stream contains the existing tiles that are inside the given region and excludes missing tiles.
@@ -646,6 +745,21 @@ final class ImageTileMatrix implements TileMatrix {
             sliceIndices = imageSliceIndices;
         }
 
+        /**
+         * Loads the content of the first tile, then returns that tile.
+         * This method blocks until the tile has been read and decoded.
+         * The content is cached by the image, so the tile resource will not read it again.
+         *
+         * @return the first tile, with its content loaded in memory.
+         */
+        final Tile loadFirstTile() {
+            final Tile tile = createFirstTile();
+            final long[] indices = tile.getIndices();
+            tiles.getTile(toIntExact(indices[xDimension] - offsetX),
+                          toIntExact(indices[yDimension] - offsetY));
+            return tile;
+        }
+
         /**
          * Creates the tile at the given indexes.
          * The caller must ensure that the arguments are valid image tile indexes.
@@ -16,8 +16,13 @@
  */
 package org.apache.sis.storage.tiling;
 
+import java.util.List;
+import java.util.ArrayList;
 import java.util.Optional;
 import java.util.stream.Stream;
+import java.util.concurrent.Executor;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.opengis.util.GenericName;
 import org.opengis.metadata.Metadata;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
@@ -27,6 +32,7 @@ import org.apache.sis.coverage.grid.PixelInCell;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.storage.NoSuchDataException;
 import org.apache.sis.storage.metadata.MetadataBuilder;
+import org.apache.sis.system.CommonExecutor;
 
 
 /**
@@ -39,7 +45,7 @@ import org.apache.sis.storage.metadata.MetadataBuilder;
  *
  * @author  Johann Sorel (Geomatys)
  * @author  Martin Desruisseaux (Geomatys)
- * @version 1.5
+ * @version 1.7
  * @since   1.2
  */
 public interface TileMatrix {
@@ -232,4 +238,47 @@ public interface TileMatrix {
      *         This exception may also happen latter, during the execution of the returned stream.
      */
     Stream<Tile> getTiles(GridExtent indiceRanges, boolean parallel) throws DataStoreException;
+
+    /**
+     * Fetches asynchronously the tiles at the given indices.
+     * This method returns immediately a list of futures, one for each element of the {@code indices} list
+     * and in the same order. Each future is completed independently of the others as soon as its tile is
+     * available, without waiting for the other tiles of the batch. If the tile is missing, then the future
+     * is completed with an empty value. If the indices are outside the matrix extent or the tile cannot be
+     * fetched, then the future is completed exceptionally with the exception that {@link #getTile(long...)}
+     * would have thrown.
+     *
+     * <p>The tasks are executed by the given executor, or by a shared Apache <abbr>SIS</abbr> thread pool
+     * if the executor is null. Since tile fetching often implies blocking I/O operations, applications
+     * handling many concurrent requests may provide an executor with a large number of threads
+     * (for example, one virtual thread per task on Java 21 and later).</p>
+     *
+     * <h4>Note for implementers</h4>
+     * The default implementation submits one task per tile invoking {@link #getTile(long...)}.
+     * Implementations are encouraged to override this method if they can fetch tiles more efficiently,
+     * for example by decoding the tile content in the background task.
+     *
+     * @param  indices   indices of the tiles to fetch, as coordinates inside the matrix {@link GridExtent}.
+     * @param  executor  the executor to use for fetching the tiles, or {@code null} for a default executor.
+     * @return one future for each element of {@code indices}, in the same order.
+     *
+     * @since 1.7
+     */
+    default List<CompletableFuture<Optional<Tile>>> fetchTiles(final List<long[]> indices, Executor executor) {
+        if (executor == null) {
+            executor = CommonExecutor.instance();
+        }
+        final var futures = new ArrayList<CompletableFuture<Optional<Tile>>>(indices.size());
+        for (final long[] tile : indices) {
+            final long[] snapshot = tile.clone();
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return getTile(snapshot);
+                } catch (DataStoreException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+        return futures;
+    }
 }
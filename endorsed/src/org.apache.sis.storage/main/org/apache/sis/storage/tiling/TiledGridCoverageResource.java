@@ -21,7 +21,10 @@ import java.util.Arrays;
 import java.util.Objects;
 import java.util.Collection;
 import java.util.Spliterator;
+import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.Executor;
+import java.util.concurrent.CompletableFuture;
 import java.lang.reflect.Array;
 import java.awt.image.DataBuffer;
 import java.awt.image.ColorModel;
@@ -34,6 +37,7 @@ import java.awt.image.RenderedImage;
 import java.awt.image.RasterFormatException;
 import org.opengis.util.GenericName;
 import org.opengis.util.NameFactory;
+import org.opengis.referencing.operation.TransformException;
 import org.apache.sis.coverage.SampleDimension;
 import org.apache.sis.coverage.grid.GridCoverage;
 import org.apache.sis.coverage.grid.GridCoverage2D;
@@ -50,6 +54,7 @@ import org.apache.sis.image.internal.shared.ImageUtilities;
 import org.apache.sis.storage.Resource;
 import org.apache.sis.storage.AbstractGridCoverageResource;
 import org.apache.sis.storage.DataStoreException;
+import org.apache.sis.storage.DataStoreReferencingException;
 import org.apache.sis.storage.RasterLoadingStrategy;
 import org.apache.sis.storage.event.StoreListeners;
 import org.apache.sis.measure.NumberRange;
@@ -161,6 +166,13 @@ public abstract class TiledGridCoverageResource extends AbstractGridCoverageReso
      */
     private Collection<TileMatrixSet> tileMatrixSets;
 
+    /**
+     * The tile matrix for the tiles of this resource at its own resolution, created when first requested.
+     *
+     * @see #fetchTiles(List, Executor)
+     */
+    private ImageTileMatrix tileMatrix;
+
     /**
      * Zero-based index of the pyramid level of this grid coverage resource.
      * This is not used directly by this class, but this information is stored
@@ -529,6 +541,43 @@ check:  if (dataType.isInteger()) {
         }
     }
 
+    /**
+     * Fetches asynchronously the tiles of this resource at the given indices.
+     * The tile indices are relative to the tiling of this resource at its own resolution,
+     * with (0,0) for the tile in the upper-left corner. This method returns immediately
+     * a list of futures, one for each requested tile and in the same order.
+     * Each future is completed independently when the content of its tile has been decoded.
+     *
+     * <p>This method is a convenience for fetching the tiles of this resource without going
+     * through the {@linkplain #getTileMatrixSets() tile matrix sets}. Tiles at other resolutions
+     * can be fetched with {@link TileMatrix#fetchTiles(List, Executor)}.</p>
+     *
+     * @param  indices   indices of the tiles to fetch.
+     * @param  executor  the executor to use for fetching the tiles, or {@code null} for a default executor.
+     * @return one future for each element of {@code indices}, in the same order.
+     * @throws DataStoreException if an error occurred while preparing the tile matrix.
+     *
+     * @see TileMatrix#fetchTiles(List, Executor)
+     *
+     * @since 1.7
+     */
+    public List<CompletableFuture<Optional<Tile>>> fetchTiles(final List<long[]> indices, final Executor executor)
+            throws DataStoreException
+    {
+        final ImageTileMatrix tm;
+        synchronized (getSynchronizationLock()) {
+            if (tileMatrix == null) try {
+                final GenericName id = getIdentifier().orElseGet(
+                        () -> DefaultNameFactory.provider().createLocalName(null, listeners.getSourceName()));
+                tileMatrix = new ImageTileMatrix(id, this, new GridCoverageProcessor());
+            } catch (TransformException e) {
+                throw new DataStoreReferencingException(e);
+            }
+            tm = tileMatrix;
+        }
+        return tm.fetchTiles(indices, executor);
+    }
+
     /**
      * Parameters that describe the resource subset to be accepted by the {@link TiledGridCoverage} constructor.
      * Instances of this class are temporary and used only for transferring information from {@link TiledGridCoverageResource}
@@ -18,6 +18,7 @@ package org.apache.sis.io.stream;
 
 import java.util.List;
 import java.util.Random;
+import java.util.BitSet;
 import java.util.OptionalLong;
 import java.util.function.IntFunction;
 import java.io.IOException;
@@ -207,6 +208,60 @@ public final class FileCacheByteChannelTest extends TestCase {
         assertFalse(channel.isOpen());
     }
 
+    /**
+     * Tests the concurrent reading of many ranges of bytes. Some ranges are overlapping or separated
+     * by small gaps, in which case they are merged. Some ranges are read before the concurrent read,
+     * in which case they are delivered from the cache.
+     *
+     * @throws IOException if an error occurred when reading or writing to the temporary file.
+     */
+    @Test
+    public void testReadRanges() throws IOException {
+        final Random random = TestUtilities.createRandomNumberGenerator();
+        final Implementation channel = new Implementation("test", random);
+        final ByteBuffer buffer = ByteBuffer.allocate(1000);
+        while (buffer.hasRemaining()) {
+            assertTrue(channel.read(buffer) >= 0);      // Opens a connection and caches some bytes.
+        }
+        final long[] offsets = new long[100];
+        final long[] lengths = new long[offsets.length];
+        for (int i=0; i<offsets.length; i++) {
+            lengths[i] = random.nextInt(2000);
+            offsets[i] = random.nextInt(channel.length - (int) lengths[i]);
+        }
+        offsets[0] = 200;           // Force a range to be in the cache.
+        lengths[0] = 500;
+        final var delivered = new BitSet(offsets.length);
+        assertTrue(channel.readRanges(offsets, lengths, 1000, (i, data) -> {
+            assertFalse(delivered.get(i), "Range delivered twice.");
+            assertEquals(0, data.position());
+            assertEquals(lengths[i], data.remaining());
+            for (int k=0; data.hasRemaining(); k++) {
+                assertEquals(ComputedInputStream.valueAt(Math.toIntExact(offsets[i] + k)), data.get());
+            }
+            delivered.set(i);
+        }));
+        for (int i=0; i<offsets.length; i++) {
+            assertEquals(lengths[i] != 0, delivered.get(i));
+        }
+        assertEquals(buffer.capacity(), channel.position());
+        /*
+         * Prefetch without consumer: the bytes shall only be saved in the cache,
+         * from where they can be read later with the usual `read(…)` method.
+         */
+        final int start = channel.length - 3000;
+        assertTrue(channel.readRanges(new long[] {start, 200}, new long[] {2000, 500}, 1000, null));
+        final ByteBuffer prefetched = ByteBuffer.allocate(2000);
+        channel.position(start);
+        while (prefetched.hasRemaining()) {
+            assertTrue(channel.read(prefetched) >= 0);
+        }
+        for (int k=0; k<prefetched.capacity(); k++) {
+            assertEquals(ComputedInputStream.valueAt(start + k), prefetched.get(k));
+        }
+        channel.close();
+    }
+
     /**
      * Tests the constructor that parse HTTP ranges.
      *
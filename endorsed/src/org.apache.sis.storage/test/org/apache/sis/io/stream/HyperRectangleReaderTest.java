@@ -60,7 +60,7 @@ public final class HyperRectangleReaderTest extends TestCase {
     private final long[] subsampling = new long[size.length];
 
     /**
-     * The reader to test for an hyper-cube of {@code short} values, created by {@link #initialize(Random, boolean)}.
+     * The reader to test for an hyper-cube of {@code short} values, created by {@link #initialize(Random, boolean, boolean)}.
      * Sample values are index values encoded in base 10. For example, the value at index (4,1,2,3) will be 4123.
      */
     private HyperRectangleReader reader;
@@ -86,8 +86,12 @@ public final class HyperRectangleReaderTest extends TestCase {
      * @param random      the random number generator to use for initializing the test.
      * @param useChannel  {@code true} for fetching the data from channel to a small buffer, or
      *                    {@code false} if the data are expected to be fully contained in the buffer.
+     * @param readOnly    {@code true} for reading the data from a {@link ChannelDataInput} backed by
+     *                    a read-only buffer (as for memory-mapped files) at an odd origin.
      */
-    private void initialize(final Random random, final boolean useChannel) throws IOException, DataStoreException {
+    private void initialize(final Random random, final boolean useChannel, final boolean readOnly)
+            throws IOException, DataStoreException
+    {
         /*
          * Compute a random hyper-rectangle size, sub-region and subsampling. Each dimension will have a
          * size between 1 to 10, so we will be able to use decimal digits from 0 to 9 in the sample values.
@@ -112,7 +116,7 @@ public final class HyperRectangleReaderTest extends TestCase {
          * Put small amout of random value at the array beginning in order to test with an origin
          * different than zero.
          */
-        final int origin = random.nextInt(10);
+        final int origin = readOnly ? 2*random.nextInt(5) + 1 : random.nextInt(10);
         final var array  = new byte[origin + length*Short.BYTES];
         for (int i=0; i<origin; i++) {
             array[i] = (byte) random.nextInt(0x100);
@@ -132,7 +136,12 @@ public final class HyperRectangleReaderTest extends TestCase {
             }
         }
         assertEquals(length, view.position());
-        if (useChannel) {
+        if (readOnly) {
+            final var input = new ChannelDataInput("HyperRectangle in read-only buffer",
+                                                   ByteBuffer.wrap(array).order(ByteOrder.nativeOrder()));
+            reader = new HyperRectangleReader(NumberType.SHORT, input);
+            reader.setOrigin(origin);
+        } else if (useChannel) {
             final var channel = new ByteArrayChannel(array, true);
             final var buffer  = ByteBuffer.allocate(random.nextInt(20) + 20).order(ByteOrder.nativeOrder());
             final var input   = new ChannelDataInput("HyperRectangle in channel", channel, buffer, false);
@@ -175,7 +184,7 @@ public final class HyperRectangleReaderTest extends TestCase {
      */
     @Test
     public void testSubRegion() throws IOException, DataStoreException {
-        initialize(TestUtilities.createRandomNumberGenerator(), true);
+        initialize(TestUtilities.createRandomNumberGenerator(), true, false);
         Arrays.fill(subsampling, 0, subsampling.length, 1);
         verifyRegionRead();
     }
@@ -188,7 +197,7 @@ public final class HyperRectangleReaderTest extends TestCase {
      */
     @Test
     public void testSubSampling() throws IOException, DataStoreException {
-        initialize(TestUtilities.createRandomNumberGenerator(), true);
+        initialize(TestUtilities.createRandomNumberGenerator(), true, false);
         System.arraycopy(size, 0, upper, 0, size.length);
         Arrays.fill(lower, 0, lower.length, 0);
         verifyRegionRead();
@@ -202,7 +211,7 @@ public final class HyperRectangleReaderTest extends TestCase {
      */
     @Test
     public void testRandom() throws IOException, DataStoreException {
-        initialize(TestUtilities.createRandomNumberGenerator(), true);
+        initialize(TestUtilities.createRandomNumberGenerator(), true, false);
         verifyRegionRead();
     }
 
@@ -214,7 +223,22 @@ public final class HyperRectangleReaderTest extends TestCase {
      */
     @Test
     public void testMemoryTransfer() throws IOException, DataStoreException {
-        initialize(TestUtilities.createRandomNumberGenerator(), false);
+        initialize(TestUtilities.createRandomNumberGenerator(), false, false);
+        verifyRegionRead();
+    }
+
+    /**
+     * Tests reading data from a read-only buffer containing all data, as for memory-mapped files.
+     * The origin is at an odd position, which forces the reader to handle misaligned values.
+     * The read operation is repeated for verifying that the views are still valid.
+     *
+     * @throws IOException should never happen.
+     * @throws DataStoreException should never happen.
+     */
+    @Test
+    public void testReadOnlyBuffer() throws IOException, DataStoreException {
+        initialize(TestUtilities.createRandomNumberGenerator(), false, true);
+        verifyRegionRead();
         verifyRegionRead();
     }
 }
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.io.stream;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.io.EOFException;
+import java.io.IOException;
+import org.apache.sis.storage.StorageConnector;
+import org.apache.sis.storage.DataStoreException;
+
+// Test dependencies
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import org.apache.sis.test.TestCase;
+
+
+/**
+ * Tests {@link MappedByteChannel} and its use by {@link StorageConnector}.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+public final class MappedByteChannelTest extends TestCase {
+    /**
+     * Number of integer values in the test file.
+     * The file must be larger than {@link StorageConnector#DEFAULT_BUFFER_SIZE}.
+     */
+    private static final int COUNT = 20000;
+
+    /**
+     * Creates a new test case.
+     */
+    public MappedByteChannelTest() {
+    }
+
+    /**
+     * Creates a test file containing the integers from 0 inclusive to {@value #COUNT} exclusive.
+     *
+     * @param  directory  the directory where to create the file.
+     * @return the test file.
+     */
+    private static Path createTestFile(final Path directory) throws IOException {
+        final ByteBuffer data = ByteBuffer.allocate(COUNT * Integer.BYTES);
+        for (int i=0; i<COUNT; i++) {
+            data.putInt(i);
+        }
+        final Path file = directory.resolve("integers.raw");
+        Files.write(file, data.array());
+        return file;
+    }
+
+    /**
+     * Tests reading a file through a memory mapping created by {@link StorageConnector}.
+     *
+     * @param  directory  a temporary directory where to create the test file.
+     * @throws IOException if an error occurred while writing or reading the test file.
+     * @throws DataStoreException if an error occurred while opening the test file.
+     */
+    @Test
+    public void testStorageConnector(@TempDir final Path directory) throws IOException, DataStoreException {
+        final var connector = new StorageConnector(createTestFile(directory));
+        try {
+            final ChannelDataInput input = connector.getStorageAs(ChannelDataInput.class);
+            assertInstanceOf(MappedByteChannel.class, input.channel);
+            assertTrue(input.buffer.isReadOnly());
+            assertEquals(COUNT * Integer.BYTES, input.buffer.limit());
+            assertEquals(COUNT * Integer.BYTES, input.length());
+            /*
+             * Read values at various positions, including backward
+             * seeks which require the buffer content to be kept.
+             */
+            input.seek((COUNT - 10) * Integer.BYTES);
+            final var values = new int[10];
+            input.readFully(values, 0, values.length);
+            for (int i=0; i<values.length; i++) {
+                assertEquals(COUNT - 10 + i, values[i]);
+            }
+            assertFalse(input.hasRemaining());
+            assertEquals(-2, input.prefetch());
+            assertThrows(EOFException.class, () -> input.readInt());
+            input.seek(Integer.BYTES * 100L);
+            assertEquals(100, input.readInt());
+            /*
+             * Read values at a position which is not a multiple of the data size.
+             */
+            input.seek(Integer.BYTES * 200L + 2);
+            final var shorts = new short[4];
+            input.readFully(shorts, 0, shorts.length);
+            assertArrayEquals(new short[] {200, 0, 201, 0}, shorts);
+            assertThrows(EOFException.class, () -> input.seek(input.length() + 1));
+            /*
+             * Rewind should keep the buffer content.
+             */
+            assertTrue(input.rewind());
+            assertEquals(0, input.readInt());
+            assertEquals(1, input.readInt());
+        } finally {
+            connector.closeAllExcept(null);
+        }
+    }
+
+    /**
+     * Tests that memory mapping is not used when the size limit is zero.
+     *
+     * @param  directory  a temporary directory where to create the test file.
+     * @throws IOException if an error occurred while writing or reading the test file.
+     * @throws DataStoreException if an error occurred while opening the test file.
+     */
+    @Test
+    public void testDisabled(@TempDir final Path directory) throws IOException, DataStoreException {
+        final var connector = new StorageConnector(createTestFile(directory));
+        connector.setOption(InternalOptionKey.MEMORY_MAPPING_LIMIT, 0L);
+        try {
+            final ChannelDataInput input = connector.getStorageAs(ChannelDataInput.class);
+            assertFalse(input.channel instanceof MappedByteChannel);
+            assertFalse(input.buffer.isReadOnly());
+            input.seek(Integer.BYTES * 12345L);
+            assertEquals(12345, input.readInt());
+        } finally {
+            connector.closeAllExcept(null);
+        }
+    }
+
+    /**
+     * Tests {@link MappedByteChannel#read(ByteBuffer)} and the conditions for mapping a file.
+     *
+     * @param  directory  a temporary directory where to create the test file.
+     * @throws IOException if an error occurred while writing or reading the test file.
+     */
+    @Test
+    public void testRead(@TempDir final Path directory) throws IOException {
+        final Path file = createTestFile(directory);
+        try (var channel = Files.newByteChannel(file)) {
+            assertNull(MappedByteChannel.tryMap(channel, 0, 100));              // File too large.
+        }
+        try (var channel = MappedByteChannel.tryMap(Files.newByteChannel(file), 0, Long.MAX_VALUE)) {
+            assertNotNull(channel);
+            final ByteBuffer buffer = ByteBuffer.allocate(3 * Integer.BYTES);
+            channel.position(Integer.BYTES * (COUNT - 2L));
+            assertEquals(2 * Integer.BYTES, channel.read(buffer));
+            assertEquals(-1, channel.read(buffer));
+            buffer.flip();
+            assertEquals(COUNT - 2, buffer.getInt());
+            assertEquals(COUNT - 1, buffer.getInt());
+        }
+    }
+}
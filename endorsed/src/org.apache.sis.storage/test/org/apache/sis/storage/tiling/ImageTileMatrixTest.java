@@ -18,6 +18,10 @@ package org.apache.sis.storage.tiling;
 
 import java.util.List;
 import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.awt.image.Raster;
 import java.awt.image.RenderedImage;
 import java.awt.image.WritableRaster;
@@ -30,6 +34,7 @@ import org.apache.sis.coverage.grid.PixelInCell;
 import org.apache.sis.referencing.operation.transform.MathTransforms;
 import org.apache.sis.storage.DataStoreException;
 import org.apache.sis.storage.GridCoverageResource;
+import org.apache.sis.storage.NoSuchDataException;
 import org.apache.sis.util.iso.Names;
 
 // Test dependencies
@@ -200,6 +205,38 @@ public final class ImageTileMatrixTest extends TestCase {
         testGetTilesViaRender(true);
     }
 
+    /**
+     * Tests {@link TileMatrix#fetchTiles(List, java.util.concurrent.Executor)} with a batch of tile indices
+     * in the same slice, together with an invalid tile index which should complete exceptionally.
+     *
+     * @throws DataStoreException if an error occurred while querying the tiles.
+     */
+    @Test
+    public void testFetchTiles() throws DataStoreException {
+        final var indices = new ArrayList<long[]>();
+        for (int col = 0; col < NUM_COLS; col++) {
+            for (int row = 0; row < NUM_ROWS; row++) {
+                indices.add(new long[] {col, row, 1});
+            }
+        }
+        indices.add(new long[] {NUM_COLS, 0, 0});
+        final List<CompletableFuture<Optional<Tile>>> futures = get3DMockupTileMatrix().fetchTiles(indices, null);
+        assertEquals(indices.size(), futures.size());
+        for (int i=0; i < indices.size() - 1; i++) {
+            final Tile tile = futures.get(i).join().orElseThrow();
+            assertArrayEquals(indices.get(i), tile.getIndices());
+            checkTileContent(tile);
+        }
+        var e = assertThrows(CompletionException.class, () -> futures.get(indices.size() - 1).join());
+        assertInstanceOf(NoSuchDataException.class, e.getCause());
+        /*
+         * Same request through the convenience method on the resource.
+         */
+        final var resource = new MockTiledResource();
+        final Tile tile = assertSingleton(resource.fetchTiles(List.of(new long[] {2, 3, 0}), null)).join().orElseThrow();
+        checkTileContent(tile);
+    }
+
     /**
      * Returns the tile matrix from the three-dimensional resource mock.
      *
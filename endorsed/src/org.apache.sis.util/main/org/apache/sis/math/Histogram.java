@@ -0,0 +1,387 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.math;
+
+import java.util.Arrays;
+import java.io.Serializable;
+import java.util.function.DoubleConsumer;
+import static java.lang.Double.NaN;
+import static java.lang.Double.isFinite;
+import static java.lang.Double.doubleToLongBits;
+import org.apache.sis.util.ArgumentChecks;
+import org.apache.sis.util.internal.shared.Numerics;
+import org.apache.sis.util.internal.shared.Strings;
+
+
+/**
+ * Frequencies of sample values in a fixed number of bins of equal width, computed in a single pass.
+ * Given a series of sample values, this class counts the number of values in each bin and can estimate
+ * {@linkplain #quantile(double) quantiles} (for example the median or the 2% and 98% percentiles)
+ * without storing the sample values in memory.
+ *
+ * <p>The range of values does not need to be known in advance. The bin width is always a power of 2
+ * and the lower bound of the histogram is always a multiple of the bin width. When a value outside
+ * the current range is added, the bin width is doubled as many times as needed and adjacent bins
+ * are merged. Because the bins of a coarser histogram are exact unions of the bins of a finer one,
+ * two histograms can be {@linkplain #combine(Histogram) combined} without loss other than the
+ * coarsening of the bins. This allows computation of histograms in parallel, for example one
+ * histogram per tile of an image, to be combined after all tiles have been processed.</p>
+ *
+ * <p>The {@link #quantile(double)} values are approximate: the error is not greater than the
+ * {@linkplain #binWidth() bin width}, which is itself less than twice the range of values
+ * divided by the number of bins. For integer values having a range smaller than the number
+ * of bins, each integer value is counted in its own bin.</p>
+ *
+ * <p>An instance of {@code Histogram} is initially empty. The histogram is updated every time
+ * the {@link #accept(double)} method is invoked with a finite value. NaN and infinite values
+ * are ignored.</p>
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.7
+ *
+ * @see Statistics
+ *
+ * @since 1.7
+ */
+public class Histogram implements DoubleConsumer, Cloneable, Serializable {
+    /**
+     * Serial number for compatibility with different versions.
+     */
+    private static final long serialVersionUID = -2862436617453427214L;
+
+    /**
+     * The largest bin width, which is the largest power of 2 representable as a finite {@code double}.
+     */
+    private static final double MAX_WIDTH = Math.scalb(1.0, Double.MAX_EXPONENT);
+
+    /**
+     * Number of values in each bin.
+     * If {@link #binWidth} is zero, then all values are in the first bin.
+     */
+    private long[] frequencies;
+
+    /**
+     * Value of the lower bound of the first bin. This is always a multiple of {@link #binWidth},
+     * except if the bin width is zero in which case this is the unique value added so far,
+     * or if the multiple would overflow in which case this is {@code -Double.MAX_VALUE}.
+     */
+    private double lowerBound;
+
+    /**
+     * Width of each bin, or 0 if all the values added so far are equal.
+     * If non-zero, this is always a power of 2.
+     */
+    private double binWidth;
+
+    /**
+     * The minimal value given to the {@link #accept(double)} method.
+     */
+    private double minimum = NaN;
+
+    /**
+     * The maximal value given to the {@link #accept(double)} method.
+     */
+    private double maximum = NaN;
+
+    /**
+     * Number of finite values given to the {@link #accept(double)} method.
+     */
+    private long count;
+
+    /**
+     * Constructs an initially empty histogram with the given number of bins.
+     *
+     * @param  numBins  the number of bins. Typical values are 256 or 1024.
+     */
+    public Histogram(final int numBins) {
+        ArgumentChecks.ensureStrictlyPositive("numBins", numBins);
+        frequencies = new long[numBins];
+    }
+
+    /**
+     * Resets this histogram to its initial state.
+     */
+    public void reset() {
+        Arrays.fill(frequencies, 0);
+        lowerBound = 0;
+        binWidth   = 0;
+        minimum    = NaN;
+        maximum    = NaN;
+        count      = 0;
+    }
+
+    /**
+     * Updates the histogram with the specified sample value.
+     * NaN and infinite values are ignored.
+     *
+     * @param  sample  the sample value.
+     */
+    @Override
+    public void accept(final double sample) {
+        if (isFinite(sample)) {
+            if (count == 0) {
+                minimum = maximum = lowerBound = sample;
+            } else {
+                if (sample < minimum) minimum = sample;
+                if (sample > maximum) maximum = sample;
+                if (binWidth == 0 ? minimum != maximum
+                        : sample < lowerBound || sample >= lowerBound + frequencies.length * binWidth)
+                {
+                    rebin(binWidth);
+                }
+            }
+            add(sample, 1);
+            count++;
+        }
+    }
+
+    /**
+     * Updates this histogram with all samples from the specified {@code other} histogram.
+     * Invoking this method is equivalent (except for the bin width, which may be coarser)
+     * to invoking {@link #accept(double)} for all samples that were added to {@code other}.
+     * The two histograms do not need to have the same number of bins.
+     *
+     * @param  other  the histogram to be added to {@code this}.
+     */
+    public void combine(final Histogram other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            minimum = maximum = lowerBound = other.minimum;
+        }
+        if (other.minimum < minimum) minimum = other.minimum;
+        if (other.maximum > maximum) maximum = other.maximum;
+        if (minimum != maximum) {
+            rebin(Math.max(binWidth, other.binWidth));
+        }
+        final long[] values = other.frequencies;
+        for (int i=0; i<values.length; i++) {
+            final long n = values[i];
+            if (n != 0) {
+                add(other.lowerBound + i * other.binWidth, n);
+            }
+        }
+        count += other.count;
+    }
+
+    /**
+     * Changes the bin width and the lower bound for making the histogram range large enough
+     * for containing all values from {@link #minimum} to {@link #maximum} inclusive.
+     * The existing frequencies are merged in the new bins.
+     *
+     * @param  width  the minimal bin width, or 0 for computing a width from the range of values.
+     */
+    private void rebin(double width) {
+        final int n = frequencies.length;
+        if (width == 0) {
+            width = Math.scalb(1.0, Math.getExponent(maximum / n - minimum / n));
+        }
+        /*
+         * The condition is tested in units of bin width for avoiding overflow when the values cover
+         * almost the full range of `double` values (e.g. -Double.MAX_VALUE used as a "no data" value).
+         * The width is not increased past the largest finite power of 2, in which case the histogram
+         * may not cover the full range of values and the extremum values are in the first and last bins.
+         */
+        width = Math.min(width, MAX_WIDTH);
+        double start;
+        for (;;) {
+            start = Math.floor(minimum / width);
+            if (maximum / width < start + n || width >= MAX_WIDTH) break;
+            width *= 2;
+        }
+        final double lower = Math.max(start * width, -Double.MAX_VALUE);
+        final long[] previous  = frequencies.clone();
+        final double oldLower  = lowerBound;
+        final double oldWidth  = binWidth;
+        Arrays.fill(frequencies, 0);
+        lowerBound = lower;
+        binWidth   = width;
+        for (int i=0; i<n; i++) {
+            final long c = previous[i];
+            if (c != 0) {
+                add(oldLower + i * oldWidth, c);
+            }
+        }
+    }
+
+    /**
+     * Adds the given number of occurrences of the given value in the bin containing that value.
+     * The caller shall ensure that the value is inside the histogram range.
+     */
+    private void add(final double value, final long n) {
+        int i = 0;
+        if (binWidth != 0) {
+            i = (int) Math.floor((value - lowerBound) / binWidth);
+            i = Math.max(0, Math.min(frequencies.length - 1, i));
+        }
+        frequencies[i] += n;
+    }
+
+    /**
+     * Returns the number of finite samples added to this histogram.
+     *
+     * @return number of finite samples.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the minimum sample value, or {@link Double#NaN NaN} if none.
+     *
+     * @return the minimum sample value, or NaN if none.
+     */
+    public double minimum() {
+        return minimum;
+    }
+
+    /**
+     * Returns the maximum sample value, or {@link Double#NaN NaN} if none.
+     *
+     * @return the maximum sample value, or NaN if none.
+     */
+    public double maximum() {
+        return maximum;
+    }
+
+    /**
+     * Returns the lower bound of the first bin, or {@link Double#NaN NaN} if this histogram is empty.
+     * If all sample values are equal, then this is that value.
+     *
+     * @return the lower bound of the first bin, or NaN if none.
+     */
+    public double lowerBound() {
+        return (count != 0) ? lowerBound : NaN;
+    }
+
+    /**
+     * Returns the width of all bins. This is either a power of 2, or zero if this histogram
+     * is empty or if all sample values are equal (in which case they are all in the first bin).
+     *
+     * @return the width of all bins.
+     */
+    public double binWidth() {
+        return binWidth;
+    }
+
+    /**
+     * Returns the number of bins in this histogram. This is the value given at construction time.
+     *
+     * @return the number of bins.
+     */
+    public int numBins() {
+        return frequencies.length;
+    }
+
+    /**
+     * Returns the number of sample values in each bin. The lower bound of the bin at index <var>i</var>
+     * is <code>{@linkplain #lowerBound()} + i × {@linkplain #binWidth()}</code> inclusive.
+     *
+     * @return number of sample values in each bin. This is a copy of the internal array.
+     */
+    public long[] frequencies() {
+        return frequencies.clone();
+    }
+
+    /**
+     * Returns an estimation of the value below which the given fraction of the samples are found.
+     * For example {@code quantile(0.5)} returns the median and {@code quantile(0.02)} returns the
+     * 2% percentile. The value is interpolated linearly inside the bin containing the quantile,
+     * and clamped to the {@linkplain #minimum() minimum} and {@linkplain #maximum() maximum} values.
+     * Consequently, {@code quantile(0)} and {@code quantile(1)} return the minimum and maximum values.
+     *
+     * @param  p  the fraction of samples, between 0 and 1 inclusive.
+     * @return an estimation of the quantile, or {@link Double#NaN NaN} if this histogram is empty.
+     */
+    public double quantile(final double p) {
+        ArgumentChecks.ensureBetween("p", 0.0, 1.0, p);
+        if (count == 0) return NaN;
+        if (binWidth == 0) return minimum;
+        final double rank = p * count;
+        long cumulated = 0;
+        for (int i=0; i<frequencies.length; i++) {
+            final long n = frequencies[i];
+            if (n != 0 && cumulated + n >= rank) {
+                final double value = lowerBound + (i + (rank - cumulated) / n) * binWidth;
+                return Math.max(minimum, Math.min(maximum, value));
+            }
+            cumulated += n;
+        }
+        return maximum;
+    }
+
+    /**
+     * Returns a clone of this histogram.
+     *
+     * @return a clone of this histogram.
+     */
+    @Override
+    public Histogram clone() {
+        final Histogram clone;
+        try {
+            clone = (Histogram) super.clone();
+        } catch (CloneNotSupportedException exception) {
+            // Should not happen since we are cloneable
+            throw new AssertionError(exception);
+        }
+        clone.frequencies = frequencies.clone();
+        return clone;
+    }
+
+    /**
+     * Returns a hash code value for this histogram.
+     */
+    @Override
+    public int hashCode() {
+        final long code = (doubleToLongBits(minimum) +
+                     31 * (doubleToLongBits(maximum) +
+                     31 * (doubleToLongBits(binWidth))));
+        return Long.hashCode(code + 37 * count) ^ Arrays.hashCode(frequencies);
+    }
+
+    /**
+     * Compares this histogram with the specified object for equality.
+     *
+     * @param  object  the object to compare with.
+     * @return {@code true} if both objects are equal.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object != null && getClass() == object.getClass()) {
+            final Histogram other = (Histogram) object;
+            return count == other.count
+                    && Numerics.equals(minimum,    other.minimum)
+                    && Numerics.equals(maximum,    other.maximum)
+                    && Numerics.equals(lowerBound, other.lowerBound)
+                    && Numerics.equals(binWidth,   other.binWidth)
+                    && Arrays.equals(frequencies, other.frequencies);
+        }
+        return false;
+    }
+
+    /**
+     * Returns a string representation of this histogram for debugging purpose.
+     *
+     * @return a string representation of this histogram.
+     */
+    @Override
+    public String toString() {
+        return Strings.toString(getClass(), "count", count, "minimum", minimum, "maximum", maximum,
+                "binWidth", binWidth, "numBins", frequencies.length);
+    }
+}
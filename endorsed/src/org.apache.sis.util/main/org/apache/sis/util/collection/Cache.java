@@ -27,6 +27,8 @@ import java.util.function.BiFunction;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
@@ -122,6 +124,12 @@ import org.apache.sis.system.ReferenceQueueConsumer;
  * The total cost is given at construction time. If the {@link #cost} method has not been
  * overridden, then the total cost is the maximal number of values to keep by strong references.
  *
+ * <p>The replacement of strong references by weak or soft references is performed in a background thread.
+ * Threads adding values in the cache or getting values retained by weak or soft references only append
+ * a notification in a lock-free queue. Consequently, the calls to {@link #get get(…)}, {@link #peek peek(…)}
+ * and {@link #computeIfAbsent computeIfAbsent(…)} for values already in the cache never block on a shared
+ * lock (but they may block on the entry lock if the value is under computation in another thread).</p>
+ *
  *
  * <h2>Circular dependencies</h2>
  *
@@ -158,6 +166,23 @@ public class Cache<K,V> extends AbstractMap<K,V> implements ConcurrentMap<K,V> {
      */
     private final Map<K,Integer> costs;
 
+    /**
+     * Changes in the {@linkplain #map} content that have not yet been reported in the {@link #costs} map.
+     * Threads modifying the map append elements in this lock-free queue, and a single task executed in
+     * a background thread drains the queue. This is for avoiding to synchronize on {@link #costs} (or to
+     * add a task in the {@link DelayedExecutor} queue, which also uses a lock) for every change.
+     *
+     * @see #notifyChange(Object, Object)
+     * @see #drainChanges()
+     */
+    private final ConcurrentLinkedQueue<Change<K,V>> pendingChanges;
+
+    /**
+     * Whether a task for draining {@link #pendingChanges} has been scheduled for execution
+     * in the background thread and did not yet started its work.
+     */
+    private final AtomicBoolean drainScheduled;
+
     /**
      * The sum of all values in the {@link #costs} map.
      * This field shall be read and updated in the same thread as {@link #costs}.
@@ -221,6 +246,8 @@ public class Cache<K,V> extends AbstractMap<K,V> implements ConcurrentMap<K,V> {
         this.costs      = new LinkedHashMap<>((int) Math.min(initialCapacity, costLimit), 0.75f, true);
         this.costLimit  = costLimit;
         this.soft       = soft;
+        pendingChanges  = new ConcurrentLinkedQueue<>();
+        drainScheduled  = new AtomicBoolean();
     }
 
     /**
@@ -229,6 +256,7 @@ public class Cache<K,V> extends AbstractMap<K,V> implements ConcurrentMap<K,V> {
     @Override
     public void clear() {
         synchronized (costs) {
+            pendingChanges.clear();
             map.clear();
             costs.clear();
             totalCost = 0;
@@ -450,11 +478,56 @@ public class Cache<K,V> extends AbstractMap<K,V> implements ConcurrentMap<K,V> {
      * it become a value retained by strong reference. Conversely some values previously retained by strong
      * references may be retained by weak references after the cost adjustment performed by this method.
      *
+     * <p>This method does not block. The change is appended in a lock-free queue, and a task for draining
+     * that queue is scheduled only if no such task is already waiting for execution.</p>
+     *
      * @param  key    key of the entry that changed.
      * @param  value  the new value. May be {@code null}.
      */
     private void notifyChange(final K key, final V value) {
-        DelayedExecutor.schedule(new Strong(key, value));
+        pendingChanges.add(new Change<>(key, value));
+        if (drainScheduled.compareAndSet(false, true)) {
+            DelayedExecutor.schedule(new Drain());
+        }
+    }
+
+    /**
+     * A change in the {@linkplain #map} content that has not yet been reported in the {@link #costs} map.
+     *
+     * @param  <K>  the type of key objects.
+     * @param  <V>  the type of value objects.
+     */
+    private static final class Change<K,V> {
+        /** Key of the entry that changed. */
+        final K key;
+
+        /** The new value, or {@code null} if the entry has been removed. */
+        final V value;
+
+        /** Creates a new notification for the given entry. */
+        Change(final K key, final V value) {
+            this.key   = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Task executed in the background thread for reporting all pending changes in the {@link #costs} map.
+     * Only one instance of this task is waiting for execution at any given time.
+     */
+    private final class Drain extends DelayedRunnable.Immediate {
+        /**
+         * Process to the replacement of eldest strong references by weak references.
+         * This method should be invoked from the background thread only.
+         */
+        @Override public void run() {
+            /*
+             * Clear the flag before to drain the queue. If a change is added after this point,
+             * another task will be scheduled. It may find an empty queue, which is harmless.
+             */
+            drainScheduled.set(false);
+            drainChanges();
+        }
     }
 
     /**
@@ -697,7 +770,7 @@ public class Cache<K,V> extends AbstractMap<K,V> implements ConcurrentMap<K,V> {
     /**
      * Key-value pairs of new entries created during {@link Cache.ReplaceAdapter} execution, as a chained list.
      * Calls to {@link Cache#notifyChange(Object, Object)} for those entries need to be deferred until operation
-     * on {@link Cache#map} completed because {@link Cache#adjustReferences(Object, Object)} needs the new values
+     * on {@link Cache#map} completed because {@link Cache#drainChanges()} needs the new values
      * to be present in the map.
      */
     private static final class Deferred<K,V> {
@@ -824,30 +897,6 @@ public class Cache<K,V> extends AbstractMap<K,V> implements ConcurrentMap<K,V> {
         return result;
     }
 
-    /**
-     * Invoked from the a background thread after a {@linkplain WeakReference weak}
-     * or {@linkplain SoftReference soft} reference has been replaced by a strong one.
-     * It will looks for older strong references to replace by weak references so that
-     * the total cost stay below the cost limit.
-     */
-    private final class Strong extends DelayedRunnable.Immediate {
-        private final K key;
-        private final V value;
-
-        Strong(final K key, final V value) {
-            this.key = key;
-            this.value = value;
-        }
-
-        /**
-         * Process to the replacement of eldest strong references by weak references.
-         * This method should be invoked from the background thread only.
-         */
-        @Override public void run() {
-            adjustReferences(key, value);
-        }
-    }
-
     /**
      * Gets a lock for the entry at the given key and returns a handler to be used by the caller
      * for unlocking and storing the result. This method <strong>must</strong> be used together
@@ -1064,7 +1113,7 @@ public class Cache<K,V> extends AbstractMap<K,V> implements ConcurrentMap<K,V> {
      * A handler implementation used for telling to other threads that the current thread is
      * computing a value.
      */
-    final class Work extends DelayedRunnable.Immediate implements Handler<V>, Supplier<V> {
+    final class Work implements Handler<V>, Supplier<V> {
         /**
          * The synchronization lock.
          */
@@ -1140,7 +1189,9 @@ public class Cache<K,V> extends AbstractMap<K,V> implements ConcurrentMap<K,V> {
                 lock.unlock();
             }
             if (done) {
-                DelayedExecutor.schedule(this);
+                if (result != null) {
+                    notifyChange(key, result);
+                }
             } else if (!isKeyCollisionAllowed()) {
                 throw new IllegalStateException(Errors.format(Errors.Keys.KeyCollision_1, key));
             }
@@ -1175,61 +1226,79 @@ public class Cache<K,V> extends AbstractMap<K,V> implements ConcurrentMap<K,V> {
                 }
             }
         }
+    }
 
-        /**
-         * Invoked in a background thread after a value has been set in the map.
-         * This method computes a cost estimation of the new value. If the total cost is greater
-         * than the cost limit, then oldest strong references are replaced by weak references.
-         */
-        @Override
-        public void run() {
-            @SuppressWarnings("LocalVariableHidesMemberVariable")
-            final V value = this.value;
-            if (value != null) {
-                adjustReferences(key, value);
+    /**
+     * Invoked in a background thread for reporting all pending changes in the {@link #costs} map.
+     * Changes are processed by batches, with a single lock acquisition for each batch.
+     * The costs are computed outside the synchronized block.
+     */
+    private void drainChanges() {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final Change<K,V>[] batch = new Change[DRAIN_BATCH_SIZE];
+        final int[] batchCosts = new int[DRAIN_BATCH_SIZE];
+        int count;
+        do {
+            Change<K,V> change;
+            count = 0;
+            while (count < DRAIN_BATCH_SIZE && (change = pendingChanges.poll()) != null) {
+                batchCosts[count] = (change.value != null) ? cost(change.value) : 0;
+                batch[count++] = change;
             }
-        }
+            if (count == 0) break;
+            synchronized (costs) {
+                for (int i=0; i<count; i++) {
+                    adjustReferences(batch[i].key, batchCosts[i]);
+                }
+            }
+        } while (count == DRAIN_BATCH_SIZE);
     }
 
+    /**
+     * Maximal number of pending changes to process while holding the lock on {@link #costs}.
+     */
+    private static final int DRAIN_BATCH_SIZE = 256;
+
     /**
      * Invoked in a background thread after a value has been set in the map.
-     * This method computes a cost estimation of the new value. If the total cost is greater
+     * This method receives a cost estimation of the new value. If the total cost is greater
      * than the cost limit, then oldest strong references are replaced by weak references
      * until the cost of entries kept by strong references become lower than the threshold.
+     * Caller must hold the lock on {@link #costs}.
+     *
+     * @param  key   key of the entry that changed.
+     * @param  cost  cost of the new value, or 0 if the entry has been removed.
      */
-    private void adjustReferences(final K key, final V value) {
-        int cost = (value != null) ? cost(value) : 0;
-        synchronized (costs) {
-            final Integer old = (cost > 0) ? costs.put(key, cost) : costs.remove(key);
-            if (old != null) {
-                cost -= old;
-            }
-            if ((totalCost += cost) > costLimit) {
-                final Iterator<Map.Entry<K,Integer>> it = costs.entrySet().iterator();
-                while (it.hasNext()) {
-                    /*
-                     * Converts the current entry from strong reference to weak/soft reference.
-                     * We perform this conversion even if the entry is for the value just added
-                     * to the cache, if it happen that the cost is higher than the maximal one.
-                     * That entry should not be garbage collected too early anyway because the
-                     * caller should still have a strong reference to the value he just created.
-                     */
-                    final Map.Entry<K,Integer> entry = it.next();
-                    final K oldKey = entry.getKey();
-                    final Object oldValue = map.get(oldKey);
-                    if (oldValue != null && !isReservedType(oldValue)) {
-                        @SuppressWarnings("unchecked")
-                        final Reference<V> ref = soft ? new Soft(oldKey, (V) oldValue)
-                                                      : new Weak(oldKey, (V) oldValue);
-                        if (!map.replace(oldKey, oldValue, ref)) {
-                            ref.clear();                // Prevents the reference to be enqueued.
-                        }
-                    }
-                    it.remove();
-                    if ((totalCost -= entry.getValue()) <= costLimit) {
-                        break;
+    private void adjustReferences(final K key, int cost) {
+        final Integer old = (cost > 0) ? costs.put(key, cost) : costs.remove(key);
+        if (old != null) {
+            cost -= old;
+        }
+        if ((totalCost += cost) > costLimit) {
+            final Iterator<Map.Entry<K,Integer>> it = costs.entrySet().iterator();
+            while (it.hasNext()) {
+                /*
+                 * Converts the current entry from strong reference to weak/soft reference.
+                 * We perform this conversion even if the entry is for the value just added
+                 * to the cache, if it happen that the cost is higher than the maximal one.
+                 * That entry should not be garbage collected too early anyway because the
+                 * caller should still have a strong reference to the value he just created.
+                 */
+                final Map.Entry<K,Integer> entry = it.next();
+                final K oldKey = entry.getKey();
+                final Object oldValue = map.get(oldKey);
+                if (oldValue != null && !isReservedType(oldValue)) {
+                    @SuppressWarnings("unchecked")
+                    final Reference<V> ref = soft ? new Soft(oldKey, (V) oldValue)
+                                                  : new Weak(oldKey, (V) oldValue);
+                    if (!map.replace(oldKey, oldValue, ref)) {
+                        ref.clear();                // Prevents the reference to be enqueued.
                     }
                 }
+                it.remove();
+                if ((totalCost -= entry.getValue()) <= costLimit) {
+                    break;
+                }
             }
         }
     }
@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.util.collection;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Iterator;
+import java.util.AbstractSet;
+import java.lang.reflect.Array;
+import org.apache.sis.util.ArraysExt;
+import org.apache.sis.util.Utilities;
+import org.apache.sis.util.ConditionallySafe;
+
+
+/**
+ * A set of objects hold by weak references, optimized for concurrent accesses.
+ * This set provides the same functionalities as {@link WeakHashSet}, but the elements are distributed
+ * in many segments, each segment having its own lock. Consequently, threads working on different elements
+ * usually do not block each other. This is useful for pools of unique instances shared by all threads,
+ * such as the pools used by the factories of geodetic objects and math transforms.
+ *
+ * <p>The elements collected by the garbage collector are removed in batches, by the next thread
+ * holding the lock on the segment or by a background thread, instead of acquiring a lock for each
+ * collected element.</p>
+ *
+ * <h2>Thread safety</h2>
+ * The same {@code ConcurrentWeakHashSet} instance can be safely used by many threads without synchronization
+ * on the part of the caller. Each method call is atomic, but there is no way to make a sequence of two or more
+ * method calls appear atomic from other threads perspective. In particular, synchronizing on {@code this} has
+ * no effect on other threads. If such atomicity is needed, use {@link WeakHashSet} instead.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.7
+ *
+ * @param <E>  the type of elements in the set.
+ *
+ * @see WeakHashSet
+ * @see ConcurrentWeakValueHashMap
+ *
+ * @since 1.7
+ */
+public class ConcurrentWeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E> {
+    /**
+     * Number of bits to use for the index of segments. The number of segments is a power of 2
+     * proportional to the number of processors, for allowing that number of threads to work
+     * concurrently with a low probability of blocking each other.
+     */
+    static final int SEGMENT_BITS;
+    static {
+        final int n = Math.min(Runtime.getRuntime().availableProcessors(), 16) * 4;
+        SEGMENT_BITS = Integer.SIZE - Integer.numberOfLeadingZeros(n - 1);
+    }
+
+    /**
+     * Returns the index of the segment for the given hash code.
+     * This method uses the highest bits of a multiplicative hash, because the lowest
+     * bits are used by the segments themselves for selecting a slot in their table.
+     *
+     * @param  hash  the hash code of the element or key.
+     * @return index of the segment for the given hash code.
+     */
+    static int segmentIndex(final int hash) {
+        return (hash * 0x9E3779B9) >>> (Integer.SIZE - SEGMENT_BITS);
+    }
+
+    /**
+     * The segments where the elements are stored. The number of segments is a power of 2.
+     * Each segment is a {@link WeakHashSet} synchronized on itself.
+     */
+    private final WeakHashSet<E>[] segments;
+
+    /**
+     * The type of the elements in this set.
+     */
+    private final Class<E> elementType;
+
+    /**
+     * {@code true} if the elements in this set may be arrays. If the elements cannot
+     * be arrays, then we can avoid the calls to the costly {@link Utilities} methods.
+     */
+    private final boolean mayContainArrays;
+
+    /**
+     * Creates a {@code ConcurrentWeakHashSet} for elements of the specified type.
+     *
+     * @param  type  the type of the element to be included in this set.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})    // Generic array creation.
+    public ConcurrentWeakHashSet(final Class<E> type) {
+        elementType      = Objects.requireNonNull(type);
+        mayContainArrays = type.isArray() || type.equals(Object.class);
+        segments = new WeakHashSet[1 << SEGMENT_BITS];
+        for (int i=0; i<segments.length; i++) {
+            segments[i] = new WeakHashSet<>(type);
+        }
+    }
+
+    /**
+     * Returns the type of elements in this set.
+     */
+    @Override
+    public Class<E> getElementType() {
+        return elementType;
+    }
+
+    /**
+     * Indicates that this collection is modifiable.
+     *
+     * @return {@link Mutability#MODIFIABLE}.
+     */
+    @Override
+    public Mutability getMutability() {
+        return Mutability.MODIFIABLE;
+    }
+
+    /**
+     * Returns the segment where the given element is stored or would be stored.
+     * If the given element is null, then this method returns an arbitrary segment
+     * which will apply the {@link WeakHashSet} policy about null elements.
+     *
+     * @param  element  the element for which to get the segment, or {@code null}.
+     * @return the segment for the given element.
+     */
+    private WeakHashSet<E> segment(final Object element) {
+        if (element == null) {
+            return segments[0];
+        }
+        final int hash = mayContainArrays ? Utilities.deepHashCode(element) : element.hashCode();
+        return segments[segmentIndex(hash)];
+    }
+
+    /**
+     * Returns the count of element in this set. If this set is modified concurrently,
+     * then the returned value may not reflect the state of this set at any particular time.
+     *
+     * @return number of elements in this set.
+     */
+    @Override
+    public int size() {
+        int count = 0;
+        for (final WeakHashSet<E> segment : segments) {
+            count += segment.size();
+        }
+        return count;
+    }
+
+    /**
+     * Adds the specified element to this set if it is not already present.
+     * If this set already contains the specified element, the call leaves
+     * this set unchanged and returns {@code false}.
+     *
+     * @param  element  element to be added to this set.
+     * @return {@code true} if this set did not already contain the specified element.
+     * @throws NullPointerException if the given object is {@code null}.
+     */
+    @Override
+    public boolean add(final E element) {
+        return segment(element).add(element);
+    }
+
+    /**
+     * Removes a single instance of the specified element from this set, if it is present
+     * Null values are considered never present.
+     *
+     * @param  element  element to be removed from this set, if present. Can be {@code null}.
+     * @return {@code true} if the set contained the specified element.
+     */
+    @Override
+    public boolean remove(final Object element) {
+        return segment(element).remove(element);
+    }
+
+    /**
+     * Returns an object equals to the specified object, if present. If this set doesn't
+     * contain any object equals to {@code element}, then this method returns {@code null}.
+     * Null values are considered never present.
+     *
+     * @param  element  the element to get.
+     * @return an element equals to the given one if already presents in the set,
+     *         or {@code null} otherwise.
+     *
+     * @see #unique(Object)
+     */
+    public E get(final Object element) {
+        return segment(element).get(element);
+    }
+
+    /**
+     * Returns {@code true} if this set contains the specified element.
+     * Null values are considered never present.
+     *
+     * @param  element  object to be checked for containment in this set. Can be {@code null}.
+     * @return {@code true} if this set contains the specified element.
+     */
+    @Override
+    public boolean contains(final Object element) {
+        return segment(element).contains(element);
+    }
+
+    /**
+     * Returns an object equals to {@code element} if such an object already exists in this set.
+     * Otherwise, adds {@code element} to this set. This method has the same contract than
+     * {@link WeakHashSet#unique(Object)}, including the requirement for type safety.
+     *
+     * @param  <T>      the type of the element to get.
+     * @param  element  the element to get or to add in the set if not already presents. Can be {@code null}.
+     * @return an element equals to the given one if already presents in the set, or the given {@code element}
+     *         otherwise. Can be {@code null} if the given element was null.
+     *
+     * @see WeakHashSet#unique(Object)
+     */
+    @ConditionallySafe
+    public <T extends E> T unique(final T element) {
+        return segment(element).unique(element);
+    }
+
+    /**
+     * Removes all of the elements from this set.
+     * This operation is not atomic if other threads are modifying this set concurrently.
+     */
+    @Override
+    public void clear() {
+        for (final WeakHashSet<E> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Returns a view of this set as an array. Elements will be in an arbitrary
+     * order. Note that this array contains strong references. Consequently, no
+     * object reclamation will occur as long as a reference to this array is hold.
+     *
+     * @return all elements in this set.
+     */
+    @Override
+    public E[] toArray() {
+        @SuppressWarnings("unchecked")
+        final E[][] elements = (E[][]) Array.newInstance(elementType, segments.length, 0);
+        for (int i=0; i<elements.length; i++) {
+            elements[i] = segments[i].toArray();
+        }
+        return ArraysExt.concatenate(elements);
+    }
+
+    /**
+     * Returns an iterator over the elements contained in this collection.
+     * No element from this set will be garbage collected as long as a
+     * reference to the iterator is hold.
+     *
+     * @return an iterator over all elements in this set.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return Arrays.asList(toArray()).iterator();
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.util.collection;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.BiPredicate;
+import org.apache.sis.util.ArraysExt;
+import org.apache.sis.util.Utilities;
+import static org.apache.sis.util.collection.ConcurrentWeakHashSet.SEGMENT_BITS;
+import static org.apache.sis.util.collection.ConcurrentWeakHashSet.segmentIndex;
+
+
+/**
+ * A hashtable-based map implementation that uses weak references to values, optimized for concurrent accesses.
+ * This map provides the same functionalities as {@link WeakValueHashMap}, but the entries are distributed
+ * in many segments, each segment having its own lock. Consequently, threads working on different keys
+ * usually do not block each other.
+ *
+ * <p>The entries whose values have been collected by the garbage collector are removed in batches,
+ * by the next thread holding the lock on the segment or by a background thread, instead of acquiring
+ * a lock for each collected entry.</p>
+ *
+ * <h2>Thread safety</h2>
+ * The same {@code ConcurrentWeakValueHashMap} instance can be safely used by many threads without synchronization
+ * on the part of the caller. Each method call is atomic, but there is no way to make a sequence of two or more
+ * method calls appear atomic from other threads perspective. In particular, synchronizing on {@code this} has
+ * no effect on other threads. If such atomicity is needed, use {@link WeakValueHashMap} instead.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ * @version 1.7
+ *
+ * @param <K>  the class of key elements.
+ * @param <V>  the class of value elements.
+ *
+ * @see WeakValueHashMap
+ * @see ConcurrentWeakHashSet
+ * @see Cache
+ *
+ * @since 1.7
+ */
+public class ConcurrentWeakValueHashMap<K,V> extends AbstractMap<K,V> {
+    /**
+     * The function to invoke for computing hash codes.
+     * Shall be the same function than the one used by the segments.
+     */
+    private final ToIntFunction<Object> hashFunction;
+
+    /**
+     * The segments where the entries are stored. The number of segments is a power of 2.
+     * Each segment is a {@link WeakValueHashMap} synchronized on itself.
+     */
+    private final WeakValueHashMap<K,V>[] segments;
+
+    /**
+     * The set of entries, created only when first needed.
+     */
+    private transient Set<Map.Entry<K,V>> entrySet;
+
+    /**
+     * Creates a new {@code ConcurrentWeakValueHashMap}.
+     * Keys are compared with {@link Object#equals(Object)}, or with {@link Arrays} methods if the keys are arrays.
+     *
+     * @param  keyType  the type of keys in the map.
+     */
+    public ConcurrentWeakValueHashMap(final Class<K> keyType) {
+        this(keyType, keyType.isArray() ? Utilities::deepHashCode : Object::hashCode,
+                      keyType.isArray() ? Objects::deepEquals      : Object::equals);
+    }
+
+    /**
+     * Creates a new {@code ConcurrentWeakValueHashMap} using the given functions for computing hash code
+     * and equality. See {@link WeakValueHashMap#WeakValueHashMap(Class, ToIntFunction, BiPredicate)}
+     * for a list of commonly used functions.
+     *
+     * @param keyType       the type of keys in the map.
+     * @param hashFunction  the function to invoke for computing hash codes.
+     * @param comparator    the function to invoke for comparing two objects.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})    // Generic array creation.
+    public ConcurrentWeakValueHashMap(final Class<K> keyType,
+            final ToIntFunction<Object> hashFunction,
+            final BiPredicate<Object, Object> comparator)
+    {
+        this.hashFunction = Objects.requireNonNull(hashFunction);
+        segments = new WeakValueHashMap[1 << SEGMENT_BITS];
+        for (int i=0; i<segments.length; i++) {
+            segments[i] = new WeakValueHashMap<>(keyType, hashFunction, comparator);
+        }
+    }
+
+    /**
+     * Returns the segment where the given key is stored or would be stored.
+     * If the given key is null, then this method returns an arbitrary segment
+     * which will apply the {@link WeakValueHashMap} policy about null keys.
+     *
+     * @param  key  the key for which to get the segment, or {@code null}.
+     * @return the segment for the given key.
+     */
+    private WeakValueHashMap<K,V> segment(final Object key) {
+        return segments[(key != null) ? segmentIndex(hashFunction.applyAsInt(key)) : 0];
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map. If this map is modified concurrently,
+     * then the returned value may not reflect the state of this map at any particular time.
+     *
+     * @return the number of entries in this map.
+     */
+    @Override
+    public int size() {
+        int count = 0;
+        for (final WeakValueHashMap<K,V> segment : segments) {
+            count += segment.size();
+        }
+        return count;
+    }
+
+    /**
+     * If this map contains the specified key, returns the instance contained in this map.
+     * Otherwise returns the given {@code key} instance.
+     *
+     * @param  key  key to look for in this map.
+     * @return the key instance in this map which is equal to the specified key, or {@code key} if none.
+     *
+     * @see WeakValueHashMap#intern(Object)
+     */
+    public K intern(final K key) {
+        return segment(key).intern(key);
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified key.
+     * Null keys are considered never present.
+     *
+     * @param  key  key whose presence in this map is to be tested.
+     * @return {@code true} if this map contains a mapping for the specified key.
+     */
+    @Override
+    public boolean containsKey(final Object key) {
+        return segment(key).containsKey(key);
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the specified value.
+     * Null values are considered never present.
+     *
+     * @param  value  value whose presence in this map is to be tested.
+     * @return {@code true} if this map maps one or more keys to the specified value.
+     */
+    @Override
+    public boolean containsValue(final Object value) {
+        for (final WeakValueHashMap<K,V> segment : segments) {
+            if (segment.containsValue(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value to which this map maps the specified key.
+     * Returns {@code null} if the map contains no mapping for this key.
+     * Null keys are considered never present.
+     *
+     * @param  key  key whose associated value is to be returned.
+     * @return the value to which this map maps the specified key.
+     */
+    @Override
+    public V get(final Object key) {
+        return segment(key).get(key);
+    }
+
+    /**
+     * Returns the value to which this map maps the specified key.
+     * Returns {@code defaultValue} if the map contains no mapping for this key.
+     * Null keys are considered never present.
+     *
+     * @param  key  key whose associated value is to be returned.
+     * @param  defaultValue  the default mapping of the key.
+     * @return the value to which this map maps the specified key.
+     */
+    @Override
+    public V getOrDefault(final Object key, final V defaultValue) {
+        return segment(key).getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * The value is associated using a {@link java.lang.ref.WeakReference}.
+     *
+     * @param  key    key with which the specified value is to be associated.
+     * @param  value  value to be associated with the specified key.
+     * @return the previous value associated with specified key, or {@code null} if there was no mapping for the key.
+     * @throws NullPointerException if the key or the value is {@code null}.
+     */
+    @Override
+    public V put(final K key, final V value) {
+        return segment(key).put(key, value);
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map if no value were previously associated.
+     * If another value is already associated to the given key, then the map is left unchanged and the current
+     * value is returned.
+     *
+     * @param  key    key with which the specified value is to be associated.
+     * @param  value  value to be associated with the specified key.
+     * @return the current value associated with specified key, or {@code null} if there was no mapping for the key.
+     * @throws NullPointerException if the key or the value is {@code null}.
+     */
+    @Override
+    public V putIfAbsent(final K key, final V value) {
+        return segment(key).putIfAbsent(key, value);
+    }
+
+    /**
+     * Returns the value associated to the given key, computing the value if it does not exist.
+     * The value is computed without holding any lock, so the creator function may be invoked
+     * concurrently by many threads for the same key. In such case, only one of the computed
+     * values is retained and returned to all callers.
+     *
+     * @param  key      key of the value to get.
+     * @param  creator  function to invoke for creating the value if it does not already exist.
+     * @return value (potentially newly created) for the given key.
+     */
+    @Override
+    public V computeIfAbsent(final K key, final Function<? super K, ? extends V> creator) {
+        return segment(key).computeIfAbsent(key, creator);
+    }
+
+    /**
+     * Replaces the entry for the specified key only if it is currently mapped to some value.
+     *
+     * @param  key    key with which the specified value is to be associated.
+     * @param  value  value to be associated with the specified key.
+     * @return the previous value associated with specified key, or {@code null} if there was no mapping for the key.
+     * @throws NullPointerException if the value is {@code null}.
+     */
+    @Override
+    public V replace(final K key, final V value) {
+        return segment(key).replace(key, value);
+    }
+
+    /**
+     * Replaces the entry for the specified key only if currently mapped to the specified value.
+     *
+     * @param  key       key with which the specified value is to be associated.
+     * @param  oldValue  value expected to be associated with the specified key.
+     * @param  newValue  value to be associated with the specified key.
+     * @return {@code true} if the value was replaced.
+     * @throws NullPointerException if the new value is {@code null}.
+     */
+    @Override
+    public boolean replace(final K key, final V oldValue, final V newValue) {
+        return segment(key).replace(key, oldValue, newValue);
+    }
+
+    /**
+     * Removes the mapping for this key from this map if present.
+     *
+     * @param  key  key whose mapping is to be removed from the map.
+     * @return previous value associated with specified key, or {@code null} if there was no entry for the key.
+     */
+    @Override
+    public V remove(final Object key) {
+        return segment(key).remove(key);
+    }
+
+    /**
+     * Removes the entry for the specified key only if it is currently mapped to the specified value.
+     *
+     * @param  key    key whose mapping is to be removed from the map.
+     * @param  value  value expected to be associated with the specified key.
+     * @return {@code true} if the value was removed.
+     */
+    @Override
+    public boolean remove(final Object key, final Object value) {
+        return segment(key).remove(key, value);
+    }
+
+    /**
+     * Removes all of the elements from this map.
+     * This operation is not atomic if other threads are modifying this map concurrently.
+     */
+    @Override
+    public void clear() {
+        for (final WeakValueHashMap<K,V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Returns a set view of the mappings contained in this map.
+     * Each element in this set is a {@link java.util.Map.Entry}.
+     *
+     * @return a set view of the mappings contained in this map.
+     */
+    @Override
+    @SuppressWarnings("ReturnOfCollectionOrArrayField")
+    public Set<Map.Entry<K,V>> entrySet() {
+        Set<Map.Entry<K,V>> es = entrySet;
+        if (es == null) {
+            entrySet = es = new EntrySet();
+        }
+        return es;
+    }
+
+    /**
+     * The set of entries.
+     *
+     * @author  Martin Desruisseaux (Geomatys)
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<K,V>> {
+        /**
+         * Returns the number of entries in the map.
+         */
+        @Override
+        public int size() {
+            return ConcurrentWeakValueHashMap.this.size();
+        }
+
+        /**
+         * Returns a view of this set as an array. Note that this array contains strong references.
+         * Consequently, no object reclamation will occur as long as a reference to this array is hold.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K,V>[] toArray() {
+            final Map.Entry<K,V>[][] elements = new Map.Entry[segments.length][];
+            for (int i=0; i<elements.length; i++) {
+                elements[i] = (Map.Entry<K,V>[]) segments[i].entrySet().toArray();
+            }
+            return ArraysExt.concatenate(elements);
+        }
+
+        /**
+         * Returns an iterator over the elements contained in this collection. No element from
+         * this set will be garbage collected as long as a reference to the iterator is hold.
+         */
+        @Override
+        public Iterator<Map.Entry<K,V>> iterator() {
+            return Arrays.asList(toArray()).iterator();
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.util.logging.Logger;
 import java.util.logging.LogRecord;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Array;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.sis.util.Disposable;
 import org.apache.sis.util.resources.Messages;
 import org.apache.sis.system.ReferenceQueueConsumer;
@@ -68,6 +69,14 @@ abstract class WeakEntry<E> extends WeakReference<E> implements Disposable {
      */
     WeakEntry<E> next;
 
+    /**
+     * The next entry in the stack of entries collected by the garbage collector, or {@code null} if none.
+     * This is used for removing many entries in a single batch instead of acquiring a lock for each entry.
+     *
+     * @see #pushTo(AtomicReference)
+     */
+    WeakEntry<E> nextCollected;
+
     /**
      * The absolute value of the hash value of the referenced object.
      */
@@ -101,6 +110,23 @@ abstract class WeakEntry<E> extends WeakReference<E> implements Disposable {
         return n;
     }
 
+    /**
+     * Adds this entry on top of the given stack of entries collected by the garbage collector.
+     * This method does not need synchronization. The stack should be emptied later, in a single
+     * batch, by a thread holding the lock on the enclosing collection.
+     *
+     * @param  stack  the stack where to add this entry.
+     * @return whether the stack was empty before this method call.
+     */
+    final boolean pushTo(final AtomicReference<WeakEntry<E>> stack) {
+        WeakEntry<E> head;
+        do {
+            head = stack.get();
+            nextCollected = head;
+        } while (!stack.compareAndSet(head, this));
+        return head == null;
+    }
+
     /**
      * Removes this entry from the given table of entries.
      *
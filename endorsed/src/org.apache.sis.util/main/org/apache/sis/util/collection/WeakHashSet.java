@@ -20,11 +20,14 @@ import java.util.Arrays;
 import java.util.Objects;
 import java.util.Iterator;
 import java.util.AbstractSet;
+import java.util.concurrent.atomic.AtomicReference;
 import java.lang.reflect.Array;
 import org.apache.sis.util.Debug;
 import org.apache.sis.util.ArraysExt;
 import org.apache.sis.util.Utilities;
 import org.apache.sis.util.ConditionallySafe;
+import org.apache.sis.system.DelayedExecutor;
+import org.apache.sis.system.DelayedRunnable;
 import static org.apache.sis.util.collection.WeakEntry.*;
 
 
@@ -64,10 +67,12 @@ import static org.apache.sis.util.collection.WeakEntry.*;
  * <h2>Thread safety</h2>
  * The same {@code WeakHashSet} instance can be safely used by many threads without synchronization on the part of
  * the caller. But if a sequence of two or more method calls need to appear atomic from other threads perspective,
- * then the caller can synchronize on {@code this}.
+ * then the caller can synchronize on {@code this}. If the set is expected to be used in a highly concurrent
+ * environment and no atomicity is needed beyond the operations provided by this class,
+ * then {@link ConcurrentWeakHashSet} may scale better.
  *
  * @author  Martin Desruisseaux (MPO, IRD, Geomatys)
- * @version 0.3
+ * @version 1.7
  *
  * @param <E>  the type of elements in the set.
  *
@@ -91,11 +96,29 @@ public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E
         /**
          * Invoked by {@link org.apache.sis.system.ReferenceQueueConsumer}
          * for removing the reference from the enclosing collection.
+         * The removal is deferred for processing many entries in a single batch.
          */
         @Override
         public void dispose() {
             super.clear();
-            removeEntry(this);
+            if (pushTo(collected)) {
+                DelayedExecutor.schedule(new Purge());
+            }
+        }
+    }
+
+    /**
+     * Task executed in a background thread for removing the entries collected by the garbage collector.
+     * This task is scheduled when an entry is added in an empty {@link #collected} stack.
+     */
+    private final class Purge extends DelayedRunnable.Immediate {
+        /**
+         * Removes all entries that are in the {@link #collected} stack.
+         */
+        @Override public void run() {
+            synchronized (WeakHashSet.this) {
+                removeCollected();
+            }
         }
     }
 
@@ -110,6 +133,13 @@ public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E
      */
     private int count;
 
+    /**
+     * Top of the stack of entries collected by the garbage collector but not yet removed from the {@link #table}.
+     * Entries are added in this stack without synchronization, then removed from the table in a single batch
+     * by the next thread holding the lock on this set.
+     */
+    private final AtomicReference<WeakEntry<E>> collected = new AtomicReference<>();
+
     /**
      * The type of the elements in this set.
      */
@@ -162,12 +192,26 @@ public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E
     }
 
     /**
-     * Invoked by {@link Entry} when an element has been collected by the garbage
-     * collector. This method removes the weak reference from the {@link #table}.
+     * Removes from the {@link #table} all entries that have been collected by the garbage collector.
+     * The caller shall hold the lock on this set.
+     */
+    private void removeCollected() {
+        WeakEntry<E> e = collected.getAndSet(null);
+        while (e != null) {
+            removeEntry(e);
+            final WeakEntry<E> next = e.nextCollected;
+            e.nextCollected = null;
+            e = next;
+        }
+    }
+
+    /**
+     * Removes the given entry from the {@link #table}. If the entry is not found,
+     * then this method does nothing. The caller shall hold the lock on this set.
      *
-     * @param  toRemove  the entry to remove from this map.
+     * @param  toRemove  the entry to remove from this set.
      */
-    private synchronized void removeEntry(final Entry toRemove) {
+    private void removeEntry(final WeakEntry<E> toRemove) {
         assert isValid();
         final int capacity = table.length;
         if (toRemove.removeFrom(table, toRemove.hash % capacity)) {
@@ -208,6 +252,7 @@ public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E
      */
     @Override
     public synchronized int size() {
+        removeCollected();
         assert isValid();
         return count;
     }
@@ -326,6 +371,7 @@ public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E
      * on the given object (this is implied by the {@link #unique(Object)} method contract).
      */
     private E intern(final Object obj, final int operation) {
+        removeCollected();
         assert isValid();
         if (obj != null) {
             /*
@@ -340,7 +386,8 @@ public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E
                 final E candidate = e.get();
                 if (mayContainArrays ? Objects.deepEquals(candidate, obj) : obj.equals(candidate)) {
                     if (operation == REMOVE) {
-                        e.dispose();
+                        e.clear();
+                        removeEntry(e);
                     }
                     return candidate;
                 }
@@ -374,6 +421,7 @@ public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E
      */
     @Override
     public synchronized void clear() {
+        collected.set(null);
         Arrays.fill(table, null);
         count = 0;
     }
@@ -387,6 +435,7 @@ public class WeakHashSet<E> extends AbstractSet<E> implements CheckedContainer<E
      */
     @Override
     public synchronized E[] toArray() {
+        removeCollected();
         assert isValid();
         @SuppressWarnings("unchecked")
         final E[] elements = (E[]) Array.newInstance(elementType, count);
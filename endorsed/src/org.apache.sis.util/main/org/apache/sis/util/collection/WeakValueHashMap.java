@@ -23,6 +23,7 @@ import java.util.AbstractSet;
 import java.util.Iterator;
 import java.util.Objects;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.ToIntFunction;
 import java.util.function.BiPredicate;
@@ -31,6 +32,8 @@ import org.apache.sis.util.Debug;
 import org.apache.sis.util.ArraysExt;
 import org.apache.sis.util.Utilities;
 import org.apache.sis.util.resources.Errors;
+import org.apache.sis.system.DelayedExecutor;
+import org.apache.sis.system.DelayedRunnable;
 import static org.apache.sis.util.collection.WeakEntry.*;
 
 
@@ -70,16 +73,19 @@ import static org.apache.sis.util.collection.WeakEntry.*;
  * <h2>Thread safety</h2>
  * The same {@code WeakValueHashMap} instance can be safely used by many threads without synchronization on the part
  * of the caller. But if a sequence of two or more method calls need to appear atomic from other threads perspective,
- * then the caller can synchronize on {@code this}.
+ * then the caller can synchronize on {@code this}. If the map is expected to be used in a highly concurrent
+ * environment and no atomicity is needed beyond the operations provided by this class,
+ * then {@link ConcurrentWeakValueHashMap} may scale better.
  *
  * @author  Martin Desruisseaux (IRD, Geomatys)
- * @version 1.5
+ * @version 1.7
  *
  * @param <K>  the class of key elements.
  * @param <V>  the class of value elements.
  *
  * @see java.util.WeakHashMap
  * @see WeakHashSet
+ * @see ConcurrentWeakValueHashMap
  * @see Cache
  *
  * @since 0.3
@@ -150,19 +156,25 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
             if (value != null) {
                 throw new UnsupportedOperationException();
             }
-            final V old = get();
-            dispose();
-            return old;
+            synchronized (WeakValueHashMap.this) {
+                final V old = get();
+                super.clear();
+                removeEntry(this);
+                return old;
+            }
         }
 
         /**
          * Invoked by {@link org.apache.sis.system.ReferenceQueueConsumer}
          * for removing the reference from the enclosing collection.
+         * The removal is deferred for processing many entries in a single batch.
          */
         @Override
         public void dispose() {
             super.clear();
-            removeEntry(this);
+            if (pushTo(collected)) {
+                DelayedExecutor.schedule(new Purge());
+            }
         }
 
         /**
@@ -192,6 +204,21 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
         }
     }
 
+    /**
+     * Task executed in a background thread for removing the entries collected by the garbage collector.
+     * This task is scheduled when an entry is added in an empty {@link #collected} stack.
+     */
+    private final class Purge extends DelayedRunnable.Immediate {
+        /**
+         * Removes all entries that are in the {@link #collected} stack.
+         */
+        @Override public void run() {
+            synchronized (WeakValueHashMap.this) {
+                removeCollected();
+            }
+        }
+    }
+
     /**
      * Table of weak references.
      */
@@ -203,6 +230,13 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
      */
     private int count;
 
+    /**
+     * Top of the stack of entries collected by the garbage collector but not yet removed from the {@link #table}.
+     * Entries are added in this stack without synchronization, then removed from the table in a single batch
+     * by the next thread holding the lock on this map.
+     */
+    private final AtomicReference<WeakEntry<V>> collected = new AtomicReference<>();
+
     /**
      * The type of the keys in this map.
      */
@@ -309,13 +343,27 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
     }
 
     /**
-     * Invoked by {@link Entry} when an element has been collected by the garbage
-     * collector. This method removes the weak reference from the {@link #table}.
+     * Removes from the {@link #table} all entries that have been collected by the garbage collector.
+     * The caller shall hold the lock on this map.
+     */
+    private void removeCollected() {
+        WeakEntry<V> e = collected.getAndSet(null);
+        while (e != null) {
+            removeEntry(e);
+            final WeakEntry<V> next = e.nextCollected;
+            e.nextCollected = null;
+            e = next;
+        }
+    }
+
+    /**
+     * Removes the given entry from the {@link #table}. If the entry is not found,
+     * then this method does nothing. The caller shall hold the lock on this map.
      *
      * @param  toRemove  the entry to remove from this map.
      */
     @SuppressWarnings("unchecked")
-    private synchronized void removeEntry(final Entry toRemove) {
+    private void removeEntry(final WeakEntry<V> toRemove) {
         assert isValid();
         final int capacity = table.length;
         if (toRemove.removeFrom(table, toRemove.hash % capacity)) {
@@ -356,6 +404,7 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
      */
     @Override
     public synchronized int size() {
+        removeCollected();
         assert isValid();
         return count;
     }
@@ -371,6 +420,7 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
      */
     @SuppressWarnings("unchecked")
     private synchronized <R> R get(final Object key, final Function<Entry,R> getter, final R defaultValue) {
+        removeCollected();
         assert isValid();
         if (key != null) {
             @SuppressWarnings("LocalVariableHidesMemberVariable")
@@ -492,6 +542,7 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
      */
     @SuppressWarnings("unchecked")
     private synchronized V intern(final Object key, final V value, final Object condition) {
+        removeCollected();
         assert isValid();
         /*
          * If `value` is already contained in this WeakValueHashMap, we need to clear it.
@@ -507,7 +558,8 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
                 if (condition != null && !condition.equals(oldValue)) {
                     return oldValue;
                 }
-                e.dispose();
+                e.clear();
+                removeEntry(e);
                 table = this.table;             // May have changed.
                 index = hash % table.length;
             }
@@ -684,6 +736,7 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
      */
     @Override
     public synchronized void clear() {
+        collected.set(null);
         Arrays.fill(table, null);
         count = 0;
     }
@@ -725,6 +778,7 @@ public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
         @SuppressWarnings("unchecked")
         public Map.Entry<K,V>[] toArray() {
             synchronized (WeakValueHashMap.this) {
+                removeCollected();
                 assert isValid();
                 @SuppressWarnings({"unchecked","rawtypes"})
                 final Map.Entry<K,V>[] elements = new Map.Entry[size()];
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.math;
+
+import java.util.Random;
+
+// Test dependencies
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.apache.sis.test.TestCase;
+import static org.apache.sis.test.Assertions.assertSerializedEquals;
+
+
+/**
+ * Tests the {@link Histogram} class.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+public final class HistogramTest extends TestCase {
+    /**
+     * Creates a new test case.
+     */
+    public HistogramTest() {
+    }
+
+    /**
+     * Tests the initial state of newly constructed instance.
+     */
+    @Test
+    public void testInitialState() {
+        final var histogram = new Histogram(16);
+        assertEquals(0, histogram.count());
+        assertTrue(Double.isNaN(histogram.minimum()));
+        assertTrue(Double.isNaN(histogram.maximum()));
+        assertTrue(Double.isNaN(histogram.quantile(0.5)));
+        assertEquals(0, histogram.binWidth());
+    }
+
+    /**
+     * Tests a histogram of integer values in a range smaller than the number of bins.
+     * Each integer value shall be counted in its own bin.
+     */
+    @Test
+    public void testIntegers() {
+        final var histogram = new Histogram(16);
+        for (int i=0; i<10; i++) {
+            for (int j=0; j<=i; j++) {
+                histogram.accept(i);
+            }
+        }
+        histogram.accept(Double.NaN);                       // Shall be ignored.
+        histogram.accept(Double.POSITIVE_INFINITY);
+        assertEquals(55, histogram.count());
+        assertEquals( 0, histogram.minimum());
+        assertEquals( 9, histogram.maximum());
+        assertTrue(histogram.binWidth() <= 1);
+        final long[] frequencies = histogram.frequencies();
+        long sum = 0;
+        for (final long n : frequencies) sum += n;
+        assertEquals(55, sum);
+        for (int i=0; i<10; i++) {
+            final int bin = (int) Math.floor((i - histogram.lowerBound()) / histogram.binWidth());
+            assertEquals(i + 1, frequencies[bin]);
+        }
+        assertEquals(0, histogram.quantile(0));
+        assertEquals(9, histogram.quantile(1));
+    }
+
+    /**
+     * Tests the quantiles of a uniform distribution over a range larger than the number of bins.
+     */
+    @Test
+    public void testQuantiles() {
+        final var histogram = new Histogram(256);
+        for (int i=0; i<=10000; i++) {
+            histogram.accept(i);
+        }
+        final double tolerance = histogram.binWidth();
+        assertTrue(tolerance <= 2 * 10000.0 / 256);
+        assertEquals(5000, histogram.quantile(0.50), tolerance);
+        assertEquals( 200, histogram.quantile(0.02), tolerance);
+        assertEquals(9800, histogram.quantile(0.98), tolerance);
+    }
+
+    /**
+     * Tests a histogram with values covering almost the full range of {@code double} values.
+     * This happen for example when {@code -Double.MAX_VALUE} is used as a "no data" value.
+     * The bin width and lower bound shall stay finite.
+     */
+    @Test
+    public void testExtremeValues() {
+        final var histogram = new Histogram(256);
+        histogram.accept(100);
+        histogram.accept(200);
+        histogram.accept(-Double.MAX_VALUE);
+        assertEquals(3, histogram.count());
+        assertTrue(Double.isFinite(histogram.binWidth()));
+        assertTrue(Double.isFinite(histogram.lowerBound()));
+        assertEquals(-Double.MAX_VALUE, histogram.quantile(0));
+        assertEquals(200, histogram.quantile(1));
+        histogram.accept(Double.MAX_VALUE);
+        assertEquals(4, histogram.count());
+        assertTrue(Double.isFinite(histogram.binWidth()));
+        assertEquals(Double.MAX_VALUE, histogram.quantile(1));
+        long sum = 0;
+        for (final long n : histogram.frequencies()) sum += n;
+        assertEquals(4, sum);
+        /*
+         * Single bin, which requires the largest width even for small values.
+         */
+        final var single = new Histogram(1);
+        single.accept(-1);
+        single.accept(+1);
+        single.accept(-Double.MAX_VALUE);
+        assertEquals(3, single.count());
+        assertTrue(Double.isFinite(single.binWidth()));
+    }
+
+    /**
+     * Tests the combination of histograms computed on different subsets of the values.
+     * The result shall be the same as a histogram computed on all values at once,
+     * provided that the bin width is the same.
+     */
+    @Test
+    public void testCombine() {
+        final var random = new Random(8914365129781235647L);
+        final var all    = new Histogram(64);
+        final var first  = new Histogram(64);
+        final var second = new Histogram(64);
+        for (int i=0; i<1000; i++) {
+            final double value = random.nextGaussian() * 100;
+            all.accept(value);
+            ((i & 1) == 0 ? first : second).accept(value);
+        }
+        second.accept(-1000);       // Force a coarser bin width in the second histogram.
+        all.accept(-1000);
+        first.combine(second);
+        assertEquals(all.count(),    first.count());
+        assertEquals(all.minimum(),  first.minimum());
+        assertEquals(all.maximum(),  first.maximum());
+        assertEquals(all.binWidth(), first.binWidth());
+        assertArrayEquals(all.frequencies(), first.frequencies());
+        assertEquals(all, first);
+        /*
+         * Combination with empty histograms or histograms with a single value.
+         */
+        final var empty = new Histogram(64);
+        empty.combine(first);
+        assertEquals(first, empty);
+        final var single = new Histogram(64);
+        single.accept(3);
+        single.combine(new Histogram(8));
+        assertEquals(3, single.quantile(0.5));
+    }
+
+    /**
+     * Tests serialization.
+     */
+    @Test
+    public void testSerialization() {
+        final var histogram = new Histogram(32);
+        for (int i=0; i<100; i++) {
+            histogram.accept(i * 1.5);
+        }
+        assertNotSame(histogram, assertSerializedEquals(histogram));
+    }
+}
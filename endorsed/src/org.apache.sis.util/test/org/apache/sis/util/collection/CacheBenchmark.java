@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.util.collection;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import org.apache.sis.math.Statistics;
+import org.apache.sis.util.internal.shared.Constants;
+
+// Test dependencies
+import org.apache.sis.test.Benchmark;
+
+
+/**
+ * Measures the scalability of {@link Cache} when accessed concurrently by an increasing number of threads.
+ * Each thread invokes {@link Cache#computeIfAbsent computeIfAbsent(…)} with random keys. The key space is
+ * larger than the cost limit, so the benchmark exercises both the cache hits (with values retained by strong
+ * or weak references) and the cache misses (with eviction of oldest strong references).
+ *
+ * <h2>Usage</h2>
+ * Run the {@code main} method. The throughput (in millions of operations per second) is printed for each
+ * number of threads. On a scalable implementation, the throughput should increase with the number of threads
+ * up to the number of cores.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+@Benchmark
+public final class CacheBenchmark {
+    /**
+     * Number of distinct keys. Should be greater than {@link #COST_LIMIT}.
+     */
+    private static final int NUM_KEYS = 20000;
+
+    /**
+     * Maximal number of values to keep by strong references.
+     */
+    private static final int COST_LIMIT = 5000;
+
+    /**
+     * Number of {@code computeIfAbsent(…)} calls per thread and per run.
+     */
+    private static final int NUM_OPERATIONS = 2000000;
+
+    /**
+     * Runs the benchmark and prints the results to the standard output.
+     *
+     * @param  args  ignored.
+     * @throws InterruptedException if a thread has been interrupted.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        final int maxThreads = Runtime.getRuntime().availableProcessors();
+        System.out.println("Threads   Mops/s   (standard deviation)");
+        for (int numThreads = 1; numThreads <= maxThreads; numThreads *= 2) {
+            final var throughput = new Statistics("throughput");
+            for (int i=0; i<6; i++) {
+                final double t = run(numThreads);
+                if (i != 0) throughput.accept(t);       // First run is for warmup.
+            }
+            System.out.printf("%7d  %7.2f   (%.2f)%n", numThreads, throughput.mean(), throughput.standardDeviation(false));
+        }
+    }
+
+    /**
+     * Runs the benchmark once with the given number of threads.
+     *
+     * @param  numThreads  number of threads accessing the cache concurrently.
+     * @return throughput in millions of operations per second.
+     * @throws InterruptedException if a thread has been interrupted.
+     */
+    private static double run(final int numThreads) throws InterruptedException {
+        final var cache = new Cache<Integer,Integer>(NUM_KEYS, COST_LIMIT, false);
+        final var start = new CountDownLatch(1);
+        final var threads = new Thread[numThreads];
+        for (int i=0; i<numThreads; i++) {
+            final long seed = i;
+            threads[i] = new Thread(() -> {
+                /*
+                 * Use a skewed distribution of keys (most accesses on a few keys),
+                 * which is typical of CRS and tile requests.
+                 */
+                final var random = new Random(seed);
+                final var keys = new Integer[4096];
+                for (int k=0; k<keys.length; k++) {
+                    keys[k] = (int) Math.abs(random.nextGaussian() * (NUM_KEYS / 8)) % NUM_KEYS;
+                }
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int n=0; n<NUM_OPERATIONS; n++) {
+                    cache.computeIfAbsent(keys[n & (keys.length - 1)], (k) -> -k);
+                }
+            });
+            threads[i].start();
+        }
+        final long time = System.nanoTime();
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        final double seconds = (System.nanoTime() - time) / (double) Constants.NANOS_PER_SECOND;
+        return numThreads * (NUM_OPERATIONS / 1E6) / seconds;
+    }
+}
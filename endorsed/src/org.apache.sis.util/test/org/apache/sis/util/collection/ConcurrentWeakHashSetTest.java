@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.util.collection;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+// Test dependencies
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.apache.sis.test.Assertions.assertSetEquals;
+
+
+/**
+ * Tests the {@link ConcurrentWeakHashSet}.
+ * A standard {@link HashSet} object is used for comparison purpose.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+@SuppressWarnings("exports")
+public final class ConcurrentWeakHashSetTest extends TestCaseWithGC {
+    /**
+     * The size of the test sets to be created.
+     */
+    private static final int SAMPLE_SIZE = 500;
+
+    /**
+     * Creates a new test case.
+     */
+    public ConcurrentWeakHashSetTest() {
+    }
+
+    /**
+     * Tests the {@link ConcurrentWeakHashSet} using strong references.
+     * The tested set shall behave like a standard {@link HashSet}, except for element order.
+     */
+    @Test
+    public void testStrongReferences() {
+        final var random = new Random();
+        final var weakSet = new ConcurrentWeakHashSet<IntObject>(IntObject.class);
+        final var strongSet = new HashSet<IntObject>();
+        for (int i=0; i<SAMPLE_SIZE; i++) {
+            final var value = new IntObject(random.nextInt(SAMPLE_SIZE));
+            if (random.nextBoolean()) {
+                final boolean strongModified = strongSet.add(value);
+                assertEquals(strongModified, weakSet.add(value), "add:");
+                if (strongModified) {
+                    assertSame(value, weakSet.get(value), "get:");
+                } else {
+                    assertEquals(value, weakSet.get(value), "get:");
+                }
+            } else {
+                assertEquals(strongSet.remove(value), weakSet.remove(value), "remove:");
+                assertNull(weakSet.get(value), "get:");
+            }
+            assertEquals(strongSet.contains(value), weakSet.contains(value), "contains:");
+            assertEquals(strongSet.size(), weakSet.size(), "size:");
+        }
+        assertSetEquals(strongSet, weakSet);
+        assertNull (weakSet.get(null));
+        assertNull (weakSet.unique(null));
+        assertFalse(weakSet.contains(null));
+        assertThrows(NullPointerException.class, () -> weakSet.add(null));
+    }
+
+    /**
+     * Tests the {@link ConcurrentWeakHashSet} using weak references.
+     *
+     * @throws InterruptedException if the test has been interrupted.
+     */
+    @Test
+    public void testWeakReferences() throws InterruptedException {
+        final var weakSet = new ConcurrentWeakHashSet<IntObject>(IntObject.class);
+        final var strongSet = new HashSet<IntObject>();
+        for (int i=0; i<SAMPLE_SIZE; i++) {
+            final var value = new IntObject(i);
+            assertTrue(weakSet.add(value));
+            if ((i & 1) == 0) {
+                strongSet.add(value);
+            }
+        }
+        if (GC_DEPENDENT_TESTS_ENABLED) {
+            assertTrue(waitForGarbageCollection(() -> weakSet.size() == strongSet.size()), "Expected half of elements.");
+            assertSetEquals(strongSet, weakSet);
+            strongSet.clear();
+            assertTrue(waitForGarbageCollection(weakSet::isEmpty), "Expected an empty set.");
+        }
+    }
+
+    /**
+     * Tests {@link ConcurrentWeakHashSet#unique(Object)} invoked concurrently by many threads.
+     * All threads shall get the same instances.
+     *
+     * @throws InterruptedException if the test has been interrupted.
+     */
+    @Test
+    public void testConcurrentUnique() throws InterruptedException {
+        final var weakSet = new ConcurrentWeakHashSet<IntObject>(IntObject.class);
+        final var results = new IntObject[4][SAMPLE_SIZE];
+        final var start   = new CountDownLatch(1);
+        final var threads = new Thread[results.length];
+        for (int t=0; t<threads.length; t++) {
+            final IntObject[] instances = results[t];
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i=0; i<instances.length; i++) {
+                    instances[i] = weakSet.unique(new IntObject(i));
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(SAMPLE_SIZE, weakSet.size());
+        for (int i=0; i<SAMPLE_SIZE; i++) {
+            final IntObject expected = results[0][i];
+            assertEquals(i, expected.value);
+            for (int t=1; t<results.length; t++) {
+                assertSame(expected, results[t][i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.sis.util.collection;
+
+// Test dependencies
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests the {@link ConcurrentWeakValueHashMap}.
+ * This class reuses the tests defined in {@link WeakValueHashMapTest}.
+ *
+ * @author  Martin Desruisseaux (Geomatys)
+ */
+@SuppressWarnings("exports")
+public final class ConcurrentWeakValueHashMapTest extends TestCaseWithGC {
+    /**
+     * Creates a new test case.
+     */
+    public ConcurrentWeakValueHashMapTest() {
+    }
+
+    /**
+     * Tests {@link ConcurrentWeakValueHashMap} using strong references.
+     * The tested map shall behave like a standard {@link java.util.HashMap},
+     * except for element order.
+     *
+     * @see WeakValueHashMapTest#testStrongReferences()
+     */
+    @Test
+    public void testStrongReferences() {
+        WeakValueHashMapTest.testStrongReferences(new ConcurrentWeakValueHashMap<>(Integer.class));
+    }
+
+    /**
+     * Tests {@link ConcurrentWeakValueHashMap} using weak references. In this test, we
+     * have to keep in mind than some elements in {@code weakMap} may disappear at any time.
+     *
+     * @throws InterruptedException if the test has been interrupted.
+     *
+     * @see WeakValueHashMapTest#testWeakReferences()
+     */
+    @Test
+    public void testWeakReferences() throws InterruptedException {
+        WeakValueHashMapTest.testWeakReferences(new ConcurrentWeakValueHashMap<>(Integer.class));
+    }
+
+    /**
+     * Tests with array keys.
+     */
+    @Test
+    public void testWithArrayKeys() {
+        final var weakMap = new ConcurrentWeakValueHashMap<int[],IntObject>(int[].class);
+        final int[] k1 = new int[] {2, 5, 3};
+        final int[] k2 = new int[] {2, 5, 4};
+        final var v1 = new IntObject(1);
+        final var v2 = new IntObject(2);
+        assertNull (weakMap.put(k1, v1));
+        assertSame (v1, weakMap.put(k1, v1));
+        assertSame (v1, weakMap.putIfAbsent(k1.clone(), v2));
+        assertNull (weakMap.put(k2, v2));
+        assertSame (v2, weakMap.get(k2.clone()));
+        assertSame (k1, weakMap.intern(k1.clone()));
+        assertEquals(2, weakMap.entrySet().toArray().length);
+    }
+}
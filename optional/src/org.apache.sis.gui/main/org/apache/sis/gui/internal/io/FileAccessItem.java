@@ -447,6 +447,25 @@ final class FileAccessItem implements Runnable, EventHandler<ActionEvent> {
             }
         }
 
+        /**
+         * Forwards to the wrapped channel if it supports this operation, and reports the ranges of bytes read.
+         */
+        @Override
+        public boolean readRanges(final long[] offsets, final long[] lengths, final int maxGap,
+                                  final RangeConsumer consumer) throws IOException
+        {
+            if (channel instanceof ByteRangeChannel c) {
+                if (consumer == null) {
+                    return c.readRanges(offsets, lengths, maxGap, null);    // Ranges will be reported when read.
+                }
+                return c.readRanges(offsets, lengths, maxGap, (i, data) -> {
+                    addRangeLater(offsets[i], data.remaining(), Mode.READ);
+                    consumer.accept(i, data);
+                });
+            }
+            return false;
+        }
+
         /**
          * Forwards to the wrapped channel and report the range of bytes read.
          */